@@ -7,12 +7,12 @@ import br.com.verticelabs.pdfprocessor.domain.repository.TenantRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.UserRepository;
 import br.com.verticelabs.pdfprocessor.infrastructure.email.EmailService;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.JwtService;
+import br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService;
 import br.com.verticelabs.pdfprocessor.interfaces.auth.dto.AuthResponse;
 import br.com.verticelabs.pdfprocessor.interfaces.auth.dto.LoginRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -30,7 +30,7 @@ public class LoginUseCase {
     
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final EmailService emailService;
     
@@ -41,7 +41,8 @@ public class LoginUseCase {
         log.info("🔐 Tentativa de login para email: {}", request.getEmail());
         return userRepository.findByEmail(request.getEmail())
                 .doOnNext(user -> log.debug("👤 Usuário encontrado: {} (tenantId: {})", user.getEmail(), user.getTenantId()))
-                .filter(user -> passwordEncoder.matches(request.getPassword(), user.getSenhaHash()))
+                // Argon2 no pool dedicado (fora do event loop); saturado → 429
+                .filterWhen(user -> passwordHashingService.matches(request.getPassword(), user.getSenhaHash()))
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("❌ Credenciais inválidas para email: {}", request.getEmail());
                     return Mono.error(new InvalidCredentialsException("Credenciais inválidas"));
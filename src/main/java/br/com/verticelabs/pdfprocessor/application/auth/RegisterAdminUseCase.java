@@ -5,8 +5,8 @@ import br.com.verticelabs.pdfprocessor.domain.model.Tenant;
 import br.com.verticelabs.pdfprocessor.domain.model.User;
 import br.com.verticelabs.pdfprocessor.domain.repository.TenantRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.UserRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -23,7 +23,7 @@ public class RegisterAdminUseCase {
     
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     
     public Mono<User> execute(String tenantId, String nome, String email, String senha) {
         return tenantRepository.findById(tenantId)
@@ -36,18 +36,20 @@ public class RegisterAdminUseCase {
                                 return Mono.error(new RuntimeException("Email já está em uso"));
                             }
                             
-                            User admin = User.builder()
-                                    .id(UUID.randomUUID().toString())
-                                    .tenantId(tenantId)
-                                    .nome(nome)
-                                    .email(email)
-                                    .senhaHash(passwordEncoder.encode(senha))
-                                    .roles(Set.of("TENANT_ADMIN"))
-                                    .ativo(true)
-                                    .createdAt(Instant.now())
-                                    .build();
+                            return passwordHashingService.encode(senha).flatMap(senhaHash -> {
+                                User admin = User.builder()
+                                        .id(UUID.randomUUID().toString())
+                                        .tenantId(tenantId)
+                                        .nome(nome)
+                                        .email(email)
+                                        .senhaHash(senhaHash)
+                                        .roles(Set.of("TENANT_ADMIN"))
+                                        .ativo(true)
+                                        .createdAt(Instant.now())
+                                        .build();
                             
-                            return userRepository.save(admin);
+                                return userRepository.save(admin);
+                            });
                         }));
     }
 }
@@ -2,9 +2,9 @@ package br.com.verticelabs.pdfprocessor.application.auth;
 
 import br.com.verticelabs.pdfprocessor.domain.model.User;
 import br.com.verticelabs.pdfprocessor.domain.repository.UserRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService;
 import br.com.verticelabs.pdfprocessor.infrastructure.tenant.ReactiveTenantContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -20,7 +20,7 @@ import java.util.UUID;
 public class RegisterUserUseCase {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     
     public Mono<User> execute(String nome, String email, String senha, Set<String> roles) {
         return ReactiveTenantContext.getTenantId()
@@ -30,18 +30,20 @@ public class RegisterUserUseCase {
                                 return Mono.error(new RuntimeException("Email já está em uso"));
                             }
                             
-                            User user = User.builder()
-                                    .id(UUID.randomUUID().toString())
-                                    .tenantId(tenantId)
-                                    .nome(nome)
-                                    .email(email)
-                                    .senhaHash(passwordEncoder.encode(senha))
-                                    .roles(roles != null && !roles.isEmpty() ? roles : Set.of("TENANT_USER"))
-                                    .ativo(true)
-                                    .createdAt(Instant.now())
-                                    .build();
+                            return passwordHashingService.encode(senha).flatMap(senhaHash -> {
+                                User user = User.builder()
+                                        .id(UUID.randomUUID().toString())
+                                        .tenantId(tenantId)
+                                        .nome(nome)
+                                        .email(email)
+                                        .senhaHash(senhaHash)
+                                        .roles(roles != null && !roles.isEmpty() ? roles : Set.of("TENANT_USER"))
+                                        .ativo(true)
+                                        .createdAt(Instant.now())
+                                        .build();
                             
-                            return userRepository.save(user);
+                                return userRepository.save(user);
+                            });
                         }));
     }
 }
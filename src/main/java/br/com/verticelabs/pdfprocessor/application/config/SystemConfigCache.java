@@ -0,0 +1,145 @@
+package br.com.verticelabs.pdfprocessor.application.config;
+
+import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
+import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.util.SingleFlightLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache em memória das configurações globais ({@code tenantId = null}) da coleção
+ * {@code system_config}.
+ *
+ * Serve leituras em tempo constante e sem bloqueio para flags consultadas no caminho quente
+ * (ex.: {@code ai.enabled}, verificado a cada página processada). O snapshot é:
+ * <ul>
+ *   <li>carregado no startup, antes dos workers de processamento;</li>
+ *   <li>atualizado imediatamente pelas gravações feitas via {@link #save(SystemConfig)};</li>
+ *   <li>recarregado pelo change stream da coleção (alterações de outras instâncias);</li>
+ *   <li>recarregado em background após o TTL, servindo o snapshot anterior enquanto isso.</li>
+ * </ul>
+ * Os objetos devolvidos são cópias: alterá-los não afeta o cache até serem salvos.
+ */
+@Slf4j
+@Component
+public class SystemConfigCache {
+
+    private final SystemConfigRepository configRepository;
+    private final Duration ttl;
+
+    private final SingleFlightLoader<Snapshot> snapshot = new SingleFlightLoader<>(this::load);
+
+    public SystemConfigCache(SystemConfigRepository configRepository,
+                             @Value("${app.system-config.cache.ttl:PT5M}") Duration ttl) {
+        this.configRepository = configRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Configuração global pela chave, sem acesso ao banco. Enquanto o cache ainda não foi
+     * carregado retorna vazio e dispara a carga em background.
+     */
+    public Optional<SystemConfig> get(String key) {
+        Snapshot atual = snapshot.current();
+        if (atual == null || atual.isExpired(ttl)) {
+            reloadInBackground();
+        }
+        return atual == null
+                ? Optional.empty()
+                : Optional.ofNullable(atual.globais().get(key)).map(SystemConfigCache::copy);
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return get(key)
+                .map(SystemConfig::getValue)
+                .map(Boolean::parseBoolean)
+                .orElse(defaultValue);
+    }
+
+    /**
+     * Versão reativa de {@link #get(String)}: aguarda a primeira carga se o cache estiver vazio.
+     */
+    public Mono<SystemConfig> find(String key) {
+        return Mono.defer(() -> {
+            Snapshot atual = snapshot.current();
+            Mono<Snapshot> fonte = atual != null ? Mono.just(atual) : snapshot.loadShared();
+            if (atual != null && atual.isExpired(ttl)) {
+                reloadInBackground();
+            }
+            return fonte.flatMap(s -> Mono.justOrEmpty(s.globais().get(key)).map(SystemConfigCache::copy));
+        });
+    }
+
+    /**
+     * Grava a configuração e atualiza o cache com o valor salvo.
+     */
+    public Mono<SystemConfig> save(SystemConfig config) {
+        return configRepository.save(config)
+                .doOnNext(saved -> {
+                    if (saved.getTenantId() == null && saved.getKey() != null) {
+                        SystemConfig copia = copy(saved);
+                        snapshot.update(atual -> atual.with(copia));
+                        log.debug("Configuração '{}' atualizada no cache", saved.getKey());
+                    }
+                });
+    }
+
+    /**
+     * Recarrega todas as configurações globais do banco.
+     * Qualquer carga iniciada antes desta chamada é ignorada ao terminar.
+     */
+    public Mono<Void> refresh() {
+        return snapshot.refresh().then();
+    }
+
+    private void reloadInBackground() {
+        snapshot.loadShared().subscribe(
+                s -> log.debug("Cache de configurações recarregado: {} chave(s)", s.globais().size()),
+                e -> log.warn("Falha ao recarregar configurações do sistema; mantendo snapshot anterior: {}",
+                        e.getMessage()));
+    }
+
+    private Mono<Snapshot> load() {
+        return configRepository.findAll()
+                .filter(config -> config.getTenantId() == null && config.getKey() != null)
+                .collectList()
+                .map(Snapshot::of)
+                .doOnNext(s -> log.info("⚙️ Configurações do sistema carregadas: {} chave(s) global(is)",
+                        s.globais().size()));
+    }
+
+    private static SystemConfig copy(SystemConfig config) {
+        return new SystemConfig(config.getId(), config.getKey(), config.getValue(), config.getDescription(),
+                config.getTenantId(), config.getCreatedAt(), config.getUpdatedAt(), config.getUpdatedBy());
+    }
+
+    record Snapshot(Map<String, SystemConfig> globais, Instant loadedAt) {
+
+        static Snapshot of(List<SystemConfig> configs) {
+            Map<String, SystemConfig> porChave = new HashMap<>();
+            for (SystemConfig config : configs) {
+                porChave.put(config.getKey(), copy(config));
+            }
+            return new Snapshot(Map.copyOf(porChave), Instant.now());
+        }
+
+        Snapshot with(SystemConfig config) {
+            Map<String, SystemConfig> porChave = new HashMap<>(globais);
+            porChave.put(config.getKey(), config);
+            return new Snapshot(Map.copyOf(porChave), loadedAt);
+        }
+
+        boolean isExpired(Duration ttl) {
+            return loadedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
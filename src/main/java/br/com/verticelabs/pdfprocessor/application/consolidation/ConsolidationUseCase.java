@@ -1,21 +1,18 @@
 package br.com.verticelabs.pdfprocessor.application.consolidation;
 
-import br.com.verticelabs.pdfprocessor.application.entries.EntryQueryUseCase;
-import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaUseCase;
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.*;
-import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
-import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
 import br.com.verticelabs.pdfprocessor.domain.model.Person;
-import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
-import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
 import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
 import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidatedResponse;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationSnapshotCheckResponse;
 import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
@@ -28,10 +25,8 @@ import java.util.stream.Collectors;
 public class ConsolidationUseCase {
 
     private final PersonRepository personRepository;
-    private final EntryQueryUseCase entryQueryUseCase;
-    private final RubricaUseCase rubricaUseCase;
-    private final ReferenceNormalizer referenceNormalizer;
-    private final PayrollDocumentRepository documentRepository;
+    private final PersonConsolidationService personConsolidationService;
+    private final RubricaCatalog rubricaCatalog;
 
     /**
      * Consolida todas as rubricas de uma pessoa em uma matriz ano/mês por rubrica.
@@ -89,438 +84,175 @@ public class ConsolidationUseCase {
 
         // 1. Buscar pessoa (com multi-tenancy)
         log.info("Passo 1: Buscando pessoa no repositório para CPF: {}", cpf);
-        Mono<Person> personMono;
-
-        if (tenantId != null && !tenantId.isEmpty()) {
-            // Se tenantId foi fornecido explicitamente, usar ele diretamente
-            log.debug("Buscando pessoa com tenantId explícito: {}", tenantId);
-            personMono = personRepository.findByTenantIdAndCpf(tenantId, cpf);
-        } else {
-            // Se não, usar multi-tenancy do contexto de segurança
-            personMono = ReactiveSecurityContextHelper.isSuperAdmin()
-                    .flatMap(isSuperAdmin -> {
-                        if (isSuperAdmin) {
-                            // SUPER_ADMIN: buscar pessoa sem filtrar por tenantId
-                            log.debug("SUPER_ADMIN: buscando pessoa sem filtro de tenantId");
-                            return personRepository.findByCpf(cpf);
-                        } else {
-                            // Outros usuários: buscar pessoa filtrando por tenantId
-                            log.debug("Usuário regular: buscando pessoa com filtro de tenantId");
-                            return ReactiveSecurityContextHelper.getTenantId()
-                                    .flatMap(ctxTenantId -> personRepository.findByTenantIdAndCpf(ctxTenantId, cpf));
-                        }
-                    });
-        }
 
-        return personMono
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.error("Pessoa não encontrada no repositório para CPF: {}", cpf);
-                    return Mono.error(new PersonNotFoundException(cpf));
-                }))
+        return findPerson(cpf, tenantId)
                 .flatMap(person -> {
                     log.info("✓ Pessoa encontrada: {} ({})", person.getNome(), person.getCpf());
                     log.debug("Total de documentos da pessoa: {}",
                             person.getDocumentos() != null ? person.getDocumentos().size() : 0);
 
+                    if (person.getDocumentos() == null || person.getDocumentos().isEmpty()) {
+                        log.warn("Nenhuma entry encontrada para CPF: {}", cpf);
+                        return Mono.error(new NoEntriesFoundException(cpf));
+                    }
+
                     // 2. Buscar todas as rubricas ativas (para filtrar entries válidas)
                     log.info("Passo 2: Buscando rubricas ativas no sistema");
-                    Mono<Set<String>> validRubricasCodes = rubricaUseCase.listarAtivas()
-                            .map(Rubrica::getCodigo)
-                            .collect(Collectors.toSet())
+                    return rubricaCatalog.codigosAtivos()
                             .doOnNext(codes -> {
                                 log.info("✓ Total de rubricas ativas encontradas: {}", codes.size());
                                 log.debug("Códigos de rubricas ativas: {}", codes);
-                            });
-
-                    // 3. Buscar todas as entries da pessoa (usando tenantId da pessoa encontrada)
-                    log.info("Passo 3: Buscando entries da pessoa no repositório");
-                    Flux<PayrollEntry> entriesFlux = entryQueryUseCase.findByCpf(cpf, person.getTenantId());
-
-                    return Mono.zip(validRubricasCodes, entriesFlux.collectList())
-                            .flatMap(tuple -> {
-                                Set<String> validCodes = tuple.getT1();
-                                List<PayrollEntry> allEntries = tuple.getT2();
-
-                                if (allEntries.isEmpty()) {
-                                    log.warn("Nenhuma entry encontrada para CPF: {}", cpf);
+                            })
+                            .flatMap(validCodes -> {
+                                // 3. Células rubrica × ano × mês: do snapshot person_consolidation ou,
+                                // com filtro de ano, agregadas no MongoDB
+                                log.info("Passo 3: Obtendo células da consolidação (ano: {}, origem: {})",
+                                        ano, origem);
+                                return personConsolidationService.cells(person, validCodes, ano, origem);
+                            })
+                            .flatMap(cells -> {
+                                if (cells.isEmpty()) {
+                                    log.warn("Nenhuma entry restou após aplicar filtros");
                                     return Mono.error(new NoEntriesFoundException(cpf));
                                 }
 
-                                log.info("✓ Total de entries encontradas: {}", allEntries.size());
-
-                                // 4. Filtrar entries válidas (rubricas ativas)
-                                log.info("Passo 4: Filtrando entries por rubricas válidas/ativas");
-                                List<PayrollEntry> validEntries = allEntries.stream()
-                                        .filter(entry -> validCodes.contains(entry.getRubricaCodigo()))
-                                        .collect(Collectors.toList());
+                                log.info("✓ Células agregadas: {}", cells.size());
 
-                                log.info("✓ Entries após filtrar rubricas válidas: {} (removidas: {})",
-                                        validEntries.size(), allEntries.size() - validEntries.size());
+                                // 4. Construir resposta consolidada
+                                log.info("Passo 4: Construindo resposta consolidada");
+                                ConsolidatedResponse response = buildConsolidatedResponse(person, cells, ano, origem);
 
-                                // 5. Aplicar filtros opcionais
-                                log.info("Passo 5: Aplicando filtros opcionais (ano: {}, origem: {})", ano, origem);
-                                List<PayrollEntry> filteredEntries = applyFilters(validEntries, ano, origem);
+                                log.info("=== ConsolidationUseCase.consolidate() CONCLUÍDO COM SUCESSO ===");
+                                log.info("Total de rubricas consolidadas: {}", response.getRubricas().size());
+                                log.info("Anos processados: {}", response.getAnos());
+                                log.info("Total geral: R$ {}", response.getTotalGeral());
 
-                                log.info("✓ Entries após aplicar filtros: {} (removidas: {})",
-                                        filteredEntries.size(), validEntries.size() - filteredEntries.size());
-
-                                if (filteredEntries.isEmpty()) {
-                                    log.warn("Nenhuma entry restou após aplicar filtros");
-                                    return Mono.error(new NoEntriesFoundException(cpf));
-                                }
-
-                                // 6. Buscar documentos para identificar meses de origem
-                                log.info("Passo 6: Buscando documentos para identificar meses de origem");
-                                Set<String> documentoIds = filteredEntries.stream()
-                                        .map(PayrollEntry::getDocumentoId)
-                                        .filter(Objects::nonNull)
-                                        .collect(Collectors.toSet());
-
-                                log.info("Total de documentoIds únicos para buscar: {}", documentoIds.size());
-
-                                return Flux.fromIterable(documentoIds)
-                                        .flatMap(docId -> {
-                                            log.debug("Buscando documento: {}", docId);
-                                            return documentRepository.findByTenantIdAndId(person.getTenantId(), docId)
-                                                    .doOnNext(doc -> {
-                                                        log.debug("Documento {} encontrado. Meses detectados: {}",
-                                                                docId, doc.getMesesDetectados());
-                                                    })
-                                                    .doOnError(e -> log.warn("Erro ao buscar documento {}: {}", docId,
-                                                            e.getMessage()));
-                                        })
-                                        .collectMap(PayrollDocument::getId)
-                                        .doOnNext(map -> log.info("Total de documentos encontrados: {}", map.size()))
-                                        .flatMap(documentosMap -> {
-                                            // 7. Construir resposta consolidada
-                                            log.info("Passo 7: Construindo resposta consolidada");
-                                            ConsolidatedResponse response = buildConsolidatedResponse(person,
-                                                    filteredEntries, ano, origem, documentosMap);
-
-                                            log.info(
-                                                    "=== ConsolidationUseCase.consolidate() CONCLUÍDO COM SUCESSO ===");
-                                            log.info("Total de rubricas consolidadas: {}",
-                                                    response.getRubricas().size());
-                                            log.info("Anos processados: {}", response.getAnos());
-                                            log.info("Total geral: R$ {}", response.getTotalGeral());
-
-                                            return Mono.just(response);
-                                        });
+                                return Mono.just(response);
                             });
                 });
     }
 
     /**
-     * Aplica filtros opcionais às entries.
+     * Recalcula do zero o snapshot de consolidação da pessoa.
      */
-    private List<PayrollEntry> applyFilters(List<PayrollEntry> entries, String ano, String origem) {
-        log.debug("Aplicando filtros - Entrada: {} entries, Ano: {}, Origem: {}", entries.size(), ano, origem);
-
-        int totalInicial = entries.size();
-
-        List<PayrollEntry> filtered = entries.stream()
-                .filter(entry -> {
-                    // Filtro por ano
-                    if (ano != null && !ano.isEmpty()) {
-                        String normalizedRef = referenceNormalizer.normalize(entry.getReferencia());
-                        if (normalizedRef == null) {
-                            log.debug("Entry ignorada: referência não normalizável - {}", entry.getReferencia());
-                            return false;
-                        }
-                        String entryYear = referenceNormalizer.extractYear(normalizedRef);
-                        if (!ano.equals(entryYear)) {
-                            log.trace("Entry ignorada por filtro de ano: {} != {} - Referência: {}",
-                                    entryYear, ano, normalizedRef);
-                            return false;
-                        }
-                    }
+    public Mono<PersonConsolidation> rebuildSnapshot(String cpf) {
+        return findPerson(cpf, null)
+                .flatMap(person -> personConsolidationService.rebuild(person.getTenantId(), person.getId()));
+    }
 
-                    // Filtro por origem (FUNCEF inclui o layout Demonstrativo)
-                    if (origem != null && !origem.isEmpty()) {
-                        if (!origemCorresponde(origem, entry.getOrigem())) {
-                            log.trace("Entry ignorada por filtro de origem: {} != {} - Entry origem: {}",
-                                    entry.getOrigem(), origem, entry.getRubricaCodigo());
-                            return false;
-                        }
-                    }
+    /**
+     * Compara o snapshot de consolidação da pessoa com um recálculo a partir das entries.
+     */
+    public Mono<ConsolidationSnapshotCheckResponse> checkSnapshot(String cpf) {
+        return findPerson(cpf, null)
+                .flatMap(personConsolidationService::check);
+    }
 
-                    return true;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Busca a pessoa pelo CPF: no tenant informado ou, se null, conforme o contexto de segurança
+     * (SUPER_ADMIN busca em qualquer tenant). Erro PersonNotFoundException se não existir.
+     */
+    private Mono<Person> findPerson(String cpf, String tenantId) {
+        Mono<Person> personMono;
 
-        int removidas = totalInicial - filtered.size();
-        if (ano != null && !ano.isEmpty() || origem != null && !origem.isEmpty()) {
-            log.debug("Filtros aplicados - Removidas: {} entries, Restantes: {} entries", removidas, filtered.size());
+        if (tenantId != null && !tenantId.isEmpty()) {
+            // Se tenantId foi fornecido explicitamente, usar ele diretamente
+            log.debug("Buscando pessoa com tenantId explícito: {}", tenantId);
+            personMono = personRepository.findByTenantIdAndCpf(tenantId, cpf);
+        } else {
+            // Se não, usar multi-tenancy do contexto de segurança
+            personMono = ReactiveSecurityContextHelper.isSuperAdmin()
+                    .flatMap(isSuperAdmin -> {
+                        if (isSuperAdmin) {
+                            // SUPER_ADMIN: buscar pessoa sem filtrar por tenantId
+                            log.debug("SUPER_ADMIN: buscando pessoa sem filtro de tenantId");
+                            return personRepository.findByCpf(cpf);
+                        } else {
+                            // Outros usuários: buscar pessoa filtrando por tenantId
+                            log.debug("Usuário regular: buscando pessoa com filtro de tenantId");
+                            return ReactiveSecurityContextHelper.getTenantId()
+                                    .flatMap(ctxTenantId -> personRepository.findByTenantIdAndCpf(ctxTenantId, cpf));
+                        }
+                    });
         }
-        log.debug("Resultado após filtros: {} entries", filtered.size());
 
-        return filtered;
+        return personMono
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.error("Pessoa não encontrada no repositório para CPF: {}", cpf);
+                    return Mono.error(new PersonNotFoundException(cpf));
+                }));
     }
 
     /**
-     * Constrói a resposta consolidada a partir das entries filtradas.
+     * Constrói a resposta consolidada a partir das células agregadas no MongoDB.
      */
-    private ConsolidatedResponse buildConsolidatedResponse(Person person, List<PayrollEntry> entries, String anoFiltro,
-            String origemFiltro, Map<String, PayrollDocument> documentosMap) {
+    private ConsolidatedResponse buildConsolidatedResponse(Person person, List<ConsolidationCell> cells,
+            String anoFiltro, String origemFiltro) {
         log.debug("=== buildConsolidatedResponse() INICIADO ===");
-        log.debug("Total de entries para processar: {}", entries.size());
+        log.debug("Total de células para processar: {}", cells.size());
 
-        // Normalizar todas as referências
-        log.debug("Normalizando referências das entries");
-        Map<PayrollEntry, String> entryToNormalizedRef = new HashMap<>();
+        // Anos das referências normalizadas; se filtrou por ano, usar apenas esse ano
         Set<String> allYears = new TreeSet<>();
-        int referenciasNaoNormalizadas = 0;
-
-        for (PayrollEntry entry : entries) {
-            String originalRef = entry.getReferencia();
-            if (originalRef == null) {
-                referenciasNaoNormalizadas++;
-                log.trace("Entry sem referência: rubrica {}", entry.getRubricaCodigo());
-                continue;
-            }
-
-            String trimmedRef = originalRef.trim();
-
-            // Verificar se já está no formato YYYY-MM
-            String normalized;
-            if (referenceNormalizer.isValid(trimmedRef)) {
-                normalized = trimmedRef;
-                log.trace("Referência já normalizada: {}", normalized);
-            } else {
-                // Tentar normalizar (formatos: MM/YYYY, YYYY/MM)
-                normalized = referenceNormalizer.normalize(trimmedRef);
-                if (normalized != null) {
-                    log.trace("Referência normalizada: {} -> {}", originalRef, normalized);
-                }
-            }
-
-            if (normalized != null && referenceNormalizer.isValid(normalized)) {
-                entryToNormalizedRef.put(entry, normalized);
-                String year = referenceNormalizer.extractYear(normalized);
-                if (year != null) {
-                    allYears.add(year);
-                    log.trace("Ano detectado: {}", year);
-                }
-            } else {
-                referenciasNaoNormalizadas++;
-                log.debug("Não foi possível normalizar referência: {} (rubrica: {})",
-                        originalRef, entry.getRubricaCodigo());
-            }
-        }
-
-        log.info("Referências normalizadas: {} / {} ({} ignoradas)",
-                entryToNormalizedRef.size(), entries.size(), referenciasNaoNormalizadas);
-
-        // Se filtrou por ano, usar apenas esse ano
         if (anoFiltro != null && !anoFiltro.isEmpty()) {
-            log.debug("Aplicando filtro de ano na resposta: {}", anoFiltro);
-            allYears.clear();
             allYears.add(anoFiltro);
+        } else {
+            cells.stream()
+                    .map(ConsolidationCell::getAnosReferencia)
+                    .filter(Objects::nonNull)
+                    .forEach(allYears::addAll);
         }
 
         log.info("Anos detectados para consolidação: {}", allYears);
 
-        // Meses padrão de 01 a 12 (NÃO incluir mês 13 - valores com ref "YYYY-13" vão
-        // para o mês do documento)
+        // Meses padrão de 01 a 12 (NÃO incluir mês 13 - valores com ref "YYYY-13" já vêm
+        // ajustados para o mês do documento)
         List<String> meses = Arrays.asList("01", "02", "03", "04", "05", "06", "07", "08", "09", "10", "11", "12");
-        log.debug("Meses configurados: {} (mês 13 não é uma coluna separada)", meses);
-
-        // Mapear referências "YYYY-13" para o mês do documento usando o índice da
-        // página
-        // no array mesesDetectados
-        Map<PayrollEntry, String> entryToAdjustedRef = new HashMap<>();
-        int entriesMonth13Count = 0;
-        int entriesMonth13Ajustadas = 0;
-
-        for (Map.Entry<PayrollEntry, String> entry : entryToNormalizedRef.entrySet()) {
-            PayrollEntry payrollEntry = entry.getKey();
-            String normalizedRef = entry.getValue();
-            String adjustedRef = null;
-
-            // PRIORIDADE 1: Sempre usar mesPagamento quando disponível (independente da
-            // referência)
-            // Se a entry tem mesPagamento, SEMPRE usar ele em vez da referencia
-            String mesPagamento = payrollEntry.getMesPagamento();
-            if (mesPagamento != null && mesPagamento.matches("\\d{4}-\\d{2}")) {
-                adjustedRef = mesPagamento;
-                log.info(
-                        "Entry {} (rubrica {}) - Ref original: {}, mesPagamento: {} -> usando mesPagamento (ignorando referencia)",
-                        payrollEntry.getId(), payrollEntry.getRubricaCodigo(), normalizedRef, mesPagamento);
-            }
-
-            // Se não tem mesPagamento e a referência é "YYYY-13", usar lógica especial
-            if (adjustedRef == null && normalizedRef != null && normalizedRef.matches("\\d{4}-13")) {
-                entriesMonth13Count++;
-                String ano = normalizedRef.split("-")[0];
-
-                // PRIORIDADE 2: Tentar descobrir de outras entries da mesma página
-                Integer pagina = payrollEntry.getPagina();
-                String documentoId = payrollEntry.getDocumentoId();
-
-                if (pagina != null && documentoId != null) {
-                    // Buscar todas as entries da mesma página e documento
-                    List<PayrollEntry> entriesMesmaPagina = entries.stream()
-                            .filter(e -> documentoId.equals(e.getDocumentoId()))
-                            .filter(e -> pagina.equals(e.getPagina()))
-                            .filter(e -> e.getReferencia() != null)
-                            .collect(Collectors.toList());
-
-                    log.debug("Entry {} (rubrica {}) - Página {}: encontradas {} entries na mesma página",
-                            payrollEntry.getId(), payrollEntry.getRubricaCodigo(), pagina, entriesMesmaPagina.size());
-
-                    // Tentar encontrar o mês a partir de entries com referência normal (não
-                    // "XX-13")
-                    for (PayrollEntry e : entriesMesmaPagina) {
-                        String refOriginal = e.getReferencia();
-                        if (refOriginal != null && !refOriginal.matches("\\d{4}-13")) {
-                            String refParaUsar = null;
-
-                            // Primeiro, tentar usar a referência original se já estiver no formato YYYY-MM
-                            if (refOriginal.matches("\\d{4}-\\d{2}")) {
-                                refParaUsar = refOriginal;
-                            } else {
-                                // Se não, normalizar
-                                refParaUsar = referenceNormalizer.normalize(refOriginal);
-                            }
-
-                            if (refParaUsar != null && refParaUsar.matches("\\d{4}-\\d{2}")) {
-                                String[] partes = refParaUsar.split("-");
-                                String anoExtraido = partes[0];
-                                String mesExtraido = partes[1];
-
-                                // Verificar se o ano corresponde e o mês não é 13
-                                if (ano.equals(anoExtraido) && !"13".equals(mesExtraido)) {
-                                    adjustedRef = ano + "-" + mesExtraido;
-                                    log.info(
-                                            "Entry {} (rubrica {}) - Ref {} -> {} (Página: {}, Mês descoberto de outras entries: {})",
-                                            payrollEntry.getId(), payrollEntry.getRubricaCodigo(), normalizedRef,
-                                            adjustedRef,
-                                            pagina, mesExtraido);
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                }
-
-                // Fallback: usar mês 11 (novembro)
-                if (adjustedRef == null) {
-                    adjustedRef = ano + "-11";
-                    log.warn(
-                            "Entry {} (rubrica {}) - Fallback para Novembro: Ref {} -> {} (mesPagamento não disponível)",
-                            payrollEntry.getId(), payrollEntry.getRubricaCodigo(), normalizedRef, adjustedRef);
-                }
-                entriesMonth13Ajustadas++;
-            }
 
-            // Se ainda não tem adjustedRef, usar a referência normalizada (fallback quando
-            // não tem mesPagamento)
-            if (adjustedRef == null) {
-                adjustedRef = normalizedRef;
-                log.debug("Entry {} (rubrica {}) - Usando referencia normalizada: {} (mesPagamento não disponível)",
-                        payrollEntry.getId(), payrollEntry.getRubricaCodigo(), normalizedRef);
-            }
+        // Agrupar por rubrica (células sem referência ajustada não entram na matriz)
+        Map<String, List<ConsolidationCell>> cellsByRubrica = cells.stream()
+                .filter(cell -> cell.getAno() != null && cell.getMes() != null)
+                .collect(Collectors.groupingBy(ConsolidationCell::getRubricaCodigo));
 
-            entryToAdjustedRef.put(payrollEntry, adjustedRef);
-        }
-
-        log.info("Entries com referência 'YYYY-13' encontradas: {}, ajustadas: {}", entriesMonth13Count,
-                entriesMonth13Ajustadas);
-
-        // Agrupar por rubrica
-        log.debug("Agrupando entries por rubrica");
-        Map<String, List<PayrollEntry>> entriesByRubrica = entries.stream()
-                .filter(entryToAdjustedRef::containsKey)
-                .collect(Collectors.groupingBy(PayrollEntry::getRubricaCodigo));
-
-        log.info("Total de rubricas únicas para consolidar: {}", entriesByRubrica.size());
-        log.debug("Códigos das rubricas: {}", entriesByRubrica.keySet());
+        log.info("Total de rubricas únicas para consolidar: {}", cellsByRubrica.size());
+        log.debug("Códigos das rubricas: {}", cellsByRubrica.keySet());
 
         // Construir linhas de consolidação
-        log.debug("Construindo linhas de consolidação (ConsolidationRow)");
         List<ConsolidationRow> rubricas = new ArrayList<>();
 
-        for (Map.Entry<String, List<PayrollEntry>> rubricaEntry : entriesByRubrica.entrySet()) {
+        for (Map.Entry<String, List<ConsolidationCell>> rubricaEntry : cellsByRubrica.entrySet()) {
             String codigo = rubricaEntry.getKey();
-            List<PayrollEntry> rubricaEntries = rubricaEntry.getValue();
-
-            log.debug("Processando rubrica {} - {} entries", codigo, rubricaEntries.size());
+            List<ConsolidationCell> rubricaCells = rubricaEntry.getValue();
 
-            // Pegar descrição da primeira entry
-            String descricao = rubricaEntries.isEmpty() ? "" : rubricaEntries.get(0).getRubricaDescricao();
+            String descricao = rubricaCells.get(0).getRubricaDescricao();
 
-            // Mapa para somar valores por mês
-            Map<String, BigDecimal> valoresPorReferencia = new TreeMap<>();
-
-            // Processar TODAS as entries (já ajustadas)
-            for (PayrollEntry entry : rubricaEntries) {
-                String adjustedRef = entryToAdjustedRef.get(entry);
-                if (adjustedRef != null) {
-                    // Usar BigDecimal
-                    BigDecimal valor = entry.getValor() != null ? entry.getValor() : BigDecimal.ZERO;
-                    BigDecimal valorAnterior = valoresPorReferencia.getOrDefault(adjustedRef, BigDecimal.ZERO);
-                    BigDecimal valorNovo = valorAnterior.add(valor);
-                    valoresPorReferencia.put(adjustedRef, valorNovo);
-
-                    // Log detalhado para rubricas problemáticas ou para ano 2016 mês 04
-                    if (codigo.equals("4364") || codigo.equals("4459") || codigo.equals("3362")
-                            || codigo.equals("3394")) {
-                        log.info(
-                                "Rubrica {} - Entry {} (ref original: {}, ref ajustada: {}) - Valor: {} -> Total acumulado: {}",
-                                codigo, entry.getId(), entry.getReferencia(), adjustedRef, valor, valorNovo);
-                    } else if (adjustedRef != null && adjustedRef.startsWith("2016-04")) {
-                        log.info(
-                                "Rubrica {} - Entry {} (ref original: {}, ref ajustada: {}) - Valor: {} -> Total acumulado: {}",
-                                codigo, entry.getId(), entry.getReferencia(), adjustedRef, valor, valorNovo);
-                    } else {
-                        log.trace("Rubrica {} - Ref {} recebe valor {}", codigo, adjustedRef, valor);
-                    }
-                } else {
-                    log.warn("Rubrica {} - Entry {} não tem referência ajustada! Ref original: {}",
-                            codigo, entry.getId(), entry.getReferencia());
-                }
+            Map<String, ConsolidationCell> cellPorReferencia = new HashMap<>();
+            for (ConsolidationCell cell : rubricaCells) {
+                cellPorReferencia.put(cell.getAno() + "-" + cell.getMes(), cell);
             }
 
-            log.info("Rubrica {} possui valores em {} referências diferentes",
-                    codigo, valoresPorReferencia.size());
-            log.info("Rubrica {} - Valores por referência: {}", codigo, valoresPorReferencia);
-
             // Preencher meses faltantes com zero para cada ano
-            log.debug("Preenchendo meses faltantes com zero para rubrica {}", codigo);
             Map<String, BigDecimal> valoresCompletos = new TreeMap<>();
-            int mesesComValor = 0;
             for (String year : allYears) {
                 for (String month : meses) {
-                    String referencia = year + "-" + month;
-                    BigDecimal valor = valoresPorReferencia.getOrDefault(referencia, BigDecimal.ZERO);
-                    valoresCompletos.put(referencia, valor);
-                    if (valor.compareTo(BigDecimal.ZERO) > 0) {
-                        mesesComValor++;
-                        log.debug("Rubrica {} - Mês {} tem valor: {}", codigo, referencia, valor);
-                    }
+                    ConsolidationCell cell = cellPorReferencia.get(year + "-" + month);
+                    valoresCompletos.put(year + "-" + month,
+                            cell != null && cell.getValor() != null ? cell.getValor() : BigDecimal.ZERO);
                 }
             }
-            log.info("Rubrica {} - Meses com valor > 0: {} de {} possíveis. Valores completos: {}",
-                    codigo, mesesComValor, allYears.size() * meses.size(), valoresCompletos);
+            log.debug("Rubrica {} - Valores completos: {}", codigo, valoresCompletos);
 
             // Calcular total da rubrica
             BigDecimal totalRubrica = BigDecimal.ZERO;
             Map<String, BigDecimal> totaisPorAno = new TreeMap<>();
 
             for (String year : allYears) {
-                // Verificar ocorrências de YYYY-13 neste ano
+                // Meses com valor que receberam alguma entry "YYYY-13" deste ano
                 long mesesComValor13 = meses.stream()
                         .filter(mes -> valoresCompletos.getOrDefault(year + "-" + mes, BigDecimal.ZERO)
                                 .compareTo(BigDecimal.ZERO) > 0)
                         .filter(mes -> {
-                            String ref = year + "-" + mes;
-                            // Verificar se alguma entry YYYY-13 foi mapeada para este mês
-                            return rubricaEntries.stream().anyMatch(e -> {
-                                String original = e.getReferencia();
-                                String adjusted = entryToAdjustedRef.get(e);
-                                return original != null && original.equals(year + "-13") &&
-                                        adjusted != null && adjusted.equals(ref);
-                            });
+                            ConsolidationCell cell = cellPorReferencia.get(year + "-" + mes);
+                            return cell != null && cell.isDeReferencia13();
                         })
                         .count();
 
@@ -531,10 +263,9 @@ public class ConsolidationUseCase {
                 // Regra Funcef (inclui Demonstrativo): múltiplos meses com YYYY-13 → só o último.
                 // Fallback: valores só em FEV+NOV com origem Funcef → NOV (layout Demonstrativo).
                 BigDecimal totalAno;
-                boolean aplicaRegra13Funcef = mesesComValor13 > 1
-                        && entriesDoAnoSaoFuncef(rubricaEntries, entryToAdjustedRef, year);
-                boolean aplicaFevNovFuncef = !aplicaRegra13Funcef
-                        && entriesDoAnoSaoFuncef(rubricaEntries, entryToAdjustedRef, year)
+                boolean doAnoSaoFuncef = cellsDoAnoSaoFuncef(rubricaCells, year);
+                boolean aplicaRegra13Funcef = mesesComValor13 > 1 && doAnoSaoFuncef;
+                boolean aplicaFevNovFuncef = !aplicaRegra13Funcef && doAnoSaoFuncef
                         && somenteFevENovComValor(valoresCompletos, year);
 
                 if (aplicaRegra13Funcef || aplicaFevNovFuncef) {
@@ -564,27 +295,21 @@ public class ConsolidationUseCase {
                 totalRubrica = totalRubrica.add(totalAno);
             }
 
-            log.info("Rubrica {} - Total Final: {}", codigo, totalRubrica);
+            log.debug("Rubrica {} - Total Final: {}", codigo, totalRubrica);
 
-            ConsolidationRow row = ConsolidationRow.builder()
+            rubricas.add(ConsolidationRow.builder()
                     .codigo(codigo)
                     .descricao(descricao)
                     .valores(valoresCompletos)
                     .totaisPorAno(totaisPorAno)
                     .total(totalRubrica)
-                    .build();
-
-            rubricas.add(row);
+                    .build());
         }
 
         // Ordenar rubricas por código
-        log.debug("Ordenando rubricas por código");
         rubricas.sort(Comparator.comparing(ConsolidationRow::getCodigo));
-        log.debug("Rubricas ordenadas: {}",
-                rubricas.stream().map(ConsolidationRow::getCodigo).collect(Collectors.toList()));
 
         // Calcular totais mensais
-        log.debug("Calculando totais mensais");
         Map<String, BigDecimal> totaisMensais = new TreeMap<>();
         for (String year : allYears) {
             for (String month : meses) {
@@ -593,15 +318,10 @@ public class ConsolidationUseCase {
                         .map(row -> row.getValores().getOrDefault(referencia, BigDecimal.ZERO))
                         .reduce(BigDecimal.ZERO, BigDecimal::add);
                 totaisMensais.put(referencia, totalMes);
-                if (totalMes.compareTo(BigDecimal.ZERO) > 0) {
-                    log.trace("Total mensal {}: R$ {}", referencia, totalMes);
-                }
             }
         }
-        log.debug("Totais mensais calculados para {} referências", totaisMensais.size());
 
         // Calcular total geral
-        log.debug("Calculando total geral");
         BigDecimal totalGeral = rubricas.stream()
                 .map(row -> row.getTotal() != null ? row.getTotal() : BigDecimal.ZERO)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -610,7 +330,7 @@ public class ConsolidationUseCase {
         ConsolidatedResponse response = ConsolidatedResponse.builder()
                 .cpf(person.getCpf())
                 .nome(person.getNome())
-                .origem(origemEfetiva(origemFiltro, entries))
+                .origem(origemEfetiva(origemFiltro, cells))
                 .anos(new TreeSet<>(allYears))
                 .meses(meses)
                 .rubricas(rubricas)
@@ -619,12 +339,8 @@ public class ConsolidationUseCase {
                 .build();
 
         log.info("=== buildConsolidatedResponse() CONCLUÍDO ===");
-        log.info("Resposta consolidada criada com sucesso:");
-        log.info("  - CPF: {}", response.getCpf());
-        log.info("  - Nome: {}", response.getNome());
-        log.info("  - Anos: {}", response.getAnos());
-        log.info("  - Rubricas: {}", response.getRubricas().size());
-        log.info("  - Total geral: R$ {}", response.getTotalGeral());
+        log.info("  - CPF: {}, Anos: {}, Rubricas: {}, Total geral: R$ {}", response.getCpf(), response.getAnos(),
+                response.getRubricas().size(), response.getTotalGeral());
 
         return response;
     }
@@ -638,29 +354,18 @@ public class ConsolidationUseCase {
         return "FUNCEF".equals(o) || "FUNCEF_DEMONSTRATIVO".equals(o);
     }
 
-    private static boolean origemCorresponde(String filtro, String entryOrigem) {
-        if (filtro == null || entryOrigem == null) {
-            return false;
-        }
-        if (filtro.equalsIgnoreCase(entryOrigem)) {
-            return true;
-        }
-        // Filtro FUNCEF também inclui o layout Demonstrativo
-        return "FUNCEF".equalsIgnoreCase(filtro) && isOrigemFuncef(entryOrigem);
-    }
-
     /**
      * Se o filtro veio nulo, infere origem única das entries (útil no Excel sem parâmetro).
      */
-    private static String origemEfetiva(String origemFiltro, List<PayrollEntry> entries) {
+    private static String origemEfetiva(String origemFiltro, List<ConsolidationCell> cells) {
         if (origemFiltro != null && !origemFiltro.isBlank()) {
             return origemFiltro;
         }
-        if (entries == null || entries.isEmpty()) {
+        if (cells == null || cells.isEmpty()) {
             return null;
         }
-        boolean algumaCaixa = entries.stream().anyMatch(e -> "CAIXA".equalsIgnoreCase(e.getOrigem()));
-        boolean algumaFuncef = entries.stream().anyMatch(e -> isOrigemFuncef(e.getOrigem()));
+        boolean algumaCaixa = cells.stream().anyMatch(ConsolidationCell::isPossuiCaixa);
+        boolean algumaFuncef = cells.stream().anyMatch(ConsolidationCell::isPossuiFuncef);
         if (algumaFuncef && !algumaCaixa) {
             return "FUNCEF";
         }
@@ -670,20 +375,14 @@ public class ConsolidationUseCase {
         return null;
     }
 
-    private static boolean entriesDoAnoSaoFuncef(
-            List<PayrollEntry> rubricaEntries,
-            Map<PayrollEntry, String> entryToAdjustedRef,
-            String year) {
-        List<PayrollEntry> doAno = rubricaEntries.stream()
-                .filter(e -> {
-                    String adjusted = entryToAdjustedRef.get(e);
-                    return adjusted != null && adjusted.startsWith(year + "-");
-                })
+    private static boolean cellsDoAnoSaoFuncef(List<ConsolidationCell> rubricaCells, String year) {
+        List<ConsolidationCell> doAno = rubricaCells.stream()
+                .filter(cell -> year.equals(cell.getAno()))
                 .toList();
         if (doAno.isEmpty()) {
             return false;
         }
-        return doAno.stream().allMatch(e -> isOrigemFuncef(e.getOrigem()));
+        return doAno.stream().allMatch(ConsolidationCell::isSomenteFuncef);
     }
 
     private static boolean somenteFevENovComValor(Map<String, BigDecimal> valoresCompletos, String year) {
@@ -0,0 +1,257 @@
+package br.com.verticelabs.pdfprocessor.application.consolidation;
+
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonConsolidationRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationSnapshotCheckResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Mantém o snapshot person_consolidation: as células da matriz de consolidação de cada pessoa,
+ * por escopo de origem, recalculadas quando as entries da pessoa mudam (processamento ou
+ * exclusão de documento) em vez de a cada leitura.
+ *
+ * Leituras com filtro de ano continuam usando a agregação direta: o filtro atua sobre a
+ * referência original das entries, que não fica no snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PersonConsolidationService {
+
+    private final PersonConsolidationRepository snapshotRepository;
+    private final PayrollEntryRepository entryRepository;
+    private final PersonRepository personRepository;
+    private final RubricaCatalog rubricaCatalog;
+
+    /**
+     * Células da consolidação da pessoa. Sem filtro de ano, servidas do snapshot; snapshot ausente,
+     * desatualizado ou calculado com outro conjunto de rubricas ativas é recalculado na hora.
+     */
+    public Mono<List<ConsolidationCell>> cells(Person person, Set<String> rubricasAtivas, String ano, String origem) {
+        if (ano != null && !ano.isEmpty()) {
+            return aggregate(person.getTenantId(), person.getId(), rubricasAtivas, ano, origem);
+        }
+        String escopo = escopo(origem);
+        return snapshotRepository.findByTenantIdAndPersonId(person.getTenantId(), person.getId())
+                .filter(snapshot -> snapshot.isAtualizado(rubricasAtivas))
+                .doOnNext(snapshot -> log.debug("Consolidação de {} servida do snapshot (versão {})",
+                        person.getId(), snapshot.getVersion()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Snapshot de consolidação ausente ou desatualizado para pessoa {}; recalculando",
+                            person.getId());
+                    return rebuild(person.getTenantId(), person.getId(), rubricasAtivas);
+                }))
+                .map(snapshot -> snapshot.getCelulasPorOrigem().getOrDefault(escopo, List.of()));
+    }
+
+    /**
+     * Chamado depois que entries de um documento foram gravadas ou removidas: invalida o snapshot
+     * da pessoa dona do CPF e recalcula. Falhas são apenas registradas — a próxima leitura recalcula.
+     */
+    public Mono<Void> entriesAlteradas(String tenantId, String cpf) {
+        if (tenantId == null || cpf == null || cpf.isBlank()) {
+            return Mono.empty();
+        }
+        return personRepository.findByTenantIdAndCpf(tenantId, cpf)
+                .flatMap(person -> snapshotRepository.invalidate(tenantId, person.getId())
+                        .flatMap(version -> rubricaCatalog.codigosAtivos()
+                                .flatMap(ativos -> build(tenantId, person.getId(), ativos, version))))
+                .doOnNext(snapshot -> log.info("Snapshot de consolidação da pessoa {} atualizado (versão {})",
+                        snapshot.getId(), snapshot.getVersion()))
+                .onErrorResume(e -> {
+                    log.warn("Falha ao atualizar snapshot de consolidação (CPF {}): {}", cpf, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Invalida os snapshots de todas as pessoas (entries reescritas em massa, descrição de rubrica
+     * alterada): cada pessoa é recalculada na próxima leitura. Falhas são apenas registradas.
+     */
+    public Mono<Void> invalidarTodos(String motivo) {
+        return snapshotRepository.invalidateAll()
+                .doOnNext(total -> log.info("{} snapshots de consolidação invalidados: {}", total, motivo))
+                .onErrorResume(e -> {
+                    log.warn("Falha ao invalidar snapshots de consolidação ({}): {}", motivo, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Recalcula o snapshot da pessoa do zero (endpoint de rebuild).
+     */
+    public Mono<PersonConsolidation> rebuild(String tenantId, String personId) {
+        return rubricaCatalog.codigosAtivos()
+                .flatMap(ativos -> rebuild(tenantId, personId, ativos));
+    }
+
+    /**
+     * Compara o snapshot gravado com um recálculo do zero, célula a célula, em cada escopo de origem.
+     */
+    public Mono<ConsolidationSnapshotCheckResponse> check(Person person) {
+        String tenantId = person.getTenantId();
+        return rubricaCatalog.codigosAtivos()
+                .flatMap(ativos -> snapshotRepository.findByTenantIdAndPersonId(tenantId, person.getId())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(atual -> calcular(tenantId, person.getId(), ativos).map(recalculado -> {
+                            ConsolidationSnapshotCheckResponse.ConsolidationSnapshotCheckResponseBuilder response =
+                                    ConsolidationSnapshotCheckResponse.builder()
+                                            .cpf(person.getCpf())
+                                            .personId(person.getId())
+                                            .snapshotExiste(atual.isPresent());
+                            if (atual.isEmpty()) {
+                                return response.consistente(false)
+                                        .divergencias(List.of("Snapshot inexistente"))
+                                        .build();
+                            }
+                            PersonConsolidation snapshot = atual.get();
+                            List<String> divergencias = new ArrayList<>();
+                            if (snapshot.getBuiltVersion() != snapshot.getVersion()) {
+                                divergencias.add("Snapshot desatualizado: versão " + snapshot.getVersion()
+                                        + ", calculado na versão " + snapshot.getBuiltVersion());
+                            }
+                            if (!Objects.equals(snapshot.getRubricasAtivas(), ativos)) {
+                                divergencias.add("Rubricas ativas mudaram desde o cálculo do snapshot");
+                            }
+                            Map<String, List<ConsolidationCell>> gravadas = snapshot.getCelulasPorOrigem() != null
+                                    ? snapshot.getCelulasPorOrigem() : Map.of();
+                            recalculado.forEach((escopo, cells) -> divergencias.addAll(
+                                    divergencias(escopo, gravadas.getOrDefault(escopo, List.of()), cells)));
+                            return response.version(snapshot.getVersion())
+                                    .builtVersion(snapshot.getBuiltVersion())
+                                    .atualizadoEm(snapshot.getAtualizadoEm())
+                                    .consistente(divergencias.isEmpty())
+                                    .divergencias(divergencias)
+                                    .build();
+                        })));
+    }
+
+    private Mono<PersonConsolidation> rebuild(String tenantId, String personId, Set<String> rubricasAtivas) {
+        return snapshotRepository.findByTenantIdAndPersonId(tenantId, personId)
+                .map(PersonConsolidation::getVersion)
+                .defaultIfEmpty(0L)
+                .flatMap(version -> build(tenantId, personId, rubricasAtivas, version));
+    }
+
+    /**
+     * Calcula as células e grava condicionadas à versão lida. Se outra alteração chegou no meio do
+     * cálculo, a gravação é descartada (quem invalidou recalcula), mas as células calculadas ainda
+     * servem para a leitura em curso.
+     */
+    private Mono<PersonConsolidation> build(String tenantId, String personId, Set<String> rubricasAtivas,
+                                            long version) {
+        return calcular(tenantId, personId, rubricasAtivas)
+                .map(celulas -> PersonConsolidation.builder()
+                        .id(personId)
+                        .tenantId(tenantId)
+                        .version(version)
+                        .builtVersion(version)
+                        .rubricasAtivas(rubricasAtivas)
+                        .celulasPorOrigem(celulas)
+                        .build())
+                .flatMap(snapshot -> snapshotRepository.saveIfVersion(snapshot)
+                        .doOnNext(gravado -> {
+                            if (!gravado) {
+                                log.debug("Snapshot da pessoa {} mudou de versão durante o cálculo ({}); "
+                                        + "gravação descartada", personId, version);
+                            }
+                        })
+                        .thenReturn(snapshot));
+    }
+
+    private Mono<Map<String, List<ConsolidationCell>>> calcular(String tenantId, String personId,
+                                                                Set<String> rubricasAtivas) {
+        return Mono.zip(
+                        aggregate(tenantId, personId, rubricasAtivas, null, null),
+                        aggregate(tenantId, personId, rubricasAtivas, null, PersonConsolidation.ESCOPO_CAIXA),
+                        aggregate(tenantId, personId, rubricasAtivas, null, PersonConsolidation.ESCOPO_FUNCEF))
+                .map(tuple -> {
+                    Map<String, List<ConsolidationCell>> celulas = new LinkedHashMap<>();
+                    celulas.put(PersonConsolidation.ESCOPO_TODAS, tuple.getT1());
+                    celulas.put(PersonConsolidation.ESCOPO_CAIXA, tuple.getT2());
+                    celulas.put(PersonConsolidation.ESCOPO_FUNCEF, tuple.getT3());
+                    return celulas;
+                });
+    }
+
+    private Mono<List<ConsolidationCell>> aggregate(String tenantId, String personId, Set<String> rubricasAtivas,
+                                                    String ano, String origem) {
+        return entryRepository.aggregateConsolidationCells(tenantId, personId, rubricasAtivas, ano, origem)
+                .collectList();
+    }
+
+    /**
+     * Escopo do snapshot para o filtro de origem: maiúsculas, e a família Funcef (inclusive
+     * FUNCEF_DEMONSTRATIVO) no escopo FUNCEF, como no filtro da agregação.
+     */
+    static String escopo(String origem) {
+        if (origem == null || origem.isBlank()) {
+            return PersonConsolidation.ESCOPO_TODAS;
+        }
+        return ConsolidationUseCase.isOrigemFuncef(origem)
+                ? PersonConsolidation.ESCOPO_FUNCEF
+                : origem.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static List<String> divergencias(String escopo, List<ConsolidationCell> snapshot,
+                                     List<ConsolidationCell> recalculado) {
+        Map<String, ConsolidationCell> gravadas = porChave(snapshot);
+        Map<String, ConsolidationCell> esperadas = porChave(recalculado);
+        List<String> divergencias = new ArrayList<>();
+
+        for (Map.Entry<String, ConsolidationCell> entry : esperadas.entrySet()) {
+            String celula = escopo + " " + entry.getKey();
+            ConsolidationCell esperada = entry.getValue();
+            ConsolidationCell gravada = gravadas.get(entry.getKey());
+            if (gravada == null) {
+                divergencias.add(celula + ": ausente no snapshot");
+                continue;
+            }
+            if (esperada.getValor().compareTo(gravada.getValor()) != 0) {
+                divergencias.add(celula + ": valor snapshot=" + gravada.getValor()
+                        + ", recalculado=" + esperada.getValor());
+            }
+            if (!Objects.equals(esperada.getRubricaDescricao(), gravada.getRubricaDescricao())
+                    || esperada.isDeReferencia13() != gravada.isDeReferencia13()
+                    || esperada.isSomenteFuncef() != gravada.isSomenteFuncef()
+                    || esperada.isPossuiCaixa() != gravada.isPossuiCaixa()
+                    || esperada.isPossuiFuncef() != gravada.isPossuiFuncef()
+                    || !Objects.equals(esperada.getAnosReferencia(), gravada.getAnosReferencia())) {
+                divergencias.add(celula + ": descrição/marcadores diferentes do recálculo");
+            }
+        }
+        gravadas.keySet().stream()
+                .filter(chave -> !esperadas.containsKey(chave))
+                .forEach(chave -> divergencias.add(escopo + " " + chave + ": não existe no recálculo"));
+        return divergencias;
+    }
+
+    private static Map<String, ConsolidationCell> porChave(List<ConsolidationCell> cells) {
+        Map<String, ConsolidationCell> porChave = new TreeMap<>();
+        for (ConsolidationCell cell : cells) {
+            porChave.put(cell.getRubricaCodigo() + " " + cell.getAno() + "-" + cell.getMes(), cell);
+        }
+        return porChave;
+    }
+}
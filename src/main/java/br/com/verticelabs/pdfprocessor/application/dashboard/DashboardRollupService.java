@@ -0,0 +1,307 @@
+package br.com.verticelabs.pdfprocessor.application.dashboard;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollup;
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollupDelta;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.domain.model.Tenant;
+import br.com.verticelabs.pdfprocessor.domain.repository.DashboardRollupRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.TenantRepository;
+import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mantém os rollups do dashboard (dashboard_rollups): cada gravação ou remoção de entries e cada
+ * documento ou pessoa criado/excluído aplica um {@code $inc} no rollup do tenant e no da visão
+ * SUPER_ADMIN, e o dashboard lê um único documento em vez de agregar as collections a cada acesso.
+ *
+ * A reconciliação ({@link #reconciliarTodos()}) recalcula os rollups do zero com as agregações
+ * das collections de origem e corrige o que os incrementos não cobrem: alterações feitas fora
+ * destes ganchos e falhas de gravação do rollup (apenas registradas). A gravação do recálculo é
+ * condicional à {@code versao} lida antes dele, para não apagar incrementos concorrentes, e não
+ * acontece enquanto houver gravações nas collections de origem com o {@code $inc} pendente.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardRollupService {
+
+    private static final int TENTATIVAS_RECONCILIACAO = 3;
+    private static final Duration ESCRITA_EM_ANDAMENTO_EXPIRA = Duration.ofMinutes(10);
+
+    private final DashboardRollupRepository rollupRepository;
+    private final PayrollDocumentRepository documentRepository;
+    private final PayrollEntryRepository entryRepository;
+    private final PersonRepository personRepository;
+    private final TenantRepository tenantRepository;
+
+    /**
+     * Rollup do tenant ({@code null} = todos os tenants). Ausente, é calculado na hora.
+     */
+    public Mono<DashboardRollup> rollup(String tenantId) {
+        String id = tenantId != null ? tenantId : DashboardRollup.TODOS_OS_TENANTS;
+        return rollupRepository.findById(id)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Rollup do dashboard ausente para {}; calculando", id);
+                    return reconciliar(tenantId);
+                }));
+    }
+
+    /**
+     * Executa {@code insercao} (gravação das entries do documento) e soma as entries ao rollup.
+     */
+    public Mono<Long> inserindoEntries(String tenantId, List<PayrollEntry> entries, Mono<Long> insercao) {
+        DashboardRollupDelta delta = new DashboardRollupDelta();
+        entries.forEach(entry -> lancamento(delta, entry, 1));
+        return registrando(tenantId, delta, insercao);
+    }
+
+    /**
+     * Executa {@code remocao} (exclusão das entries do documento) e desconta do rollup as entries
+     * que existiam antes dela.
+     */
+    public Mono<Void> removendoEntries(String tenantId, String documentoId, Mono<Void> remocao) {
+        return entryRepository.findByTenantIdAndDocumentoId(tenantId, documentoId)
+                .reduce(new DashboardRollupDelta(), (delta, entry) -> lancamento(delta, entry, -1))
+                .onErrorResume(e -> {
+                    log.warn("Falha ao contar entries do documento {} para o dashboard: {}", documentoId, e.getMessage());
+                    return Mono.just(new DashboardRollupDelta());
+                })
+                .flatMap(delta -> registrando(tenantId, delta, remocao));
+    }
+
+    public Mono<PayrollDocument> criandoDocumento(PayrollDocument document, Mono<PayrollDocument> gravacao) {
+        return registrando(document.getTenantId(),
+                new DashboardRollupDelta().documento(ano(document.getAnoDetectado()), 1), gravacao);
+    }
+
+    public Mono<Void> removendoDocumento(PayrollDocument document, Mono<Void> remocao) {
+        return registrando(document.getTenantId(),
+                new DashboardRollupDelta().documento(ano(document.getAnoDetectado()), -1), remocao);
+    }
+
+    /**
+     * Documento criado sem ano que teve o ano detectado no processamento; {@code gravacao} grava o
+     * documento com o ano.
+     */
+    public Mono<Void> detectandoAnoDoDocumento(PayrollDocument document, Mono<Void> gravacao) {
+        return registrando(document.getTenantId(),
+                new DashboardRollupDelta().anoDoDocumento(ano(document.getAnoDetectado()), 1), gravacao);
+    }
+
+    public Mono<Person> criandoPessoa(Person person, Mono<Person> gravacao) {
+        return registrando(person.getTenantId(),
+                new DashboardRollupDelta().pessoa(ano(person.getCreatedAt()), 1), gravacao);
+    }
+
+    public Mono<Void> removendoPessoa(Person person, Mono<Void> remocao) {
+        return registrando(person.getTenantId(),
+                new DashboardRollupDelta().pessoa(ano(person.getCreatedAt()), -1), remocao);
+    }
+
+    /**
+     * Recalcula do zero os rollups de todos os tenants e o da visão SUPER_ADMIN.
+     * Retorna o número de tenants reconciliados.
+     */
+    public Mono<Long> reconciliarTodos() {
+        return tenantRepository.findAll()
+                .map(Tenant::getId)
+                .concatMap(tenantId -> reconciliar(tenantId)
+                        .onErrorResume(e -> {
+                            log.warn("Falha ao reconciliar rollup do dashboard do tenant {}: {}", tenantId, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .count()
+                .flatMap(tenants -> reconciliar(null).thenReturn(tenants));
+    }
+
+    /**
+     * Recalcula o rollup do tenant ({@code null} = todos os tenants) a partir das collections de
+     * origem e grava o resultado. Se um {@code $inc} chegou durante o recálculo (a {@code versao}
+     * mudou), não dá para saber se as agregações já o contaram: o recálculo é descartado e refeito.
+     * Com gravações em andamento o rollup fica como está até a próxima reconciliação, porque as
+     * agregações contariam gravações cujo {@code $inc} ainda vai chegar.
+     */
+    public Mono<DashboardRollup> reconciliar(String tenantId) {
+        return reconciliar(tenantId, TENTATIVAS_RECONCILIACAO);
+    }
+
+    private Mono<DashboardRollup> reconciliar(String tenantId, int tentativas) {
+        String id = tenantId != null ? tenantId : DashboardRollup.TODOS_OS_TENANTS;
+        return rollupRepository.findById(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(atual -> {
+                    if (atual.filter(DashboardRollupService::comEscritasEmAndamento).isPresent()) {
+                        log.info("Rollup do dashboard {} com {} gravações em andamento; reconciliado na próxima execução",
+                                id, atual.get().getEscritasEmAndamento());
+                        return Mono.just(atual.get());
+                    }
+                    long versaoLida = atual.map(DashboardRollup::getVersao).orElse(DashboardRollup.AUSENTE);
+                    return calcular(tenantId, id, versaoLida + 1)
+                            .flatMap(rollup -> rollupRepository.saveIfUnchanged(rollup, versaoLida)
+                                    .flatMap(gravado -> {
+                                        if (gravado) {
+                                            log.debug("Rollup do dashboard {} reconciliado: {} documentos, {} lançamentos, {} pessoas",
+                                                    id, rollup.getDocumentos(), rollup.getLancamentos(), rollup.getPessoas());
+                                            return Mono.just(rollup);
+                                        }
+                                        if (tentativas > 1) {
+                                            log.debug("Rollup do dashboard {} alterado durante o recálculo; recalculando", id);
+                                            return reconciliar(tenantId, tentativas - 1);
+                                        }
+                                        // Muitas alterações concorrentes: fica como está até a próxima reconciliação
+                                        log.info("Rollup do dashboard {} alterado em {} recálculos seguidos; mantido como está",
+                                                id, TENTATIVAS_RECONCILIACAO);
+                                        return rollupRepository.findById(id).defaultIfEmpty(rollup);
+                                    }));
+                });
+    }
+
+    /**
+     * Marcas de gravações em andamento sem alteração há mais de {@link #ESCRITA_EM_ANDAMENTO_EXPIRA}
+     * são de gravações interrompidas (instância derrubada no meio) e não bloqueiam o recálculo,
+     * que zera o contador.
+     */
+    private static boolean comEscritasEmAndamento(DashboardRollup rollup) {
+        return rollup.getEscritasEmAndamento() != 0
+                && rollup.getAtualizadoEm() != null
+                && rollup.getAtualizadoEm().isAfter(Instant.now().minus(ESCRITA_EM_ANDAMENTO_EXPIRA));
+    }
+
+    private Mono<DashboardRollup> calcular(String tenantId, String id, long versao) {
+        Mono<Long> documentosMono = tenantId == null
+                ? documentRepository.countAll().defaultIfEmpty(0L)
+                : documentRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
+
+        Mono<Long> lancamentosMono = tenantId == null
+                ? entryRepository.countAll().defaultIfEmpty(0L)
+                : entryRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
+
+        Mono<Long> pessoasMono = tenantId == null
+                ? personRepository.countAll().defaultIfEmpty(0L)
+                : personRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
+
+        return Mono.zip(
+                documentosMono,
+                lancamentosMono,
+                pessoasMono,
+                serie(documentRepository.countDocumentosPorAno(tenantId)),
+                serie(personRepository.countPessoasPorAno(tenantId)),
+                serie(entryRepository.countLancamentosPorAno(tenantId)),
+                // Todas as rubricas: o top 10 é escolhido na leitura
+                serie(entryRepository.countTopRubricas(tenantId, Integer.MAX_VALUE))
+        ).map(tuple -> {
+            Instant agora = Instant.now();
+            return DashboardRollup.builder()
+                    .id(id)
+                    .documentos(tuple.getT1())
+                    .lancamentos(tuple.getT2())
+                    .pessoas(tuple.getT3())
+                    .documentosPorAno(tuple.getT4())
+                    .pessoasPorAno(tuple.getT5())
+                    .lancamentosPorAno(tuple.getT6())
+                    .lancamentosPorRubrica(tuple.getT7())
+                    .atualizadoEm(agora)
+                    .reconciliadoEm(agora)
+                    .versao(versao)
+                    .build();
+        });
+    }
+
+    /**
+     * Executa {@code gravacao} na collection de origem e depois aplica {@code delta}. Antes da
+     * gravação o rollup recebe a marca de gravação em andamento (um {@code $inc} que também muda a
+     * {@code versao}), retirada junto com o {@code delta}: uma reconciliação que agregue entre a
+     * gravação e o {@code $inc} não regrava o rollup, e a que já estava calculando perde o CAS.
+     * Se a gravação falhar ou for cancelada, só a marca é retirada.
+     */
+    private <T> Mono<T> registrando(String tenantId, DashboardRollupDelta delta, Mono<T> gravacao) {
+        if (tenantId == null || delta.isEmpty()) {
+            return gravacao;
+        }
+        return marcarEscritaEmAndamento(tenantId)
+                .flatMap(marcada -> {
+                    // Sem a marca aplicada, retirá-la deixaria o contador negativo
+                    Mono<Void> retirarMarca = marcada
+                            ? aplicar(tenantId, new DashboardRollupDelta().escritaEmAndamento(-1))
+                            : Mono.empty();
+                    DashboardRollupDelta concluida = marcada ? delta.escritaEmAndamento(-1) : delta;
+                    return gravacao
+                            .doOnCancel(() -> retirarMarca.subscribe())
+                            .flatMap(resultado -> aplicar(tenantId, concluida).thenReturn(resultado))
+                            .switchIfEmpty(Mono.defer(() -> aplicar(tenantId, concluida).then(Mono.empty())))
+                            .onErrorResume(e -> retirarMarca.then(Mono.error(e)));
+                });
+    }
+
+    private Mono<Boolean> marcarEscritaEmAndamento(String tenantId) {
+        return rollupRepository.increment(tenantId, new DashboardRollupDelta().escritaEmAndamento(1))
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    log.warn("Falha ao marcar gravação em andamento no rollup do dashboard do tenant {}: {}",
+                            tenantId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Aplica a variação. Falhas são apenas registradas — a reconciliação corrige o rollup.
+     */
+    private Mono<Void> aplicar(String tenantId, DashboardRollupDelta delta) {
+        if (tenantId == null || delta.isEmpty()) {
+            return Mono.empty();
+        }
+        return rollupRepository.increment(tenantId, delta)
+                .onErrorResume(e -> {
+                    log.warn("Falha ao atualizar rollup do dashboard do tenant {}: {}", tenantId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static DashboardRollupDelta lancamento(DashboardRollupDelta delta, PayrollEntry entry, long quantidade) {
+        return delta.lancamento(anoDaReferencia(entry.getReferencia()), entry.getRubricaCodigo(), quantidade);
+    }
+
+    /**
+     * Ano da referência ("2017-08" → "2017"), com a mesma regra de {@code countLancamentosPorAno}.
+     */
+    private static String anoDaReferencia(String referencia) {
+        if (referencia == null || referencia.length() < 4) {
+            return null;
+        }
+        String ano = referencia.substring(0, 4);
+        return ano.chars().allMatch(Character::isDigit) ? ano : null;
+    }
+
+    private static String ano(Integer ano) {
+        return ano != null ? String.valueOf(ano) : null;
+    }
+
+    private static String ano(Instant instante) {
+        return instante != null ? String.valueOf(instante.atZone(ZoneOffset.UTC).getYear()) : null;
+    }
+
+    private static Mono<Map<String, Long>> serie(Flux<DashboardChartItem> itens) {
+        return itens.reduce(new HashMap<>(), (serie, item) -> {
+            serie.merge(item.getLabel().trim(), item.getValor(), Long::sum);
+            return serie;
+        });
+    }
+}
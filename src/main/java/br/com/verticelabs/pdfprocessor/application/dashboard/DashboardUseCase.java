@@ -1,9 +1,7 @@
 package br.com.verticelabs.pdfprocessor.application.dashboard;
 
-import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
-import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
-import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
-import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollup;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardMetric;
@@ -13,8 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,10 +23,8 @@ public class DashboardUseCase {
 
     private static final int TOP_RUBRICAS_LIMIT = 10;
 
-    private final PayrollDocumentRepository documentRepository;
-    private final PayrollEntryRepository entryRepository;
-    private final PersonRepository personRepository;
-    private final RubricaRepository rubricaRepository;
+    private final DashboardRollupService dashboardRollupService;
+    private final RubricaCatalog rubricaCatalog;
 
     public Mono<DashboardResponse> getDashboardMetrics() {
         log.info("=== DashboardUseCase.getDashboardMetrics() INICIADO ===");
@@ -55,6 +53,10 @@ public class DashboardUseCase {
                 .doOnError(error -> log.error("Erro ao obter métricas do dashboard", error));
     }
 
+    /**
+     * Totais e gráficos vêm do rollup do tenant (ou da visão de todos os tenants) mantido pelo
+     * {@link DashboardRollupService}: uma leitura por {@code _id}, sem agregar as collections.
+     */
     private Mono<DashboardResponse> getMetrics(
             String tenantId,
             String descDocumentos,
@@ -62,59 +64,52 @@ public class DashboardUseCase {
             String descPessoas,
             String descRubricas
     ) {
-        Mono<Long> totalDocumentosMono = tenantId == null
-                ? documentRepository.countAll().defaultIfEmpty(0L)
-                : documentRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
-
-        Mono<Long> totalLancamentosMono = tenantId == null
-                ? entryRepository.countAll().defaultIfEmpty(0L)
-                : entryRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
-
-        Mono<Long> totalPessoasMono = tenantId == null
-                ? personRepository.countAll().defaultIfEmpty(0L)
-                : personRepository.countByTenantId(tenantId).defaultIfEmpty(0L);
-
-        Mono<Long> totalRubricasMono = rubricaRepository.countAllAtivoTrue().defaultIfEmpty(0L);
-
-        Mono<List<DashboardChartItem>> graficoRubricasMono = entryRepository
-                .countTopRubricas(tenantId, TOP_RUBRICAS_LIMIT)
-                .collectList()
-                .defaultIfEmpty(Collections.emptyList());
-
-        Mono<List<DashboardChartItem>> graficoPessoasMono = personRepository
-                .countPessoasPorAno(tenantId)
-                .collectList()
-                .defaultIfEmpty(Collections.emptyList());
+        Mono<Long> totalRubricasMono = rubricaCatalog.countAtivas().defaultIfEmpty(0L);
+
+        return Mono.zip(dashboardRollupService.rollup(tenantId), totalRubricasMono)
+                .map(tuple -> {
+                    DashboardRollup rollup = tuple.getT1();
+                    return DashboardResponse.builder()
+                            .rubricas(buildMetric("Rubricas", tuple.getT2(), descRubricas))
+                            .pessoas(buildMetric("Pessoas", rollup.getPessoas(), descPessoas))
+                            .totalDocumentos(buildMetric("Total de Documentos", rollup.getDocumentos(), descDocumentos))
+                            .lancamentos(buildMetric("Lançamentos", rollup.getLancamentos(), descLancamentos))
+                            .graficoRubricas(topRubricas(rollup.getLancamentosPorRubrica()))
+                            .graficoPessoas(porAno(rollup.getPessoasPorAno()))
+                            .graficoDocumentos(porAno(rollup.getDocumentosPorAno()))
+                            .graficoLancamentos(porAno(rollup.getLancamentosPorAno()))
+                            .atualizadoEm(rollup.getAtualizadoEm())
+                            .reconciliadoEm(rollup.getReconciliadoEm())
+                            .build();
+                });
+    }
 
-        Mono<List<DashboardChartItem>> graficoDocumentosMono = documentRepository
-                .countDocumentosPorAno(tenantId)
-                .collectList()
-                .defaultIfEmpty(Collections.emptyList());
+    private List<DashboardChartItem> topRubricas(Map<String, Long> lancamentosPorRubrica) {
+        return chartItems(lancamentosPorRubrica)
+                .sorted(Comparator.comparing(DashboardChartItem::getValor).reversed())
+                .limit(TOP_RUBRICAS_LIMIT)
+                .toList();
+    }
 
-        Mono<List<DashboardChartItem>> graficoLancamentosMono = entryRepository
-                .countLancamentosPorAno(tenantId)
-                .collectList()
-                .defaultIfEmpty(Collections.emptyList());
+    private List<DashboardChartItem> porAno(Map<String, Long> serie) {
+        return chartItems(serie)
+                .sorted(Comparator.comparing(DashboardChartItem::getLabel))
+                .toList();
+    }
 
-        return Mono.zip(
-                totalDocumentosMono,
-                totalLancamentosMono,
-                totalPessoasMono,
-                totalRubricasMono,
-                graficoRubricasMono,
-                graficoPessoasMono,
-                graficoDocumentosMono,
-                graficoLancamentosMono
-        ).map(tuple -> DashboardResponse.builder()
-                .rubricas(buildMetric("Rubricas", tuple.getT4(), descRubricas))
-                .pessoas(buildMetric("Pessoas", tuple.getT3(), descPessoas))
-                .totalDocumentos(buildMetric("Total de Documentos", tuple.getT1(), descDocumentos))
-                .lancamentos(buildMetric("Lançamentos", tuple.getT2(), descLancamentos))
-                .graficoRubricas(tuple.getT5())
-                .graficoPessoas(tuple.getT6())
-                .graficoDocumentos(tuple.getT7())
-                .graficoLancamentos(tuple.getT8())
-                .build());
+    /**
+     * Itens com valor positivo (remoções deixam chaves zeradas no rollup).
+     */
+    private Stream<DashboardChartItem> chartItems(Map<String, Long> serie) {
+        if (serie == null) {
+            return Stream.empty();
+        }
+        return serie.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .map(entry -> DashboardChartItem.builder()
+                        .label(entry.getKey())
+                        .valor(entry.getValue())
+                        .build());
     }
 
     private DashboardMetric buildMetric(String titulo, Long valor, String descricao) {
@@ -1,5 +1,7 @@
 package br.com.verticelabs.pdfprocessor.application.documents;
 
+import br.com.verticelabs.pdfprocessor.application.consolidation.PersonConsolidationService;
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
@@ -21,6 +23,8 @@ public class DeleteDocumentUseCase {
     private final PayrollEntryRepository entryRepository;
     private final PersonRepository personRepository;
     private final GridFsService gridFsService;
+    private final PersonConsolidationService personConsolidationService;
+    private final DashboardRollupService dashboardRollupService;
 
     /**
      * Exclui um documento e todas as suas referências:
@@ -28,6 +32,8 @@ public class DeleteDocumentUseCase {
      * - PayrollEntry relacionadas (pelo documentoId)
      * - Arquivo no GridFS (fs.files e fs.chunks)
      * - Referência do documento na lista de documentos da Person
+     * Ao final, o snapshot de consolidação da pessoa é recalculado sem as entries do documento
+     * e o documento e suas entries são descontados do rollup do dashboard.
      */
     public Mono<Void> execute(String documentId) {
         log.info("=== INÍCIO DA EXCLUSÃO DE DOCUMENTO ===");
@@ -65,7 +71,8 @@ public class DeleteDocumentUseCase {
 
                     // 2. Deletar todas as entries relacionadas ao documento
                     log.info("Deletando entries relacionadas ao documento: {}", documentId);
-                    return entryRepository.deleteByTenantIdAndDocumentoId(tenantId, documentId)
+                    return dashboardRollupService.removendoEntries(tenantId, documentId,
+                                    entryRepository.deleteByTenantIdAndDocumentoId(tenantId, documentId))
                             .doOnSuccess(v -> log.info("✓ Entries deletadas com sucesso"))
                             .then(Mono.just(document));
                 })
@@ -129,9 +136,10 @@ public class DeleteDocumentUseCase {
                     String tenantId = document.getTenantId();
                     String docId = document.getId();
 
-                    // 5. Deletar o documento em si
+                    // 5. Deletar o documento em si (e descontá-lo do rollup do dashboard)
                     log.info("Deletando documento: {}", docId);
-                    return documentRepository.deleteByTenantIdAndId(tenantId, docId)
+                    return dashboardRollupService.removendoDocumento(document,
+                                    documentRepository.deleteByTenantIdAndId(tenantId, docId))
                             .doOnSuccess(v -> {
                                 log.info("=== EXCLUSÃO DE DOCUMENTO CONCLUÍDA COM SUCESSO ===");
                                 log.info("DocumentId: {}", documentId);
@@ -139,7 +147,9 @@ public class DeleteDocumentUseCase {
                                 log.info("✓ PayrollEntries deletadas");
                                 log.info("✓ Arquivo GridFS deletado");
                                 log.info("✓ Referência removida da Person");
-                            });
+                            })
+                            // 6. Recalcular o snapshot de consolidação da pessoa
+                            .then(personConsolidationService.entriesAlteradas(tenantId, document.getCpf()));
                 });
     }
 }
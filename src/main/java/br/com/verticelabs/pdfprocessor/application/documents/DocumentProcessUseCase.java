@@ -1,10 +1,17 @@
 package br.com.verticelabs.pdfprocessor.application.documents;
 
+import br.com.verticelabs.pdfprocessor.application.consolidation.PersonConsolidationService;
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.application.incometax.IrpfDeclaracaoDataMapper;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiQuotaExceededException;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.InvalidPdfException;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.PersonNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.model.*;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.ProcessingJobRepository;
 
 
 import br.com.verticelabs.pdfprocessor.domain.service.AiPdfExtractionService;
@@ -14,8 +21,12 @@ import br.com.verticelabs.pdfprocessor.domain.service.GridFsService;
 import br.com.verticelabs.pdfprocessor.domain.service.ITextIncomeTaxService;
 import br.com.verticelabs.pdfprocessor.domain.service.MonthYearDetectionService;
 import br.com.verticelabs.pdfprocessor.domain.service.PdfService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiPageRenderer;
 import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiResponseParser;
 import br.com.verticelabs.pdfprocessor.infrastructure.incometax.IncomeTaxGeminiHelper;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics.FallbackReason;
 import br.com.verticelabs.pdfprocessor.infrastructure.pdf.*;
 import br.com.verticelabs.pdfprocessor.interfaces.documents.dto.ProcessDocumentResponse;
 import lombok.RequiredArgsConstructor;
@@ -23,9 +34,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.time.Instant;
@@ -34,6 +47,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -47,6 +61,8 @@ public class DocumentProcessUseCase {
 
     private final PayrollDocumentRepository documentRepository;
     private final PayrollEntryRepository entryRepository;
+    private final PersonRepository personRepository;
+    private final ProcessingJobRepository processingJobRepository;
     private final GridFsService gridFsService;
     private final PdfService pdfService;
     private final AiPdfExtractionService aiPdfExtractionService;
@@ -59,6 +75,11 @@ public class DocumentProcessUseCase {
     private final PdfNormalizer normalizer;
     private final RubricaValidator rubricaValidator;
     private final IrpfDeclaracaoDataMapper irpfDeclaracaoDataMapper;
+    private final ExtractionMetrics extractionMetrics;
+    private final PageExtractionCache pageExtractionCache;
+    private final PagePipeline pagePipeline;
+    private final PersonConsolidationService personConsolidationService;
+    private final DashboardRollupService dashboardRollupService;
 
     // Limite mínimo de caracteres para considerar que o PDF tem texto suficiente
     // PDFs abaixo deste limite são considerados escaneados e usarão Gemini AI
@@ -91,7 +112,8 @@ public class DocumentProcessUseCase {
 
     /**
      * Processa um documento PDF previamente enviado.
-     * O processamento é assíncrono e não bloqueante.
+     * O documento é marcado como PROCESSING e enfileirado em processing_jobs;
+     * a execução fica a cargo do {@link ProcessingJobWorker}.
      */
     public Mono<ProcessDocumentResponse> processDocument(String documentId) {
         log.info("=== INÍCIO DO PROCESSAMENTO ===");
@@ -106,43 +128,95 @@ public class DocumentProcessUseCase {
                         return Mono.error(new IllegalStateException(
                                 "Documento já foi processado. Status atual: " + document.getStatus()));
                     }
+                    return enqueue(document, "Processamento iniciado.");
+                });
+    }
 
-                    // Atualizar status para PROCESSING
-                    document.setStatus(DocumentStatus.PROCESSING);
-                    return documentRepository.save(document)
-                            .flatMap(savedDoc -> {
-                                log.info("Status atualizado para PROCESSING. Iniciando processamento...");
-                                // Retornar resposta imediata
-                                ProcessDocumentResponse immediateResponse = ProcessDocumentResponse.builder()
-                                        .documentId(documentId)
-                                        .status(DocumentStatus.PROCESSING)
-                                        .message("Processamento iniciado.")
-                                        .build();
-
-                                // Processar em background
-                                processDocumentAsync(savedDoc)
-                                        .subscribe(
-                                                result -> log.info("Processamento concluído com sucesso. Entries: {}",
-                                                        result),
-                                                error -> {
-                                                    log.error("Erro no processamento assíncrono", error);
-                                                    // Atualizar status para ERROR
-                                                    documentRepository.findById(documentId)
-                                                            .flatMap(doc -> {
-                                                                doc.setStatus(DocumentStatus.ERROR);
-                                                                doc.setErro(error.getMessage());
-                                                                return documentRepository.save(doc);
-                                                            })
-                                                            .subscribe();
-                                                });
+    /**
+     * Reprocessa um documento já processado (PROCESSED ou ERROR).
+     * As entries anteriores do documento são removidas pelo worker antes da nova extração; as
+     * páginas cujo texto e JSON do Gemini estão no cache de extração não são extraídas de novo.
+     */
+    public Mono<ProcessDocumentResponse> reprocessDocument(String documentId) {
+        return reprocessDocument(documentId, false);
+    }
 
-                                return Mono.just(immediateResponse);
-                            });
+    /**
+     * Como {@link #reprocessDocument(String)}; com {@code refreshCache} o cache de extração do
+     * arquivo é descartado antes e todas as páginas são extraídas (e cobradas) de novo.
+     */
+    public Mono<ProcessDocumentResponse> reprocessDocument(String documentId, boolean refreshCache) {
+        log.info("=== INÍCIO DO REPROCESSAMENTO ===");
+        log.info("DocumentId: {}", documentId);
+
+        return documentRepository.findById(documentId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Documento não encontrado: " + documentId)))
+                .flatMap(document -> {
+                    if (document.getStatus() == DocumentStatus.PROCESSING) {
+                        log.warn("Documento {} já está em processamento", documentId);
+                        return Mono.error(new IllegalStateException(
+                                "Documento já está em processamento. Status atual: " + document.getStatus()));
+                    }
+                    document.setErro(null);
+                    Mono<Void> cache = refreshCache
+                            ? pageExtractionCache.invalidate(document.getFileHash())
+                            : Mono.empty();
+                    return cache.then(enqueue(document, "Reprocessamento iniciado."));
+                });
+    }
+
+    /**
+     * Atualiza o status para PROCESSING e coloca o documento na fila persistente.
+     */
+    private Mono<ProcessDocumentResponse> enqueue(PayrollDocument document, String message) {
+        document.setStatus(DocumentStatus.PROCESSING);
+        return documentRepository.updateStatus(document.getId(), DocumentStatus.PROCESSING, null)
+                .then(processingJobRepository.enqueue(document.getId(), document.getTenantId()))
+                .map(job -> {
+                    log.info("Status atualizado para PROCESSING. Documento {} enfileirado (job {}).",
+                            document.getId(), job.getId());
+                    return ProcessDocumentResponse.builder()
+                            .documentId(document.getId())
+                            .status(DocumentStatus.PROCESSING)
+                            .message(message)
+                            .build();
                 });
     }
 
+    /**
+     * Executa o processamento de um documento retirado da fila.
+     * Remove entries de execuções anteriores (retry após falha ou reprocessamento) para que
+     * a execução seja idempotente. Ao final (sucesso ou falha) o snapshot de consolidação
+     * da pessoa é recalculado.
+     */
+    public Mono<Long> runQueuedDocument(String documentId) {
+        return documentRepository.findById(documentId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Documento não encontrado: " + documentId)))
+                .flatMap(document -> dashboardRollupService.removendoEntries(document.getTenantId(), documentId,
+                                entryRepository.deleteByTenantIdAndDocumentoId(document.getTenantId(), documentId))
+                        .then(documentRepository.updateStatus(documentId, DocumentStatus.PROCESSING, null))
+                        .then(Mono.fromCallable(() -> {
+                            document.setStatus(DocumentStatus.PROCESSING);
+                            document.setErro(null);
+                            // Na instância desta execução o processingLog acumula só os eventos ainda
+                            // não gravados; saveIntermediateProgress os drena com $push
+                            document.setProcessingLog(new ArrayList<>());
+                            return document;
+                        })))
+                .flatMap(document -> processDocumentAsync(document)
+                        // Entries da pessoa mudaram (removidas acima e regravadas): atualizar snapshot
+                        .flatMap(count -> personConsolidationService
+                                .entriesAlteradas(document.getTenantId(), document.getCpf())
+                                .thenReturn(count))
+                        .onErrorResume(e -> personConsolidationService
+                                .entriesAlteradas(document.getTenantId(), document.getCpf())
+                                .then(Mono.error(e))));
+    }
+
     /**
      * Processa o documento de forma assíncrona.
+     * Em caso de falha grava os eventos e propaga o erro; quem decide entre nova tentativa e
+     * ERROR é o {@link ProcessingJobWorker}.
      */
     private Mono<Long> processDocumentAsync(PayrollDocument document) {
         log.info("Processando documento {} (tipo: {})", document.getId(), document.getTipo());
@@ -158,11 +232,9 @@ public class DocumentProcessUseCase {
             return processIncomeTaxDocument(document);
         }
 
-        return loadPdfFromGridFs(document.getOriginalFileId())
-                .flatMap(pdfBytes -> {
-                    log.info("PDF carregado do GridFS. Tamanho: {} bytes", pdfBytes.length);
-                    return processPages(document, pdfBytes);
-                })
+        // PDF copiado do GridFS para arquivo temporário e parseado uma única vez por execução
+        return withPdfSessionFromGridFs(document,
+                        session -> processPages(document, session))
                 .flatMap(entriesCount -> {
                     long elapsed = System.currentTimeMillis() - startTime;
                     log.info("Processamento concluído. Total de entries: {}", entriesCount);
@@ -175,8 +247,9 @@ public class DocumentProcessUseCase {
                     document.setStatus(DocumentStatus.PROCESSED);
                     document.setDataProcessamento(Instant.now());
                     document.setTotalEntries(entriesCount);
+                    document.setProcessedPages(document.getTotalPages());
 
-                    return documentRepository.save(document)
+                    return completeProcessing(document)
                             .thenReturn(entriesCount);
                 })
                 .onErrorResume(error -> {
@@ -187,34 +260,50 @@ public class DocumentProcessUseCase {
                             "Erro no processamento: " + error.getMessage(),
                             Map.of("errorMessage", error.getMessage(), "processingTimeMs", elapsed));
 
-                    document.setStatus(DocumentStatus.ERROR);
-                    document.setErro(error.getMessage());
-                    return documentRepository.save(document)
+                    // Status do documento fica com o ProcessingJobWorker (nova tentativa ou ERROR)
+                    return saveIntermediateProgress(document)
                             .then(Mono.error(error));
                 });
     }
 
     /**
-     * Carrega o PDF do GridFS.
+     * Copia o PDF do GridFS para um arquivo temporário e abre uma sessão sobre ele.
+     * O PDFBox lê o arquivo sob demanda; sessão e arquivo são liberados ao final.
+     * A sessão e o {@code fileHash} do documento ficam disponíveis para o {@link GeminiPageRenderer},
+     * que renderiza as páginas sem reabrir o PDF.
      */
-    private Mono<byte[]> loadPdfFromGridFs(String fileId) {
-        return gridFsService.retrieveFile(fileId)
-                .flatMap(inputStream -> {
-                    try {
-                        byte[] bytes = inputStream.readAllBytes();
-                        inputStream.close();
-                        return Mono.just(bytes);
-                    } catch (Exception e) {
-                        return Mono.error(new InvalidPdfException("Erro ao ler PDF do GridFS: " + e.getMessage()));
-                    }
-                });
+    private <T> Mono<T> withPdfSessionFromGridFs(PayrollDocument document, Function<PdfSession, Mono<T>> action) {
+        String fileId = document.getOriginalFileId();
+        return Mono.usingWhen(
+                gridFsService.retrieveFileToTemp(fileId)
+                        .switchIfEmpty(Mono.error(() -> new InvalidPdfException(
+                                "Arquivo não encontrado no GridFS: " + fileId)))
+                        .doOnNext(tempFile -> log.info("PDF copiado do GridFS para {}", tempFile)),
+                tempFile -> Mono.usingWhen(pdfService.openSession(tempFile),
+                        session -> GeminiPageRenderer.withSession(action.apply(session), session, document.getFileHash()),
+                        session -> Mono.fromRunnable(session::close)),
+                tempFile -> Mono.fromCallable(() -> Files.deleteIfExists(tempFile))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(error -> {
+                            log.warn("Não foi possível remover arquivo temporário {}: {}", tempFile, error.getMessage());
+                            return Mono.just(false);
+                        }));
     }
 
     /**
      * Processa todas as páginas do documento e extrai as rubricas.
      */
-    private Mono<Long> processPages(PayrollDocument document, byte[] pdfBytes) {
-        return pdfService.getTotalPages(new ByteArrayInputStream(pdfBytes))
+    private Mono<Long> processPages(PayrollDocument document, PdfSession session) {
+        return Mono.just(session.getTotalPages())
+                .doOnNext(totalPages -> {
+                    document.setTotalPages(totalPages);
+                    document.setProcessedPages(0);
+                    extractionMetrics.recordDocumentPages(document.getTipo(), totalPages);
+                })
+                .flatMap(totalPages -> documentRepository.startProgress(document.getId(), totalPages)
+                        .doOnError(error -> log.warn("⚠️ Falha ao iniciar contador de progresso: {}", error.getMessage()))
+                        .onErrorResume(error -> Mono.empty())
+                        .thenReturn(totalPages))
                 .flatMap(totalPages -> {
                     log.info("PDF possui {} páginas. Processando cada página...", totalPages);
 
@@ -226,42 +315,16 @@ public class DocumentProcessUseCase {
                         return Mono.just(0L);
                     }
 
-                    // Primeiro, verificar se alguma página precisa de extração de texto de imagem
-                    // Se sim, processar sequencialmente para evitar conflito de memória do
-                    // Tesseract
-                    return checkIfNeedsImageTextExtraction(pdfBytes, totalPages)
-                            .flatMap(needsImageTextExtraction -> {
-                                log.info("PDF precisa de extração de texto de imagem: {}. Processamento será {}",
-                                        needsImageTextExtraction, needsImageTextExtraction ? "sequencial" : "paralelo");
-
-                                // Se precisa de extração de texto de imagem, processar sequencialmente
-                                // (concatMap)
-                                // Caso contrário, processar em paralelo (flatMap)
-                                Flux<PageResult> pagesFlux;
-                                if (needsImageTextExtraction) {
-                                    pagesFlux = Flux.range(1, totalPages)
-                                            .concatMap(pageNumber -> {
-                                                log.debug("Processando página {}/{} (sequencial - extração de imagem)",
-                                                        pageNumber, totalPages);
-                                                return processPageWithMetadata(document, pdfBytes, pageNumber,
-                                                        totalPages)
-                                                        .flatMap(pageResult -> saveIntermediateProgress(document)
-                                                                .thenReturn(pageResult));
-                                            });
-                                } else {
-                                    pagesFlux = Flux.range(1, totalPages)
-                                            .flatMap(pageNumber -> {
-                                                log.debug("Processando página {}/{} (paralelo)", pageNumber,
-                                                        totalPages);
-                                                return processPageWithMetadata(document, pdfBytes, pageNumber,
-                                                        totalPages)
-                                                        .flatMap(pageResult -> saveIntermediateProgress(document)
-                                                                .thenReturn(pageResult));
-                                            });
-                                }
-
-                                return pagesFlux.collectList();
-                            })
+                    // Cada página segue seu caminho (regex ou IA) pelos estágios limitados do
+                    // PagePipeline; flatMapSequential mantém a ordem das páginas para o Pass 1
+                    return Flux.range(1, totalPages)
+                            .flatMapSequential(pageNumber -> {
+                                log.debug("Processando página {}/{}", pageNumber, totalPages);
+                                return processPageWithMetadata(document, session, pageNumber, totalPages)
+                                        .flatMap(pageResult -> savePageProgress(document)
+                                                .thenReturn(pageResult));
+                            }, pagePipeline.maxPagesInFlight())
+                            .collectList()
                             .flatMap(pageResults -> {
                                 // Pass 1: Consolidar entries de todas as páginas
                                 List<PayrollEntry> allEntries = new ArrayList<>();
@@ -289,7 +352,7 @@ public class DocumentProcessUseCase {
                                         allEntries.size(), failedPages);
 
                                 // Pass 2: Multi-page retry para páginas que falharam
-                                if (!failedPages.isEmpty() && aiPdfExtractionService.isEnabled()) {
+                                if (!failedPages.isEmpty() && aiPdfExtractionService.isAvailable()) {
                                     log.info(
                                             "════════════════════════════════════════════════════════════════════════════════");
                                     log.info("🔄 PASS 2 — MULTI-PAGE RETRY para {} páginas com 0 entries: {}",
@@ -297,7 +360,7 @@ public class DocumentProcessUseCase {
                                     log.info(
                                             "════════════════════════════════════════════════════════════════════════════════");
 
-                                    return executeMultiPageRetry(document, pdfBytes, failedPages, totalPages, allEntries)
+                                    return executeMultiPageRetry(document, session, failedPages, totalPages, allEntries)
                                             .flatMap(combinedEntries -> {
                                                 log.info(
                                                         "════════════════════════════════════════════════════════════════════════════════");
@@ -333,6 +396,36 @@ public class DocumentProcessUseCase {
                 });
     }
 
+    /**
+     * Preenche personId/cpf das entries com a pessoa dona do documento, para que as leituras por
+     * pessoa (consolidação, matriz, Excel) sejam uma única query no índice (tenantId, personId, referencia).
+     */
+    private Flux<PayrollEntry> withPerson(PayrollDocument document, List<PayrollEntry> entries) {
+        String cpf = document.getCpf();
+        if (cpf == null || cpf.isBlank()) {
+            return Flux.fromIterable(entries);
+        }
+        // Sem a pessoa as entries ficariam sem personId e invisíveis às leituras por pessoa: falha o documento
+        return personRepository.findByTenantIdAndCpf(document.getTenantId(), cpf)
+                .switchIfEmpty(Mono.error(new PersonNotFoundException(cpf, document.getTenantId())))
+                .flatMapMany(person -> {
+                    for (PayrollEntry entry : entries) {
+                        entry.setCpf(cpf);
+                        entry.setPersonId(person.getId());
+                    }
+                    return Flux.fromIterable(entries);
+                });
+    }
+
+    /**
+     * Grava as entries do documento (com a pessoa preenchida) e as soma ao rollup do dashboard.
+     */
+    private Mono<Long> insertEntries(PayrollDocument document, List<PayrollEntry> entries) {
+        return withPerson(document, entries).collectList()
+                .flatMap(comPessoa -> dashboardRollupService.inserindoEntries(document.getTenantId(), comPessoa,
+                        entryRepository.insertAll(comPessoa)));
+    }
+
     /**
      * Processa as entries extraídas (validação e persistência).
      */
@@ -411,13 +504,15 @@ public class DocumentProcessUseCase {
                     log.info("💾 SALVANDO {} ENTRIES VÁLIDAS NO BANCO DE DADOS:", validEntries.size());
                     log.info("════════════════════════════════════════════════════════════════════════════════");
 
-                    // Mostrar todas as entries que serão salvas
-                    for (int idx = 0; idx < validEntries.size(); idx++) {
-                        PayrollEntry entry = validEntries.get(idx);
-                        log.info(
-                                "Entry[{}]: código=[{}], descrição=[{}], valor=[{}], referência=[{}], origem=[{}], página=[{}]",
-                                idx + 1, entry.getRubricaCodigo(), entry.getRubricaDescricao(), entry.getValor(),
-                                entry.getReferencia(), entry.getOrigem(), entry.getPagina());
+                    // Entries individuais só em DEBUG: em documentos grandes são milhares de linhas
+                    if (log.isDebugEnabled()) {
+                        for (int idx = 0; idx < validEntries.size(); idx++) {
+                            PayrollEntry entry = validEntries.get(idx);
+                            log.debug(
+                                    "Entry[{}]: código=[{}], descrição=[{}], valor=[{}], referência=[{}], origem=[{}], página=[{}]",
+                                    idx + 1, entry.getRubricaCodigo(), entry.getRubricaDescricao(), entry.getValor(),
+                                    entry.getReferencia(), entry.getOrigem(), entry.getPagina());
+                        }
                     }
 
                     log.info("════════════════════════════════════════════════════════════════════════════════");
@@ -425,8 +520,8 @@ public class DocumentProcessUseCase {
                     final int totalExtracted = allEntries.size();
                     final int totalIgnored = ignoredCount;
 
-                    return entryRepository.saveAll(Flux.fromIterable(validEntries))
-                            .count()
+                    return extractionMetrics.timeEntriesSave(document.getTipo(),
+                                    insertEntries(document, validEntries))
                             .doOnNext(count -> {
                                 log.info(
                                         "════════════════════════════════════════════════════════════════════════════════");
@@ -466,7 +561,7 @@ public class DocumentProcessUseCase {
      *
      * As entries do retry são adicionadas ao resultado do Pass 1, com deduplicação.
      */
-    private Mono<List<PayrollEntry>> executeMultiPageRetry(PayrollDocument document, byte[] pdfBytes,
+    private Mono<List<PayrollEntry>> executeMultiPageRetry(PayrollDocument document, PdfSession session,
                                                             List<Integer> failedPages, int totalPages,
                                                             List<PayrollEntry> pass1Entries) {
 
@@ -481,7 +576,7 @@ public class DocumentProcessUseCase {
                     long retryStart = System.currentTimeMillis();
 
                     // Estratégia 1: Tentar extração com prompt para página parcial
-                    return aiPdfExtractionService.extractPayrollDataPartialPage(pdfBytes, failedPage)
+                    return aiPdfExtractionService.extractPayrollDataPartialPage(session, failedPage)
                             .flatMap(jsonResponse -> {
                                 if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
                                     return Mono.just(new ArrayList<PayrollEntry>());
@@ -505,14 +600,14 @@ public class DocumentProcessUseCase {
                                 }
 
                                 // Estratégia 2: Multi-page com página anterior + página que falhou
-                                return tryMultiPageWithAdjacentPages(document, pdfBytes, failedPage,
+                                return tryMultiPageWithAdjacentPages(document, session, failedPage,
                                         totalPages, origem, retryStart);
                             })
-                            .onErrorResume(error -> {
+                            .onErrorResume(error -> !isAiQuotaExceeded(error), error -> {
                                 log.warn("⚠️ Retry parcial falhou para página {}: {}. Tentando multi-page...",
                                         failedPage, error.getMessage());
                                 long retryStart2 = System.currentTimeMillis();
-                                return tryMultiPageWithAdjacentPages(document, pdfBytes, failedPage,
+                                return tryMultiPageWithAdjacentPages(document, session, failedPage,
                                         totalPages, origem, retryStart2);
                             });
                 })
@@ -545,7 +640,7 @@ public class DocumentProcessUseCase {
      * Tenta extração multi-page combinando a página que falhou com suas adjacentes.
      * Tenta primeiro com a página anterior (N-1 + N), depois com a próxima (N + N+1).
      */
-    private Mono<List<PayrollEntry>> tryMultiPageWithAdjacentPages(PayrollDocument document, byte[] pdfBytes,
+    private Mono<List<PayrollEntry>> tryMultiPageWithAdjacentPages(PayrollDocument document, PdfSession session,
                                                                     int failedPage, int totalPages,
                                                                     String origem, long retryStart) {
         // Tentar com página anterior primeiro (mais provável — a continuação vem da anterior)
@@ -554,16 +649,16 @@ public class DocumentProcessUseCase {
             log.info("🔄 Tentando multi-page com páginas {} para recuperar dados da página {}...",
                     pages, failedPage);
 
-            return aiPdfExtractionService.extractPayrollDataMultiPage(pdfBytes, pages)
+            return aiPdfExtractionService.extractPayrollDataMultiPage(session, pages)
                     .flatMap(jsonResponse -> parseMultiPageResponse(document, jsonResponse,
                             failedPage, pages, origem, retryStart))
-                    .onErrorResume(error -> {
+                    .onErrorResume(error -> !isAiQuotaExceeded(error), error -> {
                         log.warn("⚠️ Multi-page com páginas {}-{} falhou: {}",
                                 failedPage - 1, failedPage, error.getMessage());
 
                         // Tentar com a próxima página
                         if (failedPage < totalPages) {
-                            return tryMultiPageWithNextPage(document, pdfBytes, failedPage,
+                            return tryMultiPageWithNextPage(document, session, failedPage,
                                     totalPages, origem, retryStart);
                         }
 
@@ -574,7 +669,7 @@ public class DocumentProcessUseCase {
                         return Mono.just(new ArrayList<>());
                     });
         } else if (failedPage < totalPages) {
-            return tryMultiPageWithNextPage(document, pdfBytes, failedPage,
+            return tryMultiPageWithNextPage(document, session, failedPage,
                     totalPages, origem, retryStart);
         }
 
@@ -588,7 +683,7 @@ public class DocumentProcessUseCase {
     /**
      * Tenta multi-page com a próxima página (failedPage + failedPage+1).
      */
-    private Mono<List<PayrollEntry>> tryMultiPageWithNextPage(PayrollDocument document, byte[] pdfBytes,
+    private Mono<List<PayrollEntry>> tryMultiPageWithNextPage(PayrollDocument document, PdfSession session,
                                                                int failedPage, int totalPages,
                                                                String origem, long retryStart) {
         if (failedPage >= totalPages) {
@@ -599,10 +694,10 @@ public class DocumentProcessUseCase {
         log.info("🔄 Tentando multi-page com páginas {} para recuperar dados da página {}...",
                 pages, failedPage);
 
-        return aiPdfExtractionService.extractPayrollDataMultiPage(pdfBytes, pages)
+        return aiPdfExtractionService.extractPayrollDataMultiPage(session, pages)
                 .flatMap(jsonResponse -> parseMultiPageResponse(document, jsonResponse,
                         failedPage, pages, origem, retryStart))
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !isAiQuotaExceeded(error), error -> {
                     long elapsed = System.currentTimeMillis() - retryStart;
                     log.warn("⚠️ Multi-page com páginas {}-{} também falhou: {}",
                             failedPage, failedPage + 1, error.getMessage());
@@ -719,10 +814,11 @@ public class DocumentProcessUseCase {
      * usa extração JSON estruturada do Gemini Vision (Fase 2).
      * Para páginas digitais com texto legível, usa o parser regex tradicional.
      */
-        Mono<PageResult> processPageWithMetadata(PayrollDocument document, byte[] pdfBytes,
+        Mono<PageResult> processPageWithMetadata(PayrollDocument document, PdfSession session,
             int pageNumber, int totalPages) {
         // Tentar extrair texto normalmente primeiro
-        return pdfService.extractTextFromPage(new ByteArrayInputStream(pdfBytes), pageNumber)
+        return pageExtractionCache.pageText(document.getFileHash(), pageNumber,
+                        pagePipeline.text(extractionMetrics.timePageTextExtraction(session.extractTextFromPage(pageNumber))))
                 .flatMap(pageText -> {
                     // Se o texto extraído for ilegível (muito curto OU com fontes sem Unicode mapping),
                     // tentar usar Gemini AI com JSON estruturado
@@ -735,9 +831,10 @@ public class DocumentProcessUseCase {
                         addWarnEvent(document, pageNumber, ProcessingEventType.TEXT_UNREADABLE,
                                 String.format("Texto ilegível (%d chars). Fontes sem mapeamento Unicode ou PDF escaneado.", textLen),
                                 Map.of("textLength", textLen));
+                        extractionMetrics.fallbackTriggered(FallbackReason.TEXT_UNREADABLE);
 
                         return saveIntermediateProgress(document)
-                                .then(processPageWithGemini(document, pdfBytes, pageNumber));
+                                .then(processPageWithGemini(document, session, pageNumber));
                     }
 
                     // Texto legível — parser regex
@@ -746,17 +843,25 @@ public class DocumentProcessUseCase {
                             String.format("Texto legível extraído (%d chars). Usando parser regex.", readableLen),
                             Map.of("textLength", readableLen));
 
-                    return processPageTextWithParser(document, pageText, pageNumber)
+                    return pagePipeline.text(processPageTextWithParser(document, pageText, pageNumber))
                             .flatMap(parserResult -> {
                                 // Se o parser regex não encontrou nenhuma rubrica, acionar fallback
                                 if (parserResult.getEntries().isEmpty()) {
+                                    if (aiPdfExtractionService.isEnabled() && !aiPdfExtractionService.isAvailable()) {
+                                        log.warn("\u26A0\uFE0F Parser regex extraiu 0 rubricas na página {}, mas o Gemini AI está indisponível (circuito aberto).", pageNumber);
+                                        addWarnEvent(document, pageNumber, ProcessingEventType.GEMINI_EXTRACTION_FAILED,
+                                                String.format("Parser regex extraiu 0 rubricas na página %d, mas o Gemini AI está indisponível (circuito aberto). Fallback não executado.", pageNumber),
+                                                Map.of("entriesCount", 0));
+                                        return Mono.just(parserResult);
+                                    }
                                     if (aiPdfExtractionService.isEnabled()) {
                                         log.warn("\u26A0\uFE0F Parser regex extraiu 0 rubricas na página {}. Acionando fallback para Gemini AI...", pageNumber);
                                         addWarnEvent(document, pageNumber, ProcessingEventType.TEXT_UNREADABLE,
                                                 String.format("Parser regex extraiu 0 rubricas na página %d. Iniciando extração via Gemini AI...", pageNumber),
                                                 Map.of("entriesCount", 0));
+                                        extractionMetrics.fallbackTriggered(FallbackReason.ZERO_RUBRICAS);
                                         return saveIntermediateProgress(document)
-                                                .then(processPageWithGemini(document, pdfBytes, pageNumber));
+                                                .then(processPageWithGemini(document, session, pageNumber, parserResult));
                                     } else {
                                         log.warn("\u26A0\uFE0F Parser regex extraiu 0 rubricas na página {}, mas Gemini AI está desabilitado.", pageNumber);
                                         return Mono.just(parserResult);
@@ -819,17 +924,20 @@ public class DocumentProcessUseCase {
                                     valDetails.put("totalDescontos", descontos);
                                     valDetails.put("salarioLiquido", liquido);
 
-                                    if (aiPdfExtractionService.isEnabled()) {
+                                    if (aiPdfExtractionService.isAvailable()) {
                                         log.warn("\u26A0\uFE0F Validação reprovada para parser regex na página {} (score: {}). Iniciando fallback para Gemini AI...", pageNumber, scoreStr);
                                         addWarnEvent(document, pageNumber, ProcessingEventType.VALIDATION_FAILED,
                                                 String.format("Validação da extração por regex reprovada na página %d (score: %s). Acionando fallback para Gemini AI...", pageNumber, scoreStr),
                                                 valDetails);
+                                        extractionMetrics.fallbackTriggered(FallbackReason.VALIDATION_FAILED);
                                         return saveIntermediateProgress(document)
-                                                .then(processPageWithGemini(document, pdfBytes, pageNumber));
+                                                .then(processPageWithGemini(document, session, pageNumber, parserResult));
                                     } else {
-                                        log.warn("\u26A0\uFE0F Validação reprovada para parser regex na página {} (score: {}), mas Gemini AI está desabilitado.", pageNumber, scoreStr);
+                                        String motivo = aiPdfExtractionService.isEnabled()
+                                                ? "Gemini AI está indisponível (circuito aberto)" : "Gemini AI está desabilitado";
+                                        log.warn("\u26A0\uFE0F Validação reprovada para parser regex na página {} (score: {}), mas {}.", pageNumber, scoreStr, motivo);
                                         addWarnEvent(document, pageNumber, ProcessingEventType.VALIDATION_FAILED,
-                                                String.format("Validação da extração por regex reprovada na página %d (score: %s), mas Gemini AI está desabilitado. Mantendo extração por regex.", pageNumber, scoreStr),
+                                                String.format("Validação da extração por regex reprovada na página %d (score: %s), mas %s. Mantendo extração por regex.", pageNumber, scoreStr, motivo),
                                                 valDetails);
                                         return Mono.just(parserResult);
                                     }
@@ -843,7 +951,7 @@ public class DocumentProcessUseCase {
                                 return Mono.just(parserResult);
                             });
                 })
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !isAiQuotaExceeded(error), error -> {
                     log.error("Erro ao processar página {}", pageNumber, error);
                     // Continuar processamento mesmo com erro em uma página
                     return Mono.just(new PageResult(new ArrayList<>()));
@@ -883,12 +991,11 @@ public class DocumentProcessUseCase {
                             pageNumber, pageType, referencia);
                     log.info("════════════════════════════════════════════════════════════════════════════════");
 
-                    List<PdfLineParser.ParsedLine> parsedLines;
-                    if (pageType == DocumentType.FUNCEF) {
-                        parsedLines = lineParser.parseLinesFuncef(pageText, referencia);
-                    } else {
-                        parsedLines = lineParser.parseLines(pageText, pageType);
-                    }
+                    final String referenciaHeader = referencia;
+                    List<PdfLineParser.ParsedLine> parsedLines = extractionMetrics.timeRegexParse(pageType,
+                            () -> pageType == DocumentType.FUNCEF
+                                    ? lineParser.parseLinesFuncef(pageText, referenciaHeader)
+                                    : lineParser.parseLines(pageText, pageType));
 
                     log.info("📊 Total de linhas parseadas: {}", parsedLines.size());
 
@@ -1108,49 +1215,56 @@ public class DocumentProcessUseCase {
     }
 
     /**
-     * Salva o documento intermediariamente para persistir o processingLog acumulado.
+     * Persiste os eventos ainda não gravados do processingLog com $push, sem reescrever o documento.
      * Permite que o frontend faça polling e veja o progresso em tempo real.
      */
     private Mono<Void> saveIntermediateProgress(PayrollDocument document) {
-        return documentRepository.save(document)
-                .doOnSuccess(saved -> log.info("💾 Progresso intermediário salvo — {} eventos no processingLog",
-                        saved.getProcessingLog().size()))
-                .doOnError(error -> log.warn("⚠️ Falha ao salvar progresso intermediário: {}", error.getMessage()))
-                .onErrorResume(error -> Mono.just(document))
-                .then();
+        return Mono.defer(() -> {
+            List<ProcessingEvent> events;
+            synchronized (document.getProcessingLog()) {
+                List<ProcessingEvent> pending = document.getProcessingLog();
+                if (document.getId() == null || pending.isEmpty()) {
+                    return Mono.empty();
+                }
+                events = new ArrayList<>(pending);
+                pending.clear();
+            }
+            return documentRepository.appendProcessingEvents(document.getId(), events)
+                    .doOnSuccess(v -> log.debug("💾 Progresso intermediário salvo — {} novo(s) evento(s) no processingLog",
+                            events.size()))
+                    .doOnError(error -> log.warn("⚠️ Falha ao salvar progresso intermediário: {}", error.getMessage()))
+                    .onErrorResume(error -> Mono.empty());
+        });
     }
 
-    // ==================== FIM PROCESSING LOG HELPERS ====================
-
     /**
-     * Verifica se o PDF precisa de extração de texto de imagem verificando o texto
-     * da primeira página.
+     * Grava os eventos pendentes e marca o documento como PROCESSED com $set dos campos do
+     * resultado, sem reescrever o documento (o processingLog já está no banco).
      */
-    private Mono<Boolean> checkIfNeedsImageTextExtraction(byte[] pdfBytes, int totalPages) {
-        if (totalPages == 0) {
-            return Mono.just(false);
-        }
+    private Mono<Void> completeProcessing(PayrollDocument document) {
+        return saveIntermediateProgress(document)
+                .then(documentRepository.markProcessed(document));
+    }
 
-        // Verificar apenas a primeira página para determinar se precisa de extração de
-        // texto de imagem
-        return pdfService.extractTextFromPage(new ByteArrayInputStream(pdfBytes), 1)
-                .map(pageText -> {
-                    boolean needsImageTextExtraction = !isTextReadable(pageText);
-                    log.info("Primeira página tem {} caracteres (legível: {}). Precisa de extração de texto de imagem: {}",
-                            pageText != null ? pageText.trim().length() : 0,
-                            !needsImageTextExtraction,
-                            needsImageTextExtraction);
-                    return needsImageTextExtraction;
-                })
-                .onErrorReturn(true); // Se houver erro, assumir que precisa de extração de texto de imagem
+    /**
+     * Registra a conclusão de uma página ($inc processedPages) e grava os eventos pendentes.
+     */
+    private Mono<Void> savePageProgress(PayrollDocument document) {
+        return documentRepository.incrementProcessedPages(document.getId())
+                .doOnError(error -> log.warn("⚠️ Falha ao atualizar páginas processadas: {}", error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .then(saveIntermediateProgress(document));
     }
 
+    // ==================== FIM PROCESSING LOG HELPERS ====================
+
     /**
      * Valida uma entry verificando se a rubrica existe no banco.
      * Retorna a entry se válida, ou null se a rubrica não for encontrada.
      */
     private Mono<PayrollEntry> validateEntry(PayrollEntry entry) {
-        return rubricaValidator.validateRubrica(entry.getRubricaCodigo(), entry.getRubricaDescricao())
+        return extractionMetrics.timeRubricaValidation(
+                        rubricaValidator.validateRubrica(entry.getRubricaCodigo(), entry.getRubricaDescricao()))
                 .map(rubrica -> {
                     log.debug("Rubrica {} validada: {}", entry.getRubricaCodigo(), rubrica.getDescricao());
                     return entry;
@@ -1175,14 +1289,12 @@ public class DocumentProcessUseCase {
     /**
      * Verifica se o PDF de IR é digitalizado (sem texto embutido legível).
      */
-    private Mono<Boolean> isIncomeTaxPdfScanned(byte[] pdfBytes) {
-        return pdfService.getTotalPages(new ByteArrayInputStream(pdfBytes))
-                .flatMap(totalPages -> Flux.range(1, totalPages)
-                        .concatMap(page -> pdfService.extractTextFromPage(
-                                        new ByteArrayInputStream(pdfBytes), page)
-                                .defaultIfEmpty(""))
-                        .collectList()
-                        .map(pages -> !isIncomeTaxTextReadable(String.join("\n", pages))));
+    private Mono<Boolean> isIncomeTaxPdfScanned(PdfSession session) {
+        return Flux.range(1, session.getTotalPages())
+                .concatMap(page -> session.extractTextFromPage(page)
+                        .defaultIfEmpty(""))
+                .collectList()
+                .map(pages -> !isIncomeTaxTextReadable(String.join("\n", pages)));
     }
 
     private boolean isIncomeTaxTextReadable(String text) {
@@ -1205,7 +1317,7 @@ public class DocumentProcessUseCase {
      * Usa Gemini 2.5 para extrair IR. PDFs digitalizados usam Pro e percorrem as últimas páginas.
      */
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
-            extractIncomeTaxWithGemini(PayrollDocument document, byte[] pdfBytes, boolean scannedPdf) {
+            extractIncomeTaxWithGemini(PayrollDocument document, PdfSession session, boolean scannedPdf) {
 
         if (!aiPdfExtractionService.isEnabled()) {
             log.warn("⚠️ Gemini AI desabilitado — fallback IR não será executado.");
@@ -1223,18 +1335,18 @@ public class DocumentProcessUseCase {
                         modelForIr, scannedPdf ? " — PDF digitalizado" : " — fallback iText"),
                 Map.of("model", modelForIr, "scannedPdf", scannedPdf));
 
-        return resolveCandidateResumoPages(pdfBytes, scannedPdf)
-                .flatMap(pages -> tryGeminiIrExtractionOnPages(document, pdfBytes, pages, scannedPdf))
-                .flatMap(irInfo -> enrichIrWithPagamentosAndDependentes(document, pdfBytes, irInfo, scannedPdf));
+        return resolveCandidateResumoPages(session, scannedPdf)
+                .flatMap(pages -> tryGeminiIrExtractionOnPages(document, session, pages, scannedPdf))
+                .flatMap(irInfo -> enrichIrWithPagamentosAndDependentes(document, session, irInfo, scannedPdf));
     }
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
-            extractIncomeTaxWithGemini(PayrollDocument document, byte[] pdfBytes) {
-        return extractIncomeTaxWithGemini(document, pdfBytes, false);
+            extractIncomeTaxWithGemini(PayrollDocument document, PdfSession session) {
+        return extractIncomeTaxWithGemini(document, session, false);
     }
 
-    private Mono<List<Integer>> resolveCandidateResumoPages(byte[] pdfBytes, boolean scannedPdf) {
-        return pdfService.getTotalPages(new ByteArrayInputStream(pdfBytes))
+    private Mono<List<Integer>> resolveCandidateResumoPages(PdfSession session, boolean scannedPdf) {
+        return Mono.just(session.getTotalPages())
                 .flatMap(totalPages -> {
                     if (scannedPdf) {
                         List<Integer> pages = new ArrayList<>();
@@ -1246,8 +1358,8 @@ public class DocumentProcessUseCase {
                         return Mono.just(pages);
                     }
                     return Flux.range(1, totalPages)
-                            .concatMap(page -> pdfService
-                                    .extractTextFromPage(new ByteArrayInputStream(pdfBytes), page)
+                            .concatMap(page -> session
+                                    .extractTextFromPage(page)
                                     .filter(text -> text != null && text.toUpperCase().contains("RESUMO"))
                                     .map(text -> page))
                             .next()
@@ -1258,19 +1370,19 @@ public class DocumentProcessUseCase {
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             tryGeminiIrExtractionOnPages(
-                    PayrollDocument document, byte[] pdfBytes, List<Integer> candidatePages, boolean scannedPdf) {
+                    PayrollDocument document, PdfSession session, List<Integer> candidatePages, boolean scannedPdf) {
 
         return Flux.fromIterable(candidatePages)
                 .concatMap(page -> {
                     Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo> multiPageFirst =
                             scannedPdf && page > 1
-                                    ? extractIncomeTaxFromGeminiMultiPage(document, pdfBytes, page - 1, page, scannedPdf)
+                                    ? extractIncomeTaxFromGeminiMultiPage(document, session, page - 1, page, scannedPdf)
                                     : Mono.empty();
                     return multiPageFirst
-                            .switchIfEmpty(extractIncomeTaxFromGeminiPage(document, pdfBytes, page, true, scannedPdf))
-                            .switchIfEmpty(extractIncomeTaxFromGeminiPage(document, pdfBytes, page, false, scannedPdf))
+                            .switchIfEmpty(extractIncomeTaxFromGeminiPage(document, session, page, true, scannedPdf))
+                            .switchIfEmpty(extractIncomeTaxFromGeminiPage(document, session, page, false, scannedPdf))
                             .switchIfEmpty(!scannedPdf && page > 1
-                                    ? extractIncomeTaxFromGeminiMultiPage(document, pdfBytes, page - 1, page, scannedPdf)
+                                    ? extractIncomeTaxFromGeminiMultiPage(document, session, page - 1, page, scannedPdf)
                                     : Mono.empty());
                 })
                 .next();
@@ -1278,7 +1390,7 @@ public class DocumentProcessUseCase {
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             extractIncomeTaxFromGeminiMultiPage(
-                    PayrollDocument document, byte[] pdfBytes, int pageBefore, int pageAfter, boolean scannedPdf) {
+                    PayrollDocument document, PdfSession session, int pageBefore, int pageAfter, boolean scannedPdf) {
 
         String modelName = aiPdfExtractionService.getFallbackModelName();
         log.info("🤖 Gemini IR multi-página: {}+{} com {}...", pageBefore, pageAfter, modelName);
@@ -1286,7 +1398,7 @@ public class DocumentProcessUseCase {
 
         return saveIntermediateProgress(document)
                 .then(aiPdfExtractionService.extractIncomeTaxDataMultiPageWithPro(
-                        pdfBytes, List.of(pageBefore, pageAfter)))
+                        session, List.of(pageBefore, pageAfter)))
                 .flatMap(jsonResponse -> {
                     long elapsed = System.currentTimeMillis() - start;
                     if (jsonResponse == null || jsonResponse.trim().isEmpty()) {
@@ -1311,7 +1423,7 @@ public class DocumentProcessUseCase {
                                     "multiPage", true));
                     return Mono.just(irInfo);
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                     log.error("❌ Gemini [{}] págs. {}+{}: {}", modelName, pageBefore, pageAfter, e.getMessage());
                     return Mono.empty();
                 });
@@ -1319,7 +1431,7 @@ public class DocumentProcessUseCase {
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             extractIncomeTaxFromGeminiPage(
-                    PayrollDocument document, byte[] pdfBytes, int resumoPage,
+                    PayrollDocument document, PdfSession session, int resumoPage,
                     boolean useProModel, boolean scannedPdf) {
 
         String modelName = useProModel
@@ -1330,8 +1442,8 @@ public class DocumentProcessUseCase {
         long start = System.currentTimeMillis();
 
         Mono<String> geminiCall = useProModel
-                ? aiPdfExtractionService.extractIncomeTaxDataWithPro(pdfBytes, resumoPage)
-                : aiPdfExtractionService.extractIncomeTaxData(pdfBytes, resumoPage);
+                ? aiPdfExtractionService.extractIncomeTaxDataWithPro(session, resumoPage)
+                : aiPdfExtractionService.extractIncomeTaxData(session, resumoPage);
 
         return saveIntermediateProgress(document)
                 .then(geminiCall)
@@ -1356,7 +1468,7 @@ public class DocumentProcessUseCase {
                                     "processingTimeMs", elapsed, "resumoPage", resumoPage));
                     return Mono.just(irInfo);
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                     log.error("❌ Gemini [{}] pág. {}: {}", modelName, resumoPage, e.getMessage());
                     return Mono.empty();
                 });
@@ -1369,7 +1481,7 @@ public class DocumentProcessUseCase {
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             enrichIrWithPagamentosAndDependentes(
                     PayrollDocument document,
-                    byte[] pdfBytes,
+                    PdfSession session,
                     br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo irInfo,
                     boolean scannedPdf) {
 
@@ -1387,21 +1499,21 @@ public class DocumentProcessUseCase {
 
         Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo> base =
                 needsPagamentos
-                        ? extractPagamentosViaGemini(document, pdfBytes, irInfo)
+                        ? extractPagamentosViaGemini(document, session, irInfo)
                         : Mono.just(irInfo);
 
         return base.flatMap(withPag -> needsDependentes
-                ? extractDependentesViaGemini(document, pdfBytes, withPag)
+                ? extractDependentesViaGemini(document, session, withPag)
                 : Mono.just(withPag));
     }
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             extractPagamentosViaGemini(
                     PayrollDocument document,
-                    byte[] pdfBytes,
+                    PdfSession session,
                     br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo irInfo) {
 
-        return pdfService.getTotalPages(new ByteArrayInputStream(pdfBytes))
+        return Mono.just(session.getTotalPages())
                 .flatMap(totalPages -> {
                     List<Integer> pages = new ArrayList<>();
                     int start = Math.max(1, totalPages - SCANNED_IR_PAGAMENTOS_PAGE_LOOKBACK + 1);
@@ -1412,12 +1524,12 @@ public class DocumentProcessUseCase {
 
                     return Flux.fromIterable(pages)
                             .concatMap(page -> aiPdfExtractionService
-                                    .extractIncomeTaxPagamentosWithPro(pdfBytes, page)
+                                    .extractIncomeTaxPagamentosWithPro(session, page)
                                     .map(GeminiResponseParser::parsePagamentosResponse)
                                     .filter(list -> list != null && !list.isEmpty())
                                     .doOnNext(list -> log.info(
                                             "✅ Gemini PAGAMENTOS pág. {}: {} item(ns)", page, list.size()))
-                                    .onErrorResume(e -> {
+                                    .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                                         log.warn("⚠️ Gemini PAGAMENTOS pág. {}: {}", page, e.getMessage());
                                         return Mono.empty();
                                     }))
@@ -1431,7 +1543,7 @@ public class DocumentProcessUseCase {
                             })
                             .defaultIfEmpty(irInfo);
                 })
-                .onErrorResume(e -> {
+                .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                     log.warn("⚠️ Falha ao extrair PAGAMENTOS via Gemini: {}", e.getMessage());
                     return Mono.just(irInfo);
                 });
@@ -1440,13 +1552,13 @@ public class DocumentProcessUseCase {
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
             extractDependentesViaGemini(
                     PayrollDocument document,
-                    byte[] pdfBytes,
+                    PdfSession session,
                     br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo irInfo) {
 
         // Lista/total costumam estar na página 1; tenta também página 2 se a 1 falhar
         return Flux.just(1, 2)
                 .concatMap(page -> aiPdfExtractionService
-                        .extractIncomeTaxDependentesWithPro(pdfBytes, page)
+                        .extractIncomeTaxDependentesWithPro(session, page)
                         .map(GeminiResponseParser::parseDependentesResponse)
                         .filter(res -> (res.dependentes() != null && !res.dependentes().isEmpty())
                                 || res.totalDeducao() != null)
@@ -1455,7 +1567,7 @@ public class DocumentProcessUseCase {
                                 page,
                                 res.dependentes() != null ? res.dependentes().size() : 0,
                                 res.totalDeducao()))
-                        .onErrorResume(e -> {
+                        .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                             log.warn("⚠️ Gemini DEPENDENTES pág. {}: {}", page, e.getMessage());
                             return Mono.empty();
                         }))
@@ -1471,7 +1583,7 @@ public class DocumentProcessUseCase {
                             irInfo, res.dependentes(), res.totalDeducao());
                 })
                 .defaultIfEmpty(irInfo)
-                .onErrorResume(e -> {
+                .onErrorResume(e -> !isAiQuotaExceeded(e), e -> {
                     log.warn("⚠️ Falha ao extrair DEPENDENTES via Gemini: {}", e.getMessage());
                     return Mono.just(irInfo);
                 });
@@ -1495,43 +1607,44 @@ public class DocumentProcessUseCase {
             return Mono.error(new IllegalStateException("TenantId não encontrado no documento"));
         }
 
-        return loadPdfFromGridFs(document.getOriginalFileId())
-                .flatMap(pdfBytes -> isIncomeTaxPdfScanned(pdfBytes)
-                        .flatMap(scanned -> {
-                            if (scanned) {
-                                log.info("📷 Declaração IR digitalizada detectada — pulando iText, usando Gemini 2.5 Pro.");
-                                addInfoEvent(document, null, ProcessingEventType.TEXT_UNREADABLE,
-                                        "PDF digitalizado detectado. Extração via Gemini 2.5 Pro (sem iText).",
-                                        Map.of("scannedPdf", true));
-
-                                if (!aiPdfExtractionService.isEnabled()) {
-                                    return Mono.error(new IllegalStateException(
-                                            "PDF digitalizado requer Gemini AI habilitado (gemini.enabled + config no banco)."));
-                                }
-                                return extractIncomeTaxWithGemini(document, pdfBytes, true)
-                                        .switchIfEmpty(Mono.error(new IllegalStateException(
-                                                "Gemini 2.5 não conseguiu extrair dados da declaração digitalizada.")));
-                            }
-                            return extractIncomeTaxWithITextThenGemini(document, pdfBytes);
-                        }))
+        return withPdfSessionFromGridFs(document,
+                        session -> Mono.fromRunnable(() -> extractionMetrics.recordDocumentPages(
+                                        document.getTipo(), session.getTotalPages()))
+                                .then(isIncomeTaxPdfScanned(session))
+                                .flatMap(scanned -> {
+                                    if (scanned) {
+                                        log.info("📷 Declaração IR digitalizada detectada — pulando iText, usando Gemini 2.5 Pro.");
+                                        addInfoEvent(document, null, ProcessingEventType.TEXT_UNREADABLE,
+                                                "PDF digitalizado detectado. Extração via Gemini 2.5 Pro (sem iText).",
+                                                Map.of("scannedPdf", true));
+
+                                        if (!aiPdfExtractionService.isEnabled()) {
+                                            return Mono.error(new IllegalStateException(
+                                                    "PDF digitalizado requer Gemini AI habilitado (gemini.enabled + config no banco)."));
+                                        }
+                                        return extractIncomeTaxWithGemini(document, session, true)
+                                                .switchIfEmpty(Mono.error(new IllegalStateException(
+                                                        "Gemini 2.5 não conseguiu extrair dados da declaração digitalizada.")));
+                                    }
+                                    return extractIncomeTaxWithITextThenGemini(document, session);
+                                }))
                 .flatMap(incomeTaxInfo -> processIncomeTaxDocumentEntries(document, tenantId, incomeTaxInfo))
                 .onErrorResume(error -> {
                     log.error("Erro ao processar declaração de IR", error);
-                    document.setStatus(DocumentStatus.ERROR);
-                    document.setErro(error.getMessage());
-                    return documentRepository.save(document)
+                    // Status do documento fica com o ProcessingJobWorker (nova tentativa ou ERROR)
+                    return saveIntermediateProgress(document)
                             .then(Mono.error(error));
                 });
     }
 
     private Mono<br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService.IncomeTaxInfo>
-            extractIncomeTaxWithITextThenGemini(PayrollDocument document, byte[] pdfBytes) {
+            extractIncomeTaxWithITextThenGemini(PayrollDocument document, PdfSession session) {
         log.info("PDF carregado do GridFS. Extraindo informações da declaração de IR via iText...");
 
         addInfoEvent(document, null, ProcessingEventType.TEXT_EXTRACTED,
                 "Iniciando extração de IR via iText.");
 
-        return iTextIncomeTaxService.extractIncomeTaxInfo(new ByteArrayInputStream(pdfBytes))
+        return iTextIncomeTaxService.extractIncomeTaxInfo(new ByteArrayInputStream(session.getPdfBytes()))
                 .flatMap(iTextInfo -> {
                     if (isIncomeTaxInfoSufficient(iTextInfo)) {
                         log.info("✅ iText extraiu dados suficientes de IR. cpf={}, anoCalendario={}",
@@ -1551,17 +1664,17 @@ public class DocumentProcessUseCase {
                                     iTextInfo.getCpf(), iTextInfo.getAnoCalendario()),
                             Map.of());
 
-                    return extractIncomeTaxWithGemini(document, pdfBytes, false)
+                    return extractIncomeTaxWithGemini(document, session, false)
                             .switchIfEmpty(Mono.just(iTextInfo));
                 })
-                .onErrorResume(iTextError -> {
+                .onErrorResume(iTextError -> !isAiQuotaExceeded(iTextError), iTextError -> {
                     log.warn("⚠️ iText falhou ao extrair IR: {}. Acionando fallback Gemini...",
                             iTextError.getMessage());
                     addWarnEvent(document, null, ProcessingEventType.TEXT_UNREADABLE,
                             String.format("iText falhou: %s. Acionando fallback Gemini 2.5.", iTextError.getMessage()),
                             Map.of("errorMessage", iTextError.getMessage()));
 
-                    return extractIncomeTaxWithGemini(document, pdfBytes, false)
+                    return extractIncomeTaxWithGemini(document, session, false)
                             .switchIfEmpty(Mono.error(iTextError));
                 });
     }
@@ -1894,11 +2007,11 @@ public class DocumentProcessUseCase {
                         document.setStatus(DocumentStatus.PROCESSED);
                         document.setDataProcessamento(Instant.now());
                         document.setTotalEntries(0L);
-                        return documentRepository.save(document).thenReturn(0L);
+                        return completeProcessing(document).thenReturn(0L);
                     }
 
-                    return entryRepository.saveAll(Flux.fromIterable(entries))
-                            .count()
+                    return extractionMetrics.timeEntriesSave(document.getTipo(),
+                                    insertEntries(document, entries))
                             .doOnNext(count -> {
                                 log.info("✅ {} entries de declaração de IR salvas com sucesso", count);
                             })
@@ -1910,10 +2023,12 @@ public class DocumentProcessUseCase {
                                 document.setTotalEntries(count);
 
                                 // Atualizar anoDetectado se estiver null e o ano-calendário foi extraído
+                                boolean anoNovo = false;
                                 if (document.getAnoDetectado() == null && incomeTaxInfo.getAnoCalendario() != null) {
                                     try {
                                         Integer anoCalendario = Integer.parseInt(incomeTaxInfo.getAnoCalendario());
                                         document.setAnoDetectado(anoCalendario);
+                                        anoNovo = true;
                                         log.info("Ano detectado atualizado para: {}", anoCalendario);
                                     } catch (NumberFormatException e) {
                                         log.warn("Não foi possível converter ano-calendário para Integer: {}",
@@ -1929,8 +2044,12 @@ public class DocumentProcessUseCase {
                                             document.getAnoDetectado());
                                 }
 
-                                return documentRepository.save(document)
-                                        .thenReturn(count);
+                                // Documento já contado no dashboard sem ano: entra agora na série por ano
+                                Mono<Void> conclusao = anoNovo
+                                        ? dashboardRollupService.detectandoAnoDoDocumento(document,
+                                                completeProcessing(document))
+                                        : completeProcessing(document);
+                                return conclusao.thenReturn(count);
                             });
     }
 
@@ -1951,7 +2070,27 @@ public class DocumentProcessUseCase {
                 .build();
     }
 
-    private Mono<PageResult> processPageWithGemini(PayrollDocument document, byte[] pdfBytes, int pageNumber) {
+    private Mono<PageResult> processPageWithGemini(PayrollDocument document, PdfSession session, int pageNumber) {
+        return processPageWithGemini(document, session, pageNumber, null);
+    }
+
+    /**
+     * Extração da página via Gemini no estágio {@code ai} do {@link PagePipeline}: a página espera
+     * vaga ali sem segurar o estágio de texto das demais.
+     *
+     * @param regexResult resultado do parser regex da página, se houver; é devolvido na hora
+     *                    quando o circuito do Gemini está aberto ({@link AiUnavailableException}),
+     *                    em vez de tentar a extração de texto cru pelo mesmo serviço indisponível.
+     *                    Falta de cota ({@link AiQuotaExceededException}) não cai aqui: falha o
+     *                    documento para nova tentativa pela fila
+     */
+    private Mono<PageResult> processPageWithGemini(PayrollDocument document, PdfSession session, int pageNumber,
+                                                   PageResult regexResult) {
+        return pagePipeline.ai(Mono.defer(() -> extractPageWithGemini(document, session, pageNumber, regexResult)));
+    }
+
+    private Mono<PageResult> extractPageWithGemini(PayrollDocument document, PdfSession session, int pageNumber,
+                                                   PageResult regexResult) {
         if (!aiPdfExtractionService.isEnabled()) {
             log.warn("\u26A0\uFE0F Gemini AI desabilitado. Página {} será ignorada.", pageNumber);
             return Mono.just(new PageResult(new ArrayList<>()));
@@ -1967,7 +2106,9 @@ public class DocumentProcessUseCase {
 
         // Salvar progresso intermediário ANTES de iniciar a extração com Gemini
         return saveIntermediateProgress(document)
-                .then(aiPdfExtractionService.extractPayrollData(pdfBytes, pageNumber))
+                .then(pageExtractionCache.geminiPayroll(document.getFileHash(), pageNumber, modelName,
+                        aiPdfExtractionService.getPayrollImageProfile(),
+                        Mono.defer(() -> aiPdfExtractionService.extractPayrollDataWithModel(session, pageNumber))))
                 .flatMap(jsonResponse -> {
                     long geminiElapsed = System.currentTimeMillis() - geminiStart;
 
@@ -2110,7 +2251,7 @@ public class DocumentProcessUseCase {
                         // Salvar progresso intermediário ANTES de iniciar a cross-validation
                         return saveIntermediateProgress(document)
                                 .then(crossValidationService.crossValidate(
-                                        pdfBytes, pageNumber,
+                                        session, pageNumber,
                                         parsedData.getEntries(),
                                         jsonResponse,
                                         document.getId(),
@@ -2149,7 +2290,9 @@ public class DocumentProcessUseCase {
                                         long proStart = System.currentTimeMillis();
                                         // Salvar progresso intermediário ANTES de escalar para o Gemini Pro
                                         return saveIntermediateProgress(document)
-                                                .then(aiPdfExtractionService.extractPayrollDataWithFallback(pdfBytes, pageNumber))
+                                                .then(pageExtractionCache.geminiPayrollPro(document.getFileHash(), pageNumber, proModelName,
+                                                        aiPdfExtractionService.getPayrollImageProfile(),
+                                                        Mono.defer(() -> aiPdfExtractionService.extractPayrollDataWithFallback(session, pageNumber))))
                                                 .map(proJsonResponse -> {
                                                     long proElapsed = System.currentTimeMillis() - proStart;
 
@@ -2217,7 +2360,7 @@ public class DocumentProcessUseCase {
                                                             Map.of("processingTimeMs", proElapsed));
                                                     return new PageResult(crossResult.consolidatedEntries());
                                                 })
-                                                .onErrorResume(proError -> {
+                                                .onErrorResume(proError -> !isAiQuotaExceeded(proError), proError -> {
                                                     long proElapsed = System.currentTimeMillis() - proStart;
                                                     log.error("\u274C Erro ao escalar para Gemini Pro na página {}: {}. Usando cross-validation.",
                                                             pageNumber, proError.getMessage());
@@ -2238,7 +2381,7 @@ public class DocumentProcessUseCase {
                     // Score >= 0.85 — dados confiáveis, usar direto
                     return Mono.just(new PageResult(parsedData.getEntries()));
                 })
-                .onErrorResume(error -> {
+                .onErrorResume(error -> !isAiQuotaExceeded(error), error -> {
                     long geminiElapsed = System.currentTimeMillis() - geminiStart;
                     log.error("\u274C Erro ao usar Gemini [{}] na página {}: {}. Tentando extração de texto...",
                             modelName, pageNumber, error.getMessage());
@@ -2249,8 +2392,14 @@ public class DocumentProcessUseCase {
                             Map.of("model", modelName, "processingTimeMs", geminiElapsed,
                                     "errorMessage", error.getMessage()));
 
+                    if (isAiUnavailable(error)) {
+                        log.warn("\u26A0\uFE0F Gemini indisponível na página {}. Mantendo resultado do parser regex ({} rubricas).",
+                                pageNumber, regexResult != null ? regexResult.getEntries().size() : 0);
+                        return Mono.just(regexResult != null ? regexResult : new PageResult(new ArrayList<>()));
+                    }
+
                     // Fallback: tentar extração de texto cru como antes
-                    return aiPdfExtractionService.extractTextFromScannedPage(pdfBytes, pageNumber)
+                    return aiPdfExtractionService.extractTextFromScannedPage(session, pageNumber)
                             .map(extractedText -> {
                                 if (extractedText != null && !extractedText.trim().isEmpty()) {
                                     log.info("\u2705 Fallback: Gemini extraiu {} caracteres (texto) da página {}",
@@ -2259,14 +2408,37 @@ public class DocumentProcessUseCase {
                                 }
                                 return "";
                             })
-                            .flatMap(text -> processPageTextWithParser(document, text, pageNumber))
-                            .onErrorResume(err -> {
+                            .flatMap(text -> pagePipeline.text(processPageTextWithParser(document, text, pageNumber)))
+                            .onErrorResume(err -> !isAiQuotaExceeded(err), err -> {
                                 log.error("\u274C Fallback também falhou na página {}: {}", pageNumber, err.getMessage());
                                 return Mono.just(new PageResult(new ArrayList<>()));
                             });
                 });
     }
 
+    private static boolean isAiUnavailable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof AiUnavailableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recusa por falta de vaga ou cota no Gemini: não é tratada como falha da página — propaga
+     * até o {@link ProcessingJobWorker}, que tenta o documento de novo com backoff (as páginas já
+     * extraídas ficam no cache de extração).
+     */
+    private static boolean isAiQuotaExceeded(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof AiQuotaExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static String extractString(String text, Pattern pattern) {
         if (text == null || pattern == null) {
             return null;
@@ -4,6 +4,7 @@ import br.com.verticelabs.pdfprocessor.application.security.EvaluatorAccessServi
 import br.com.verticelabs.pdfprocessor.domain.exceptions.DocumentNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.PersonNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentStatus;
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentSummary;
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
 import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
@@ -22,6 +23,8 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -69,7 +72,7 @@ public class DocumentQueryUseCase {
                 .map(doc -> {
                     DocumentResponse response = toDocumentResponse(doc);
                     // Incluir processingLog apenas no detalhe (não em listagens)
-                    response.setProcessingLog(doc.getProcessingLog());
+                    response.setProcessingLog(chronological(doc.getProcessingLog()));
                     return response;
                 })
                 .doOnSuccess(response -> {
@@ -84,16 +87,16 @@ public class DocumentQueryUseCase {
 
     /**
      * Retorna o status de processamento de um documento (endpoint leve para polling).
-     * Inclui status, totalPages e processingLog.
+     * Inclui status, totalPages, processedPages e processingLog; lê apenas esses campos do banco.
      */
     public Mono<ProcessingStatusResponse> getProcessingStatus(String id) {
-        return documentRepository.findById(id)
+        return documentRepository.findProcessingStatusById(id)
                 .switchIfEmpty(Mono.defer(() ->
                         Mono.error(new DocumentNotFoundException("Documento não encontrado: " + id))))
                 .map(doc -> {
-                    // Extrair totalPages do primeiro evento PROCESSING_STARTED que tenha a info
-                    Integer totalPages = null;
-                    if (doc.getProcessingLog() != null) {
+                    // Documentos antigos não têm o contador: extrair totalPages do primeiro evento que tenha a info
+                    Integer totalPages = doc.getTotalPages();
+                    if (totalPages == null && doc.getProcessingLog() != null) {
                         totalPages = doc.getProcessingLog().stream()
                                 .filter(e -> e.getDetails() != null && e.getDetails().containsKey("totalPages"))
                                 .findFirst()
@@ -105,12 +108,27 @@ public class DocumentQueryUseCase {
                             .documentId(doc.getId())
                             .status(doc.getStatus())
                             .totalPages(totalPages)
+                            .processedPages(doc.getProcessedPages())
                             .erro(doc.getErro())
-                            .processingLog(doc.getProcessingLog())
+                            .processingLog(chronological(doc.getProcessingLog()))
                             .build();
                 });
     }
 
+    /**
+     * processingLog em ordem cronológica: os eventos são gravados com $push por página, e páginas
+     * processadas em paralelo podem gravar fora de ordem.
+     */
+    private static List<ProcessingEvent> chronological(List<ProcessingEvent> processingLog) {
+        if (processingLog == null || processingLog.size() < 2) {
+            return processingLog;
+        }
+        List<ProcessingEvent> ordenado = new ArrayList<>(processingLog);
+        ordenado.sort(Comparator.comparing(ProcessingEvent::getTimestamp,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return ordenado;
+    }
+
     /**
      * Lista todos os documentos de uma pessoa específica (por personId)
      */
@@ -152,7 +170,7 @@ public class DocumentQueryUseCase {
                 .flatMap(person -> {
                     log.info("✓ Pessoa encontrada: {} ({})", person.getNome(), person.getCpf());
                     // Buscar documentos usando tenantId e CPF da pessoa encontrada
-                    return documentRepository.findByTenantIdAndCpf(person.getTenantId(), person.getCpf())
+                    return documentRepository.findSummariesByTenantIdAndCpf(person.getTenantId(), person.getCpf())
                             .map(this::toDocumentListItemResponse)
                             .collectList()
                             .map(docs -> {
@@ -181,7 +199,7 @@ public class DocumentQueryUseCase {
                     
                     log.info("✓ Pessoa encontrada: {} ({})", person.getNome(), person.getCpf());
                     // Buscar documentos usando tenantId e CPF da pessoa
-                    return documentRepository.findByTenantIdAndCpf(tenantId, person.getCpf())
+                    return documentRepository.findSummariesByTenantIdAndCpf(tenantId, person.getCpf())
                             .map(this::toDocumentListItemResponse)
                             .collectList()
                             .map(docs -> {
@@ -229,7 +247,7 @@ public class DocumentQueryUseCase {
 
     private Mono<DocumentListResponse> findDocumentsByCpfForSuperAdmin(String cpf) {
         // SUPER_ADMIN: buscar documentos diretamente pelo CPF (sem filtrar por tenantId)
-        return documentRepository.findByCpf(cpf)
+        return documentRepository.findSummariesByCpf(cpf)
                 .map(this::toDocumentListItemResponse)
                 .collectList()
                 .map(docs -> {
@@ -251,7 +269,7 @@ public class DocumentQueryUseCase {
                 .flatMap(person -> {
                     log.info("✓ Pessoa encontrada: {} ({})", person.getNome(), person.getCpf());
                     // Buscar documentos filtrando por tenantId e CPF
-                    return documentRepository.findByTenantIdAndCpf(tenantId, cpf)
+                    return documentRepository.findSummariesByTenantIdAndCpf(tenantId, cpf)
                             .map(this::toDocumentListItemResponse)
                             .collectList()
                             .map(docs -> {
@@ -410,8 +428,9 @@ public class DocumentQueryUseCase {
                 builder.progressPercent(Math.round((float) pagesProcessed / totalPages * 100));
             }
 
-            // Último evento
-            ProcessingEvent lastEvent = processingLog.get(processingLog.size() - 1);
+            // Último evento (o mais recente, não o último gravado)
+            List<ProcessingEvent> ordenado = chronological(processingLog);
+            ProcessingEvent lastEvent = ordenado.get(ordenado.size() - 1);
             builder.lastEventMessage(lastEvent.getMessage());
             builder.lastEventType(lastEvent.getType().name());
         }
@@ -420,10 +439,10 @@ public class DocumentQueryUseCase {
     }
 
     /**
-     * Converte PayrollDocument para DocumentListItemResponse, incluindo campos de progresso
-     * quando o documento está em PROCESSING.
+     * Converte DocumentSummary para DocumentListItemResponse, incluindo campos de progresso
+     * quando o documento já tem eventos no processingLog.
      */
-    private DocumentListItemResponse toDocumentListItemResponse(PayrollDocument doc) {
+    private DocumentListItemResponse toDocumentListItemResponse(DocumentSummary doc) {
         DocumentListItemResponse.DocumentListItemResponseBuilder builder = DocumentListItemResponse.builder()
                 .id(doc.getId())
                 .ano(doc.getAnoDetectado())
@@ -434,30 +453,14 @@ public class DocumentQueryUseCase {
                 .dataProcessamento(doc.getDataProcessamento())
                 .totalEntries(doc.getTotalEntries());
 
-        // Incluir campos de progresso quando está processando ou já processou
-        List<ProcessingEvent> processingLog = doc.getProcessingLog();
-        if (processingLog != null && !processingLog.isEmpty()) {
-            builder.eventsCount(processingLog.size());
+        // Campos de progresso já reduzidos do processingLog pela agregação
+        if (doc.getEventsCount() > 0) {
+            builder.eventsCount(doc.getEventsCount());
 
-            // Extrair totalPages do evento PROCESSING_STARTED
-            Integer totalPages = processingLog.stream()
-                    .filter(e -> e.getDetails() != null && e.getDetails().containsKey("totalPages"))
-                    .findFirst()
-                    .map(e -> ((Number) e.getDetails().get("totalPages")).intValue())
-                    .orElse(null);
+            Integer totalPages = doc.getTotalPagesDoLog();
             builder.totalPages(totalPages);
 
-            // Contar páginas já processadas (distintas com GEMINI_EXTRACTION_COMPLETED ou TEXT_EXTRACTED)
-            Set<Integer> processedPages = new HashSet<>();
-            for (ProcessingEvent event : processingLog) {
-                if (event.getPage() != null &&
-                    ("GEMINI_EXTRACTION_COMPLETED".equals(event.getType().name()) ||
-                     "TEXT_EXTRACTED".equals(event.getType().name()) ||
-                     "ESCALATION_COMPLETED".equals(event.getType().name()))) {
-                    processedPages.add(event.getPage());
-                }
-            }
-            int pagesProcessed = processedPages.size();
+            int pagesProcessed = doc.getPagesProcessed();
             builder.pagesProcessed(pagesProcessed);
 
             // Calcular percentual de progresso
@@ -465,13 +468,10 @@ public class DocumentQueryUseCase {
                 builder.progressPercent(Math.round((float) pagesProcessed / totalPages * 100));
             }
 
-            // Último evento significativo (não-debug)
-            ProcessingEvent lastEvent = processingLog.get(processingLog.size() - 1);
-            builder.lastEventMessage(lastEvent.getMessage());
-            builder.lastEventType(lastEvent.getType().name());
+            builder.lastEventMessage(doc.getLastEventMessage());
+            builder.lastEventType(doc.getLastEventType() != null ? doc.getLastEventType().name() : null);
         }
 
         return builder.build();
     }
 }
-
@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.documents;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.DocumentoDuplicadoException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.InvalidCpfException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.InvalidPdfException;
@@ -15,7 +16,9 @@ import br.com.verticelabs.pdfprocessor.domain.service.DocumentTypeDetectionServi
 import br.com.verticelabs.pdfprocessor.domain.service.GridFsService;
 import br.com.verticelabs.pdfprocessor.domain.service.MonthYearDetectionService;
 import br.com.verticelabs.pdfprocessor.domain.service.PdfService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
+import br.com.verticelabs.pdfprocessor.infrastructure.storage.UploadSpooler;
 import br.com.verticelabs.pdfprocessor.infrastructure.tenant.ReactiveTenantContext;
 import br.com.verticelabs.pdfprocessor.interfaces.documents.dto.UploadDocumentResponse;
 import lombok.RequiredArgsConstructor;
@@ -24,9 +27,8 @@ import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.security.MessageDigest;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -41,6 +43,7 @@ import java.util.stream.Collectors;
 public class DocumentUploadUseCase {
 
     private final GridFsService gridFsService;
+    private final UploadSpooler uploadSpooler;
     private final PdfService pdfService;
     private final DocumentTypeDetectionService typeDetectionService;
     private final MonthYearDetectionService monthYearDetectionService;
@@ -49,6 +52,7 @@ public class DocumentUploadUseCase {
     private final PayrollDocumentRepository documentRepository;
     private final DocumentProcessUseCase documentProcessUseCase;
     private final DeleteDocumentUseCase deleteDocumentUseCase;
+    private final DashboardRollupService dashboardRollupService;
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
     private static final String PDF_CONTENT_TYPE = "application/pdf";
@@ -171,48 +175,42 @@ public class DocumentUploadUseCase {
                     }
                     return Mono.just(valid);
                 })
-                // 3. Ler conteúdo do arquivo UMA VEZ e armazenar em memória
-                .flatMap(v -> {
-                    log.info("Lendo conteúdo do arquivo para calcular hash e processar...");
-                    return readFileContent(filePart)
-                            .flatMap(inputStream -> {
-                                // Ler todos os bytes e calcular hash ao mesmo tempo
-                                return Mono.fromCallable(() -> {
-                                    byte[] fileBytes = inputStream.readAllBytes();
-                                    inputStream.close();
-                                    return fileBytes;
-                                }).subscribeOn(Schedulers.boundedElastic());
-                            });
-                })
-                .flatMap(fileBytes -> {
-                    log.info("Arquivo lido em memória. Tamanho: {} bytes", fileBytes.length);
-                    // Calcular hash dos bytes
-                    log.info("Calculando hash SHA-256 do arquivo...");
-                    return calculateFileHashFromBytes(fileBytes)
-                            .flatMap(fileHash -> {
-                                log.info("Hash calculado: {}", fileHash);
-                                log.info("Verificando duplicidade para tenant: {}", tenantId);
-                                return documentRepository.findByTenantIdAndFileHash(tenantId, fileHash)
-                                    .flatMap(existingDoc -> handleDuplicateDocument(
-                                            existingDoc.getId(), replaceIfDuplicate,
-                                            () -> processNewDocument(fileBytes, cpf, nome, matricula, fileHash, filePart.filename(), tenantId)))
-                                    .switchIfEmpty(
-                                            Mono.defer(() -> {
-                                                log.info("Arquivo não é duplicado. Iniciando processamento...");
-                                                return processNewDocument(fileBytes, cpf, nome, matricula, fileHash, filePart.filename(), tenantId);
-                                            })
-                                    );
-                            });
-                });
+                // 3. Receber o upload em arquivo temporário calculando o hash na mesma passada;
+                //    a duplicidade é verificada antes de qualquer parse ou gravação no GridFS
+                .flatMap(v -> Mono.usingWhen(
+                        uploadSpooler.spool(filePart),
+                        upload -> {
+                            String fileHash = upload.sha256();
+                            log.info("Hash calculado: {}", fileHash);
+                            log.info("Verificando duplicidade para tenant: {}", tenantId);
+                            return documentRepository.findByTenantIdAndFileHash(tenantId, fileHash)
+                                .flatMap(existingDoc -> handleDuplicateDocument(
+                                        existingDoc.getId(), replaceIfDuplicate,
+                                        () -> processNewDocument(upload.path(), cpf, nome, matricula, fileHash, filePart.filename(), tenantId)))
+                                .switchIfEmpty(
+                                        Mono.defer(() -> {
+                                            log.info("Arquivo não é duplicado. Iniciando processamento...");
+                                            return processNewDocument(upload.path(), cpf, nome, matricula, fileHash, filePart.filename(), tenantId);
+                                        })
+                                );
+                        },
+                        upload -> uploadSpooler.delete(upload.path())));
     }
 
-    private Mono<UploadDocumentResponse> processNewDocument(byte[] fileBytes, String cpf, String nome, String matricula, String fileHash, String filename, String tenantId) {
+    private Mono<UploadDocumentResponse> processNewDocument(Path file, String cpf, String nome, String matricula, String fileHash, String filename, String tenantId) {
+        // Uma única sessão sobre o arquivo serve à detecção de tipo e à varredura de páginas
+        return Mono.usingWhen(pdfService.openSession(file),
+                session -> processNewDocument(session, file, cpf, nome, matricula, fileHash, filename, tenantId),
+                session -> Mono.fromRunnable(session::close));
+    }
+
+    private Mono<UploadDocumentResponse> processNewDocument(PdfSession session, Path file, String cpf, String nome, String matricula, String fileHash, String filename, String tenantId) {
         log.info("Processando novo documento para tenant: {}", tenantId);
-        log.info("Arquivo em memória. Tamanho: {} bytes", fileBytes.length);
+        log.info("Arquivo temporário: {}. Páginas: {}", file, session.getTotalPages());
         
         // Extrair texto do PDF completo
         log.info("Extraindo texto do PDF...");
-        return pdfService.extractText(new java.io.ByteArrayInputStream(fileBytes))
+        return session.extractText()
                             .flatMap(pdfText -> {
                                 log.info("Texto extraído. Tamanho: {} caracteres", pdfText != null ? pdfText.length() : 0);
                                 // Detectar tipo do documento
@@ -228,7 +226,7 @@ public class DocumentUploadUseCase {
                                             log.info("Salvando arquivo no GridFS com deduplicação (hash: {})...", 
                                                     fileHash.substring(0, 16) + "...");
                                             return gridFsService.storeFileWithHash(
-                                                    new java.io.ByteArrayInputStream(fileBytes),
+                                                    file,
                                                     filename,
                                                     PDF_CONTENT_TYPE,
                                                     fileHash
@@ -237,7 +235,7 @@ public class DocumentUploadUseCase {
                                                 log.info("Arquivo salvo no GridFS com ID: {}", fileId);
                                                 // Processar páginas para detectar meses/anos
                                                 log.info("Processando páginas do PDF para detectar meses/anos...");
-                                                return processPages(fileBytes, documentType)
+                                                return processPages(session)
                                                     .flatMap(pageData -> {
                                                         List<String> mesesDetectados = pageData.mesesDetectados;
                                                         List<DetectedPage> detectedPages = pageData.detectedPages;
@@ -262,7 +260,8 @@ public class DocumentUploadUseCase {
                                                                 .dataUpload(Instant.now())
                                                                 .build();
 
-                                                        return documentRepository.save(document)
+                                                        return dashboardRollupService.criandoDocumento(document,
+                                                                        documentRepository.save(document))
                                                                 .flatMap(savedDoc -> {
                                                                     log.info("PayrollDocument salvo. ID: {}", savedDoc.getId());
                                                                     // Apenas adicionar o documento à lista de documentos da Person
@@ -304,25 +303,6 @@ public class DocumentUploadUseCase {
                             });
     }
 
-    private Mono<String> calculateFileHashFromBytes(byte[] fileBytes) {
-        return Mono.fromCallable(() -> {
-            try {
-                MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                digest.update(fileBytes);
-                byte[] hashBytes = digest.digest();
-                
-                // Converter para hexadecimal
-                StringBuilder sb = new StringBuilder();
-                for (byte b : hashBytes) {
-                    sb.append(String.format("%02x", b));
-                }
-                return sb.toString();
-            } catch (Exception e) {
-                throw new RuntimeException("Erro ao calcular hash do arquivo", e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
-    }
-
     private Mono<Boolean> validateFile(FilePart filePart) {
         // Validar extensão
         String filename = filePart.filename();
@@ -334,24 +314,6 @@ public class DocumentUploadUseCase {
         return Mono.just(true);
     }
 
-    private Mono<java.io.InputStream> readFileContent(FilePart filePart) {
-        // Escreve o conteúdo em arquivo temporário liberando cada DataBuffer conforme consumido,
-        // evitando manter todos os buffers diretos (NIO/Netty) em memória ao mesmo tempo
-        // (causa de OutOfMemoryError de direct buffer no upload múltiplo).
-        return Mono.fromCallable(() -> java.nio.file.Files.createTempFile("pdf-upload-", ".tmp"))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(tempPath -> org.springframework.core.io.buffer.DataBufferUtils
-                        .write(filePart.content(), tempPath)
-                        .then(Mono.fromCallable(() -> {
-                            try {
-                                byte[] bytes = java.nio.file.Files.readAllBytes(tempPath);
-                                return (java.io.InputStream) new java.io.ByteArrayInputStream(bytes);
-                            } finally {
-                                java.nio.file.Files.deleteIfExists(tempPath);
-                            }
-                        }).subscribeOn(Schedulers.boundedElastic())));
-    }
-
     private Mono<Person> ensurePersonExists(String cpf, String nome, String matricula, String tenantId) {
         log.info("=== ensurePersonExists() INICIADO ===");
         log.info("CPF: {}, Nome: {}, Matrícula: {}, TenantId: {}", cpf, nome, matricula, tenantId);
@@ -435,7 +397,7 @@ public class DocumentUploadUseCase {
                             log.info("Person criada (antes de salvar): Nome: {}, Matrícula: {}", 
                                     newPerson.getNome(), newPerson.getMatricula());
                             
-                            return personRepository.save(newPerson)
+                            return dashboardRollupService.criandoPessoa(newPerson, personRepository.save(newPerson))
                                     .doOnNext(saved -> {
                                         log.info("✅ Person criada com sucesso! Nome: {}, Matrícula: {}", 
                                                 saved.getNome(), saved.getMatricula());
@@ -456,8 +418,8 @@ public class DocumentUploadUseCase {
         }
     }
 
-    private Mono<PageData> processPages(byte[] fileBytes, br.com.verticelabs.pdfprocessor.domain.model.DocumentType documentType) {
-        return pdfService.getTotalPages(new java.io.ByteArrayInputStream(fileBytes))
+    private Mono<PageData> processPages(PdfSession session) {
+        return Mono.just(session.getTotalPages())
                 .flatMap(totalPages -> {
                     log.info("PDF possui {} páginas. Processando cada página...", totalPages);
                     
@@ -469,7 +431,7 @@ public class DocumentUploadUseCase {
                     return Flux.range(1, totalPages)
                             .flatMap(pageNumber -> {
                                 log.debug("Processando página {}/{}", pageNumber, totalPages);
-                                return pdfService.extractTextFromPage(new java.io.ByteArrayInputStream(fileBytes), pageNumber)
+                                return session.extractTextFromPage(pageNumber)
                                                 .flatMap(pageText -> {
                                                     // Detectar mês/ano
                                                     return monthYearDetectionService.detectMonthYear(pageText)
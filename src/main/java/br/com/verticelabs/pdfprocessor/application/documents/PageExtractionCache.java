@@ -0,0 +1,185 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ExtractionCacheEntry;
+import br.com.verticelabs.pdfprocessor.domain.repository.ExtractionCacheRepository;
+import br.com.verticelabs.pdfprocessor.domain.service.AiPdfExtractionService.ModelResponse;
+import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiPrompts;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Cache persistente ({@code extraction_cache}) do resultado bruto de cada página: texto extraído
+ * pelo PDFBox e JSON devolvido pelo Gemini. A chave inclui o hash do arquivo, então reprocessar
+ * um documento ou reenviar o mesmo PDF não repete a extração nem as chamadas pagas ao Gemini.
+ *
+ * <p>O parser regex e as validações continuam rodando sobre o conteúdo do cache: dependem do
+ * catálogo de rubricas, que pode ter mudado desde a extração.</p>
+ *
+ * <p>Invalidação: a chave inclui {@link #PDF_TEXT_VERSION} e {@link GeminiPrompts#VERSION} e, nas
+ * entradas do Gemini, o perfil da imagem enviada. No startup as entradas de versões anteriores são
+ * removidas; as demais expiram em 90 dias. O reprocessamento explícito de um documento descarta as
+ * entradas do arquivo ({@link #invalidate}).</p>
+ *
+ * <p>O JSON é guardado sob o modelo que de fato respondeu: uma chamada ao principal promovida ao
+ * fallback não vira hit para o principal.</p>
+ */
+@Slf4j
+@Component
+public class PageExtractionCache {
+
+    public static final String PDF_TEXT = "pdf_text";
+    public static final String GEMINI_PAYROLL = "gemini_payroll";
+    public static final String GEMINI_PAYROLL_PRO = "gemini_payroll_pro";
+
+    /**
+     * Versão da extração de texto. Incrementar ao mudar a forma como o PDFBox extrai o texto.
+     */
+    static final String PDF_TEXT_VERSION = "pdfbox-1";
+
+    private static final String PDF_TEXT_MODEL = "pdfbox";
+
+    private static final Map<String, String> CURRENT_VERSIONS = Map.of(
+            PDF_TEXT, PDF_TEXT_VERSION,
+            GEMINI_PAYROLL, GeminiPrompts.VERSION,
+            GEMINI_PAYROLL_PRO, GeminiPrompts.VERSION);
+
+    private final ExtractionCacheRepository repository;
+    private final ExtractionMetrics extractionMetrics;
+    private final boolean enabled;
+
+    public PageExtractionCache(ExtractionCacheRepository repository,
+                               ExtractionMetrics extractionMetrics,
+                               @Value("${app.processing.extraction-cache.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.extractionMetrics = extractionMetrics;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Texto da página: do cache ou de {@code extraction}, que só é assinado em caso de miss.
+     */
+    public Mono<String> pageText(String fileHash, int page, Mono<String> extraction) {
+        return cached(fileHash, page, PDF_TEXT, PDF_TEXT_VERSION, PDF_TEXT_MODEL, null,
+                extraction.map(text -> new ModelResponse(text, PDF_TEXT_MODEL)));
+    }
+
+    /**
+     * JSON do contracheque extraído pelo modelo principal.
+     *
+     * @param model        modelo pedido (chave da consulta)
+     * @param imageProfile perfil efetivo da imagem ({@code AiPdfExtractionService#getPayrollImageProfile})
+     * @param call         chamada ao Gemini; informa o modelo que respondeu, usado na gravação
+     */
+    public Mono<String> geminiPayroll(String fileHash, int page, String model, String imageProfile,
+                                      Mono<ModelResponse> call) {
+        return cached(fileHash, page, GEMINI_PAYROLL, GeminiPrompts.VERSION, model, imageProfile, call);
+    }
+
+    /**
+     * JSON do contracheque extraído pelo modelo fallback (escalação para o Pro).
+     */
+    public Mono<String> geminiPayrollPro(String fileHash, int page, String model, String imageProfile,
+                                         Mono<String> call) {
+        return cached(fileHash, page, GEMINI_PAYROLL_PRO, GeminiPrompts.VERSION, model, imageProfile,
+                call.map(content -> new ModelResponse(content, model)));
+    }
+
+    /**
+     * Descarta as entradas do arquivo para que a próxima execução extraia tudo de novo
+     * (reprocessamento com {@code refreshCache}). Erro na remoção não impede o reprocessamento.
+     */
+    public Mono<Void> invalidate(String fileHash) {
+        if (!enabled || fileHash == null || fileHash.isBlank()) {
+            return Mono.empty();
+        }
+        return repository.deleteByFileHash(fileHash)
+                .doOnNext(removed -> log.info("Cache de extração: {} entradas do arquivo {} descartadas",
+                        removed, fileHash))
+                .onErrorResume(e -> {
+                    log.warn("Falha ao descartar o cache de extração do arquivo {}: {}", fileHash, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<String> cached(String fileHash, int page, String extractor, String version, String model,
+                                String imageProfile, Mono<ModelResponse> source) {
+        if (!enabled || fileHash == null || fileHash.isBlank()) {
+            return source.map(ModelResponse::content);
+        }
+        String key = ExtractionCacheEntry.key(fileHash, page, extractor, version, model, imageProfile);
+        return repository.findContent(key)
+                .onErrorResume(e -> {
+                    log.warn("Falha ao consultar o cache de extração [{}]: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .doOnNext(content -> {
+                    extractionMetrics.cacheLookup(extractor, true);
+                    log.debug("Cache de extração: hit [{}]", key);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    extractionMetrics.cacheLookup(extractor, false);
+                    return source.flatMap(response -> {
+                        String respondedBy = response.model() != null ? response.model() : model;
+                        String storeKey = ExtractionCacheEntry.key(fileHash, page, extractor, version,
+                                respondedBy, imageProfile);
+                        return store(storeKey, fileHash, page, extractor, version, respondedBy, imageProfile,
+                                response.content())
+                                .thenReturn(response.content());
+                    });
+                }));
+    }
+
+    /**
+     * Grava o conteúdo extraído. Resposta vazia do Gemini não é guardada (pode ter sido falha
+     * transitória); texto vazio é, pois identifica a página escaneada sem reabrir o PDF.
+     * Erro na gravação não interrompe o processamento.
+     */
+    private Mono<Void> store(String key, String fileHash, int page, String extractor, String version,
+                             String model, String imageProfile, String content) {
+        if (!PDF_TEXT.equals(extractor) && content.isBlank()) {
+            return Mono.empty();
+        }
+        ExtractionCacheEntry entry = ExtractionCacheEntry.builder()
+                .id(key)
+                .fileHash(fileHash)
+                .page(page)
+                .extractor(extractor)
+                .version(version)
+                .model(model)
+                .imageProfile(imageProfile)
+                .content(content)
+                .createdAt(Instant.now())
+                .build();
+        return repository.save(entry)
+                .onErrorResume(e -> {
+                    log.warn("Falha ao gravar no cache de extração [{}]: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Remove as entradas geradas com versões anteriores do extrator ou dos prompts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeStaleVersions() {
+        if (!enabled) {
+            return;
+        }
+        Flux.fromIterable(CURRENT_VERSIONS.entrySet())
+                .concatMap(current -> repository.deleteByExtractorAndVersionNot(current.getKey(), current.getValue()))
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        removed -> log.info("Cache de extração: {} entradas de versões anteriores removidas", removed),
+                        e -> log.error("Erro ao limpar versões antigas do cache de extração", e));
+    }
+}
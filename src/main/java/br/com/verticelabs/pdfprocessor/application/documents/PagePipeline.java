@@ -0,0 +1,80 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Estágios limitados do processamento de páginas, compartilhados por todos os documentos da
+ * instância:
+ *
+ * <ul>
+ *   <li><strong>text</strong> — extração de texto (PDFBox) e parser regex, CPU-bound: no máximo
+ *       {@code text-concurrency} páginas (padrão: número de CPUs). O parser roda no pool
+ *       {@code page-text}; a extração do PDFBox continua no {@code boundedElastic} da
+ *       {@link br.com.verticelabs.pdfprocessor.domain.service.PdfSession} (pode ler o arquivo),
+ *       limitada pelas vagas do estágio</li>
+ *   <li><strong>ai</strong> — extração via Gemini, IO-bound: no máximo {@code ai-concurrency}
+ *       páginas aguardando a IA</li>
+ * </ul>
+ *
+ * <p>Cada página passa pelos estágios de que precisa: páginas legíveis não esperam atrás das
+ * páginas que foram para o Gemini. {@code max-pages-in-flight} limita quantas páginas de um
+ * documento estão em andamento ao mesmo tempo.</p>
+ */
+@Slf4j
+@Component
+public class PagePipeline {
+
+    public static final String STAGE_ACTIVE = "pdf.pipeline.stage.active";
+    public static final String STAGE_QUEUED = "pdf.pipeline.stage.queued";
+    public static final String STAGE_WAIT = "pdf.pipeline.stage.wait";
+
+    private final PipelineStage textStage;
+    private final PipelineStage aiStage;
+    private final Scheduler textScheduler;
+    private final int maxPagesInFlight;
+
+    public PagePipeline(@Value("${app.processing.pipeline.text-concurrency:0}") int textConcurrency,
+                        @Value("${app.processing.pipeline.ai-concurrency:4}") int aiConcurrency,
+                        @Value("${app.processing.pipeline.max-pages-in-flight:32}") int maxPagesInFlight,
+                        MeterRegistry meterRegistry) {
+        int textThreads = textConcurrency > 0 ? textConcurrency : Runtime.getRuntime().availableProcessors();
+        this.textStage = new PipelineStage("text", textThreads, meterRegistry);
+        this.aiStage = new PipelineStage("ai", aiConcurrency, meterRegistry);
+        this.textScheduler = Schedulers.newParallel("page-text", textStage.concurrency(), true);
+        this.maxPagesInFlight = Math.max(1, maxPagesInFlight);
+        log.info("Pipeline de páginas: text={}, ai={}, páginas em andamento por documento={}",
+                textStage.concurrency(), aiStage.concurrency(), this.maxPagesInFlight);
+    }
+
+    /**
+     * Executa trabalho CPU-bound de uma página (extração de texto, parser regex) no estágio text.
+     * Trabalho sem scheduler próprio roda no pool {@code page-text}; quem já define o seu
+     * (ex.: {@code PdfSession.extractTextFromPage}) mantém o dele e só ocupa a vaga do estágio.
+     */
+    public <T> Mono<T> text(Mono<T> work) {
+        return textStage.run(work.subscribeOn(textScheduler));
+    }
+
+    /**
+     * Executa a extração via IA de uma página no estágio ai.
+     */
+    public <T> Mono<T> ai(Mono<T> work) {
+        return aiStage.run(work);
+    }
+
+    public int maxPagesInFlight() {
+        return maxPagesInFlight;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        textScheduler.dispose();
+    }
+}
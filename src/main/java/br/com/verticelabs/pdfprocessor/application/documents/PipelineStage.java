@@ -0,0 +1,65 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import br.com.verticelabs.pdfprocessor.infrastructure.util.ReactiveSemaphore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estágio do pipeline de páginas com no máximo {@code concurrency} execuções simultâneas
+ * ({@link ReactiveSemaphore}): quem chega com o estágio cheio espera na fila sem ocupar thread.
+ *
+ * <p>A fila não tem limite próprio: o total de páginas em andamento já é limitado por
+ * {@link PagePipeline#maxPagesInFlight()}.</p>
+ */
+final class PipelineStage {
+
+    private final ReactiveSemaphore semaphore;
+    private final Timer waitTimer;
+
+    PipelineStage(String name, int concurrency, MeterRegistry meterRegistry) {
+        this.semaphore = new ReactiveSemaphore(concurrency, Integer.MAX_VALUE);
+        this.waitTimer = Timer.builder(PagePipeline.STAGE_WAIT)
+                .description("Espera por vaga no estágio do pipeline de páginas")
+                .tag("stage", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(PagePipeline.STAGE_ACTIVE, this, PipelineStage::active)
+                .description("Páginas em execução no estágio")
+                .tag("stage", name)
+                .register(meterRegistry);
+        Gauge.builder(PagePipeline.STAGE_QUEUED, this, PipelineStage::queued)
+                .description("Páginas esperando vaga no estágio")
+                .tag("stage", name)
+                .register(meterRegistry);
+    }
+
+    int concurrency() {
+        return semaphore.permits();
+    }
+
+    /**
+     * Assina {@code work} só depois de obter a vaga; a vaga é devolvida no término ou cancelamento.
+     */
+    <T> Mono<T> run(Mono<T> work) {
+        return Mono.defer(() -> {
+            ReactiveSemaphore.Permit permit = new ReactiveSemaphore.Permit();
+            long enqueuedAt = System.nanoTime();
+            return semaphore.acquire(permit)
+                    .doOnSuccess(v -> waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS))
+                    .then(work)
+                    .doFinally(signal -> semaphore.release(permit));
+        });
+    }
+
+    int active() {
+        return semaphore.active();
+    }
+
+    int queued() {
+        return semaphore.queued();
+    }
+}
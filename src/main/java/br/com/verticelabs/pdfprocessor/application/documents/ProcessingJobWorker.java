@@ -0,0 +1,314 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentStatus;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJob;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJobStatus;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.ProcessingJobRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.ProcessingQueueProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de workers da fila persistente de processamento (processing_jobs).
+ *
+ * Cada worker assume um job por vez via lease, renova o lease com heartbeat enquanto o
+ * documento é processado (e abandona o documento se perder o lease) e, em caso de falha,
+ * devolve o job à fila com backoff exponencial até {@code max-attempts}. Jobs de instâncias que caíram são reassumidos quando o lease
+ * expira, desde que ainda tenham tentativas; os que esgotaram são encerrados como FAILED pelos
+ * workers ociosos. O status do documento só muda aqui: PROCESSING durante as tentativas,
+ * ERROR após a última falha. Documentos que ficaram em PROCESSING sem job (versões anteriores à fila) são
+ * reenfileirados no startup.
+ */
+@Slf4j
+@Component
+public class ProcessingJobWorker {
+
+    private final ProcessingJobRepository jobRepository;
+    private final PayrollDocumentRepository documentRepository;
+    private final DocumentProcessUseCase documentProcessUseCase;
+    private final ProcessingQueueProperties properties;
+
+    private final String instanceId;
+    private final AtomicLong queuedJobs = new AtomicLong();
+    private final AtomicLong runningJobs = new AtomicLong();
+    private final AtomicLong processingDocuments = new AtomicLong();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final AtomicLong completedSinceLastReport = new AtomicLong();
+    private final Counter completedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer jobTimer;
+
+    private volatile boolean running;
+    private volatile Disposable workers;
+
+    public ProcessingJobWorker(ProcessingJobRepository jobRepository,
+                               PayrollDocumentRepository documentRepository,
+                               DocumentProcessUseCase documentProcessUseCase,
+                               ProcessingQueueProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.documentRepository = documentRepository;
+        this.documentProcessUseCase = documentProcessUseCase;
+        this.properties = properties;
+        this.instanceId = resolveInstanceId();
+
+        Gauge.builder("processing.queue.depth", queuedJobs, AtomicLong::get)
+                .tag("status", "queued")
+                .description("Jobs aguardando na fila processing_jobs")
+                .register(meterRegistry);
+        Gauge.builder("processing.queue.depth", runningJobs, AtomicLong::get)
+                .tag("status", "running")
+                .description("Jobs em execução (todas as instâncias)")
+                .register(meterRegistry);
+        Gauge.builder("processing.documents", processingDocuments, AtomicLong::get)
+                .tag("status", "processing")
+                .description("Documentos em PROCESSING (todos os tenants)")
+                .register(meterRegistry);
+        Gauge.builder("processing.queue.workers.busy", busyWorkers, AtomicInteger::get)
+                .description("Workers desta instância processando um documento")
+                .register(meterRegistry);
+        this.completedCounter = Counter.builder("processing.jobs")
+                .tag("outcome", "completed").register(meterRegistry);
+        this.retriedCounter = Counter.builder("processing.jobs")
+                .tag("outcome", "retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("processing.jobs")
+                .tag("outcome", "failed").register(meterRegistry);
+        this.jobTimer = Timer.builder("processing.jobs.duration")
+                .description("Tempo de processamento de um documento pela fila")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            log.warn("Fila de processamento desabilitada (app.processing.queue.enabled=false). "
+                    + "Documentos enfileirados não serão processados por esta instância.");
+            return;
+        }
+
+        running = true;
+        int poolSize = Math.max(1, properties.getWorkers());
+        log.info("🚀 Iniciando {} worker(s) da fila de processamento (instância {})", poolSize, instanceId);
+
+        workers = recoverStuckDocuments()
+                .onErrorResume(error -> {
+                    log.warn("Falha na recuperação de documentos em PROCESSING: {}", error.getMessage());
+                    return Mono.just(0L);
+                })
+                .thenMany(Flux.range(0, poolSize)
+                        .flatMap(slot -> workerLoop(instanceId + "-" + slot), poolSize))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Disposable atual = workers;
+        if (atual != null) {
+            atual.dispose();
+        }
+    }
+
+    /**
+     * Reenfileira documentos em PROCESSING que não têm job ativo.
+     */
+    Mono<Long> recoverStuckDocuments() {
+        return documentRepository.findByStatus(DocumentStatus.PROCESSING)
+                .filterWhen(document -> jobRepository.existsActiveByDocumentId(document.getId()).map(exists -> !exists))
+                .concatMap(document -> {
+                    log.warn("♻️ Documento {} estava em PROCESSING sem job ativo. Reenfileirando.", document.getId());
+                    return jobRepository.enqueue(document.getId(), document.getTenantId());
+                })
+                .count()
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        log.info("Recuperação concluída: {} documento(s) reenfileirado(s)", total);
+                    }
+                });
+    }
+
+    private Flux<Void> workerLoop(String owner) {
+        return Mono.defer(() -> jobRepository.claimNext(owner, properties.getLease(), properties.getMaxAttempts()))
+                .flatMap(job -> runJob(job, owner).thenReturn(true))
+                .defaultIfEmpty(false)
+                .onErrorResume(error -> {
+                    log.warn("Worker {}: erro ao consultar a fila: {}", owner, error.getMessage());
+                    return Mono.just(false);
+                })
+                .flatMap(worked -> worked
+                        ? Mono.just(true)
+                        : failExhaustedJobs().then(Mono.delay(properties.getPollInterval())).thenReturn(false))
+                .repeat(() -> running)
+                .then()
+                .flux();
+    }
+
+    /**
+     * Executa um job: processa o documento com heartbeat do lease e registra o resultado. Se o
+     * lease se perde no meio (outro worker reassumiu o job), o processamento é cancelado: o novo
+     * dono regrava as entries do documento e as duas execuções não podem gravar ao mesmo tempo.
+     */
+    Mono<Void> runJob(ProcessingJob job, String owner) {
+        log.info("Worker {} assumiu job {} (documento {}, tentativa {}/{})",
+                owner, job.getId(), job.getDocumentId(), job.getAttempts(), properties.getMaxAttempts());
+
+        return Mono.defer(() -> {
+            busyWorkers.incrementAndGet();
+            Timer.Sample sample = Timer.start();
+
+            return documentProcessUseCase.runQueuedDocument(job.getDocumentId())
+                    .or(leaseLost(job, owner))
+                    .doFinally(signal -> {
+                        busyWorkers.decrementAndGet();
+                        sample.stop(jobTimer);
+                    })
+                    .flatMap(entries -> {
+                        completedCounter.increment();
+                        completedSinceLastReport.incrementAndGet();
+                        return jobRepository.markDone(job.getId(), owner);
+                    })
+                    .onErrorResume(LeaseLostException.class, error -> {
+                        // O job já é de outro worker: nada a registrar aqui
+                        log.warn("Worker {} interrompeu o job {} (documento {}): {}",
+                                owner, job.getId(), job.getDocumentId(), error.getMessage());
+                        return Mono.empty();
+                    })
+                    .onErrorResume(error -> handleFailure(job, owner, error));
+        });
+    }
+
+    /**
+     * Heartbeat do lease: renova a cada {@code heartbeat} e falha com {@link LeaseLostException}
+     * quando a renovação diz que o job não é mais deste worker, ou quando as renovações falham
+     * seguidas até o lease estar prestes a expirar. Nunca emite valor.
+     */
+    private Mono<Long> leaseLost(ProcessingJob job, String owner) {
+        long maxFalhas = Math.max(1, properties.getLease().toMillis() / properties.getHeartbeat().toMillis() - 1);
+        AtomicInteger falhas = new AtomicInteger();
+        return Flux.interval(properties.getHeartbeat())
+                .concatMap(tick -> jobRepository.renewLease(job.getId(), owner, properties.getLease())
+                        .doOnNext(renewed -> falhas.set(0))
+                        .onErrorResume(error -> {
+                            int seguidas = falhas.incrementAndGet();
+                            log.warn("Falha ao renovar lease do job {} ({}/{}): {}",
+                                    job.getId(), seguidas, maxFalhas, error.getMessage());
+                            return seguidas >= maxFalhas ? Mono.just(false) : Mono.empty();
+                        }))
+                .filter(renewed -> !renewed)
+                .next()
+                .flatMap(lost -> Mono.error(new LeaseLostException(
+                        "lease não pertence mais ao worker " + owner)));
+    }
+
+    private Mono<Void> handleFailure(ProcessingJob job, String owner, Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        int attempts = job.getAttempts() != null ? job.getAttempts() : 1;
+
+        if (attempts < properties.getMaxAttempts()) {
+            Duration delay = backoffFor(attempts);
+            retriedCounter.increment();
+            log.warn("Job {} (documento {}) falhou na tentativa {}/{}: {}. Nova tentativa em {}s",
+                    job.getId(), job.getDocumentId(), attempts, properties.getMaxAttempts(), message,
+                    delay.toSeconds());
+            // Documento continua em PROCESSING até a próxima tentativa
+            return jobRepository.markRetry(job.getId(), owner, Instant.now().plus(delay), message);
+        }
+
+        failedCounter.increment();
+        log.error("Job {} (documento {}) falhou definitivamente após {} tentativa(s): {}",
+                job.getId(), job.getDocumentId(), attempts, message);
+        return jobRepository.markFailed(job.getId(), owner, message)
+                .then(updateDocumentStatus(job.getDocumentId(), DocumentStatus.ERROR, message));
+    }
+
+    /**
+     * Encerra os jobs cuja instância caiu durante a última tentativa (lease expirado sem
+     * tentativas restantes) e marca o documento como ERROR.
+     */
+    Mono<Void> failExhaustedJobs() {
+        String message = "Processamento interrompido na última tentativa (lease expirado)";
+        return jobRepository.failExhausted(properties.getMaxAttempts(), message)
+                .flatMap(job -> {
+                    failedCounter.increment();
+                    log.error("Job {} (documento {}) perdeu o lease na tentativa {}/{}; encerrado como FAILED",
+                            job.getId(), job.getDocumentId(), job.getAttempts(), properties.getMaxAttempts());
+                    return updateDocumentStatus(job.getDocumentId(), DocumentStatus.ERROR, message);
+                })
+                .onErrorResume(error -> {
+                    log.warn("Falha ao encerrar jobs com tentativas esgotadas: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> updateDocumentStatus(String documentId, DocumentStatus status, String erro) {
+        return documentRepository.updateStatus(documentId, status, erro)
+                .onErrorResume(e -> {
+                    log.warn("Não foi possível atualizar status do documento {}: {}", documentId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    Duration backoffFor(int attempts) {
+        Duration delay = properties.getBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    /**
+     * Atualiza os gauges de profundidade da fila e registra a vazão desde o último ciclo.
+     */
+    @Scheduled(fixedDelayString = "${app.processing.queue.metrics-refresh:PT15S}")
+    public void refreshQueueMetrics() {
+        if (!running) {
+            return;
+        }
+        Mono.zip(jobRepository.countByStatus(ProcessingJobStatus.QUEUED),
+                        jobRepository.countByStatus(ProcessingJobStatus.RUNNING),
+                        documentRepository.countByStatus(DocumentStatus.PROCESSING))
+                .subscribe(counts -> {
+                    queuedJobs.set(counts.getT1());
+                    runningJobs.set(counts.getT2());
+                    processingDocuments.set(counts.getT3());
+                    long completed = completedSinceLastReport.getAndSet(0);
+                    if (counts.getT1() > 0 || counts.getT2() > 0 || completed > 0) {
+                        log.info("📊 Fila de processamento: {} na fila, {} em execução, {} concluído(s) no último ciclo",
+                                counts.getT1(), counts.getT2(), completed);
+                    }
+                }, error -> log.debug("Falha ao atualizar métricas da fila: {}", error.getMessage()));
+    }
+
+    private static String resolveInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    static class LeaseLostException extends RuntimeException {
+        LeaseLostException(String message) {
+            super(message);
+        }
+    }
+}
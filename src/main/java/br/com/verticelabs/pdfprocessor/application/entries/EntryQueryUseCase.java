@@ -5,6 +5,7 @@ import br.com.verticelabs.pdfprocessor.domain.model.Person;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.migration.PayrollEntryPersonMigration;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +29,7 @@ public class EntryQueryUseCase {
     private final PayrollDocumentRepository documentRepository;
     private final PersonRepository personRepository;
     private final ReactiveMongoTemplate mongoTemplate;
+    private final PayrollEntryPersonMigration personMigration;
 
     /**
      * Busca todas as entries de um documento.
@@ -116,33 +118,27 @@ public class EntryQueryUseCase {
         // SUPER_ADMIN: busca pessoa sem filtrar por tenantId
         return personRepository.findByCpf(cpf)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Pessoa não encontrada com CPF: " + cpf)))
-                .flatMapMany(person -> {
-                    if (person.getDocumentos() == null || person.getDocumentos().isEmpty()) {
-                        log.debug("Pessoa não possui documentos");
-                        return Flux.empty();
-                    }
-                    
-                    // Busca entries de todos os documentos da pessoa (sem filtrar por tenantId)
-                    return Flux.fromIterable(person.getDocumentos())
-                            .flatMap(documentId -> entryRepository.findByDocumentoId(documentId));
-                });
+                .flatMapMany(this::findEntriesOfPerson);
     }
 
     private Flux<PayrollEntry> findEntriesByCpfForTenant(String tenantId, String cpf) {
         // Busca pessoa filtrando por tenantId
         return personRepository.findByTenantIdAndCpf(tenantId, cpf)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Pessoa não encontrada com CPF: " + cpf + " no tenant: " + tenantId)))
-                .flatMapMany(person -> {
-                    if (person.getDocumentos() == null || person.getDocumentos().isEmpty()) {
-                        log.debug("Pessoa não possui documentos");
-                        return Flux.empty();
-                    }
-                    
-                    // Busca entries de todos os documentos da pessoa
-                    // Os documentos já são do tenant correto (garantido pelo findByTenantIdAndCpf)
-                    return Flux.fromIterable(person.getDocumentos())
-                            .flatMap(documentId -> entryRepository.findByDocumentoId(documentId));
-                });
+                .flatMapMany(this::findEntriesOfPerson);
+    }
+
+    /**
+     * Todas as entries da pessoa em uma única query (personId desnormalizado na entry; até a
+     * migração concluir, pelos documentos da pessoa).
+     * Os documentos da pessoa são sempre do tenant da pessoa, inclusive para SUPER_ADMIN.
+     */
+    private Flux<PayrollEntry> findEntriesOfPerson(Person person) {
+        if (person.getDocumentos() == null || person.getDocumentos().isEmpty()) {
+            log.debug("Pessoa não possui documentos");
+            return Flux.empty();
+        }
+        return entryRepository.findByTenantIdAndPersonId(person.getTenantId(), person.getId());
     }
 
     /**
@@ -215,28 +211,19 @@ public class EntryQueryUseCase {
             Double minValor,
             Double maxValor) {
         
-        if (person.getDocumentos() == null || person.getDocumentos().isEmpty()) {
-            return Flux.empty();
-        }
-        
-        // Adiciona filtro de documentos da pessoa
-        List<String> documentos = person.getDocumentos();
-        if (documentos != null && !documentos.isEmpty()) {
-            criteriaList.add(Criteria.where("documentoId").in(documentos));
-        } else {
-            // Pessoa sem documentos, retorna vazio
-            return Flux.empty();
-        }
-        
-        // Aplica outros filtros
-        applyFilters(criteriaList, rubricaCodigo, ano, mes, origem, minValor, maxValor);
-        
-        if (!criteriaList.isEmpty()) {
-            Criteria[] criteriaArray = criteriaList.toArray(new Criteria[0]);
-            query.addCriteria(new Criteria().andOperator(criteriaArray));
-        }
-        
-        return mongoTemplate.find(query, PayrollEntry.class);
+        // Filtro pela pessoa (personId após a migração; antes dela, pelos documentos da pessoa)
+        return personMigration.criteria(person.getTenantId(), person.getId(), person.getDocumentos())
+                .flatMapMany(pessoa -> {
+                    criteriaList.add(pessoa);
+
+                    // Aplica outros filtros
+                    applyFilters(criteriaList, rubricaCodigo, ano, mes, origem, minValor, maxValor);
+
+                    Criteria[] criteriaArray = criteriaList.toArray(new Criteria[0]);
+                    query.addCriteria(new Criteria().andOperator(criteriaArray));
+
+                    return mongoTemplate.find(query, PayrollEntry.class);
+                });
     }
 
     /**
@@ -2,11 +2,12 @@ package br.com.verticelabs.pdfprocessor.application.excel;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 
 @Data
 @AllArgsConstructor
 public class ExcelExportResult {
-    private byte[] bytes;
+    private Flux<DataBuffer> content; // Planilha gerada em streaming
     private String filename;
 }
-
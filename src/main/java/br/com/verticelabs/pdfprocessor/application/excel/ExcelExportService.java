@@ -2,9 +2,15 @@ package br.com.verticelabs.pdfprocessor.application.excel;
 
 import br.com.verticelabs.pdfprocessor.domain.model.Person;
 import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidatedResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface ExcelExportService {
-    Mono<byte[]> generateConsolidationExcel(Person person, ConsolidatedResponse consolidatedResponse, String filename);
+    /**
+     * Gera a planilha de consolidação em streaming, conforme os buffers são consumidos. O Mono
+     * emite depois que os dados da planilha foram carregados; uma falha na escrita interrompe o
+     * Flux (download).
+     */
+    Mono<Flux<DataBuffer>> streamConsolidationExcel(Person person, ConsolidatedResponse consolidatedResponse);
 }
-
@@ -36,8 +36,8 @@ public class ExcelExportUseCase {
                         return Mono.error(new NoEntriesFoundException(person.getCpf()));
                     }
                     String filename = generateFilename(person);
-                    return excelExportService.generateConsolidationExcel(person, consolidatedResponse, filename)
-                            .map(bytes -> new ExcelExportResult(bytes, filename));
+                    return excelExportService.streamConsolidationExcel(person, consolidatedResponse)
+                            .map(content -> new ExcelExportResult(content, filename));
                 });
     }
 
@@ -47,7 +47,7 @@ public class ExcelExportUseCase {
      * @param cpf CPF da pessoa
      * @param ano Ano opcional para filtrar (formato: "2017")
      * @param origem Origem opcional para filtrar ("CAIXA" ou "FUNCEF")
-     * @return Mono com resultado contendo bytes e nome do arquivo
+     * @return Mono com resultado contendo o conteúdo (streaming) e nome do arquivo
      */
     public Mono<ExcelExportResult> generateExcel(String cpf, String ano, String origem) {
         return evaluatorAccessService.isEvaluator().flatMap(isEvaluator -> {
@@ -109,15 +109,13 @@ public class ExcelExportUseCase {
 
                                 // 4. Gerar Excel
                                 log.info("Gerando arquivo Excel...");
-                                return excelExportService.generateConsolidationExcel(
+                                return excelExportService.streamConsolidationExcel(
                                         person,
-                                        consolidatedResponse,
-                                        filename
+                                        consolidatedResponse
                                 )
-                                .map(bytes -> {
-                                    log.info("✓ Excel gerado com sucesso! Tamanho: {} bytes ({} KB)", 
-                                            bytes.length, bytes.length / 1024);
-                                    return new ExcelExportResult(bytes, filename);
+                                .map(content -> {
+                                    log.info("✓ Excel pronto para download em streaming: {}", filename);
+                                    return new ExcelExportResult(content, filename);
                                 })
                                 .doOnError(error -> {
                                     log.error("Erro ao gerar Excel", error);
@@ -135,7 +133,7 @@ public class ExcelExportUseCase {
      * @param personId ID único da pessoa
      * @param ano Ano opcional para filtrar (formato: "2017")
      * @param origem Origem opcional para filtrar ("CAIXA" ou "FUNCEF")
-     * @return Mono com resultado contendo bytes e nome do arquivo
+     * @return Mono com resultado contendo o conteúdo (streaming) e nome do arquivo
      */
     public Mono<ExcelExportResult> generateExcelById(String personId, String ano, String origem) {
         return evaluatorAccessService.isEvaluator().flatMap(isEvaluator -> {
@@ -205,15 +203,13 @@ public class ExcelExportUseCase {
 
                                             // 4. Gerar Excel
                                             log.info("Gerando arquivo Excel...");
-                                            return excelExportService.generateConsolidationExcel(
+                                            return excelExportService.streamConsolidationExcel(
                                                     person,
-                                                    consolidatedResponse,
-                                                    filename
+                                                    consolidatedResponse
                                             )
-                                            .map(bytes -> {
-                                                log.info("✓ Excel gerado com sucesso! Tamanho: {} bytes ({} KB)", 
-                                                        bytes.length, bytes.length / 1024);
-                                                return new ExcelExportResult(bytes, filename);
+                                            .map(content -> {
+                                                log.info("✓ Excel pronto para download em streaming: {}", filename);
+                                                return new ExcelExportResult(content, filename);
                                             })
                                             .doOnError(error -> {
                                                 log.error("Erro ao gerar Excel", error);
@@ -232,7 +228,7 @@ public class ExcelExportUseCase {
      * @param tenantId ID do tenant da pessoa
      * @param ano Ano opcional para filtrar (formato: "2017")
      * @param origem Origem opcional para filtrar ("CAIXA" ou "FUNCEF")
-     * @return Mono com resultado contendo bytes e nome do arquivo
+     * @return Mono com resultado contendo o conteúdo (streaming) e nome do arquivo
      */
     public Mono<ExcelExportResult> generateExcelByCpfAndTenant(String cpf, String tenantId, String ano, String origem) {
         return evaluatorAccessService.isEvaluator().flatMap(isEvaluator -> {
@@ -280,15 +276,13 @@ public class ExcelExportUseCase {
 
                                 // 4. Gerar Excel
                                 log.info("Gerando arquivo Excel...");
-                                return excelExportService.generateConsolidationExcel(
+                                return excelExportService.streamConsolidationExcel(
                                         person,
-                                        consolidatedResponse,
-                                        filename
+                                        consolidatedResponse
                                 )
-                                .map(bytes -> {
-                                    log.info("✓ Excel gerado com sucesso! Tamanho: {} bytes ({} KB)", 
-                                            bytes.length, bytes.length / 1024);
-                                    return new ExcelExportResult(bytes, filename);
+                                .map(content -> {
+                                    log.info("✓ Excel pronto para download em streaming: {}", filename);
+                                    return new ExcelExportResult(content, filename);
                                 })
                                 .doOnError(error -> {
                                     log.error("Erro ao gerar Excel", error);
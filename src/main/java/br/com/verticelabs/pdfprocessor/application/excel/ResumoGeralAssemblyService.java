@@ -90,7 +90,8 @@ public class ResumoGeralAssemblyService {
                                     return taxaSelicService.calcularSelicReceitaFederal(
                                                     linha.getDataVencimento(),
                                                     dataPagamentoSelic,
-                                                    linha.getPrincipal())
+                                                    linha.getPrincipal(),
+                                                    false)
                                             .map(linha::enriquecerComSelic)
                                             .onErrorResume(e -> {
                                                 log.warn("SELIC Resumo Geral ano {}: {}",
@@ -4,7 +4,6 @@ import br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationUs
 import br.com.verticelabs.pdfprocessor.application.security.EvaluatorAccessService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.NoEntriesFoundException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.PersonNotFoundException;
-import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
 import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
 import br.com.verticelabs.pdfprocessor.domain.model.Person;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
@@ -92,13 +91,11 @@ public class ResumoGeralUseCase {
     }
 
     private Mono<Map<String, IrpfDeclaracaoData>> buscarIrpfDeclaracoes(Person person) {
-        return documentRepository.findByTenantIdAndCpf(person.getTenantId(), person.getCpf())
-                .filter(doc -> doc.getTipo() == DocumentType.INCOME_TAX && doc.getIrpfData() != null)
+        return documentRepository.findIrpfDataByTenantIdAndCpf(person.getTenantId(), person.getCpf())
                 .collectList()
-                .map(docs -> {
+                .map(declaracoes -> {
                     Map<String, IrpfDeclaracaoData> map = new HashMap<>();
-                    for (var doc : docs) {
-                        IrpfDeclaracaoData data = doc.getIrpfData();
+                    for (IrpfDeclaracaoData data : declaracoes) {
                         String anoCalendario = data.getAnoCalendario();
                         if (anoCalendario != null && !anoCalendario.isBlank()) {
                             map.put(anoCalendario.trim(), data);
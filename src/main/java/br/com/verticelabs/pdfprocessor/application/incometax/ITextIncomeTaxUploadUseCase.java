@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.incometax;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.application.documents.DocumentProcessUseCase;
 import br.com.verticelabs.pdfprocessor.application.persons.GetPersonByIdUseCase;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.DeclaracaoCpfMismatchException;
@@ -18,6 +19,8 @@ import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
 import br.com.verticelabs.pdfprocessor.domain.service.CpfValidationService;
 import br.com.verticelabs.pdfprocessor.domain.service.GridFsService;
 import br.com.verticelabs.pdfprocessor.domain.service.ITextIncomeTaxService;
+import br.com.verticelabs.pdfprocessor.infrastructure.storage.UploadSpooler;
+import br.com.verticelabs.pdfprocessor.infrastructure.storage.UploadSpooler.SpooledUpload;
 import br.com.verticelabs.pdfprocessor.infrastructure.tenant.ReactiveTenantContext;
 import br.com.verticelabs.pdfprocessor.interfaces.documents.dto.UploadDocumentResponse;
 import lombok.RequiredArgsConstructor;
@@ -27,9 +30,8 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.security.MessageDigest;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 
 /**
@@ -48,7 +50,9 @@ public class ITextIncomeTaxUploadUseCase {
         private final CpfValidationService cpfValidationService;
         private final DocumentProcessUseCase documentProcessUseCase;
         private final GetPersonByIdUseCase getPersonByIdUseCase;
+        private final DashboardRollupService dashboardRollupService;
         private final IrpfDeclaracaoDataMapper irpfDeclaracaoDataMapper;
+        private final UploadSpooler uploadSpooler;
 
         private static final String PDF_CONTENT_TYPE = "application/pdf";
 
@@ -86,130 +90,114 @@ public class ITextIncomeTaxUploadUseCase {
                                                                 log.info("Pessoa encontrada: {} ({})", person.getNome(),
                                                                                 person.getCpf());
 
-                                                                // 3. Ler arquivo e calcular hash
-                                                                return readFileContent(filePart)
-                                                                                .flatMap(inputStream -> {
-                                                                                        return Mono.fromCallable(() -> {
-                                                                                                byte[] fileBytes = inputStream
-                                                                                                                .readAllBytes();
-                                                                                                inputStream.close();
-                                                                                                return fileBytes;
-                                                                                        }).subscribeOn(Schedulers
-                                                                                                        .boundedElastic());
-                                                                                })
-                                                                                .flatMap(fileBytes -> {
-                                                                                        log.info("Arquivo lido em memória. Tamanho: {} bytes",
-                                                                                                        fileBytes.length);
+                                                                // 3. Receber o arquivo em disco calculando o hash na mesma passada
+                                                                return Mono.usingWhen(
+                                                                                uploadSpooler.spool(filePart),
+                                                                                upload -> storeDeclaration(upload, filePart.filename(),
+                                                                                                tenantId, normalizedCpf, person),
+                                                                                upload -> uploadSpooler.delete(upload.path()));
+                                                        });
+                                });
+        }
 
-                                                                                        // Validar tamanho do arquivo
-                                                                                        if (fileBytes.length == 0) {
-                                                                                                log.error("Arquivo vazio detectado. Tamanho: 0 bytes");
-                                                                                                return Mono.error(
-                                                                                                                new InvalidPdfException(
-                                                                                                                                "Arquivo vazio ou corrompido. O arquivo deve ter pelo menos 1 byte."));
-                                                                                        }
+        private Mono<UploadDocumentResponse> storeDeclaration(SpooledUpload upload, String filename, String tenantId,
+                        String normalizedCpf, Person person) {
+                // Validar tamanho do arquivo
+                if (upload.size() == 0) {
+                        log.error("Arquivo vazio detectado. Tamanho: 0 bytes");
+                        return Mono.error(
+                                        new InvalidPdfException(
+                                                        "Arquivo vazio ou corrompido. O arquivo deve ter pelo menos 1 byte."));
+                }
 
-                                                                                        if (fileBytes.length < 100) {
-                                                                                                log.warn(
-                                                                                                                "Arquivo muito pequeno. Tamanho: {} bytes. Pode estar corrompido.",
-                                                                                                                fileBytes.length);
-                                                                                        }
+                if (upload.size() < 100) {
+                        log.warn(
+                                        "Arquivo muito pequeno. Tamanho: {} bytes. Pode estar corrompido.",
+                                        upload.size());
+                }
 
-                                                                                        // 4. Calcular hash do arquivo
-                                                                                        return calculateFileHash(
-                                                                                                        fileBytes)
-                                                                                                        .flatMap(fileHash -> {
-                                                                                                                log.info("Hash calculado: {}",
-                                                                                                                                fileHash);
+                // 4. Hash calculado pelo spooler durante a recepção
+                String fileHash = upload.sha256();
+                log.info("Hash calculado: {}", fileHash);
 
-                                                                                                                // 5.
-                                                                                                                // Verificar
-                                                                                                                // duplicidade
-                                                                                                                return documentRepository
-                                                                                                                                .findByTenantIdAndFileHash(
-                                                                                                                                                tenantId,
-                                                                                                                                                fileHash)
-                                                                                                                                .flatMap(existingDoc -> {
-                                                                                                                                        log.warn(
-                                                                                                                                                        "Arquivo duplicado detectado! DocumentId existente: {}",
-                                                                                                                                                        existingDoc.getId());
-                                                                                                                                        return Mono.<UploadDocumentResponse>error(
-                                                                                                                                                        new DocumentoDuplicadoException(
-                                                                                                                                                                        existingDoc.getId()));
-                                                                                                                                })
-                                                                                                                                .switchIfEmpty(
-                                                                                                                                                // 6. Extrair metadata do PDF (CPF + ano)
-                                                                                                                                                // ANTES de salvar no GridFS para validar o CPF
-                                                                                                                                                extractIncomeTaxMetadata(
-                                                                                                                                                                new ByteArrayInputStream(fileBytes))
-                                                                                                                                                                .flatMap(metadata -> {
-                                                                                                                                                                        // 6a. Validar CPF do PDF contra CPF da pessoa
-                                                                                                                                                                        if (metadata.cpf != null && !metadata.cpf.isBlank()) {
-                                                                                                                                                                                String cpfNoPdf = normalizeCpfForComparison(metadata.cpf);
-                                                                                                                                                                                String cpfNoPessoa = normalizeCpfForComparison(normalizedCpf);
-                                                                                                                                                                                if (!cpfNoPdf.equals(cpfNoPessoa)) {
-                                                                                                                                                                                        log.error(
-                                                                                                                                                                                                        "❌ CPF divergente! Pessoa: {} | PDF: {}",
-                                                                                                                                                                                                        normalizedCpf, metadata.cpf);
-                                                                                                                                                                                        return Mono.error(new DeclaracaoCpfMismatchException(
-                                                                                                                                                                                                        normalizedCpf, metadata.cpf));
-                                                                                                                                                                                }
-                                                                                                                                                                                log.info("✅ CPF validado: PDF ({}) confere com a pessoa ({})",
-                                                                                                                                                                                                metadata.cpf, normalizedCpf);
-                                                                                                                                                                        } else {
-                                                                                                                                                                                log.warn("⚠️ CPF não encontrado no PDF — prosseguindo sem validação de CPF");
-                                                                                                                                                                        }
+                // 5. Verificar duplicidade
+                return documentRepository
+                                .findByTenantIdAndFileHash(tenantId, fileHash)
+                                .flatMap(existingDoc -> {
+                                        log.warn(
+                                                        "Arquivo duplicado detectado! DocumentId existente: {}",
+                                                        existingDoc.getId());
+                                        return Mono.<UploadDocumentResponse>error(
+                                                        new DocumentoDuplicadoException(existingDoc.getId()));
+                                })
+                                .switchIfEmpty(
+                                                // 6. Extrair metadata do PDF (CPF + ano)
+                                                // ANTES de salvar no GridFS para validar o CPF
+                                                extractIncomeTaxMetadata(upload.path())
+                                                                .flatMap(metadata -> {
+                                                                        // 6a. Validar CPF do PDF contra CPF da pessoa
+                                                                        if (metadata.cpf != null && !metadata.cpf.isBlank()) {
+                                                                                String cpfNoPdf = normalizeCpfForComparison(metadata.cpf);
+                                                                                String cpfNoPessoa = normalizeCpfForComparison(normalizedCpf);
+                                                                                if (!cpfNoPdf.equals(cpfNoPessoa)) {
+                                                                                        log.error(
+                                                                                                        "❌ CPF divergente! Pessoa: {} | PDF: {}",
+                                                                                                        normalizedCpf, metadata.cpf);
+                                                                                        return Mono.error(new DeclaracaoCpfMismatchException(
+                                                                                                        normalizedCpf, metadata.cpf));
+                                                                                }
+                                                                                log.info("✅ CPF validado: PDF ({}) confere com a pessoa ({})",
+                                                                                                metadata.cpf, normalizedCpf);
+                                                                        } else {
+                                                                                log.warn("⚠️ CPF não encontrado no PDF — prosseguindo sem validação de CPF");
+                                                                        }
 
-                                                                                                                                                                        // 7. Salvar arquivo no GridFS
-                                                                                                                                                                        return gridFsService.storeFileWithHash(
-                                                                                                                                                                                        new ByteArrayInputStream(fileBytes),
-                                                                                                                                                                                        filePart.filename(),
-                                                                                                                                                                                        PDF_CONTENT_TYPE,
-                                                                                                                                                                                        fileHash)
-                                                                                                                                                                                        .flatMap(fileId -> {
-                                                                                                                                                                                                log.info("Arquivo salvo no GridFS com ID: {}", fileId);
-                                                                                                                                                                                                // 8. Criar PayrollDocument com metadata
-                                                                                                                                                                                                PayrollDocument document = PayrollDocument
-                                                                                                                                                                                                                .builder()
-                                                                                                                                                                                                                .tenantId(tenantId)
-                                                                                                                                                                                                                .cpf(normalizedCpf)
-                                                                                                                                                                                                                .tipo(DocumentType.INCOME_TAX)
-                                                                                                                                                                                                                .status(DocumentStatus.PENDING)
-                                                                                                                                                                                                                .originalFileId(fileId)
-                                                                                                                                                                                                                .fileHash(fileHash)
-                                                                                                                                                                                                                .anoDetectado(parseAnoCalendario(metadata.anoCalendario))
-                                                                                                                                                                                                                .irpfData(metadata.irpfData)
-                                                                                                                                                                                                                .dataUpload(Instant.now())
-                                                                                                                                                                                                                .build();
-                                                                                                                                                                                                return saveDocumentAndUpdatePerson(document, person);
-                                                                                                                                                                                        });
-                                                                                                                                                                })
-                                                                                                                                                                .switchIfEmpty(Mono.defer(() -> {
-                                                                                                                                                                        // Metadata não extraída — salvar sem ano detectado
-                                                                                                                                                                        log.warn("⚠️ Metadata não extraída do PDF. Salvando sem validação de CPF e sem ano detectado.");
-                                                                                                                                                                        return gridFsService.storeFileWithHash(
-                                                                                                                                                                                        new ByteArrayInputStream(fileBytes),
-                                                                                                                                                                                        filePart.filename(),
-                                                                                                                                                                                        PDF_CONTENT_TYPE,
-                                                                                                                                                                                        fileHash)
-                                                                                                                                                                                        .flatMap(fileId -> {
-                                                                                                                                                                                                PayrollDocument document = PayrollDocument
-                                                                                                                                                                                                                .builder()
-                                                                                                                                                                                                                .tenantId(tenantId)
-                                                                                                                                                                                                                .cpf(normalizedCpf)
-                                                                                                                                                                                                                .tipo(DocumentType.INCOME_TAX)
-                                                                                                                                                                                                                .status(DocumentStatus.PENDING)
-                                                                                                                                                                                                                .originalFileId(fileId)
-                                                                                                                                                                                                                .fileHash(fileHash)
-                                                                                                                                                                                                                .dataUpload(Instant.now())
-                                                                                                                                                                                                                .build();
-                                                                                                                                                                                                return saveDocumentAndUpdatePerson(document, person);
-                                                                                                                                                                                        });
-                                                                                                                                                                })));
-                                                                                                        });
-                                                                                });
-                                                        });
-                                });
+                                                                        // 7. Salvar arquivo no GridFS
+                                                                        return gridFsService.storeFileWithHash(
+                                                                                        upload.path(),
+                                                                                        filename,
+                                                                                        PDF_CONTENT_TYPE,
+                                                                                        fileHash)
+                                                                                        .flatMap(fileId -> {
+                                                                                                log.info("Arquivo salvo no GridFS com ID: {}", fileId);
+                                                                                                // 8. Criar PayrollDocument com metadata
+                                                                                                PayrollDocument document = PayrollDocument
+                                                                                                                .builder()
+                                                                                                                .tenantId(tenantId)
+                                                                                                                .cpf(normalizedCpf)
+                                                                                                                .tipo(DocumentType.INCOME_TAX)
+                                                                                                                .status(DocumentStatus.PENDING)
+                                                                                                                .originalFileId(fileId)
+                                                                                                                .fileHash(fileHash)
+                                                                                                                .anoDetectado(parseAnoCalendario(metadata.anoCalendario))
+                                                                                                                .irpfData(metadata.irpfData)
+                                                                                                                .dataUpload(Instant.now())
+                                                                                                                .build();
+                                                                                                return saveDocumentAndUpdatePerson(document, person);
+                                                                                        });
+                                                                })
+                                                                .switchIfEmpty(Mono.defer(() -> {
+                                                                        // Metadata não extraída — salvar sem ano detectado
+                                                                        log.warn("⚠️ Metadata não extraída do PDF. Salvando sem validação de CPF e sem ano detectado.");
+                                                                        return gridFsService.storeFileWithHash(
+                                                                                        upload.path(),
+                                                                                        filename,
+                                                                                        PDF_CONTENT_TYPE,
+                                                                                        fileHash)
+                                                                                        .flatMap(fileId -> {
+                                                                                                PayrollDocument document = PayrollDocument
+                                                                                                                .builder()
+                                                                                                                .tenantId(tenantId)
+                                                                                                                .cpf(normalizedCpf)
+                                                                                                                .tipo(DocumentType.INCOME_TAX)
+                                                                                                                .status(DocumentStatus.PENDING)
+                                                                                                                .originalFileId(fileId)
+                                                                                                                .fileHash(fileHash)
+                                                                                                                .dataUpload(Instant.now())
+                                                                                                                .build();
+                                                                                                return saveDocumentAndUpdatePerson(document, person);
+                                                                                        });
+                                                                })));
         }
 
         /**
@@ -217,7 +205,7 @@ public class ITextIncomeTaxUploadUseCase {
          * Após salvar, inicia o processamento automático do documento.
          */
         private Mono<UploadDocumentResponse> saveDocumentAndUpdatePerson(PayrollDocument document, Person person) {
-                return documentRepository.save(document)
+                return dashboardRollupService.criandoDocumento(document, documentRepository.save(document))
                                 .flatMap(savedDoc -> {
                                         log.info("PayrollDocument salvo. ID: {}", savedDoc.getId());
 
@@ -268,8 +256,10 @@ public class ITextIncomeTaxUploadUseCase {
          * Extrai metadata da declaração de IR usando iText 8.
          * Retorna Mono.empty() se não conseguir extrair (não é crítico).
          */
-        private Mono<IncomeTaxMetadata> extractIncomeTaxMetadata(InputStream inputStream) {
-                return iTextIncomeTaxService.extractIncomeTaxInfo(inputStream)
+        private Mono<IncomeTaxMetadata> extractIncomeTaxMetadata(Path pdfFile) {
+                return Mono.fromCallable(() -> Files.newInputStream(pdfFile))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .flatMap(iTextIncomeTaxService::extractIncomeTaxInfo)
                                 .map(info -> {
                                         IrpfDeclaracaoData irpfData = irpfDeclaracaoDataMapper.fromIncomeTaxInfo(info);
                                         return new IncomeTaxMetadata(info.getAnoCalendario(), info.getCpf(), irpfData);
@@ -296,23 +286,6 @@ public class ITextIncomeTaxUploadUseCase {
                 return cpf.replaceAll("[^\\d]", "");
         }
 
-        /**
-         * Calcula hash SHA-256 do arquivo.
-         */
-        private Mono<String> calculateFileHash(byte[] fileBytes) {
-                return Mono.fromCallable(() -> {
-                        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                        digest.update(fileBytes);
-                        byte[] hashBytes = digest.digest();
-
-                        StringBuilder sb = new StringBuilder();
-                        for (byte b : hashBytes) {
-                                sb.append(String.format("%02x", b));
-                        }
-                        return sb.toString();
-                }).subscribeOn(Schedulers.boundedElastic());
-        }
-
         /**
          * Classe auxiliar para metadata da declaração de IR.
          */
@@ -328,27 +301,6 @@ public class ITextIncomeTaxUploadUseCase {
                 }
         }
 
-        /**
-         * Lê o conteúdo do arquivo para um InputStream.
-         */
-        private Mono<InputStream> readFileContent(FilePart filePart) {
-                // Escreve o conteúdo em arquivo temporário liberando cada DataBuffer conforme consumido,
-                // evitando manter todos os buffers diretos (NIO/Netty) em memória ao mesmo tempo
-                // (causa de OutOfMemoryError de direct buffer no upload múltiplo).
-                return Mono.fromCallable(() -> java.nio.file.Files.createTempFile("irpf-upload-", ".tmp"))
-                                .subscribeOn(Schedulers.boundedElastic())
-                                .flatMap(tempPath -> org.springframework.core.io.buffer.DataBufferUtils
-                                                .write(filePart.content(), tempPath)
-                                                .then(Mono.fromCallable(() -> {
-                                                        try {
-                                                                byte[] bytes = java.nio.file.Files.readAllBytes(tempPath);
-                                                                return (InputStream) new ByteArrayInputStream(bytes);
-                                                        } finally {
-                                                                java.nio.file.Files.deleteIfExists(tempPath);
-                                                        }
-                                                }).subscribeOn(Schedulers.boundedElastic())));
-        }
-
         /**
          * Upload de declaração de IR por personId - busca automaticamente CPF da
          * pessoa.
@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.incometax;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.application.documents.DocumentProcessUseCase;
 import br.com.verticelabs.pdfprocessor.application.persons.GetPersonByIdUseCase;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.DocumentoDuplicadoException;
@@ -15,6 +16,8 @@ import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
 import br.com.verticelabs.pdfprocessor.domain.service.CpfValidationService;
 import br.com.verticelabs.pdfprocessor.domain.service.GridFsService;
 import br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService;
+import br.com.verticelabs.pdfprocessor.infrastructure.storage.UploadSpooler;
+import br.com.verticelabs.pdfprocessor.infrastructure.storage.UploadSpooler.SpooledUpload;
 import br.com.verticelabs.pdfprocessor.infrastructure.tenant.ReactiveTenantContext;
 import br.com.verticelabs.pdfprocessor.interfaces.documents.dto.UploadDocumentResponse;
 import lombok.RequiredArgsConstructor;
@@ -22,10 +25,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
-import java.io.InputStream;
-import java.security.MessageDigest;
+import java.nio.file.Path;
 import java.time.Instant;
 
 @Slf4j
@@ -40,6 +41,8 @@ public class IncomeTaxUploadUseCase {
         private final CpfValidationService cpfValidationService;
         private final DocumentProcessUseCase documentProcessUseCase;
         private final GetPersonByIdUseCase getPersonByIdUseCase;
+        private final DashboardRollupService dashboardRollupService;
+        private final UploadSpooler uploadSpooler;
 
         private static final String PDF_CONTENT_TYPE = "application/pdf";
 
@@ -77,155 +80,98 @@ public class IncomeTaxUploadUseCase {
                                                                 log.info("Pessoa encontrada: {} ({})", person.getNome(),
                                                                                 person.getCpf());
 
-                                                                // 3. Ler arquivo e calcular hash
-                                                                return readFileContent(filePart)
-                                                                                .flatMap(inputStream -> {
-                                                                                        return Mono.fromCallable(() -> {
-                                                                                                byte[] fileBytes = inputStream
-                                                                                                                .readAllBytes();
-                                                                                                inputStream.close();
-                                                                                                return fileBytes;
-                                                                                        }).subscribeOn(Schedulers
-                                                                                                        .boundedElastic());
-                                                                                })
-                                                                                .flatMap(fileBytes -> {
-                                                                                        log.info("Arquivo lido em memória. Tamanho: {} bytes",
-                                                                                                        fileBytes.length);
-
-                                                                                        // Validar tamanho do arquivo
-                                                                                        // (deve ser maior que 0)
-                                                                                        if (fileBytes.length == 0) {
-                                                                                                log.error("Arquivo vazio detectado. Tamanho: 0 bytes");
-                                                                                                return Mono.error(
-                                                                                                                new InvalidPdfException(
-                                                                                                                                "Arquivo vazio ou corrompido. O arquivo deve ter pelo menos 1 byte."));
-                                                                                        }
-
-                                                                                        // Validar tamanho mínimo
-                                                                                        // razoável para um PDF (pelo
-                                                                                        // menos 100 bytes)
-                                                                                        if (fileBytes.length < 100) {
-                                                                                                log.warn("Arquivo muito pequeno. Tamanho: {} bytes. Pode estar corrompido.",
-                                                                                                                fileBytes.length);
-                                                                                        }
-
-                                                                                        // 4. Calcular hash do arquivo
-                                                                                        return calculateFileHash(
-                                                                                                        fileBytes)
-                                                                                                        .flatMap(fileHash -> {
-                                                                                                                log.info("Hash calculado: {}",
-                                                                                                                                fileHash);
-
-                                                                                                                // 5.
-                                                                                                                // Verificar
-                                                                                                                // duplicidade
-                                                                                                                return documentRepository
-                                                                                                                                .findByTenantIdAndFileHash(
-                                                                                                                                                tenantId,
-                                                                                                                                                fileHash)
-                                                                                                                                .flatMap(existingDoc -> {
-                                                                                                                                        log.warn(
-                                                                                                                                                        "Arquivo duplicado detectado! DocumentId existente: {}",
-                                                                                                                                                        existingDoc.getId());
-                                                                                                                                        return Mono.<UploadDocumentResponse>error(
-                                                                                                                                                        new DocumentoDuplicadoException(
-                                                                                                                                                                        existingDoc.getId()));
-                                                                                                                                })
-                                                                                                                                .switchIfEmpty(
-                                                                                                                                                // 6.
-                                                                                                                                                // Salvar
-                                                                                                                                                // arquivo
-                                                                                                                                                // no
-                                                                                                                                                // GridFS
-                                                                                                                                                gridFsService.storeFileWithHash(
-                                                                                                                                                                new java.io.ByteArrayInputStream(
-                                                                                                                                                                                fileBytes),
-                                                                                                                                                                filePart.filename(),
-                                                                                                                                                                PDF_CONTENT_TYPE,
-                                                                                                                                                                fileHash)
-                                                                                                                                                                .flatMap(fileId -> {
-                                                                                                                                                                        log.info(
-                                                                                                                                                                                        "Arquivo salvo no GridFS com ID: {}",
-                                                                                                                                                                                        fileId);
+                                                                // 3. Receber o arquivo em disco calculando o hash na mesma passada
+                                                                return Mono.usingWhen(
+                                                                                uploadSpooler.spool(filePart),
+                                                                                upload -> storeDeclaration(upload, filePart.filename(),
+                                                                                                tenantId, normalizedCpf, person),
+                                                                                upload -> uploadSpooler.delete(upload.path()));
+                                                        });
+                                });
+        }
 
-                                                                                                                                                                        // 7.
-                                                                                                                                                                        // Extrair
-                                                                                                                                                                        // informações
-                                                                                                                                                                        // da
-                                                                                                                                                                        // declaração
-                                                                                                                                                                        // (opcional,
-                                                                                                                                                                        // para
-                                                                                                                                                                        // metadata)
-                                                                                                                                                                        return extractIncomeTaxMetadata(
-                                                                                                                                                                                        new java.io.ByteArrayInputStream(
-                                                                                                                                                                                                        fileBytes))
-                                                                                                                                                                                        .flatMap(metadata -> {
-                                                                                                                                                                                                // 8.
-                                                                                                                                                                                                // Criar
-                                                                                                                                                                                                // PayrollDocument
-                                                                                                                                                                                                // com
-                                                                                                                                                                                                // metadata
-                                                                                                                                                                                                PayrollDocument document = PayrollDocument
-                                                                                                                                                                                                                .builder()
-                                                                                                                                                                                                                .tenantId(
-                                                                                                                                                                                                                                tenantId)
-                                                                                                                                                                                                                .cpf(normalizedCpf)
-                                                                                                                                                                                                                .tipo(DocumentType.INCOME_TAX)
-                                                                                                                                                                                                                .status(DocumentStatus.PENDING)
-                                                                                                                                                                                                                .originalFileId(
-                                                                                                                                                                                                                                fileId)
-                                                                                                                                                                                                                .fileHash(
-                                                                                                                                                                                                                                fileHash)
-                                                                                                                                                                                                                .fileHash(
-                                                                                                                                                                                                                                fileHash)
-                                                                                                                                                                                                                .anoDetectado(
-                                                                                                                                                                                                                                parseAnoCalendario(
-                                                                                                                                                                                                                                                metadata.anoCalendario))
-                                                                                                                                                                                                                .dataUpload(
-                                                                                                                                                                                                                                Instant.now())
-                                                                                                                                                                                                                .build();
+        private Mono<UploadDocumentResponse> storeDeclaration(SpooledUpload upload, String filename, String tenantId,
+                        String normalizedCpf, Person person) {
+                // Validar tamanho do arquivo
+                // (deve ser maior que 0)
+                if (upload.size() == 0) {
+                        log.error("Arquivo vazio detectado. Tamanho: 0 bytes");
+                        return Mono.error(
+                                        new InvalidPdfException(
+                                                        "Arquivo vazio ou corrompido. O arquivo deve ter pelo menos 1 byte."));
+                }
 
-                                                                                                                                                                                                return saveDocumentAndUpdatePerson(
-                                                                                                                                                                                                                document,
-                                                                                                                                                                                                                person);
-                                                                                                                                                                                        })
-                                                                                                                                                                                        .switchIfEmpty(
-                                                                                                                                                                                                        // Se
-                                                                                                                                                                                                        // não
-                                                                                                                                                                                                        // conseguir
-                                                                                                                                                                                                        // extrair
-                                                                                                                                                                                                        // metadata,
-                                                                                                                                                                                                        // salvar
-                                                                                                                                                                                                        // documento
-                                                                                                                                                                                                        // mesmo
-                                                                                                                                                                                                        // assim
-                                                                                                                                                                                                        Mono.defer(() -> {
-                                                                                                                                                                                                                log.debug(
-                                                                                                                                                                                                                                "Metadata não extraída, salvando documento sem ano detectado");
-                                                                                                                                                                                                                PayrollDocument document = PayrollDocument
-                                                                                                                                                                                                                                .builder()
-                                                                                                                                                                                                                                .tenantId(
-                                                                                                                                                                                                                                                tenantId)
-                                                                                                                                                                                                                                .cpf(normalizedCpf)
-                                                                                                                                                                                                                                .tipo(DocumentType.INCOME_TAX)
-                                                                                                                                                                                                                                .status(DocumentStatus.PENDING)
-                                                                                                                                                                                                                                .originalFileId(
-                                                                                                                                                                                                                                                fileId)
-                                                                                                                                                                                                                                .fileHash(
-                                                                                                                                                                                                                                                fileHash)
-                                                                                                                                                                                                                                .dataUpload(
-                                                                                                                                                                                                                                                Instant.now())
-                                                                                                                                                                                                                                .build();
+                // Validar tamanho mínimo
+                // razoável para um PDF (pelo
+                // menos 100 bytes)
+                if (upload.size() < 100) {
+                        log.warn("Arquivo muito pequeno. Tamanho: {} bytes. Pode estar corrompido.",
+                                        upload.size());
+                }
 
-                                                                                                                                                                                                                return saveDocumentAndUpdatePerson(
-                                                                                                                                                                                                                                document,
-                                                                                                                                                                                                                                person);
-                                                                                                                                                                                                        }));
-                                                                                                                                                                }));
-                                                                                                        });
-                                                                                });
-                                                        });
-                                });
+                // 4. Hash calculado pelo spooler durante a recepção
+                String fileHash = upload.sha256();
+                log.info("Hash calculado: {}", fileHash);
+
+                // 5. Verificar duplicidade
+                return documentRepository
+                                .findByTenantIdAndFileHash(tenantId, fileHash)
+                                .flatMap(existingDoc -> {
+                                        log.warn(
+                                                        "Arquivo duplicado detectado! DocumentId existente: {}",
+                                                        existingDoc.getId());
+                                        return Mono.<UploadDocumentResponse>error(
+                                                        new DocumentoDuplicadoException(existingDoc.getId()));
+                                })
+                                .switchIfEmpty(
+                                                // 6. Salvar arquivo no GridFS
+                                                gridFsService.storeFileWithHash(
+                                                                upload.path(),
+                                                                filename,
+                                                                PDF_CONTENT_TYPE,
+                                                                fileHash)
+                                                                .flatMap(fileId -> {
+                                                                        log.info("Arquivo salvo no GridFS com ID: {}", fileId);
+
+                                                                        // 7. Extrair informações da declaração
+                                                                        // (opcional, para metadata)
+                                                                        return extractIncomeTaxMetadata(upload.path())
+                                                                                        .flatMap(metadata -> {
+                                                                                                // 8. Criar PayrollDocument com metadata
+                                                                                                PayrollDocument document = PayrollDocument
+                                                                                                                .builder()
+                                                                                                                .tenantId(tenantId)
+                                                                                                                .cpf(normalizedCpf)
+                                                                                                                .tipo(DocumentType.INCOME_TAX)
+                                                                                                                .status(DocumentStatus.PENDING)
+                                                                                                                .originalFileId(fileId)
+                                                                                                                .fileHash(fileHash)
+                                                                                                                .anoDetectado(parseAnoCalendario(
+                                                                                                                                metadata.anoCalendario))
+                                                                                                                .dataUpload(Instant.now())
+                                                                                                                .build();
+
+                                                                                                return saveDocumentAndUpdatePerson(document, person);
+                                                                                        })
+                                                                                        .switchIfEmpty(
+                                                                                                        // Se não conseguir extrair metadata,
+                                                                                                        // salvar documento mesmo assim
+                                                                                                        Mono.defer(() -> {
+                                                                                                                log.debug("Metadata não extraída, salvando documento sem ano detectado");
+                                                                                                                PayrollDocument document = PayrollDocument
+                                                                                                                                .builder()
+                                                                                                                                .tenantId(tenantId)
+                                                                                                                                .cpf(normalizedCpf)
+                                                                                                                                .tipo(DocumentType.INCOME_TAX)
+                                                                                                                                .status(DocumentStatus.PENDING)
+                                                                                                                                .originalFileId(fileId)
+                                                                                                                                .fileHash(fileHash)
+                                                                                                                                .dataUpload(Instant.now())
+                                                                                                                                .build();
+
+                                                                                                                return saveDocumentAndUpdatePerson(document, person);
+                                                                                                        }));
+                                                                }));
         }
 
         /**
@@ -233,7 +179,7 @@ public class IncomeTaxUploadUseCase {
          * Após salvar, inicia o processamento automático do documento.
          */
         private Mono<UploadDocumentResponse> saveDocumentAndUpdatePerson(PayrollDocument document, Person person) {
-                return documentRepository.save(document)
+                return dashboardRollupService.criandoDocumento(document, documentRepository.save(document))
                                 .flatMap(savedDoc -> {
                                         log.info("PayrollDocument salvo. ID: {}", savedDoc.getId());
 
@@ -291,8 +237,8 @@ public class IncomeTaxUploadUseCase {
          * documento.
          * Retorna Mono.empty() se não conseguir extrair (não é crítico).
          */
-        private Mono<IncomeTaxMetadata> extractIncomeTaxMetadata(InputStream inputStream) {
-                return incomeTaxDeclarationService.extractIncomeTaxInfo(inputStream)
+        private Mono<IncomeTaxMetadata> extractIncomeTaxMetadata(Path pdfFile) {
+                return incomeTaxDeclarationService.extractIncomeTaxInfo(pdfFile)
                                 .map(info -> new IncomeTaxMetadata(info.getAnoCalendario()))
                                 .onErrorResume(e -> {
                                         log.debug("Erro ao extrair metadata (não crítico): {}", e.getMessage());
@@ -300,23 +246,6 @@ public class IncomeTaxUploadUseCase {
                                 });
         }
 
-        /**
-         * Calcula hash SHA-256 do arquivo.
-         */
-        private Mono<String> calculateFileHash(byte[] fileBytes) {
-                return Mono.fromCallable(() -> {
-                        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-                        digest.update(fileBytes);
-                        byte[] hashBytes = digest.digest();
-
-                        StringBuilder sb = new StringBuilder();
-                        for (byte b : hashBytes) {
-                                sb.append(String.format("%02x", b));
-                        }
-                        return sb.toString();
-                }).subscribeOn(Schedulers.boundedElastic());
-        }
-
         /**
          * Classe auxiliar para metadata da declaração de IR.
          */
@@ -328,27 +257,6 @@ public class IncomeTaxUploadUseCase {
                 }
         }
 
-        /**
-         * Lê o conteúdo do arquivo para um InputStream.
-         */
-        private Mono<InputStream> readFileContent(FilePart filePart) {
-                // Escreve o conteúdo em arquivo temporário liberando cada DataBuffer conforme consumido,
-                // evitando manter todos os buffers diretos (NIO/Netty) em memória ao mesmo tempo
-                // (causa de OutOfMemoryError de direct buffer no upload múltiplo).
-                return Mono.fromCallable(() -> java.nio.file.Files.createTempFile("irpf-upload-", ".tmp"))
-                                .subscribeOn(Schedulers.boundedElastic())
-                                .flatMap(tempPath -> org.springframework.core.io.buffer.DataBufferUtils
-                                                .write(filePart.content(), tempPath)
-                                                .then(Mono.fromCallable(() -> {
-                                                        try {
-                                                                byte[] bytes = java.nio.file.Files.readAllBytes(tempPath);
-                                                                return (InputStream) new java.io.ByteArrayInputStream(bytes);
-                                                        } finally {
-                                                                java.nio.file.Files.deleteIfExists(tempPath);
-                                                        }
-                                                }).subscribeOn(Schedulers.boundedElastic())));
-        }
-
         /**
          * Upload de declaração de IR por personId - busca automaticamente CPF da pessoa
          * Processa automaticamente o documento após o upload
@@ -1,8 +1,8 @@
 package br.com.verticelabs.pdfprocessor.application.logs;
 
+import br.com.verticelabs.pdfprocessor.application.config.SystemConfigCache;
 import br.com.verticelabs.pdfprocessor.domain.model.LogRetentionPeriod;
 import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
-import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
 import br.com.verticelabs.pdfprocessor.interfaces.rest.dto.LogConfigResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,28 +22,28 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class LogRetentionService {
 
-    private final SystemConfigRepository configRepository;
+    private final SystemConfigCache systemConfigCache;
     private final ReactiveMongoTemplate mongoTemplate;
 
     @Value("${app.logging.mongo.enabled:false}")
     private boolean mongoLoggingEnabled;
 
     public Mono<LogRetentionPeriod> getRetentionPeriod() {
-        return configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_LOGS_RETENTION)
+        return systemConfigCache.find(SystemConfig.KEY_LOGS_RETENTION)
                 .map(config -> LogRetentionPeriod.fromValue(config.getValue()))
                 .defaultIfEmpty(LogRetentionPeriod.MONTH);
     }
 
     public Mono<LogConfigResponse> getConfigResponse() {
         return getRetentionPeriod()
-                .flatMap(period -> configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_LOGS_RETENTION)
+                .flatMap(period -> systemConfigCache.find(SystemConfig.KEY_LOGS_RETENTION)
                         .map(config -> toResponse(period, config.getUpdatedAt(), config.getUpdatedBy(), true))
                         .defaultIfEmpty(toResponse(period, null, null, false)));
     }
 
     public Mono<LogConfigResponse> updateRetention(LogRetentionPeriod period, String updatedBy) {
         Instant now = Instant.now();
-        return configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_LOGS_RETENTION)
+        return systemConfigCache.find(SystemConfig.KEY_LOGS_RETENTION)
                 .switchIfEmpty(Mono.just(SystemConfig.builder()
                         .key(SystemConfig.KEY_LOGS_RETENTION)
                         .description("Período de retenção dos logs do sistema")
@@ -53,7 +53,7 @@ public class LogRetentionService {
                     config.setValue(period.name());
                     config.setUpdatedAt(now);
                     config.setUpdatedBy(updatedBy);
-                    return configRepository.save(config);
+                    return systemConfigCache.save(config);
                 })
                 .flatMap(saved -> applyTtlIndex(period).thenReturn(toResponse(period, saved.getUpdatedAt(), saved.getUpdatedBy(), true)));
     }
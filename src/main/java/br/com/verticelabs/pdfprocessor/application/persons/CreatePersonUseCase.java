@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.persons;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.application.empresas.PersonEmpresaVinculoService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.InvalidCpfException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.PersonDuplicadaException;
@@ -24,6 +25,7 @@ public class CreatePersonUseCase {
     private final PersonRepository personRepository;
     private final CpfValidationService cpfValidationService;
     private final PersonEmpresaVinculoService personEmpresaVinculoService;
+    private final DashboardRollupService dashboardRollupService;
 
     public Mono<Person> execute(CreatePersonRequest request) {
         log.info("Criando pessoa: CPF={}, Nome={}, Matrícula={}, Empresa={}",
@@ -64,7 +66,7 @@ public class CreatePersonUseCase {
 
                     return personEmpresaVinculoService.validateAndApply(
                                     tenantId, request.getEmpresaId(), request.getPercentualHonorarioId(), person)
-                            .then(personRepository.save(person))
+                            .then(dashboardRollupService.criandoPessoa(person, personRepository.save(person)))
                             .doOnSuccess(p -> log.info("Pessoa criada com sucesso: ID={}, CPF={}", p.getId(), p.getCpf()));
                 });
     }
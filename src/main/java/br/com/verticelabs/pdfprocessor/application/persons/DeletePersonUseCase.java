@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.persons;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.PersonNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
@@ -14,6 +15,7 @@ import reactor.core.publisher.Mono;
 public class DeletePersonUseCase {
 
     private final PersonRepository personRepository;
+    private final DashboardRollupService dashboardRollupService;
 
     public Mono<Void> execute(String personId) {
         log.info("Excluindo definitivamente pessoa: ID={}", personId);
@@ -24,14 +26,16 @@ public class DeletePersonUseCase {
                         // SUPER_ADMIN pode excluir qualquer pessoa
                         return personRepository.findById(personId)
                                 .switchIfEmpty(Mono.error(new PersonNotFoundException("ID: " + personId)))
-                                .flatMap(person -> personRepository.deleteById(personId))
+                                .flatMap(person -> dashboardRollupService.removendoPessoa(person,
+                                        personRepository.deleteById(personId)))
                                 .doOnSuccess(v -> log.info("Pessoa excluída definitivamente: ID={}", personId));
                     } else {
                         // Outros usuários só podem excluir pessoas do seu tenant
                         return ReactiveSecurityContextHelper.getTenantId()
                                 .flatMap(tenantId -> personRepository.findByTenantIdAndId(tenantId, personId)
                                         .switchIfEmpty(Mono.error(new PersonNotFoundException("ID: " + personId)))
-                                        .flatMap(person -> personRepository.deleteById(personId))
+                                        .flatMap(person -> dashboardRollupService.removendoPessoa(person,
+                                                personRepository.deleteById(personId)))
                                         .doOnSuccess(v -> log.info("Pessoa excluída definitivamente: ID={}", personId)));
                     }
                 })
@@ -196,6 +196,8 @@ public class ListPersonsUseCase {
         if (tenantId != null) {
             docQuery.addCriteria(Criteria.where("tenantId").is(tenantId));
         }
+        // Só _id e cpf: evita trazer processingLog/detectedPages de todos os documentos da página
+        docQuery.fields().include("cpf");
 
         return mongoTemplate.find(docQuery, PayrollDocument.class)
                 .collectList()
@@ -8,7 +8,6 @@ import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityC
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
@@ -55,23 +54,8 @@ public class PersonRubricasMatrixUseCase {
 
                                 log.debug("Buscando entries de {} documentos para pessoa {}", documentoIds.size(), cpf);
 
-                                // Buscar todas as entries de todos os documentos
-                                // Se SUPER_ADMIN, buscar sem filtrar por tenantId
-                                // Se não, usar o tenantId da pessoa encontrada
-                                Flux<PayrollEntry> entriesFlux;
-                                if (isSuperAdmin) {
-                                    // SUPER_ADMIN: buscar entries sem filtrar por tenantId
-                                    entriesFlux = Flux.fromIterable(documentoIds)
-                                            .flatMap(documentId -> entryRepository.findByDocumentoId(documentId));
-                                } else {
-                                    // Outros usuários: usar tenantId da pessoa encontrada
-                                    String tenantId = person.getTenantId();
-                                    entriesFlux = Flux.fromIterable(documentoIds)
-                                            .flatMap(documentId -> entryRepository
-                                                    .findByTenantIdAndDocumentoId(tenantId, documentId));
-                                }
-
-                                return entriesFlux
+                                // Uma única query por pessoa (tenantId da pessoa encontrada, também para SUPER_ADMIN)
+                                return entryRepository.findByTenantIdAndPersonId(person.getTenantId(), person.getId())
                                         .collectList()
                                         .map(entries -> {
                                             log.debug("Encontradas {} entries para pessoa {}", entries.size(), cpf);
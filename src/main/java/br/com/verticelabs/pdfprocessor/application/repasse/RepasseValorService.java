@@ -1,11 +1,11 @@
 package br.com.verticelabs.pdfprocessor.application.repasse;
 
+import br.com.verticelabs.pdfprocessor.application.config.SystemConfigCache;
 import br.com.verticelabs.pdfprocessor.domain.model.RepasseStatus;
 import br.com.verticelabs.pdfprocessor.domain.model.RepasseValorConfig;
 import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
 import br.com.verticelabs.pdfprocessor.domain.repository.DeveloperRepasseRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.RepasseValorConfigRepository;
-import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
 import br.com.verticelabs.pdfprocessor.interfaces.rest.dto.RepasseConfigResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +29,7 @@ public class RepasseValorService {
 
     private final RepasseValorConfigRepository valorConfigRepository;
     private final DeveloperRepasseRepository repasseRepository;
-    private final SystemConfigRepository systemConfigRepository;
+    private final SystemConfigCache systemConfigCache;
 
     public Mono<BigDecimal> getValorUnitario() {
         return getValorForInstant(Instant.now());
@@ -132,10 +132,10 @@ public class RepasseValorService {
     }
 
     private Mono<RepasseValorConfig> seedInitialConfig() {
-        return systemConfigRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_REPASSE_VALOR_UNITARIO)
+        return systemConfigCache.find(SystemConfig.KEY_REPASSE_VALOR_UNITARIO)
                 .map(config -> new BigDecimal(config.getValue()))
                 .defaultIfEmpty(DEFAULT_VALOR)
-                .zipWith(systemConfigRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_REPASSE_ANO_BASE)
+                .zipWith(systemConfigCache.find(SystemConfig.KEY_REPASSE_ANO_BASE)
                         .map(config -> Integer.parseInt(config.getValue()))
                         .defaultIfEmpty(DEFAULT_ANO_BASE))
                 .flatMap(tuple -> {
@@ -0,0 +1,132 @@
+package br.com.verticelabs.pdfprocessor.application.rubricas;
+
+import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
+import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.util.SingleFlightLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo em memória das rubricas cadastradas, indexado por código.
+ *
+ * Mantém um snapshot imutável carregado de uma só vez do MongoDB, evitando uma ida ao banco
+ * por lançamento extraído. O snapshot é recarregado:
+ * <ul>
+ *   <li>quando o {@link RubricaUseCase} cria, altera, ativa, desativa ou exclui uma rubrica;</li>
+ *   <li>quando o change stream da coleção {@code rubricas} notifica uma alteração externa;</li>
+ *   <li>após o TTL configurado (fallback caso o change stream não esteja disponível).</li>
+ * </ul>
+ * Com o TTL vencido, o snapshot antigo continua sendo servido enquanto a recarga roda em background.
+ * As rubricas devolvidas são cópias: alterá-las não afeta o catálogo compartilhado entre tenants.
+ */
+@Slf4j
+@Component
+public class RubricaCatalog {
+
+    private final RubricaRepository rubricaRepository;
+    private final Duration ttl;
+
+    /**
+     * Compartilha uma única carga entre chamadas concorrentes (ex.: validação em paralelo
+     * dos lançamentos de um documento com o catálogo ainda vazio).
+     */
+    private final SingleFlightLoader<Snapshot> snapshot = new SingleFlightLoader<>(this::load);
+
+    public RubricaCatalog(RubricaRepository rubricaRepository,
+                          @Value("${app.rubricas.catalog.ttl:PT5M}") Duration ttl) {
+        this.rubricaRepository = rubricaRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Busca a rubrica pelo código (ativa ou não). Retorna Mono.empty() se não estiver cadastrada.
+     */
+    public Mono<Rubrica> findByCodigo(String codigo) {
+        if (codigo == null) {
+            return Mono.empty();
+        }
+        return current().flatMap(s -> Mono.justOrEmpty(s.porCodigo().get(codigo)).map(RubricaCatalog::copy));
+    }
+
+    /**
+     * Códigos de todas as rubricas ativas.
+     */
+    public Mono<Set<String>> codigosAtivos() {
+        return current().map(Snapshot::codigosAtivos);
+    }
+
+    /**
+     * Quantidade de rubricas ativas.
+     */
+    public Mono<Long> countAtivas() {
+        return current().map(s -> (long) s.codigosAtivos().size());
+    }
+
+    /**
+     * Descarta o snapshot atual e recarrega o catálogo do banco.
+     * Qualquer carga iniciada antes desta chamada é ignorada ao terminar.
+     */
+    public Mono<Void> refresh() {
+        return snapshot.refresh().then();
+    }
+
+    private Mono<Snapshot> current() {
+        return Mono.defer(() -> {
+            Snapshot atual = snapshot.current();
+            if (atual == null) {
+                return snapshot.loadShared();
+            }
+            if (atual.isExpired(ttl)) {
+                snapshot.loadShared().subscribe(
+                        s -> log.debug("Catálogo de rubricas recarregado por TTL: {} rubricas", s.porCodigo().size()),
+                        e -> log.warn("Falha ao recarregar catálogo de rubricas; mantendo snapshot anterior: {}",
+                                e.getMessage()));
+            }
+            return Mono.just(atual);
+        });
+    }
+
+    private Mono<Snapshot> load() {
+        return rubricaRepository.findAll()
+                .collectList()
+                .map(Snapshot::of)
+                .doOnNext(s -> log.info("📚 Catálogo de rubricas carregado: {} rubricas ({} ativas)",
+                        s.porCodigo().size(), s.codigosAtivos().size()));
+    }
+
+    private static Rubrica copy(Rubrica rubrica) {
+        return new Rubrica(rubrica.getId(), rubrica.getCodigo(), rubrica.getDescricao(),
+                rubrica.getCategoria(), rubrica.getAtivo());
+    }
+
+    record Snapshot(Map<String, Rubrica> porCodigo, Set<String> codigosAtivos, Instant loadedAt) {
+
+        static Snapshot of(List<Rubrica> rubricas) {
+            Map<String, Rubrica> porCodigo = new HashMap<>();
+            for (Rubrica rubrica : rubricas) {
+                if (rubrica.getCodigo() != null) {
+                    porCodigo.put(rubrica.getCodigo(), copy(rubrica));
+                }
+            }
+            Set<String> ativos = porCodigo.values().stream()
+                    .filter(r -> Boolean.TRUE.equals(r.getAtivo()))
+                    .map(Rubrica::getCodigo)
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Snapshot(Map.copyOf(porCodigo), ativos, Instant.now());
+        }
+
+        boolean isExpired(Duration ttl) {
+            return loadedAt.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.verticelabs.pdfprocessor.application.rubricas;
 
+import br.com.verticelabs.pdfprocessor.application.consolidation.PersonConsolidationService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.RubricaDuplicadaException;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.RubricaNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
@@ -11,11 +12,15 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class RubricaUseCase {
 
     private final RubricaRepository rubricaRepository;
+    private final RubricaCatalog rubricaCatalog;
+    private final PersonConsolidationService personConsolidationService;
 
     public Mono<Rubrica> criar(CreateRubricaRequest request) {
         return rubricaRepository.existsByCodigo(request.getCodigo())
@@ -30,7 +35,8 @@ public class RubricaUseCase {
                             .ativo(true)
                             .build();
                     return rubricaRepository.save(rubrica);
-                });
+                })
+                .flatMap(saved -> rubricaCatalog.refresh().thenReturn(saved));
     }
 
     public Flux<Rubrica> listarTodas() {
@@ -50,11 +56,18 @@ public class RubricaUseCase {
         return rubricaRepository.findByCodigo(codigo)
                 .switchIfEmpty(Mono.error(new RubricaNotFoundException(codigo)))
                 .flatMap(rubrica -> {
+                    boolean descricaoAlterada = !Objects.equals(rubrica.getDescricao(), request.getDescricao());
                     rubrica.setDescricao(request.getDescricao());
                     if (request.getCategoria() != null) {
                         rubrica.setCategoria(request.getCategoria());
                     }
-                    return rubricaRepository.save(rubrica);
+                    return rubricaRepository.save(rubrica)
+                            .flatMap(saved -> rubricaCatalog.refresh()
+                                    .then(descricaoAlterada
+                                            ? personConsolidationService.invalidarTodos(
+                                                    "descrição da rubrica " + codigo + " alterada")
+                                            : Mono.empty())
+                                    .thenReturn(saved));
                 });
     }
 
@@ -65,7 +78,7 @@ public class RubricaUseCase {
                     rubrica.setAtivo(false);
                     return rubricaRepository.save(rubrica);
                 })
-                .then();
+                .then(rubricaCatalog.refresh());
     }
 
     public Mono<Void> ativar(String codigo) {
@@ -75,14 +88,14 @@ public class RubricaUseCase {
                     rubrica.setAtivo(true);
                     return rubricaRepository.save(rubrica);
                 })
-                .then();
+                .then(rubricaCatalog.refresh());
     }
 
     public Mono<Void> excluir(String codigo) {
         return rubricaRepository.findByCodigo(codigo)
                 .switchIfEmpty(Mono.error(new RubricaNotFoundException(codigo)))
                 .flatMap(rubrica -> rubricaRepository.deleteByCodigo(codigo))
-                .then();
+                .then(rubricaCatalog.refresh());
     }
 }
 
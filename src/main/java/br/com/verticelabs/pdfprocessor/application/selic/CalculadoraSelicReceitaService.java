@@ -2,8 +2,8 @@ package br.com.verticelabs.pdfprocessor.application.selic;
 
 import br.com.verticelabs.pdfprocessor.application.selic.dto.DetalhamentoMes;
 import br.com.verticelabs.pdfprocessor.application.selic.dto.SelicReceitaCalculoResponse;
-import br.com.verticelabs.pdfprocessor.domain.model.SelicMensalEntity;
 import br.com.verticelabs.pdfprocessor.infrastructure.mongodb.SpringDataSelicMensalRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.util.SingleFlightLoader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,16 +14,19 @@ import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Calculadora SELIC conforme regra de atualização monetária da Receita Federal
  * (Lei nº 9.250/1995): acumulação simples das taxas mensais (série 4390 BCB),
  * com 1% fixo no mês final do período. Período inclui o mês de vencimento.
+ *
+ * A série fica em memória num {@link SelicIndex} de somas acumuladas: cada cálculo é uma
+ * subtração, sem ida ao banco. O índice é carregado no primeiro uso e recarregado pelo
+ * {@link TaxaSelicService} após cada sincronização da série mensal.
  */
 @Slf4j
 @Service
@@ -37,10 +40,24 @@ public class CalculadoraSelicReceitaService {
 
     private final SpringDataSelicMensalRepository selicMensalRepository;
 
+    private final SingleFlightLoader<SelicIndex> indice = new SingleFlightLoader<>(this::carregarIndice);
+
     public Mono<SelicReceitaCalculoResponse> calcular(
             YearMonth mesAnoInicio,
             YearMonth mesAnoFim,
             BigDecimal valorOriginal) {
+        return calcular(mesAnoInicio, mesAnoFim, valorOriginal, true);
+    }
+
+    /**
+     * @param detalhar se {@code false}, o detalhamento mês a mês não é montado (lista vazia);
+     *                 taxa total, fator e valor corrigido são os mesmos.
+     */
+    public Mono<SelicReceitaCalculoResponse> calcular(
+            YearMonth mesAnoInicio,
+            YearMonth mesAnoFim,
+            BigDecimal valorOriginal,
+            boolean detalhar) {
 
         BigDecimal valorBase = valorOriginal != null ? valorOriginal : BigDecimal.ZERO;
 
@@ -48,40 +65,71 @@ public class CalculadoraSelicReceitaService {
             return Mono.just(respostaVazia(mesAnoInicio, mesAnoFim, valorBase));
         }
 
-        return selicMensalRepository.findAllByOrderByAnoDescMesDesc()
+        return indice.get()
+                .map(indice -> calcularComIndice(indice, mesAnoInicio, mesAnoFim, valorBase, detalhar));
+    }
+
+    /**
+     * Descarta o índice atual e recarrega a série do banco (chamado após a sincronização com o BCB).
+     * Qualquer carga iniciada antes desta chamada é ignorada ao terminar.
+     */
+    public Mono<Void> recarregarIndice() {
+        return indice.refresh().then();
+    }
+
+    private Mono<SelicIndex> carregarIndice() {
+        return selicMensalRepository.findAll()
                 .collectList()
-                .map(taxas -> calcularComTaxas(taxas, mesAnoInicio, mesAnoFim, valorBase));
+                .map(SelicIndex::of)
+                .doOnNext(i -> log.info("Índice SELIC mensal carregado: {} meses", i.meses()));
     }
 
-    private SelicReceitaCalculoResponse calcularComTaxas(
-            List<SelicMensalEntity> taxasMensais,
+    private SelicReceitaCalculoResponse calcularComIndice(
+            SelicIndex indice,
             YearMonth mesAnoInicio,
             YearMonth mesAnoFim,
-            BigDecimal valorOriginal) {
+            BigDecimal valorOriginal,
+            boolean detalhar) {
 
-        Map<String, BigDecimal> mapaTaxas = new HashMap<>();
-        for (SelicMensalEntity taxa : taxasMensais) {
-            if (taxa.getTaxa() != null) {
-                mapaTaxas.put(taxa.getAno() + "-" + taxa.getMes(), taxa.getTaxa());
-            }
-        }
+        // Meses anteriores ao final pela série; o mês final entra com 1% fixo
+        BigDecimal somaTaxas = indice.soma(mesAnoInicio, mesAnoFim).add(TAXA_ULTIMO_MES);
+        int totalMeses = (int) mesAnoInicio.until(mesAnoFim, ChronoUnit.MONTHS) + 1;
 
-        BigDecimal somaTaxasMesesAnteriores = BigDecimal.ZERO;
-        List<DetalhamentoMes> detalhamento = new ArrayList<>();
-        int totalMeses = 0;
+        BigDecimal taxaTotal = somaTaxas.setScale(2, RoundingMode.HALF_UP);
+        BigDecimal fator = fatorDe(taxaTotal).setScale(6, RoundingMode.HALF_UP);
+        BigDecimal valorCorrigido = valorOriginal.compareTo(BigDecimal.ZERO) > 0
+                ? valorOriginal.multiply(fator).setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+
+        log.debug(
+                "SELIC Receita Federal (Lei 9250/95): {} a {} = {}% ({} meses), valor corrigido={}",
+                mesAnoInicio, mesAnoFim, taxaTotal, totalMeses, valorCorrigido);
+
+        return new SelicReceitaCalculoResponse(
+                mesAnoInicio,
+                mesAnoFim,
+                null,
+                null,
+                valorOriginal.setScale(2, RoundingMode.HALF_UP),
+                taxaTotal,
+                fator,
+                valorCorrigido,
+                totalMeses,
+                detalhar ? montarDetalhamento(indice, mesAnoInicio, mesAnoFim, valorOriginal) : List.of());
+    }
+
+    private List<DetalhamentoMes> montarDetalhamento(
+            SelicIndex indice,
+            YearMonth mesAnoInicio,
+            YearMonth mesAnoFim,
+            BigDecimal valorOriginal) {
 
+        List<DetalhamentoMes> detalhamento = new ArrayList<>();
         YearMonth mesAtual = mesAnoInicio;
         while (!mesAtual.isAfter(mesAnoFim)) {
             boolean primeiroMes = mesAtual.equals(mesAnoInicio);
             boolean ultimoMes = mesAtual.equals(mesAnoFim);
-            BigDecimal taxaMes;
-
-            if (ultimoMes) {
-                taxaMes = TAXA_ULTIMO_MES;
-            } else {
-                String chave = mesAtual.getYear() + "-" + mesAtual.getMonthValue();
-                taxaMes = mapaTaxas.getOrDefault(chave, BigDecimal.ZERO);
-            }
+            BigDecimal taxaMes = ultimoMes ? TAXA_ULTIMO_MES : indice.taxa(mesAtual);
 
             BigDecimal taxaAcumuladaExibicao;
             BigDecimal valorAtualizado;
@@ -93,7 +141,7 @@ public class CalculadoraSelicReceitaService {
                 memoriaCalculo = montarMemoriaCalculoInicial(valorOriginal);
             } else {
                 taxaAcumuladaExibicao = TAXA_ULTIMO_MES
-                        .add(somaTaxasMesesAnteriores)
+                        .add(indice.soma(mesAnoInicio, mesAtual))
                         .setScale(2, RoundingMode.HALF_UP);
                 valorAtualizado = valorOriginal.compareTo(BigDecimal.ZERO) > 0
                         ? valorOriginal.multiply(fatorDe(taxaAcumuladaExibicao)).setScale(2, RoundingMode.HALF_UP)
@@ -111,32 +159,9 @@ public class CalculadoraSelicReceitaService {
                     memoriaCalculo,
                     ultimoMes));
 
-            somaTaxasMesesAnteriores = somaTaxasMesesAnteriores.add(taxaMes);
-            totalMeses++;
             mesAtual = mesAtual.plusMonths(1);
         }
-
-        BigDecimal taxaTotal = somaTaxasMesesAnteriores.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal fator = fatorDe(taxaTotal).setScale(6, RoundingMode.HALF_UP);
-        BigDecimal valorCorrigido = valorOriginal.compareTo(BigDecimal.ZERO) > 0
-                ? valorOriginal.multiply(fator).setScale(2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-
-        log.info(
-                "SELIC Receita Federal (Lei 9250/95): {} a {} = {}% ({} meses), valor corrigido={}",
-                mesAnoInicio, mesAnoFim, taxaTotal, totalMeses, valorCorrigido);
-
-        return new SelicReceitaCalculoResponse(
-                mesAnoInicio,
-                mesAnoFim,
-                null,
-                null,
-                valorOriginal.setScale(2, RoundingMode.HALF_UP),
-                taxaTotal,
-                fator,
-                valorCorrigido,
-                totalMeses,
-                detalhamento);
+        return detalhamento;
     }
 
     private String montarMemoriaCalculoInicial(BigDecimal valorOriginal) {
@@ -0,0 +1,94 @@
+package br.com.verticelabs.pdfprocessor.application.selic;
+
+import br.com.verticelabs.pdfprocessor.domain.model.SelicMensalEntity;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Índice imutável da série SELIC mensal (4390) em somas acumuladas.
+ *
+ * {@code acumulado[i]} é a soma das taxas dos meses anteriores ao i-ésimo mês da série, de modo
+ * que a soma de qualquer intervalo é uma subtração. Meses sem taxa cadastrada, ou fora da série,
+ * valem zero — mesma regra do {@code getOrDefault(ZERO)} do cálculo mês a mês.
+ */
+final class SelicIndex {
+
+    private final int primeiroMes;
+    private final BigDecimal[] acumulado;
+
+    private SelicIndex(int primeiroMes, BigDecimal[] acumulado) {
+        this.primeiroMes = primeiroMes;
+        this.acumulado = acumulado;
+    }
+
+    static SelicIndex of(List<SelicMensalEntity> taxas) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (SelicMensalEntity taxa : taxas) {
+            if (valida(taxa)) {
+                int ordinal = ordinal(taxa.getAno(), taxa.getMes());
+                min = Math.min(min, ordinal);
+                max = Math.max(max, ordinal);
+            }
+        }
+        if (min > max) {
+            return new SelicIndex(0, new BigDecimal[] {BigDecimal.ZERO});
+        }
+
+        BigDecimal[] porMes = new BigDecimal[max - min + 1];
+        for (SelicMensalEntity taxa : taxas) {
+            if (valida(taxa)) {
+                porMes[ordinal(taxa.getAno(), taxa.getMes()) - min] = taxa.getTaxa();
+            }
+        }
+        BigDecimal[] acumulado = new BigDecimal[porMes.length + 1];
+        acumulado[0] = BigDecimal.ZERO;
+        for (int i = 0; i < porMes.length; i++) {
+            acumulado[i + 1] = porMes[i] != null ? acumulado[i].add(porMes[i]) : acumulado[i];
+        }
+        return new SelicIndex(min, acumulado);
+    }
+
+    /**
+     * Soma das taxas de {@code inicio} (inclusive) até {@code fim} (exclusive).
+     */
+    BigDecimal soma(YearMonth inicio, YearMonth fim) {
+        int de = ordinal(inicio);
+        int ate = ordinal(fim);
+        if (ate <= de) {
+            return BigDecimal.ZERO;
+        }
+        return posicao(ate).subtract(posicao(de));
+    }
+
+    /**
+     * Taxa do mês (zero se não cadastrada).
+     */
+    BigDecimal taxa(YearMonth mes) {
+        return soma(mes, mes.plusMonths(1));
+    }
+
+    int meses() {
+        return acumulado.length - 1;
+    }
+
+    private BigDecimal posicao(int ordinal) {
+        int i = Math.min(Math.max(ordinal - primeiroMes, 0), acumulado.length - 1);
+        return acumulado[i];
+    }
+
+    private static boolean valida(SelicMensalEntity taxa) {
+        return taxa.getTaxa() != null && taxa.getAno() != null
+                && taxa.getMes() != null && taxa.getMes() >= 1 && taxa.getMes() <= 12;
+    }
+
+    private static int ordinal(YearMonth mes) {
+        return ordinal(mes.getYear(), mes.getMonthValue());
+    }
+
+    private static int ordinal(int ano, int mes) {
+        return ano * 12 + mes - 1;
+    }
+}
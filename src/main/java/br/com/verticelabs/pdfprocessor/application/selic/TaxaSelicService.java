@@ -233,10 +233,23 @@ public class TaxaSelicService {
         log.info("Calculando SELIC Receita Federal: vencimento={}, pagamento={}, valor={}",
                 dataVencimento, dataPagamento, valorOriginal);
 
+        return calcularSelicReceitaFederal(dataVencimento, dataPagamento, valorOriginal, true);
+    }
+
+    /**
+     * Igual a {@link #calcularSelicReceitaFederal(LocalDate, LocalDate, java.math.BigDecimal)}; com
+     * {@code detalhar = false} não monta o detalhamento mês a mês (uso em lote, ex.: Resumo Geral).
+     */
+    public Mono<SelicReceitaCalculoResponse> calcularSelicReceitaFederal(
+            LocalDate dataVencimento,
+            LocalDate dataPagamento,
+            java.math.BigDecimal valorOriginal,
+            boolean detalhar) {
+
         java.time.YearMonth mesAnoInicio = java.time.YearMonth.from(dataVencimento);
         java.time.YearMonth mesAnoFim = java.time.YearMonth.from(dataPagamento);
 
-        return calculadoraSelicReceitaService.calcular(mesAnoInicio, mesAnoFim, valorOriginal)
+        return calculadoraSelicReceitaService.calcular(mesAnoInicio, mesAnoFim, valorOriginal, detalhar)
                 .map(result -> result.enriquecer(dataVencimento, dataPagamento));
     }
 
@@ -251,7 +264,8 @@ public class TaxaSelicService {
 
     /**
      * Sincroniza SELIC mensal (série SGS 4390) — usada pela Receita Federal.
-     * Sempre faz upsert para incluir meses novos (ex.: 2026).
+     * Sempre faz upsert para incluir meses novos (ex.: 2026) e recarrega o índice em memória
+     * da calculadora.
      */
     public Mono<Integer> sincronizarSelicMensalComBcb() {
         log.info("Iniciando sincronização SELIC mensal (série 4390)...");
@@ -260,6 +274,7 @@ public class TaxaSelicService {
                 .concatMap(this::salvarOuAtualizarMensal)
                 .count()
                 .map(Long::intValue)
+                .flatMap(total -> calculadoraSelicReceitaService.recarregarIndice().thenReturn(total))
                 .doOnSuccess(total -> log.info("SELIC mensal sincronizada: {} registros processados", total))
                 .onErrorResume(e -> {
                     log.error("Erro na sincronização SELIC mensal: {}", e.getMessage(), e);
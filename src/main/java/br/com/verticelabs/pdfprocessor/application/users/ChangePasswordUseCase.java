@@ -2,10 +2,10 @@ package br.com.verticelabs.pdfprocessor.application.users;
 
 import br.com.verticelabs.pdfprocessor.domain.exceptions.UserNotFoundException;
 import br.com.verticelabs.pdfprocessor.domain.repository.UserRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -17,7 +17,7 @@ import java.time.Instant;
 public class ChangePasswordUseCase {
     
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     
     public Mono<Void> execute(String userId, String senhaAtual, String novaSenha) {
         return ReactiveSecurityContextHelper.getUserId()
@@ -49,25 +49,25 @@ public class ChangePasswordUseCase {
     private Mono<Void> changePasswordAsSuperAdmin(String userId, String novaSenha) {
         return userRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new UserNotFoundException("Usuário não encontrado: " + userId)))
-                .flatMap(user -> {
-                    user.setSenhaHash(passwordEncoder.encode(novaSenha));
+                .flatMap(user -> passwordHashingService.encode(novaSenha).flatMap(senhaHash -> {
+                    user.setSenhaHash(senhaHash);
                     user.setUpdatedAt(Instant.now());
                     return userRepository.save(user)
                             .doOnSuccess(u -> log.info("✅ Senha alterada para usuário: {} ({})", u.getEmail(), u.getId()))
                             .then();
-                });
+                }));
     }
     
     private Mono<Void> changePasswordAsTenantAdmin(String tenantId, String userId, String novaSenha) {
         return userRepository.findByTenantIdAndId(tenantId, userId)
                 .switchIfEmpty(Mono.error(new UserNotFoundException("Usuário não encontrado ou não pertence ao seu tenant: " + userId)))
-                .flatMap(user -> {
-                    user.setSenhaHash(passwordEncoder.encode(novaSenha));
+                .flatMap(user -> passwordHashingService.encode(novaSenha).flatMap(senhaHash -> {
+                    user.setSenhaHash(senhaHash);
                     user.setUpdatedAt(Instant.now());
                     return userRepository.save(user)
                             .doOnSuccess(u -> log.info("✅ Senha alterada para usuário: {} ({})", u.getEmail(), u.getId()))
                             .then();
-                });
+                }));
     }
     
     private Mono<Void> changePasswordAsOwnUser(String userId, String senhaAtual, String novaSenha) {
@@ -77,17 +77,20 @@ public class ChangePasswordUseCase {
         
         return userRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new UserNotFoundException("Usuário não encontrado: " + userId)))
-                .flatMap(user -> {
-                    if (!passwordEncoder.matches(senhaAtual, user.getSenhaHash())) {
-                        return Mono.error(new RuntimeException("Senha atual incorreta"));
-                    }
-                    
-                    user.setSenhaHash(passwordEncoder.encode(novaSenha));
-                    user.setUpdatedAt(Instant.now());
-                    return userRepository.save(user)
-                            .doOnSuccess(u -> log.info("✅ Senha alterada pelo próprio usuário: {} ({})", u.getEmail(), u.getId()))
-                            .then();
-                });
+                .flatMap(user -> passwordHashingService.matches(senhaAtual, user.getSenhaHash())
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(new RuntimeException("Senha atual incorreta"));
+                            }
+                            return passwordHashingService.encode(novaSenha);
+                        })
+                        .flatMap(senhaHash -> {
+                            user.setSenhaHash(senhaHash);
+                            user.setUpdatedAt(Instant.now());
+                            return userRepository.save(user)
+                                    .doOnSuccess(u -> log.info("✅ Senha alterada pelo próprio usuário: {} ({})", u.getEmail(), u.getId()))
+                                    .then();
+                        }));
     }
 }
 
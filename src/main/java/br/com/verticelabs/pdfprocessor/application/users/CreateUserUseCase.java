@@ -5,10 +5,10 @@ import br.com.verticelabs.pdfprocessor.domain.model.Tenant;
 import br.com.verticelabs.pdfprocessor.domain.model.User;
 import br.com.verticelabs.pdfprocessor.domain.repository.TenantRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.UserRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService;
 import br.com.verticelabs.pdfprocessor.infrastructure.security.ReactiveSecurityContextHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -24,7 +24,7 @@ public class CreateUserUseCase {
     
     private final UserRepository userRepository;
     private final TenantRepository tenantRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     
     public Mono<User> execute(String nome, String email, String senha, Set<String> roles, String tenantId, String telefone, Set<String> allowedPersonIds) {
         return ReactiveSecurityContextHelper.getUserId()
@@ -70,22 +70,24 @@ public class CreateUserUseCase {
                             return Mono.error(new RuntimeException("Email já está em uso"));
                         }
                         
-                        User user = User.builder()
-                                .id(UUID.randomUUID().toString())
-                                .tenantId(null) // SUPER_ADMIN/EVALUATOR não têm tenantId
-                                .nome(nome)
-                                .email(email)
-                                .senhaHash(passwordEncoder.encode(senha))
-                                .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
-                                .allowedPersonIds(isCreatingEvaluator && allowedPersonIds != null
-                                        ? new HashSet<>(allowedPersonIds) : new HashSet<>())
-                                .telefone(telefone)
-                                .ativo(true)
-                                .createdAt(Instant.now())
-                                .build();
+                        return passwordHashingService.encode(senha).flatMap(senhaHash -> {
+                            User user = User.builder()
+                                    .id(UUID.randomUUID().toString())
+                                    .tenantId(null) // SUPER_ADMIN/EVALUATOR não têm tenantId
+                                    .nome(nome)
+                                    .email(email)
+                                    .senhaHash(senhaHash)
+                                    .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
+                                    .allowedPersonIds(isCreatingEvaluator && allowedPersonIds != null
+                                            ? new HashSet<>(allowedPersonIds) : new HashSet<>())
+                                    .telefone(telefone)
+                                    .ativo(true)
+                                    .createdAt(Instant.now())
+                                    .build();
                         
-                        return userRepository.save(user)
-                                .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({}) - roles={}", u.getEmail(), u.getId(), u.getRoles()));
+                            return userRepository.save(user)
+                                    .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({}) - roles={}", u.getEmail(), u.getId(), u.getRoles()));
+                        });
                     });
         } else {
             // Para outros usuários, validar tenant
@@ -96,20 +98,22 @@ public class CreateUserUseCase {
                                     return Mono.error(new RuntimeException("Email já está em uso"));
                                 }
                                 
-                                User user = User.builder()
-                                        .id(UUID.randomUUID().toString())
-                                        .tenantId(tenantId)
-                                        .nome(nome)
-                                        .email(email)
-                                        .senhaHash(passwordEncoder.encode(senha))
-                                        .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
-                                        .telefone(telefone)
-                                        .ativo(true)
-                                        .createdAt(Instant.now())
-                                        .build();
+                                return passwordHashingService.encode(senha).flatMap(senhaHash -> {
+                                    User user = User.builder()
+                                            .id(UUID.randomUUID().toString())
+                                            .tenantId(tenantId)
+                                            .nome(nome)
+                                            .email(email)
+                                            .senhaHash(senhaHash)
+                                            .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
+                                            .telefone(telefone)
+                                            .ativo(true)
+                                            .createdAt(Instant.now())
+                                            .build();
                                 
-                                return userRepository.save(user)
-                                        .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({})", u.getEmail(), u.getId()));
+                                    return userRepository.save(user)
+                                            .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({})", u.getEmail(), u.getId()));
+                                });
                             }));
         }
     }
@@ -130,20 +134,22 @@ public class CreateUserUseCase {
                                 return Mono.error(new RuntimeException("Email já está em uso"));
                             }
                             
-                            User user = User.builder()
-                                    .id(UUID.randomUUID().toString())
-                                    .tenantId(tenantId)
-                                    .nome(nome)
-                                    .email(email)
-                                    .senhaHash(passwordEncoder.encode(senha))
-                                    .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
-                                    .telefone(telefone)
-                                    .ativo(true)
-                                    .createdAt(Instant.now())
-                                    .build();
+                            return passwordHashingService.encode(senha).flatMap(senhaHash -> {
+                                User user = User.builder()
+                                        .id(UUID.randomUUID().toString())
+                                        .tenantId(tenantId)
+                                        .nome(nome)
+                                        .email(email)
+                                        .senhaHash(senhaHash)
+                                        .roles(roles != null ? new HashSet<>(roles) : new HashSet<>())
+                                        .telefone(telefone)
+                                        .ativo(true)
+                                        .createdAt(Instant.now())
+                                        .build();
                             
-                            return userRepository.save(user)
-                                    .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({}) no tenant {}", u.getEmail(), u.getId(), tenantId));
+                                return userRepository.save(user)
+                                        .doOnSuccess(u -> log.info("✅ Usuário criado: {} ({}) no tenant {}", u.getEmail(), u.getId(), tenantId));
+                            });
                         }));
     }
     
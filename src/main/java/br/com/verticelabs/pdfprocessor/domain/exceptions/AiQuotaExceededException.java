@@ -0,0 +1,12 @@
+package br.com.verticelabs.pdfprocessor.domain.exceptions;
+
+/**
+ * A chamada à IA não coube nos limites desta instância (fila do bulkhead cheia, sem vaga no
+ * tempo de espera ou cota por minuto esgotada) e não foi enviada. Não é indisponibilidade: quem
+ * chama não deve seguir sem a IA, e sim falhar para que o processamento seja retentado depois.
+ */
+public class AiQuotaExceededException extends RuntimeException {
+    public AiQuotaExceededException(String message) {
+        super(message);
+    }
+}
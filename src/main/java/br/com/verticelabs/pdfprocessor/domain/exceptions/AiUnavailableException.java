@@ -0,0 +1,12 @@
+package br.com.verticelabs.pdfprocessor.domain.exceptions;
+
+/**
+ * A chamada à IA foi recusada sem ser enviada porque o circuito do modelo está aberto. Quem chama
+ * deve seguir com o resultado que já tem (ex.: regex). Limites de vazão são
+ * {@link AiQuotaExceededException}.
+ */
+public class AiUnavailableException extends RuntimeException {
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
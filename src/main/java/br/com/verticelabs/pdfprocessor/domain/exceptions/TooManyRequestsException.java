@@ -0,0 +1,11 @@
+package br.com.verticelabs.pdfprocessor.domain.exceptions;
+
+/**
+ * Servidor saturado para a operação pedida (ex.: fila de hash de senha cheia). O cliente pode
+ * tentar de novo em instantes.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
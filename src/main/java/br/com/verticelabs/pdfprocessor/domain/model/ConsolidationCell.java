@@ -0,0 +1,44 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Célula da matriz de consolidação (rubrica × ano × mês) já agregada no MongoDB.
+ *
+ * A referência usada é a ajustada: mesPagamento quando existir; "YYYY-13" mapeado para o mês
+ * de outra entry da mesma página (fallback novembro); senão a referência normalizada.
+ * Entries cuja referência não normaliza chegam em uma célula com {@code ano}/{@code mes} nulos,
+ * apenas para compor a origem efetiva.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsolidationCell {
+
+    private String rubricaCodigo;
+
+    private String rubricaDescricao; // Descrição da primeira entry da rubrica (ordem de referência)
+
+    private String ano; // "2017" (null se a referência não normalizou)
+
+    private String mes; // "01".."12" (null se a referência não normalizou)
+
+    private BigDecimal valor; // Soma dos valores das entries da célula
+
+    private boolean deReferencia13; // Alguma entry com referência original "YYYY-13" caiu nesta célula
+
+    private boolean somenteFuncef; // Todas as entries da célula são FUNCEF / FUNCEF_DEMONSTRATIVO
+
+    private boolean possuiCaixa; // Alguma entry da célula tem origem CAIXA
+
+    private boolean possuiFuncef; // Alguma entry da célula é da família Funcef
+
+    private Set<String> anosReferencia; // Anos das referências normalizadas (antes do ajuste)
+}
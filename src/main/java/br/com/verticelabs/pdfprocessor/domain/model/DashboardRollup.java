@@ -0,0 +1,71 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Totais e séries do dashboard de um tenant (read model), lidos com uma única consulta por
+ * {@code _id} em vez de agregações sobre payroll_entries, payroll_documents e persons.
+ *
+ * Um documento por tenant ({@code _id} = tenantId) e um para a visão do SUPER_ADMIN
+ * ({@code _id} = {@link #TODOS_OS_TENANTS}). As alterações entram via {@code $inc}
+ * ({@link DashboardRollupDelta}); a reconciliação periódica regrava o documento a partir das
+ * collections de origem, desde que {@code versao} não tenha mudado durante o recálculo e não
+ * haja {@code escritasEmAndamento}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dashboard_rollups")
+public class DashboardRollup {
+
+    public static final String TODOS_OS_TENANTS = "*";
+
+    /**
+     * Versão lida quando o rollup ainda não existe.
+     */
+    public static final long AUSENTE = -1;
+
+    @Id
+    private String id; // tenantId ou TODOS_OS_TENANTS
+
+    private long documentos;
+
+    private long lancamentos;
+
+    private long pessoas;
+
+    @Builder.Default
+    private Map<String, Long> documentosPorAno = new HashMap<>(); // anoDetectado → documentos
+
+    @Builder.Default
+    private Map<String, Long> pessoasPorAno = new HashMap<>(); // ano de createdAt → pessoas
+
+    @Builder.Default
+    private Map<String, Long> lancamentosPorAno = new HashMap<>(); // ano da referência → entries
+
+    @Builder.Default
+    private Map<String, Long> lancamentosPorRubrica = new HashMap<>(); // rubricaCodigo → entries
+
+    private Instant atualizadoEm; // Última alteração aplicada (incremental ou reconciliação)
+
+    private Instant reconciliadoEm; // Último recálculo completo a partir das collections de origem
+
+    private long versao; // Incrementada a cada $inc e a cada reconciliação gravada
+
+    /**
+     * Gravações nas collections de origem já iniciadas cujo {@code $inc} ainda não foi aplicado.
+     * Enquanto for diferente de zero, as agregações podem contar uma gravação que o rollup ainda
+     * vai receber, e a reconciliação não regrava o documento.
+     */
+    private long escritasEmAndamento;
+}
@@ -0,0 +1,73 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variação a aplicar sobre os {@link DashboardRollup} de um tenant: contadores e séries, com
+ * valores negativos para remoções. As séries usam os labels originais; o adapter MongoDB cuida
+ * de torná-los nomes de campo válidos.
+ */
+@Getter
+public class DashboardRollupDelta {
+
+    private long documentos;
+    private long lancamentos;
+    private long pessoas;
+    private long escritasEmAndamento;
+    private final Map<String, Long> documentosPorAno = new HashMap<>();
+    private final Map<String, Long> pessoasPorAno = new HashMap<>();
+    private final Map<String, Long> lancamentosPorAno = new HashMap<>();
+    private final Map<String, Long> lancamentosPorRubrica = new HashMap<>();
+
+    public DashboardRollupDelta documento(String ano, long quantidade) {
+        documentos += quantidade;
+        add(documentosPorAno, ano, quantidade);
+        return this;
+    }
+
+    /**
+     * Documento que já estava contado e só agora teve o ano detectado.
+     */
+    public DashboardRollupDelta anoDoDocumento(String ano, long quantidade) {
+        add(documentosPorAno, ano, quantidade);
+        return this;
+    }
+
+    public DashboardRollupDelta pessoa(String ano, long quantidade) {
+        pessoas += quantidade;
+        add(pessoasPorAno, ano, quantidade);
+        return this;
+    }
+
+    public DashboardRollupDelta lancamento(String ano, String rubricaCodigo, long quantidade) {
+        lancamentos += quantidade;
+        add(lancamentosPorAno, ano, quantidade);
+        add(lancamentosPorRubrica, rubricaCodigo, quantidade);
+        return this;
+    }
+
+    /**
+     * Gravação na collection de origem iniciada (1) ou concluída (-1); ver
+     * {@link DashboardRollup#getEscritasEmAndamento()}.
+     */
+    public DashboardRollupDelta escritaEmAndamento(long quantidade) {
+        escritasEmAndamento += quantidade;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return documentos == 0 && lancamentos == 0 && pessoas == 0 && escritasEmAndamento == 0
+                && documentosPorAno.isEmpty() && pessoasPorAno.isEmpty()
+                && lancamentosPorAno.isEmpty() && lancamentosPorRubrica.isEmpty();
+    }
+
+    private static void add(Map<String, Long> serie, String chave, long quantidade) {
+        if (chave == null || chave.isBlank()) {
+            return;
+        }
+        serie.merge(chave.trim(), quantidade, Long::sum);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Projeção leve de PayrollDocument para listagens: só os metadados, sem detectedPages, irpfData
+ * nem o processingLog completo. Os campos de progresso derivados do log são calculados no
+ * servidor pela agregação de {@code findSummaries*}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummary {
+    private String id;
+    private String tenantId;
+    private String cpf;
+    private DocumentType tipo;
+    private DocumentStatus status;
+    private Integer anoDetectado;
+    private List<String> mesesDetectados; // Formato: ["2017-01", "2017-02"]
+    private Instant dataUpload;
+    private Instant dataProcessamento;
+    private Long totalEntries;
+    private Integer totalPages; // Contador gravado no início do processamento
+    private Integer processedPages; // Contador $inc por página
+
+    // === Derivados do processingLog ===
+
+    private int eventsCount;
+
+    /** totalPages do primeiro evento que traz a info (documentos anteriores ao contador) */
+    private Integer totalPagesDoLog;
+
+    /** Páginas distintas com GEMINI_EXTRACTION_COMPLETED, TEXT_EXTRACTED ou ESCALATION_COMPLETED */
+    private int pagesProcessed;
+
+    private ProcessingEventType lastEventType;
+    private String lastEventMessage;
+}
@@ -0,0 +1,57 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Resultado bruto da extração de uma página (texto do PDFBox ou JSON do Gemini), guardado pelo
+ * hash do arquivo para que reprocessamentos e uploads repetidos não refaçam o trabalho.
+ *
+ * O {@link #id} é a chave completa (fileHash, página, extrator, versão, modelo e, nas entradas do
+ * Gemini, perfil da imagem): mudar a versão do prompt ou do extrator gera outra chave, e as
+ * entradas antigas são removidas no startup.
+ *
+ * Índices (TTL de 90 dias em createdAt, extractor+version, fileHash) criados pelo
+ * {@code DatabaseInitializer}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "extraction_cache")
+public class ExtractionCacheEntry {
+    @Id
+    private String id;
+
+    private String fileHash; // SHA-256 do PDF (PayrollDocument.fileHash)
+
+    private Integer page; // 1-indexed
+
+    private String extractor; // pdf_text, gemini_payroll, gemini_payroll_pro
+
+    private String version; // Versão do extrator ou dos prompts (GeminiPrompts.VERSION)
+
+    private String model; // Modelo Gemini que gerou o conteúdo ("pdfbox" para texto)
+
+    private String imageProfile; // Preparo da imagem enviada ao Gemini (null para texto)
+
+    private String content;
+
+    private Instant createdAt;
+
+    public static String key(String fileHash, int page, String extractor, String version, String model) {
+        return fileHash + ":" + page + ":" + extractor + ":" + version + ":" + model;
+    }
+
+    public static String key(String fileHash, int page, String extractor, String version, String model,
+                             String imageProfile) {
+        String key = key(fileHash, page, extractor, version, model);
+        return imageProfile != null ? key + ":" + imageProfile : key;
+    }
+}
@@ -49,6 +49,10 @@ public class PayrollDocument {
     private Instant dataProcessamento; // Data do processamento
     
     private Long totalEntries; // Número total de entries extraídas
+
+    private Integer totalPages; // Total de páginas do PDF (preenchido no início do processamento)
+
+    private Integer processedPages; // Páginas já processadas ($inc a cada página concluída)
     
     private Double confidenceScore; // Score de confiança da extração (0.0 a 1.0) — Fase 2
     
@@ -59,7 +63,7 @@ public class PayrollDocument {
     private String uploadedBy; // ID do usuário que fez o upload
 
     @Builder.Default
-    private List<ProcessingEvent> processingLog = new ArrayList<>(); // Log de eventos do processamento
+    private List<ProcessingEvent> processingLog = new ArrayList<>(); // Log de eventos do processamento (append-only via $push)
 
     /**
      * Dados extraídos da declaração de IRPF.
@@ -25,6 +25,10 @@ public class PayrollEntry {
     @Indexed
     private String documentoId; // Referência ao payroll_documents
 
+    private String personId; // Pessoa dona do documento (desnormalizado; índice tenantId+personId+referencia no DatabaseInitializer)
+
+    private String cpf; // CPF da pessoa (desnormalizado junto com personId)
+
     @Indexed
     private String rubricaCodigo; // Código da rubrica (ex: "4482")
 
@@ -0,0 +1,53 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot da consolidação de uma pessoa (read model da matriz rubrica × ano × mês).
+ *
+ * Um documento por pessoa ({@code _id} = personId). Cada processamento ou exclusão de documento
+ * incrementa {@link #version}; as células só são servidas quando {@link #builtVersion} alcançou
+ * {@link #version} e foram calculadas com o mesmo conjunto de rubricas ativas do catálogo atual.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "person_consolidation")
+public class PersonConsolidation {
+
+    /** Escopos de origem pré-calculados: sem filtro, CAIXA e FUNCEF (inclui o Demonstrativo). */
+    public static final String ESCOPO_TODAS = "TODAS";
+    public static final String ESCOPO_CAIXA = "CAIXA";
+    public static final String ESCOPO_FUNCEF = "FUNCEF";
+
+    @Id
+    private String id; // personId
+
+    private String tenantId;
+
+    private long version; // Incrementada a cada alteração nas entries da pessoa
+
+    private long builtVersion; // Versão para a qual as células foram calculadas
+
+    private Set<String> rubricasAtivas; // Rubricas ativas usadas no cálculo
+
+    private Map<String, List<ConsolidationCell>> celulasPorOrigem; // escopo → células (sem filtro de ano)
+
+    private Instant atualizadoEm;
+
+    public boolean isAtualizado(Set<String> rubricasAtivasAtuais) {
+        return builtVersion == version && celulasPorOrigem != null
+                && rubricasAtivas != null && rubricasAtivas.equals(rubricasAtivasAtuais);
+    }
+}
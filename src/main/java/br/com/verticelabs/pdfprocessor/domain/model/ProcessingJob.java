@@ -0,0 +1,55 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Job da fila persistente de processamento de documentos.
+ *
+ * Existe um job por documento: reenfileirar (upload, reprocessamento ou recuperação no startup)
+ * reaproveita o mesmo registro. Um worker só executa o job enquanto detém o lease
+ * ({@link #leaseOwner} / {@link #leaseExpiresAt}); lease vencido significa que a instância caiu
+ * e o job pode ser reassumido por outro worker.
+ *
+ * Índices criados pelo {@code DatabaseInitializer}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "processing_jobs")
+public class ProcessingJob {
+    @Id
+    private String id;
+
+    private String documentId;
+
+    private String tenantId;
+
+    private ProcessingJobStatus status;
+
+    @Builder.Default
+    private Integer attempts = 0; // Tentativas já iniciadas
+
+    private Instant availableAt; // A partir de quando o job pode ser assumido (backoff)
+
+    private String leaseOwner; // Worker que detém o job (instância + slot)
+
+    private Instant leaseExpiresAt; // Renovado pelo heartbeat enquanto o processamento roda
+
+    private String lastError;
+
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+}
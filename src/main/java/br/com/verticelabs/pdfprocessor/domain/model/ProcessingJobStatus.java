@@ -0,0 +1,11 @@
+package br.com.verticelabs.pdfprocessor.domain.model;
+
+/**
+ * Estado de um job na fila de processamento de documentos.
+ */
+public enum ProcessingJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
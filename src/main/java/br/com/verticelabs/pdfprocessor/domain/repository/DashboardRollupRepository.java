@@ -0,0 +1,23 @@
+package br.com.verticelabs.pdfprocessor.domain.repository;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollup;
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollupDelta;
+import reactor.core.publisher.Mono;
+
+public interface DashboardRollupRepository {
+
+    Mono<DashboardRollup> findById(String id);
+
+    /**
+     * Grava o rollup recalculado se ninguém o alterou desde a leitura: {@code versaoLida} é a
+     * {@code versao} lida antes do recálculo, ou {@link DashboardRollup#AUSENTE} se o rollup não
+     * existia. Retorna {@code false} quando houve alteração no meio (nada é gravado).
+     */
+    Mono<Boolean> saveIfUnchanged(DashboardRollup rollup, long versaoLida);
+
+    /**
+     * Aplica a variação ao rollup do tenant e ao de {@link DashboardRollup#TODOS_OS_TENANTS}.
+     * Rollup inexistente não é criado: a primeira leitura (ou a reconciliação) o calcula do zero.
+     */
+    Mono<Void> increment(String tenantId, DashboardRollupDelta delta);
+}
@@ -0,0 +1,31 @@
+package br.com.verticelabs.pdfprocessor.domain.repository;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ExtractionCacheEntry;
+import reactor.core.publisher.Mono;
+
+public interface ExtractionCacheRepository {
+
+    /**
+     * Conteúdo guardado para a chave, ou vazio se não houver.
+     */
+    Mono<String> findContent(String id);
+
+    /**
+     * Grava (ou sobrescreve) a entrada pela chave.
+     */
+    Mono<Void> save(ExtractionCacheEntry entry);
+
+    /**
+     * Remove as entradas do extrator geradas com outra versão.
+     *
+     * @return quantidade de entradas removidas
+     */
+    Mono<Long> deleteByExtractorAndVersionNot(String extractor, String version);
+
+    /**
+     * Remove todas as entradas do arquivo.
+     *
+     * @return quantidade de entradas removidas
+     */
+    Mono<Long> deleteByFileHash(String fileHash);
+}
@@ -1,12 +1,17 @@
 package br.com.verticelabs.pdfprocessor.domain.repository;
 
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentStatus;
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentSummary;
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingEvent;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface PayrollDocumentRepository {
     Mono<PayrollDocument> save(PayrollDocument document);
     
@@ -32,8 +37,62 @@ public interface PayrollDocumentRepository {
      */
     Mono<Long> countAll();
 
+    /**
+     * Conta documentos em um status (todas as instâncias/tenants) - usado nas métricas da fila
+     */
+    Mono<Long> countByStatus(DocumentStatus status);
+
     Flux<DashboardChartItem> countDocumentosPorAno(String tenantId);
 
+    /**
+     * Acrescenta eventos ao processingLog com $push (sem reescrever o documento).
+     */
+    Mono<Void> appendProcessingEvents(String id, List<ProcessingEvent> events);
+
+    /**
+     * Conclui o processamento com $set: status PROCESSED (sem erro), dataProcessamento,
+     * totalEntries e processedPages, além de anoDetectado e irpfData quando preenchidos.
+     * Não altera o processingLog.
+     */
+    Mono<Void> markProcessed(PayrollDocument document);
+
+    /**
+     * Atualiza apenas status e erro ($set). erro null remove a mensagem anterior.
+     */
+    Mono<Void> updateStatus(String id, DocumentStatus status, String erro);
+
+    /**
+     * Inicia o contador de progresso: define totalPages e zera processedPages.
+     */
+    Mono<Void> startProgress(String id, int totalPages);
+
+    /**
+     * Incrementa processedPages ($inc).
+     */
+    Mono<Void> incrementProcessedPages(String id);
+
+    /**
+     * Carrega apenas os campos usados no polling de status
+     * (status, erro, totalPages, processedPages, processingLog).
+     */
+    Mono<PayrollDocument> findProcessingStatusById(String id);
+
+    /**
+     * Dados estruturados (irpfData) das declarações de IR de um CPF no tenant, projetando só esse
+     * campo em vez de carregar os documentos inteiros (processingLog, detectedPages).
+     */
+    Flux<IrpfDeclaracaoData> findIrpfDataByTenantIdAndCpf(String tenantId, String cpf);
+
+    /**
+     * Metadados dos documentos de um CPF no tenant (listagem).
+     */
+    Flux<DocumentSummary> findSummariesByTenantIdAndCpf(String tenantId, String cpf);
+
+    /**
+     * Metadados dos documentos de um CPF em qualquer tenant (listagem do SUPER_ADMIN).
+     */
+    Flux<DocumentSummary> findSummariesByCpf(String cpf);
+
     /**
      * Busca documentos com filtros dinâmicos (filtrado por tenant)
      */
@@ -1,20 +1,47 @@
 package br.com.verticelabs.pdfprocessor.domain.repository;
 
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Set;
+
 public interface PayrollEntryRepository {
     Mono<PayrollEntry> save(PayrollEntry entry);
     
     Flux<PayrollEntry> saveAll(Flux<PayrollEntry> entries);
+
+    /**
+     * Insere entries novas em lote (bulk não ordenado, em blocos).
+     *
+     * @return quantidade de entries inseridas
+     */
+    Mono<Long> insertAll(List<PayrollEntry> entries);
     
     Flux<PayrollEntry> findByTenantIdAndDocumentoId(String tenantId, String documentoId);
     
     Flux<PayrollEntry> findAllByTenantId(String tenantId);
     
     Mono<Long> countByTenantIdAndDocumentoId(String tenantId, String documentoId);
+
+    /**
+     * Todas as entries de uma pessoa em uma única query (índice tenantId + personId + referencia),
+     * ordenadas por referência. Até a migração de personId concluir, filtra pelos documentos da pessoa.
+     */
+    Flux<PayrollEntry> findByTenantIdAndPersonId(String tenantId, String personId);
+
+    /**
+     * Matriz de consolidação da pessoa agregada no banco: filtra rubricas ativas, ano e origem,
+     * normaliza/ajusta a referência e soma por (rubricaCodigo, ano, mês).
+     *
+     * @param ano    ano da referência normalizada (opcional)
+     * @param origem "CAIXA" ou "FUNCEF" (FUNCEF inclui o Demonstrativo); opcional
+     */
+    Flux<ConsolidationCell> aggregateConsolidationCells(String tenantId, String personId,
+                                                        Set<String> rubricasAtivas, String ano, String origem);
     
     /**
      * Conta todas as entries por tenant
@@ -30,6 +57,9 @@ public interface PayrollEntryRepository {
 
     Flux<DashboardChartItem> countLancamentosPorAno(String tenantId);
 
+    /**
+     * Remove todas as entries do documento com um único deleteMany.
+     */
     Mono<Void> deleteByTenantIdAndDocumentoId(String tenantId, String documentoId);
     
     // Métodos legados (manter para compatibilidade)
@@ -0,0 +1,27 @@
+package br.com.verticelabs.pdfprocessor.domain.repository;
+
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
+import reactor.core.publisher.Mono;
+
+public interface PersonConsolidationRepository {
+
+    Mono<PersonConsolidation> findByTenantIdAndPersonId(String tenantId, String personId);
+
+    /**
+     * Marca o snapshot da pessoa como desatualizado incrementando a versão (cria o registro se
+     * não existir). Retorna a nova versão.
+     */
+    Mono<Long> invalidate(String tenantId, String personId);
+
+    /**
+     * Incrementa a versão de todos os snapshots, forçando o recálculo na próxima leitura.
+     * Retorna quantos snapshots foram invalidados.
+     */
+    Mono<Long> invalidateAll();
+
+    /**
+     * Grava as células do snapshot somente se a versão no banco ainda for {@code snapshot.version}.
+     * Retorna false quando outra alteração incrementou a versão durante o cálculo.
+     */
+    Mono<Boolean> saveIfVersion(PersonConsolidation snapshot);
+}
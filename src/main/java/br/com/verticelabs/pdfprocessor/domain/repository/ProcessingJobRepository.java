@@ -0,0 +1,50 @@
+package br.com.verticelabs.pdfprocessor.domain.repository;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJob;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJobStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public interface ProcessingJobRepository {
+
+    /**
+     * Coloca (ou recoloca) o documento na fila com status QUEUED e tentativas zeradas.
+     */
+    Mono<ProcessingJob> enqueue(String documentId, String tenantId);
+
+    /**
+     * Assume atomicamente o próximo job disponível: QUEUED com availableAt vencido,
+     * ou RUNNING com lease expirado (worker que caiu) e menos de {@code maxAttempts} tentativas.
+     * Incrementa attempts.
+     */
+    Mono<ProcessingJob> claimNext(String owner, Duration lease, int maxAttempts);
+
+    /**
+     * Encerra como FAILED um job RUNNING com lease expirado que já usou as {@code maxAttempts}
+     * tentativas (a instância caiu na última delas). Retorna o job encerrado, se houver.
+     */
+    Mono<ProcessingJob> failExhausted(int maxAttempts, String error);
+
+    /**
+     * Estende o lease do job. Retorna false se o job não pertence mais ao owner.
+     */
+    Mono<Boolean> renewLease(String jobId, String owner, Duration lease);
+
+    Mono<Void> markDone(String jobId, String owner);
+
+    /**
+     * Devolve o job para a fila, disponível somente a partir de availableAt.
+     */
+    Mono<Void> markRetry(String jobId, String owner, Instant availableAt, String error);
+
+    Mono<Void> markFailed(String jobId, String owner, String error);
+
+    /**
+     * true se o documento já tem job QUEUED ou RUNNING.
+     */
+    Mono<Boolean> existsActiveByDocumentId(String documentId);
+
+    Mono<Long> countByStatus(ProcessingJobStatus status);
+}
@@ -0,0 +1,17 @@
+package br.com.verticelabs.pdfprocessor.domain.repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Locks com lease para tarefas agendadas que devem rodar em uma única instância por vez.
+ */
+public interface SchedulerLockRepository {
+
+    /**
+     * Assume o lock {@code name} por {@code lease} se ele está livre, expirado ou já pertence a
+     * {@code owner}. Retorna {@code false} se outra instância o detém.
+     */
+    Mono<Boolean> tryAcquire(String name, String owner, Duration lease);
+}
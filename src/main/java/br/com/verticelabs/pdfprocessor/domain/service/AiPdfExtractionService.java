@@ -11,6 +11,12 @@ import java.util.List;
  */
 public interface AiPdfExtractionService {
 
+    /**
+     * Resposta do modelo junto com o nome do modelo que de fato respondeu.
+     */
+    record ModelResponse(String content, String model) {
+    }
+
     /**
      * Verifica se o serviço de IA está habilitado e configurado.
      * 
@@ -18,52 +24,72 @@ public interface AiPdfExtractionService {
      */
     boolean isEnabled();
 
+    /**
+     * Verifica se uma chamada agora seria aceita: habilitado e sem todos os modelos com o circuito
+     * aberto. Quando {@code false}, o chamador deve seguir com o resultado que já tem em vez de
+     * esperar pela recusa ({@link br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException}).
+     *
+     * @return true se o serviço está aceitando chamadas
+     */
+    default boolean isAvailable() {
+        return isEnabled();
+    }
+
     /**
      * Extrai texto de um PDF escaneado usando IA.
      * 
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo o texto extraído
      */
-    Mono<String> extractTextFromScannedPage(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractTextFromScannedPage(PdfSession session, int pageNumber);
 
     /**
      * Extrai dados estruturados de um contracheque.
      * 
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados do contracheque
      */
-    Mono<String> extractPayrollData(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractPayrollData(PdfSession session, int pageNumber);
+
+    /**
+     * Como {@link #extractPayrollData}, informando o modelo que respondeu: pode ser o fallback,
+     * quando a chamada ao principal é promovida com o circuito dele aberto.
+     */
+    default Mono<ModelResponse> extractPayrollDataWithModel(PdfSession session, int pageNumber) {
+        return extractPayrollData(session, pageNumber)
+                .map(content -> new ModelResponse(content, getPrimaryModelName()));
+    }
 
     /**
      * Extrai dados estruturados de uma declaração de IR (página resumo).
      * 
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página do resumo
      * @return Mono contendo JSON com dados estruturados do IR
      */
-    Mono<String> extractIncomeTaxData(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractIncomeTaxData(PdfSession session, int pageNumber);
 
     /**
      * Extrai dados de IR com o modelo Gemini 2.5 Pro (maior precisão em PDFs digitalizados).
      */
-    Mono<String> extractIncomeTaxDataWithPro(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractIncomeTaxDataWithPro(PdfSession session, int pageNumber);
 
     /**
      * Extrai dados de IR de páginas consecutivas com Gemini 2.5 Pro (PDFs digitalizados).
      */
-    Mono<String> extractIncomeTaxDataMultiPageWithPro(byte[] pdfBytes, List<Integer> pages);
+    Mono<String> extractIncomeTaxDataMultiPageWithPro(PdfSession session, List<Integer> pages);
 
     /**
      * Extrai a seção PAGAMENTOS EFETUADOS de uma página (Gemini Pro).
      */
-    Mono<String> extractIncomeTaxPagamentosWithPro(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractIncomeTaxPagamentosWithPro(PdfSession session, int pageNumber);
 
     /**
      * Extrai a seção DEPENDENTES de uma página (tipicamente página 1; Gemini Pro).
      */
-    Mono<String> extractIncomeTaxDependentesWithPro(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractIncomeTaxDependentesWithPro(PdfSession session, int pageNumber);
 
     /**
      * Valida dados extraídos de um contracheque.
@@ -77,33 +103,33 @@ public interface AiPdfExtractionService {
      * Extrai dados estruturados de um contracheque usando o modelo fallback (Pro).
      * Chamado na Fase 4 quando Flash + Cross-Validation não são suficientes.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados do contracheque
      */
-    Mono<String> extractPayrollDataWithFallback(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractPayrollDataWithFallback(PdfSession session, int pageNumber);
 
     /**
      * Extrai dados de contracheque de MÚLTIPLAS páginas consecutivas.
      * Envia todas as imagens em uma única request para que o modelo
      * combine dados de um contracheque que se divide entre páginas.
      *
-     * @param pdfBytes bytes do PDF
+     * @param session  PDF aberto do documento
      * @param pages    lista de números de página (1-indexed) a processar juntas
      * @return Mono contendo JSON (array) com dados estruturados
      */
-    Mono<String> extractPayrollDataMultiPage(byte[] pdfBytes, List<Integer> pages);
+    Mono<String> extractPayrollDataMultiPage(PdfSession session, List<Integer> pages);
 
     /**
      * Extrai dados de uma página PARCIAL de contracheque (continuação).
      * Usa prompt otimizado para páginas que são a segunda metade de um contracheque,
      * podendo não ter cabeçalho (nome, CPF, competência).
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados
      */
-    Mono<String> extractPayrollDataPartialPage(byte[] pdfBytes, int pageNumber);
+    Mono<String> extractPayrollDataPartialPage(PdfSession session, int pageNumber);
 
     /**
      * Retorna o nome do modelo principal (ex: "gemini-2.5-flash").
@@ -118,4 +144,12 @@ public interface AiPdfExtractionService {
     default String getFallbackModelName() {
         return "unknown";
     }
+
+    /**
+     * Identifica o preparo das imagens das páginas de contracheque (perfil e codificação), que
+     * muda a resposta do modelo e por isso entra na chave do cache de extração.
+     */
+    default String getPayrollImageProfile() {
+        return "default";
+    }
 }
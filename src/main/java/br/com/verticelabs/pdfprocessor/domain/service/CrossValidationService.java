@@ -33,7 +33,7 @@ public interface CrossValidationService {
      * Executa dupla extração e compara resultados.
      * Chamado apenas quando a primeira extração tem confiança &lt; 0.85.
      *
-     * @param pdfBytes       bytes do PDF
+     * @param session        PDF aberto do documento
      * @param pageNumber     número da página (1-indexed)
      * @param firstEntries   entries da primeira extração
      * @param firstJson      JSON bruto da primeira extração (para comparação de metadados)
@@ -43,7 +43,7 @@ public interface CrossValidationService {
      * @return resultado consolidado com comparações campo a campo
      */
     Mono<CrossValidationResult> crossValidate(
-            byte[] pdfBytes,
+            PdfSession session,
             int pageNumber,
             List<PayrollEntry> firstEntries,
             String firstJson,
@@ -3,6 +3,7 @@ package br.com.verticelabs.pdfprocessor.domain.service;
 import reactor.core.publisher.Mono;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 
 public interface GridFsService {
     Mono<String> storeFile(InputStream inputStream, String filename, String contentType);
@@ -18,8 +19,19 @@ public interface GridFsService {
      * @return ID do arquivo (novo ou existente)
      */
     Mono<String> storeFileWithHash(InputStream inputStream, String filename, String contentType, String fileHash);
-    
-    Mono<InputStream> retrieveFile(String fileId);
+
+    /**
+     * Igual a {@link #storeFileWithHash(InputStream, String, String, String)}, mas lê o conteúdo
+     * do arquivo em blocos direto para os chunks do GridFS, sem carregá-lo inteiro no heap.
+     */
+    Mono<String> storeFileWithHash(Path file, String filename, String contentType, String fileHash);
+
+
+    /**
+     * Copia o arquivo do GridFS para um arquivo temporário, chunk a chunk.
+     * O chamador é responsável por apagar o arquivo retornado.
+     */
+    Mono<Path> retrieveFileToTemp(String fileId);
     
     Mono<Void> deleteFile(String fileId);
 }
@@ -6,6 +6,7 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -21,6 +22,13 @@ public interface IncomeTaxDeclarationService {
      */
     Mono<IncomeTaxInfo> extractIncomeTaxInfo(InputStream inputStream);
 
+    /**
+     * Igual a {@link #extractIncomeTaxInfo(InputStream)}, lendo o PDF direto do arquivo.
+     *
+     * @param pdfFile Arquivo do PDF
+     */
+    Mono<IncomeTaxInfo> extractIncomeTaxInfo(Path pdfFile);
+
     /**
      * Classe para armazenar informações extraídas da declaração de IR.
      */
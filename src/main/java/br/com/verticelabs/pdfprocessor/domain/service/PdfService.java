@@ -3,6 +3,7 @@ package br.com.verticelabs.pdfprocessor.domain.service;
 import reactor.core.publisher.Mono;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Map;
 
 public interface PdfService {
@@ -13,4 +14,17 @@ public interface PdfService {
     Mono<String> extractTextFromPage(InputStream inputStream, int pageNumber);
     
     Mono<Integer> getTotalPages(InputStream inputStream);
+
+    /**
+     * Abre uma sessão sobre o PDF, parseando o arquivo uma única vez.
+     * Preferir este método quando várias páginas do mesmo arquivo serão lidas.
+     * O chamador é responsável por fechar a sessão (ex.: {@code Mono.usingWhen}).
+     */
+    Mono<PdfSession> openSession(byte[] pdfBytes);
+
+    /**
+     * Abre uma sessão lendo o PDF diretamente do arquivo, sem carregá-lo inteiro no heap.
+     * O arquivo deve permanecer disponível até a sessão ser fechada.
+     */
+    Mono<PdfSession> openSession(Path pdfFile);
 }
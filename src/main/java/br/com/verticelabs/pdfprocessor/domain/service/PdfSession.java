@@ -0,0 +1,62 @@
+package br.com.verticelabs.pdfprocessor.domain.service;
+
+import reactor.core.publisher.Mono;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Sessão de leitura sobre um PDF carregado uma única vez.
+ *
+ * <p>Obtida via {@link PdfService#openSession(byte[])} ou {@link PdfService#openSession(java.nio.file.Path)}:
+ * o arquivo é parseado na abertura e todas as consultas (texto por página, total de páginas,
+ * renderização) reutilizam o mesmo documento. Deve ser fechada ao final do processamento para
+ * liberar a memória do PDF.</p>
+ *
+ * <p>As operações são serializadas internamente (o documento subjacente não é thread-safe),
+ * então a sessão pode ser compartilhada entre páginas processadas em paralelo.</p>
+ */
+public interface PdfSession extends AutoCloseable {
+
+    /**
+     * Bytes originais do PDF (usados por serviços que precisam do arquivo bruto, ex.: iText).
+     * Em sessões abertas sobre arquivo, o conteúdo só é lido para o heap na primeira chamada.
+     */
+    byte[] getPdfBytes();
+
+    int getTotalPages();
+
+    /**
+     * Extrai o texto de todas as páginas do documento.
+     */
+    Mono<String> extractText();
+
+    /**
+     * Extrai o texto de uma página.
+     *
+     * @param pageNumber número da página (1-indexed)
+     */
+    Mono<String> extractTextFromPage(int pageNumber);
+
+    /**
+     * Renderiza uma página como imagem RGB.
+     *
+     * @param pageNumber número da página (1-indexed)
+     * @param dpi        resolução da renderização
+     */
+    Mono<BufferedImage> renderPage(int pageNumber, float dpi);
+
+    /**
+     * Renderiza uma página como imagem RGB ou em tons de cinza (8 bits por pixel).
+     *
+     * @param pageNumber número da página (1-indexed)
+     * @param dpi        resolução da renderização
+     * @param grayscale  {@code true} para renderizar direto em tons de cinza
+     */
+    Mono<BufferedImage> renderPage(int pageNumber, float dpi, boolean grayscale);
+
+    /**
+     * Libera o documento carregado. Chamadas repetidas são ignoradas.
+     */
+    @Override
+    void close();
+}
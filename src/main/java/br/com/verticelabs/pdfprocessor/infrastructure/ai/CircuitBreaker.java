@@ -0,0 +1,156 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por contagem: avalia a taxa de falhas das últimas {@code windowSize} chamadas.
+ *
+ * <ul>
+ *   <li>{@link State#CLOSED}: chamadas passam; com pelo menos {@code minimumCalls} na janela e taxa
+ *       de falhas &ge; {@code failureRateThreshold}%, o circuito abre</li>
+ *   <li>{@link State#OPEN}: chamadas são recusadas até passar {@code openNanos}</li>
+ *   <li>{@link State#HALF_OPEN}: libera {@code halfOpenCalls} chamadas de teste; todas com sucesso
+ *       fecham o circuito, qualquer falha o reabre</li>
+ * </ul>
+ *
+ * <p>O relógio é injetável para os testes.</p>
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    /** Janela circular: {@code true} = falha. */
+    private final boolean[] window;
+    private int windowCount;
+    private int windowNext;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long openedCount;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold,
+                   long openNanos, int halfOpenCalls, LongSupplier nanoTime) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Consulta sem consumir permissão: {@code false} enquanto o circuito estiver aberto ou todas
+     * as chamadas de teste do meio-aberto estiverem em andamento.
+     */
+    synchronized boolean isCallPermitted() {
+        return switch (currentState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> halfOpenPermits < halfOpenCalls;
+        };
+    }
+
+    /**
+     * Reserva a chamada. Toda permissão concedida deve terminar em {@link #onSuccess},
+     * {@link #onFailure} ou {@link #onIgnored}.
+     */
+    synchronized boolean tryAcquirePermission() {
+        return switch (currentState()) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits >= halfOpenCalls) {
+                    yield false;
+                }
+                halfOpenPermits++;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Chamada cancelada antes de terminar: não conta na janela e devolve a permissão de teste.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+            halfOpenPermits--;
+        }
+    }
+
+    synchronized State state() {
+        return currentState();
+    }
+
+    synchronized long openedCount() {
+        return openedCount;
+    }
+
+    private State currentState() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+        }
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+        openedCount++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowCount = 0;
+        windowNext = 0;
+        windowFailures = 0;
+    }
+}
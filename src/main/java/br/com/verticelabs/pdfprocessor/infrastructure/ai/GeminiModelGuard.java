@@ -0,0 +1,199 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiQuotaExceededException;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
+import br.com.verticelabs.pdfprocessor.infrastructure.util.ReactiveSemaphore;
+import com.google.api.gax.rpc.ResourceExhaustedException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Proteções de um modelo Gemini, aplicadas nesta ordem a cada chamada:
+ *
+ * <ol>
+ *   <li><strong>Circuit breaker</strong> — com o circuito aberto a chamada é recusada na hora</li>
+ *   <li><strong>Bulkhead</strong> — no máximo {@code max-concurrent-calls} chamadas em andamento;
+ *       as demais esperam numa fila limitada, sem ocupar thread do {@code boundedElastic}</li>
+ *   <li><strong>Cota</strong> — token bucket de {@code requests-per-minute / instances}; a espera
+ *       pela ficha também não ocupa thread. O balde é desta instância: a cota do projeto é
+ *       dividida entre as réplicas previstas, não coordenada entre elas. Se o HPA subir mais
+ *       réplicas, o excesso volta do Vertex AI como 429, tratado como cota e não como falha</li>
+ *   <li><strong>Timeout</strong> — {@code gemini.timeout-seconds}, contado como falha no breaker</li>
+ * </ol>
+ *
+ * <p>Circuito aberto vira {@link AiUnavailableException}: o modelo está com problema e o chamador
+ * deve seguir com o resultado que já tem. Bulkhead e cota viram {@link AiQuotaExceededException}:
+ * é só excesso de vazão, e o processamento deve falhar para a fila tentar de novo com backoff
+ * em vez de terminar sem as páginas que dependiam da IA.</p>
+ */
+@Slf4j
+final class GeminiModelGuard {
+
+    static final String REJECTED = "gemini.guard.rejected";
+    static final String IN_FLIGHT = "gemini.guard.in_flight";
+    static final String QUEUED = "gemini.guard.queued";
+    static final String CIRCUIT_STATE = "gemini.circuit.state";
+    static final String CIRCUIT_OPENED = "gemini.circuit.opened";
+
+    private final String modelName;
+    private final ReactiveSemaphore bulkhead;
+    private final Duration maxWait;
+    private final Duration callTimeout;
+    private final CircuitBreaker breaker;
+    private final TokenBucket rateLimiter;
+
+    private final AtomicLong rejectedCircuitOpen = new AtomicLong();
+    private final AtomicLong rejectedBulkhead = new AtomicLong();
+    private final AtomicLong rejectedRateLimit = new AtomicLong();
+
+    GeminiModelGuard(String modelName, GeminiConfig.Resilience resilience, int timeoutSeconds,
+                     MeterRegistry meterRegistry) {
+        this(modelName, resilience, timeoutSeconds, meterRegistry, System::nanoTime);
+    }
+
+    GeminiModelGuard(String modelName, GeminiConfig.Resilience resilience, int timeoutSeconds,
+                     MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.modelName = modelName;
+        this.bulkhead = new ReactiveSemaphore(resilience.getMaxConcurrentCalls(), resilience.getMaxQueuedCalls());
+        this.maxWait = Duration.ofSeconds(resilience.getMaxWaitSeconds());
+        this.callTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.breaker = new CircuitBreaker(resilience.getSlidingWindowSize(), resilience.getMinimumCalls(),
+                resilience.getFailureRateThreshold(), Duration.ofSeconds(resilience.getOpenSeconds()).toNanos(),
+                resilience.getHalfOpenCalls(), nanoTime);
+        this.rateLimiter = resilience.getRequestsPerMinute() > 0
+                ? new TokenBucket(perInstance(resilience), resilience.getBurst(), nanoTime)
+                : null;
+
+        rejectedCounter(meterRegistry, "circuit_open", rejectedCircuitOpen);
+        rejectedCounter(meterRegistry, "bulkhead", rejectedBulkhead);
+        rejectedCounter(meterRegistry, "rate_limit", rejectedRateLimit);
+        Gauge.builder(IN_FLIGHT, this, GeminiModelGuard::inFlight)
+                .description("Chamadas ao modelo em andamento")
+                .tag("model", modelName)
+                .register(meterRegistry);
+        Gauge.builder(QUEUED, this, GeminiModelGuard::queued)
+                .description("Chamadas esperando vaga no bulkhead")
+                .tag("model", modelName)
+                .register(meterRegistry);
+        Gauge.builder(CIRCUIT_STATE, breaker, b -> b.state().ordinal())
+                .description("Estado do circuit breaker: 0 = fechado, 1 = aberto, 2 = meio-aberto")
+                .tag("model", modelName)
+                .register(meterRegistry);
+        FunctionCounter.builder(CIRCUIT_OPENED, breaker, CircuitBreaker::openedCount)
+                .description("Vezes que o circuito do modelo abriu")
+                .tag("model", modelName)
+                .register(meterRegistry);
+    }
+
+    private static int perInstance(GeminiConfig.Resilience resilience) {
+        return Math.max(1, resilience.getRequestsPerMinute() / Math.max(1, resilience.getInstances()));
+    }
+
+    private void rejectedCounter(MeterRegistry meterRegistry, String reason, AtomicLong count) {
+        FunctionCounter.builder(REJECTED, count, AtomicLong::get)
+                .description("Chamadas ao Gemini recusadas antes de chegar ao modelo")
+                .tag("model", modelName)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * {@code true} se uma chamada agora não seria recusada pelo circuito.
+     */
+    boolean isCallPermitted() {
+        return breaker.isCallPermitted();
+    }
+
+    CircuitBreaker.State circuitState() {
+        return breaker.state();
+    }
+
+    /**
+     * Executa {@code call} sob as proteções do modelo. O Mono só é assinado depois de obtidas a
+     * vaga, a ficha e a permissão do circuito.
+     */
+    <T> Mono<T> execute(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!breaker.isCallPermitted()) {
+                return Mono.error(circuitOpen());
+            }
+            ReactiveSemaphore.Permit permit = new ReactiveSemaphore.Permit();
+            return acquire(permit)
+                    .then(Mono.defer(this::awaitRateLimit))
+                    .then(Mono.defer(() -> guardedCall(call)))
+                    .doFinally(signal -> bulkhead.release(permit));
+        });
+    }
+
+    private <T> Mono<T> guardedCall(Mono<T> call) {
+        if (!breaker.tryAcquirePermission()) {
+            return Mono.error(circuitOpen());
+        }
+        return call.timeout(callTimeout)
+                .doOnSuccess(result -> breaker.onSuccess())
+                .doOnError(error -> {
+                    // 429 do Vertex AI (réplicas acima das previstas em instances): cota, não falha do modelo
+                    if (error instanceof ResourceExhaustedException) {
+                        breaker.onIgnored();
+                        return;
+                    }
+                    breaker.onFailure();
+                    if (breaker.state() == CircuitBreaker.State.OPEN) {
+                        log.warn("Circuito do Gemini [{}] aberto após falha: {}", modelName, error.getMessage());
+                    }
+                })
+                .onErrorMap(ResourceExhaustedException.class, error -> new AiQuotaExceededException(
+                        "Gemini [" + modelName + "] sem vazão: cota do projeto esgotada (429)"))
+                .doOnCancel(breaker::onIgnored);
+    }
+
+    private Mono<Void> acquire(ReactiveSemaphore.Permit permit) {
+        return bulkhead.acquire(permit)
+                .onErrorMap(RejectedExecutionException.class, e -> rejection(rejectedBulkhead, "fila do bulkhead cheia"))
+                .timeout(maxWait, Mono.defer(() -> reject(rejectedBulkhead, "sem vaga após " + maxWait.toSeconds() + "s")));
+    }
+
+    private Mono<Void> awaitRateLimit() {
+        if (rateLimiter == null) {
+            return Mono.empty();
+        }
+        long waitNanos = rateLimiter.reserve(maxWait.toNanos());
+        if (waitNanos < 0) {
+            return reject(rejectedRateLimit, "cota por minuto esgotada");
+        }
+        return waitNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(waitNanos)).then();
+    }
+
+    int inFlight() {
+        return bulkhead.active();
+    }
+
+    int queued() {
+        return bulkhead.queued();
+    }
+
+    private <T> Mono<T> reject(AtomicLong counter, String reason) {
+        return Mono.error(rejection(counter, reason));
+    }
+
+    private AiQuotaExceededException rejection(AtomicLong counter, String reason) {
+        counter.incrementAndGet();
+        log.warn("Chamada ao Gemini [{}] recusada: {}", modelName, reason);
+        return new AiQuotaExceededException("Gemini [" + modelName + "] sem vazão: " + reason);
+    }
+
+    private AiUnavailableException circuitOpen() {
+        rejectedCircuitOpen.incrementAndGet();
+        log.warn("Chamada ao Gemini [{}] recusada: circuito aberto", modelName);
+        return new AiUnavailableException("Gemini [" + modelName + "] indisponível: circuito aberto");
+    }
+}
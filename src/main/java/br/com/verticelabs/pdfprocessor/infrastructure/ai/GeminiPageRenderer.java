@@ -0,0 +1,150 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renderiza e prepara páginas de PDF para o Gemini, conforme o {@link PageImageProfile}.
+ *
+ * <p>As páginas são renderizadas da {@link PdfSession} que o chamador já tem aberta; o PDF não é
+ * reaberto nem lido inteiro para o heap. O retry multi-página e os fluxos de IR pedem as mesmas
+ * páginas várias vezes (Flash, depois Pro, depois multi-página), por isso a imagem fica em um
+ * {@link PageImageCache} chaveado por (hash do arquivo, página, DPI, perfil), limitado por bytes
+ * no heap e com transbordo opcional em disco.</p>
+ *
+ * <p>O processamento de um documento publica no contexto, com {@link #withSession}, a sessão e o
+ * hash do arquivo ({@code PayrollDocument.fileHash}) já calculado no upload. Para outras sessões
+ * o SHA-256 do conteúdo é calculado uma vez por sessão.</p>
+ *
+ * <p>Métricas: {@code gemini.render.cache} (result = hit_memory/hit_disk/miss),
+ * {@code gemini.render.cache.bytes} (tier = memory/disk) e {@code gemini.image.bytes} (tamanho da
+ * imagem enviada, por perfil).</p>
+ */
+@Component
+public class GeminiPageRenderer {
+
+    private static final String SESSION_KEY = GeminiPageRenderer.class.getName() + ".session";
+
+    private final MeterRegistry meterRegistry;
+    private final PageImageCache cache;
+
+    // WeakHashMap com a sessão como chave compara por identidade: um SHA-256 por sessão aberta
+    private final Map<PdfSession, String> hashes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private record RunSession(PdfSession session, String fileHash) {
+    }
+
+    public GeminiPageRenderer(GeminiConfig config, MeterRegistry meterRegistry) {
+        GeminiConfig.RenderCache settings = config.getRenderCache();
+        this.meterRegistry = meterRegistry;
+        this.cache = new PageImageCache(settings.getMemoryMaxBytes(), settings.getDiskMaxBytes());
+
+        FunctionCounter.builder("gemini.render.cache", cache, PageImageCache::memoryHits)
+                .description("Páginas servidas do cache em memória")
+                .tag("result", "hit_memory")
+                .register(meterRegistry);
+        FunctionCounter.builder("gemini.render.cache", cache, PageImageCache::diskHits)
+                .description("Páginas servidas do cache em disco")
+                .tag("result", "hit_disk")
+                .register(meterRegistry);
+        FunctionCounter.builder("gemini.render.cache", cache, PageImageCache::misses)
+                .description("Páginas que precisaram ser renderizadas")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("gemini.render.cache.bytes", cache, PageImageCache::memoryBytes)
+                .description("Bytes de imagens de página no cache")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+        Gauge.builder("gemini.render.cache.bytes", cache, PageImageCache::diskBytes)
+                .description("Bytes de imagens de página no cache")
+                .tag("tier", "disk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica o hash do arquivo ({@code PayrollDocument.fileHash}) da sessão em processamento para
+     * as renderizações feitas dentro de {@code mono}.
+     */
+    public static <T> Mono<T> withSession(Mono<T> mono, PdfSession session, String fileHash) {
+        if (session == null || fileHash == null || fileHash.isBlank()) {
+            return mono;
+        }
+        return mono.contextWrite(Context.of(SESSION_KEY, new RunSession(session, fileHash)));
+    }
+
+    /**
+     * Devolve a página preparada conforme o perfil, do cache ou renderizando da sessão.
+     * A sessão continua sendo de quem a abriu: o renderer não a fecha.
+     *
+     * @param session    PDF aberto do documento
+     * @param pageNumber número da página (1-indexed)
+     * @param profile    resolução, modo de cor, orçamento de pixels e formato
+     */
+    public Mono<PageImage> render(PdfSession session, int pageNumber, PageImageProfile profile) {
+        String mimeType = profile.format().mimeType();
+        return Mono.deferContextual(ctx -> {
+            RunSession run = ctx.getOrDefault(SESSION_KEY, null);
+            String fileHash = run != null && run.session() == session ? run.fileHash() : hashOf(session);
+            PageImageCache.Key key = new PageImageCache.Key(fileHash, pageNumber, profile.dpi(), profile.name());
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                return Mono.just(new PageImage(cached, mimeType));
+            }
+            return renderAndCache(session, key, profile);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<PageImage> renderAndCache(PdfSession session, PageImageCache.Key key, PageImageProfile profile) {
+        return session.renderPage(key.page(), profile.dpi(), profile.grayscale())
+                .map(rendered -> PageImagePreparer.prepare(rendered, profile))
+                .doOnNext(image -> {
+                    cache.put(key, image.data());
+                    imageBytes(profile).record(image.data().length);
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cache.close();
+    }
+
+    PageImageCache cache() {
+        return cache;
+    }
+
+    private DistributionSummary imageBytes(PageImageProfile profile) {
+        return DistributionSummary.builder("gemini.image.bytes")
+                .description("Tamanho da imagem de página preparada para o Gemini")
+                .baseUnit("bytes")
+                .tag("profile", profile.name())
+                .register(meterRegistry);
+    }
+
+    private String hashOf(PdfSession session) {
+        return hashes.computeIfAbsent(session, s -> sha256(s.getPdfBytes()));
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.ai;
 
+import br.com.verticelabs.pdfprocessor.application.config.SystemConfigCache;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException;
 import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
-import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics;
 import br.com.verticelabs.pdfprocessor.domain.service.AiPdfExtractionService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
 import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import com.google.cloud.vertexai.VertexAI;
 import com.google.cloud.vertexai.api.Candidate;
 import com.google.cloud.vertexai.api.GenerateContentResponse;
@@ -13,20 +18,15 @@ import com.google.cloud.vertexai.generativeai.GenerativeModel;
 import com.google.cloud.vertexai.generativeai.PartMaker;
 import com.google.cloud.vertexai.generativeai.ResponseHandler;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementação do serviço de extração de PDFs usando Google Gemini 2.5 (Vertex AI).
@@ -39,12 +39,22 @@ import java.util.List;
  *
  * <h3>Fluxo de Processamento</h3>
  * <ol>
- *   <li>Converte página do PDF para imagem PNG (300 DPI)</li>
+ *   <li>Converte página do PDF para imagem via {@link GeminiPageRenderer} (300 DPI em cinza, margens
+ *       recortadas, JPEG — ver {@link PageImageProfile}), que renderiza da sessão do PDF já aberta
+ *       pelo chamador e cacheia a imagem</li>
  *   <li>Envia imagem para Gemini Vision com prompt específico por tipo de documento</li>
  *   <li>Processa resposta JSON e retorna dados estruturados</li>
  *   <li>Se o modelo principal falhar, o método {@code processWithFallbackModel} usa o modelo Pro</li>
  * </ol>
  *
+ * <h3>Proteções por Modelo</h3>
+ * <p>Toda chamada passa pelo {@link GeminiModelGuard} do modelo (circuit breaker, bulkhead, cota
+ * por minuto e timeout — ver {@code gemini.resilience}). Chamadas recusadas falham sem chegar ao
+ * modelo: com {@link AiUnavailableException} se o circuito está aberto e com
+ * {@link br.com.verticelabs.pdfprocessor.domain.exceptions.AiQuotaExceededException} se faltou
+ * vaga ou cota. Com o circuito do modelo principal aberto,
+ * as chamadas dele são promovidas ao modelo fallback enquanto o circuito deste estiver fechado.</p>
+ *
  * <h3>Controle de Habilitação</h3>
  * <ol>
  *   <li>{@code application.yml} → {@code gemini.enabled} (configuração estática)</li>
@@ -63,23 +73,46 @@ import java.util.List;
 @Service
 public class GeminiPdfServiceImpl implements AiPdfExtractionService {
 
-    private static final float DEFAULT_RENDER_DPI = 300f;
+    private static final PageImageProfile DEFAULT_IMAGE_PROFILE = PageImageProfile.DOCUMENT;
     /** DPI maior para RESUMO IR — melhora leitura de valores em PDFs digitalizados. */
-    private static final float IR_EXTRACTION_DPI = 400f;
+    private static final PageImageProfile IR_IMAGE_PROFILE = PageImageProfile.DOCUMENT_HIGH_RES;
 
     private final GeminiConfig config;
-    private final SystemConfigRepository configRepository;
+    private final SystemConfigCache systemConfigCache;
+    private final ExtractionMetrics extractionMetrics;
+    private final GeminiPageRenderer pageRenderer;
     private VertexAI vertexAI;
     private GenerativeModel primaryModel;
     private GenerativeModel fallbackModel;
     private boolean clientInitialized = false;
+    private final Map<String, GeminiModelGuard> guards = new ConcurrentHashMap<>();
+    private final Counter promotedToFallback;
 
-    public GeminiPdfServiceImpl(GeminiConfig config, SystemConfigRepository configRepository) {
+    public GeminiPdfServiceImpl(GeminiConfig config, SystemConfigCache systemConfigCache,
+                                ExtractionMetrics extractionMetrics, GeminiPageRenderer pageRenderer,
+                                MeterRegistry meterRegistry) {
         this.config = config;
-        this.configRepository = configRepository;
+        this.systemConfigCache = systemConfigCache;
+        this.extractionMetrics = extractionMetrics;
+        this.pageRenderer = pageRenderer;
+        for (String modelName : List.of(config.getModel(), config.getFallbackModel())) {
+            guards.computeIfAbsent(modelName, name -> new GeminiModelGuard(name,
+                    config.resilienceFor(name), config.getTimeoutSeconds(), meterRegistry));
+        }
+        this.promotedToFallback = Counter.builder("gemini.model.promoted")
+                .description("Chamadas do modelo principal enviadas ao fallback por circuito aberto")
+                .tag("from", config.getModel())
+                .tag("to", config.getFallbackModel())
+                .register(meterRegistry);
         initializeClient();
     }
 
+    /**
+     * Modelo efetivamente chamado, com o guard correspondente.
+     */
+    private record Target(GenerativeModel model, String modelName, GeminiModelGuard guard) {
+    }
+
     /**
      * Inicializa os clientes Gemini (modelo principal e fallback).
      * Ambos compartilham a mesma instância de VertexAI e GenerationConfig.
@@ -127,7 +160,8 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
     /**
      * Verifica se o serviço está habilitado.
      * Consulta tanto a configuração estática (application.yml) quanto
-     * a configuração dinâmica (banco de dados via API).
+     * a configuração dinâmica (banco de dados via API), servida pelo {@link SystemConfigCache}
+     * sem acesso ao banco.
      *
      * @return true se o serviço está disponível e habilitado
      */
@@ -136,19 +170,15 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
         if (!clientInitialized || primaryModel == null) {
             return false;
         }
+        return systemConfigCache.getBoolean(SystemConfig.KEY_AI_ENABLED, false);
+    }
 
-        try {
-            Boolean dbEnabled = configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_AI_ENABLED)
-                    .map(cfg -> Boolean.parseBoolean(cfg.getValue()))
-                    .defaultIfEmpty(false)
-                    .block(Duration.ofSeconds(2));
-
-            return Boolean.TRUE.equals(dbEnabled);
-        } catch (Exception e) {
-            log.warn("Erro ao consultar configuração de IA do banco: {}. Usando configuração padrão (desabilitado).",
-                    e.getMessage());
-            return false;
-        }
+    /**
+     * Habilitado e com ao menos um modelo com o circuito fechado (ou em teste).
+     */
+    @Override
+    public boolean isAvailable() {
+        return isEnabled() && guards.values().stream().anyMatch(GeminiModelGuard::isCallPermitted);
     }
 
     // ==========================================
@@ -156,45 +186,51 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
     // ==========================================
 
     @Override
-    public Mono<String> extractTextFromScannedPage(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(primaryModel, config.getModel(), pdfBytes, pageNumber,
-                GeminiPrompts.EXTRACAO_TEXTO_GENERICO);
+    public Mono<String> extractTextFromScannedPage(PdfSession session, int pageNumber) {
+        return processWithModel(primaryModel, config.getModel(), session, pageNumber,
+                GeminiPrompts.EXTRACAO_TEXTO_GENERICO, PageImageProfile.TEXT);
     }
 
     @Override
-    public Mono<String> extractPayrollData(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(primaryModel, config.getModel(), pdfBytes, pageNumber,
+    public Mono<String> extractPayrollData(PdfSession session, int pageNumber) {
+        return processWithModel(primaryModel, config.getModel(), session, pageNumber,
                 GeminiPrompts.CONTRACHEQUE_EXTRACTION);
     }
 
     @Override
-    public Mono<String> extractIncomeTaxData(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(primaryModel, config.getModel(), pdfBytes, pageNumber,
-                GeminiPrompts.IR_RESUMO_EXTRACTION, IR_EXTRACTION_DPI);
+    public Mono<ModelResponse> extractPayrollDataWithModel(PdfSession session, int pageNumber) {
+        return respondWithModel(primaryModel, config.getModel(), session, pageNumber,
+                GeminiPrompts.CONTRACHEQUE_EXTRACTION, DEFAULT_IMAGE_PROFILE);
+    }
+
+    @Override
+    public Mono<String> extractIncomeTaxData(PdfSession session, int pageNumber) {
+        return processWithModel(primaryModel, config.getModel(), session, pageNumber,
+                GeminiPrompts.IR_RESUMO_EXTRACTION, IR_IMAGE_PROFILE);
     }
 
     @Override
-    public Mono<String> extractIncomeTaxDataWithPro(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
-                GeminiPrompts.IR_RESUMO_EXTRACTION, IR_EXTRACTION_DPI);
+    public Mono<String> extractIncomeTaxDataWithPro(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
+                GeminiPrompts.IR_RESUMO_EXTRACTION, IR_IMAGE_PROFILE);
     }
 
     @Override
-    public Mono<String> extractIncomeTaxDataMultiPageWithPro(byte[] pdfBytes, List<Integer> pages) {
-        return processMultiPageWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pages,
-                GeminiPrompts.IR_RESUMO_EXTRACTION_MULTIPAGE, IR_EXTRACTION_DPI);
+    public Mono<String> extractIncomeTaxDataMultiPageWithPro(PdfSession session, List<Integer> pages) {
+        return processMultiPageWithModel(fallbackModel, config.getFallbackModel(), session, pages,
+                GeminiPrompts.IR_RESUMO_EXTRACTION_MULTIPAGE, IR_IMAGE_PROFILE);
     }
 
     @Override
-    public Mono<String> extractIncomeTaxPagamentosWithPro(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
-                GeminiPrompts.IR_PAGAMENTOS_EXTRACTION, IR_EXTRACTION_DPI);
+    public Mono<String> extractIncomeTaxPagamentosWithPro(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
+                GeminiPrompts.IR_PAGAMENTOS_EXTRACTION, IR_IMAGE_PROFILE);
     }
 
     @Override
-    public Mono<String> extractIncomeTaxDependentesWithPro(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
-                GeminiPrompts.IR_DEPENDENTES_EXTRACTION, IR_EXTRACTION_DPI);
+    public Mono<String> extractIncomeTaxDependentesWithPro(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
+                GeminiPrompts.IR_DEPENDENTES_EXTRACTION, IR_IMAGE_PROFILE);
     }
 
     @Override
@@ -234,25 +270,25 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      * Extrai texto de PDF escaneado usando o modelo fallback (Pro).
      * Chamado quando o modelo principal (Flash) retorna resultado com baixa confiança.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo o texto extraído
      */
-    public Mono<String> extractTextWithFallback(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
-                GeminiPrompts.EXTRACAO_TEXTO_GENERICO);
+    public Mono<String> extractTextWithFallback(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
+                GeminiPrompts.EXTRACAO_TEXTO_GENERICO, PageImageProfile.TEXT);
     }
 
     /**
      * Extrai dados de contracheque usando o modelo fallback (Pro).
      * Chamado quando o modelo principal (Flash) retorna resultado com baixa confiança.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados
      */
-    public Mono<String> extractPayrollDataWithFallback(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
+    public Mono<String> extractPayrollDataWithFallback(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
                 GeminiPrompts.CONTRACHEQUE_EXTRACTION);
     }
 
@@ -260,12 +296,12 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      * Extrai dados de IR usando o modelo fallback (Pro).
      * Chamado quando o modelo principal (Flash) retorna resultado com baixa confiança.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados do IR
      */
-    public Mono<String> extractIncomeTaxDataWithFallback(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber,
+    public Mono<String> extractIncomeTaxDataWithFallback(PdfSession session, int pageNumber) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber,
                 GeminiPrompts.IR_RESUMO_EXTRACTION);
     }
 
@@ -273,26 +309,26 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      * Processa uma página com um prompt customizado usando o modelo fallback (Pro).
      * Útil para cross-validation (Fase 3) onde um prompt alternativo é usado.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @param prompt     prompt customizado
      * @return Mono contendo a resposta do modelo
      */
-    public Mono<String> processWithFallbackModel(byte[] pdfBytes, int pageNumber, String prompt) {
-        return processWithModel(fallbackModel, config.getFallbackModel(), pdfBytes, pageNumber, prompt);
+    public Mono<String> processWithFallbackModel(PdfSession session, int pageNumber, String prompt) {
+        return processWithModel(fallbackModel, config.getFallbackModel(), session, pageNumber, prompt);
     }
 
     /**
      * Processa uma página com um prompt customizado usando o modelo principal (Flash).
      * Útil para cross-validation (Fase 3) onde um prompt alternativo é usado.
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @param prompt     prompt customizado
      * @return Mono contendo a resposta do modelo
      */
-    public Mono<String> processWithPrimaryModel(byte[] pdfBytes, int pageNumber, String prompt) {
-        return processWithModel(primaryModel, config.getModel(), pdfBytes, pageNumber, prompt);
+    public Mono<String> processWithPrimaryModel(PdfSession session, int pageNumber, String prompt) {
+        return processWithModel(primaryModel, config.getModel(), session, pageNumber, prompt);
     }
 
     // ==========================================
@@ -303,13 +339,13 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      * Extrai dados de contracheque de múltiplas páginas consecutivas usando o modelo principal (Flash).
      * Usado quando um contracheque se divide entre 2+ páginas e a extração individual falha.
      *
-     * @param pdfBytes bytes do PDF
+     * @param session  PDF aberto do documento
      * @param pages    lista de números de página (1-indexed) a processar juntas
      * @return Mono contendo JSON com dados estruturados do contracheque
      */
     @Override
-    public Mono<String> extractPayrollDataMultiPage(byte[] pdfBytes, List<Integer> pages) {
-        return processMultiPageWithModel(primaryModel, config.getModel(), pdfBytes, pages,
+    public Mono<String> extractPayrollDataMultiPage(PdfSession session, List<Integer> pages) {
+        return processMultiPageWithModel(primaryModel, config.getModel(), session, pages,
                 GeminiPrompts.CONTRACHEQUE_EXTRACTION_MULTIPAGE);
     }
 
@@ -317,13 +353,13 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      * Extrai dados de uma página parcial de contracheque (continuação) usando o modelo principal.
      * Usado para páginas que são a segunda metade de um contracheque (sem cabeçalho).
      *
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @return Mono contendo JSON com dados estruturados
      */
     @Override
-    public Mono<String> extractPayrollDataPartialPage(byte[] pdfBytes, int pageNumber) {
-        return processWithModel(primaryModel, config.getModel(), pdfBytes, pageNumber,
+    public Mono<String> extractPayrollDataPartialPage(PdfSession session, int pageNumber) {
+        return processWithModel(primaryModel, config.getModel(), session, pageNumber,
                 GeminiPrompts.CONTRACHEQUE_EXTRACTION_PARTIAL);
     }
 
@@ -349,6 +385,15 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
         return config.getFallbackModel();
     }
 
+    /**
+     * Nome do perfil efetivo das páginas de contracheque: muda com
+     * {@code gemini.adaptive-image-encoding} (sufixo {@code _LOSSLESS} quando desligado).
+     */
+    @Override
+    public String getPayrollImageProfile() {
+        return imageProfile(DEFAULT_IMAGE_PROFILE).name();
+    }
+
     // ==========================================
     // MÉTODOS INTERNOS
     // ==========================================
@@ -358,37 +403,52 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      *
      * @param model      instância do GenerativeModel a usar
      * @param modelName  nome do modelo para logging
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pageNumber número da página (1-indexed)
      * @param prompt     prompt de extração
      * @return Mono contendo a resposta processada
      */
     private Mono<String> processWithModel(GenerativeModel model, String modelName,
-                                          byte[] pdfBytes, int pageNumber, String prompt) {
-        return processWithModel(model, modelName, pdfBytes, pageNumber, prompt, DEFAULT_RENDER_DPI);
+                                          PdfSession session, int pageNumber, String prompt) {
+        return processWithModel(model, modelName, session, pageNumber, prompt, DEFAULT_IMAGE_PROFILE);
     }
 
     private Mono<String> processWithModel(GenerativeModel model, String modelName,
-                                          byte[] pdfBytes, int pageNumber, String prompt, float dpi) {
+                                          PdfSession session, int pageNumber, String prompt,
+                                          PageImageProfile profile) {
+        return respondWithModel(model, modelName, session, pageNumber, prompt, profile)
+                .map(ModelResponse::content);
+    }
+
+    private Mono<ModelResponse> respondWithModel(GenerativeModel model, String modelName,
+                                                 PdfSession session, int pageNumber, String prompt,
+                                                 PageImageProfile profile) {
         if (!isEnabled()) {
             log.warn("Gemini AI desabilitado. Retornando vazio para página {}.", pageNumber);
-            return Mono.just("");
+            return Mono.just(new ModelResponse("", modelName));
         }
+        Target target = target(model, modelName);
+        return target.guard().execute(callModel(target.model(), target.modelName(),
+                        session, pageNumber, prompt, profile))
+                .map(content -> new ModelResponse(content, target.modelName()));
+    }
 
-        return Mono.fromCallable(() -> {
+    private Mono<String> callModel(GenerativeModel model, String modelName,
+                                   PdfSession session, int pageNumber, String prompt,
+                                   PageImageProfile profile) {
+        return extractionMetrics.timeGeminiCall(modelName, "single", Mono.defer(() -> {
             log.info("Processando página {} com Gemini [{}]...", pageNumber, modelName);
             long startTime = System.currentTimeMillis();
 
-            try {
-                // 1. Converter página do PDF para imagem PNG
-                byte[] imageBytes = convertPdfPageToImage(pdfBytes, pageNumber, dpi);
-                log.debug("  Imagem gerada: {} bytes ({} KB)", imageBytes.length, imageBytes.length / 1024);
+            // 1. Converter página do PDF para imagem (ou reaproveitar a já renderizada)
+            return pageRenderer.render(session, pageNumber, imageProfile(profile)).flatMap(image -> Mono.fromCallable(() -> {
+                log.debug("  Imagem gerada: {} ({} KB)", image.mimeType(), image.data().length / 1024);
 
                 // 2. Enviar para Gemini Vision (imagem + prompt)
                 GenerateContentResponse response = model.generateContent(
                         ContentMaker.fromMultiModalData(
                                 prompt,
-                                PartMaker.fromMimeTypeAndData("image/png", imageBytes)));
+                                PartMaker.fromMimeTypeAndData(image.mimeType(), image.data())));
 
                 // 3. Verificar finishReason para detectar truncamento
                 checkFinishReason(response, modelName, pageNumber);
@@ -400,14 +460,13 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
                         modelName, pageNumber, duration, result != null ? result.length() : 0);
 
                 return cleanResponse(result);
-
-            } catch (Exception e) {
+            })).onErrorMap(e -> {
                 long duration = System.currentTimeMillis() - startTime;
                 log.error("Erro ao processar página {} com Gemini [{}] após {}ms: {}",
                         pageNumber, modelName, duration, e.getMessage());
-                throw new RuntimeException("Falha ao processar PDF com Gemini AI [" + modelName + "]", e);
-            }
-        }).subscribeOn(Schedulers.boundedElastic());
+                return new RuntimeException("Falha ao processar PDF com Gemini AI [" + modelName + "]", e);
+            });
+        }).subscribeOn(Schedulers.boundedElastic()));
     }
 
     /**
@@ -417,35 +476,48 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
      *
      * @param model      instância do GenerativeModel a usar
      * @param modelName  nome do modelo para logging
-     * @param pdfBytes   bytes do PDF
+     * @param session    PDF aberto do documento
      * @param pages      lista de números de página (1-indexed) a processar juntas
      * @param prompt     prompt de extração (deve instruir sobre multi-page)
      * @return Mono contendo a resposta processada
      */
     private Mono<String> processMultiPageWithModel(GenerativeModel model, String modelName,
-                                                    byte[] pdfBytes, List<Integer> pages, String prompt) {
-        return processMultiPageWithModel(model, modelName, pdfBytes, pages, prompt, DEFAULT_RENDER_DPI);
+                                                    PdfSession session, List<Integer> pages, String prompt) {
+        return processMultiPageWithModel(model, modelName, session, pages, prompt, DEFAULT_IMAGE_PROFILE);
     }
 
     private Mono<String> processMultiPageWithModel(GenerativeModel model, String modelName,
-                                                    byte[] pdfBytes, List<Integer> pages, String prompt, float dpi) {
+                                                    PdfSession session, List<Integer> pages, String prompt,
+                                                    PageImageProfile profile) {
         if (!isEnabled()) {
             log.warn("Gemini AI desabilitado. Retornando vazio para páginas {}.", pages);
             return Mono.just("");
         }
+        Target target = target(model, modelName);
+        return target.guard().execute(callModelMultiPage(target.model(), target.modelName(),
+                session, pages, prompt, profile));
+    }
 
-        return Mono.fromCallable(() -> {
+    private Mono<String> callModelMultiPage(GenerativeModel model, String modelName,
+                                            PdfSession session, List<Integer> pages, String prompt,
+                                            PageImageProfile profile) {
+        return extractionMetrics.timeGeminiCall(modelName, "multi", Mono.defer(() -> {
             log.info("Processando páginas {} com Gemini [{}] (multi-page)...", pages, modelName);
             long startTime = System.currentTimeMillis();
 
-            try {
-                // 1. Converter cada página para imagem PNG
+            // 1. Converter cada página para imagem (ou reaproveitar as já renderizadas)
+            PageImageProfile pageProfile = imageProfile(profile);
+            Mono<List<PageImage>> pageImages = Flux.fromIterable(pages)
+                    .concatMap(pageNumber -> pageRenderer.render(session, pageNumber, pageProfile)
+                            .doOnNext(image -> log.debug("  Página {} - Imagem: {} ({} KB)",
+                                    pageNumber, image.mimeType(), image.data().length / 1024)))
+                    .collectList();
+
+            return pageImages.flatMap(images -> Mono.fromCallable(() -> {
                 List<Object> multiModalParts = new ArrayList<>();
                 multiModalParts.add(prompt);
-                for (int pageNumber : pages) {
-                    byte[] imageBytes = convertPdfPageToImage(pdfBytes, pageNumber, dpi);
-                    log.debug("  Página {} - Imagem: {} bytes ({} KB)", pageNumber, imageBytes.length, imageBytes.length / 1024);
-                    multiModalParts.add(PartMaker.fromMimeTypeAndData("image/png", imageBytes));
+                for (PageImage image : images) {
+                    multiModalParts.add(PartMaker.fromMimeTypeAndData(image.mimeType(), image.data()));
                 }
 
                 // 2. Enviar todas as imagens + prompt em uma única request
@@ -462,14 +534,39 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
                         modelName, pages, duration, result != null ? result.length() : 0);
 
                 return cleanResponse(result);
-
-            } catch (Exception e) {
+            })).onErrorMap(e -> {
                 long duration = System.currentTimeMillis() - startTime;
                 log.error("Erro ao processar páginas {} com Gemini [{}] (multi-page) após {}ms: {}",
                         pages, modelName, duration, e.getMessage());
-                throw new RuntimeException("Falha ao processar PDF multi-page com Gemini AI [" + modelName + "]", e);
+                return new RuntimeException("Falha ao processar PDF multi-page com Gemini AI [" + modelName + "]", e);
+            });
+        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Escolhe o modelo a chamar: com o circuito do principal aberto e o do fallback fechado,
+     * a chamada do principal é promovida ao fallback.
+     */
+    private Target target(GenerativeModel model, String modelName) {
+        GeminiModelGuard guard = guards.get(modelName);
+        if (model == primaryModel && !guard.isCallPermitted()) {
+            GeminiModelGuard fallbackGuard = guards.get(config.getFallbackModel());
+            if (fallbackGuard != guard && fallbackGuard.isCallPermitted()) {
+                log.warn("Circuito do Gemini [{}] aberto. Promovendo chamada para [{}].",
+                        modelName, config.getFallbackModel());
+                promotedToFallback.increment();
+                return new Target(fallbackModel, config.getFallbackModel(), fallbackGuard);
             }
-        }).subscribeOn(Schedulers.boundedElastic());
+        }
+        return new Target(model, modelName, guard);
+    }
+
+    /**
+     * Perfil efetivo da imagem: com {@code gemini.adaptive-image-encoding=false} volta ao PNG RGB
+     * sem perdas no mesmo DPI.
+     */
+    private PageImageProfile imageProfile(PageImageProfile profile) {
+        return config.isAdaptiveImageEncoding() ? profile : profile.lossless();
     }
 
     /**
@@ -492,40 +589,6 @@ public class GeminiPdfServiceImpl implements AiPdfExtractionService {
         }
     }
 
-    /**
-     * Converte uma página do PDF para imagem PNG em alta resolução.
-     * Usa 300 DPI para garantir boa qualidade na leitura pela IA.
-     *
-     * @param pdfBytes   bytes do PDF
-     * @param pageNumber número da página (1-indexed)
-     * @return bytes da imagem PNG
-     * @throws Exception se a conversão falhar
-     */
-    private byte[] convertPdfPageToImage(byte[] pdfBytes, int pageNumber) throws Exception {
-        return convertPdfPageToImage(pdfBytes, pageNumber, DEFAULT_RENDER_DPI);
-    }
-
-    private byte[] convertPdfPageToImage(byte[] pdfBytes, int pageNumber, float dpi) throws Exception {
-        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-            PDFRenderer renderer = new PDFRenderer(document);
-
-            int pageIndex = pageNumber - 1;
-
-            if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
-                throw new IllegalArgumentException(
-                        "Página " + pageNumber + " não existe. O PDF tem " +
-                                document.getNumberOfPages() + " páginas.");
-            }
-
-            BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
-
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-
-            return baos.toByteArray();
-        }
-    }
-
     /**
      * Limpa a resposta do Gemini removendo markdown code blocks e whitespace extra.
      * O Gemini pode retornar respostas envoltas em {@code ```json ... ```}.
@@ -26,6 +26,13 @@ public final class GeminiPrompts {
         // Utility class — não instanciar
     }
 
+    /**
+     * Versão dos prompts. Faz parte da chave do cache de extração ({@code extraction_cache}):
+     * incrementar ao alterar qualquer prompt de contracheque, para que as respostas geradas com o
+     * prompt anterior sejam descartadas.
+     */
+    public static final String VERSION = "2026.10-1";
+
     // ==========================================
     // CONTRACHEQUE (Folha de Pagamento)
     // ==========================================
@@ -0,0 +1,10 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+/**
+ * Imagem de página pronta para envio ao Gemini.
+ *
+ * @param data     bytes codificados
+ * @param mimeType {@code image/png} ou {@code image/jpeg}
+ */
+public record PageImage(byte[] data, String mimeType) {
+}
@@ -0,0 +1,231 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de imagens de página já renderizadas, limitado por bytes, em dois níveis:
+ * heap (LRU) e arquivos temporários (LRU). Quando o heap estoura, as páginas menos usadas
+ * descem para o disco; quando o disco estoura, são descartadas. Um acerto no disco promove a
+ * página de volta para o heap.
+ *
+ * <p>A escrita e a leitura dos arquivos acontecem fora do monitor; um arquivo removido entre a
+ * consulta e a leitura conta como miss.</p>
+ */
+@Slf4j
+final class PageImageCache implements AutoCloseable {
+
+    /**
+     * Identifica uma renderização: mesmo PDF (SHA-256), mesma página, mesma resolução e mesmo
+     * preparo da imagem ({@link PageImageProfile#name()}: modo de cor, orçamento e formato).
+     */
+    record Key(String fileHash, int page, float dpi, String profile) {
+    }
+
+    private record Spilled(Path file, int size) {
+    }
+
+    private final long memoryMaxBytes;
+    private final long diskMaxBytes;
+
+    private final LinkedHashMap<Key, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Key, Spilled> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+    private Path spillDir;
+    private long spillSeq;
+    private boolean closed;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PageImageCache(long memoryMaxBytes, long diskMaxBytes) {
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.diskMaxBytes = diskMaxBytes;
+    }
+
+    /**
+     * @return a imagem cacheada ou {@code null}
+     */
+    byte[] get(Key key) {
+        Spilled spilled;
+        synchronized (this) {
+            byte[] cached = memory.get(key);
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return cached;
+            }
+            spilled = disk.get(key);
+            if (spilled == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+
+        byte[] image;
+        try {
+            image = Files.readAllBytes(spilled.file());
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            log.warn("Erro ao ler página cacheada em {}: {}", spilled.file(), e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        put(key, image);
+        return image;
+    }
+
+    void put(Key key, byte[] image) {
+        List<Map.Entry<Key, byte[]>> toSpill = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            removeFromDisk(key);
+            byte[] previous = memory.remove(key);
+            if (previous != null) {
+                memoryBytes -= previous.length;
+            }
+            if (image.length > memoryMaxBytes) {
+                toSpill.add(Map.entry(key, image));
+            } else {
+                memory.put(key, image);
+                memoryBytes += image.length;
+                Iterator<Map.Entry<Key, byte[]>> it = memory.entrySet().iterator();
+                while (memoryBytes > memoryMaxBytes && it.hasNext()) {
+                    Map.Entry<Key, byte[]> eldest = it.next();
+                    it.remove();
+                    memoryBytes -= eldest.getValue().length;
+                    toSpill.add(Map.entry(eldest.getKey(), eldest.getValue()));
+                }
+            }
+        }
+        for (Map.Entry<Key, byte[]> entry : toSpill) {
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void spill(Key key, byte[] image) {
+        if (image.length > diskMaxBytes) {
+            return;
+        }
+        Path file;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                if (spillDir == null) {
+                    spillDir = Files.createTempDirectory("gemini-pages-");
+                }
+            } catch (IOException e) {
+                log.warn("Não foi possível criar diretório do cache de páginas: {}", e.getMessage());
+                return;
+            }
+            file = spillDir.resolve(++spillSeq + ".img");
+        }
+
+        try {
+            Files.write(file, image);
+        } catch (IOException e) {
+            log.warn("Erro ao gravar página cacheada em {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return;
+        }
+
+        List<Path> toDelete = new ArrayList<>();
+        synchronized (this) {
+            if (closed || memory.containsKey(key)) {
+                // a página voltou ao heap (ou o cache foi fechado) enquanto o arquivo era gravado
+                toDelete.add(file);
+            } else {
+                Spilled previous = disk.put(key, new Spilled(file, image.length));
+                if (previous != null) {
+                    diskBytes -= previous.size();
+                    toDelete.add(previous.file());
+                }
+                diskBytes += image.length;
+                Iterator<Spilled> it = disk.values().iterator();
+                while (diskBytes > diskMaxBytes && it.hasNext()) {
+                    Spilled eldest = it.next();
+                    it.remove();
+                    diskBytes -= eldest.size();
+                    toDelete.add(eldest.file());
+                }
+            }
+        }
+        toDelete.forEach(PageImageCache::deleteQuietly);
+    }
+
+    private void removeFromDisk(Key key) {
+        Spilled spilled = disk.remove(key);
+        if (spilled != null) {
+            diskBytes -= spilled.size();
+            deleteQuietly(spilled.file());
+        }
+    }
+
+    synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    synchronized long diskBytes() {
+        return diskBytes;
+    }
+
+    long memoryHits() {
+        return memoryHits.get();
+    }
+
+    long diskHits() {
+        return diskHits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    /**
+     * Descarta tudo e remove os arquivos temporários.
+     */
+    @Override
+    public void close() {
+        List<Path> toDelete = new ArrayList<>();
+        Path dir;
+        synchronized (this) {
+            closed = true;
+            memory.clear();
+            memoryBytes = 0;
+            disk.values().forEach(spilled -> toDelete.add(spilled.file()));
+            disk.clear();
+            diskBytes = 0;
+            dir = spillDir;
+        }
+        toDelete.forEach(PageImageCache::deleteQuietly);
+        if (dir != null) {
+            deleteQuietly(dir);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Não foi possível remover {}: {}", file, e.getMessage());
+        }
+    }
+}
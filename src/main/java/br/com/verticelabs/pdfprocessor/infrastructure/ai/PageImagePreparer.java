@@ -0,0 +1,286 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Prepara a página renderizada conforme o {@link PageImageProfile}: recorta as margens sem
+ * conteúdo, reduz para o orçamento de pixels, binariza (quando pedido) e codifica.
+ *
+ * <p>Trabalha direto sobre o raster de 8 bits em cinza (sem passar pelo {@code Graphics2D},
+ * que converteria o cinza linear para sRGB e de volta).</p>
+ */
+final class PageImagePreparer {
+
+    /** Pixels mais escuros que isso contam como conteúdo no recorte. */
+    static final int CONTENT_THRESHOLD = 160;
+    /** Folga mantida em volta do conteúdo, em fração da dimensão original. */
+    private static final double CROP_PADDING = 0.01;
+
+    private PageImagePreparer() {
+    }
+
+    static PageImage prepare(BufferedImage rendered, PageImageProfile profile) {
+        if (!profile.grayscale()) {
+            return new PageImage(encode(rendered, profile), profile.format().mimeType());
+        }
+        BufferedImage image = toGray(rendered);
+        if (profile.cropMargins()) {
+            image = cropMargins(image);
+        }
+        if (profile.maxPixels() > 0) {
+            image = fitPixelBudget(image, profile.maxPixels());
+        }
+        if (profile.binarize()) {
+            image = binarize(image);
+        }
+        return new PageImage(encode(image, profile), profile.format().mimeType());
+    }
+
+    static BufferedImage toGray(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        BufferedImage gray = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] dst = pixels(gray);
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            image.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                int rgb = row[x];
+                int r = (rgb >> 16) & 0xFF;
+                int g = (rgb >> 8) & 0xFF;
+                int b = rgb & 0xFF;
+                dst[y * w + x] = (byte) ((r * 77 + g * 150 + b * 29) >> 8);
+            }
+        }
+        return gray;
+    }
+
+    /**
+     * Recorta as bordas sem conteúdo. Uma linha/coluna só conta como conteúdo se tiver pixels
+     * escuros suficientes, para que poeira e ruído do scanner não segurem o recorte. Página em
+     * branco volta inteira.
+     */
+    static BufferedImage cropMargins(BufferedImage gray) {
+        int w = gray.getWidth();
+        int h = gray.getHeight();
+        byte[] px = pixels(gray);
+        int[] rowCounts = new int[h];
+        int[] colCounts = new int[w];
+        for (int y = 0; y < h; y++) {
+            int offset = y * w;
+            for (int x = 0; x < w; x++) {
+                if ((px[offset + x] & 0xFF) < CONTENT_THRESHOLD) {
+                    rowCounts[y]++;
+                    colCounts[x]++;
+                }
+            }
+        }
+        int minPerRow = Math.max(2, w / 400);
+        int minPerCol = Math.max(2, h / 400);
+        int top = first(rowCounts, minPerRow);
+        int left = first(colCounts, minPerCol);
+        if (top < 0 || left < 0) {
+            return gray;
+        }
+        int bottom = last(rowCounts, minPerRow);
+        int right = last(colCounts, minPerCol);
+
+        int padX = (int) Math.ceil(w * CROP_PADDING);
+        int padY = (int) Math.ceil(h * CROP_PADDING);
+        int x0 = Math.max(0, left - padX);
+        int y0 = Math.max(0, top - padY);
+        int x1 = Math.min(w, right + 1 + padX);
+        int y1 = Math.min(h, bottom + 1 + padY);
+        if (x0 == 0 && y0 == 0 && x1 == w && y1 == h) {
+            return gray;
+        }
+
+        int cw = x1 - x0;
+        int ch = y1 - y0;
+        BufferedImage cropped = new BufferedImage(cw, ch, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] dst = pixels(cropped);
+        for (int y = 0; y < ch; y++) {
+            System.arraycopy(px, (y0 + y) * w + x0, dst, y * cw, cw);
+        }
+        return cropped;
+    }
+
+    /**
+     * Reduz até caber em {@code maxPixels}: metades por média 2x2 enquanto a escala restante
+     * for menor que 1/2 e o ajuste final por interpolação bilinear.
+     */
+    static BufferedImage fitPixelBudget(BufferedImage gray, long maxPixels) {
+        long pixels = (long) gray.getWidth() * gray.getHeight();
+        if (pixels <= maxPixels) {
+            return gray;
+        }
+        double scale = Math.sqrt((double) maxPixels / pixels);
+        BufferedImage current = gray;
+        while (scale < 0.5) {
+            current = halve(current);
+            scale *= 2;
+        }
+        int w = Math.max(1, (int) (current.getWidth() * scale));
+        int h = Math.max(1, (int) (current.getHeight() * scale));
+        return resizeBilinear(current, w, h);
+    }
+
+    private static BufferedImage halve(BufferedImage gray) {
+        int sw = gray.getWidth();
+        int w = Math.max(1, sw / 2);
+        int h = Math.max(1, gray.getHeight() / 2);
+        byte[] src = pixels(gray);
+        BufferedImage half = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] dst = pixels(half);
+        for (int y = 0; y < h; y++) {
+            int r0 = (2 * y) * sw;
+            int r1 = r0 + sw;
+            for (int x = 0; x < w; x++) {
+                int sx = 2 * x;
+                int sum = (src[r0 + sx] & 0xFF) + (src[r0 + sx + 1] & 0xFF)
+                        + (src[r1 + sx] & 0xFF) + (src[r1 + sx + 1] & 0xFF);
+                dst[y * w + x] = (byte) ((sum + 2) >> 2);
+            }
+        }
+        return half;
+    }
+
+    private static BufferedImage resizeBilinear(BufferedImage gray, int w, int h) {
+        int sw = gray.getWidth();
+        int sh = gray.getHeight();
+        byte[] src = pixels(gray);
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] dst = pixels(out);
+        double sx = (double) sw / w;
+        double sy = (double) sh / h;
+        for (int y = 0; y < h; y++) {
+            double fy = Math.max(0, (y + 0.5) * sy - 0.5);
+            int y0 = Math.min((int) fy, sh - 1);
+            int y1 = Math.min(y0 + 1, sh - 1);
+            int wy = (int) ((fy - y0) * 256);
+            for (int x = 0; x < w; x++) {
+                double fx = Math.max(0, (x + 0.5) * sx - 0.5);
+                int x0 = Math.min((int) fx, sw - 1);
+                int x1 = Math.min(x0 + 1, sw - 1);
+                int wx = (int) ((fx - x0) * 256);
+                int top = (src[y0 * sw + x0] & 0xFF) * (256 - wx) + (src[y0 * sw + x1] & 0xFF) * wx;
+                int bottom = (src[y1 * sw + x0] & 0xFF) * (256 - wx) + (src[y1 * sw + x1] & 0xFF) * wx;
+                dst[y * w + x] = (byte) ((top * (256 - wy) + bottom * wy + (1 << 15)) >> 16);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Preto e branco pelo limiar de Otsu (maximiza a variância entre fundo e tinta).
+     */
+    static BufferedImage binarize(BufferedImage gray) {
+        int w = gray.getWidth();
+        int h = gray.getHeight();
+        byte[] px = pixels(gray);
+        int threshold = otsuThreshold(px);
+
+        BufferedImage binary = new BufferedImage(w, h, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = binary.getRaster();
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            int offset = y * w;
+            for (int x = 0; x < w; x++) {
+                row[x] = (px[offset + x] & 0xFF) > threshold ? 1 : 0;
+            }
+            raster.setPixels(0, y, w, 1, row);
+        }
+        return binary;
+    }
+
+    static int otsuThreshold(byte[] px) {
+        long[] histogram = new long[256];
+        for (byte p : px) {
+            histogram[p & 0xFF]++;
+        }
+        long total = px.length;
+        double sumAll = 0;
+        for (int i = 0; i < 256; i++) {
+            sumAll += (double) i * histogram[i];
+        }
+        double sumBackground = 0;
+        long weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = 127;
+        for (int t = 0; t < 256; t++) {
+            weightBackground += histogram[t];
+            if (weightBackground == 0) {
+                continue;
+            }
+            long weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (double) t * histogram[t];
+            double meanBackground = sumBackground / weightBackground;
+            double meanForeground = (sumAll - sumBackground) / weightForeground;
+            double diff = meanBackground - meanForeground;
+            double variance = (double) weightBackground * weightForeground * diff * diff;
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = t;
+            }
+        }
+        return threshold;
+    }
+
+    static byte[] encode(BufferedImage image, PageImageProfile profile) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(profile.format().imageIoName()).next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // MemoryCacheImageOutputStream: ImageIO.write usaria cache em arquivo temporário por padrão
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(baos)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (profile.format() == PageImageProfile.Format.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(profile.jpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao codificar página em " + profile.format(), e);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] pixels(BufferedImage gray) {
+        return ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+    }
+
+    private static int first(int[] counts, int min) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] >= min) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int last(int[] counts, int min) {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] >= min) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+/**
+ * Como uma página é preparada antes de ir para o Gemini: resolução de renderização, modo de cor,
+ * orçamento de pixels, formato e recorte das margens vazias.
+ *
+ * <p>Os perfis adaptativos renderizam em tons de cinza e enviam JPEG (ou PNG de 1 bit, para
+ * transcrição de texto), o que reduz o payload em uma ordem de grandeza em relação ao PNG RGB
+ * sem perdas. {@link #lossless()} devolve o comportamento anterior para o mesmo DPI.</p>
+ *
+ * @param name        identifica o perfil na chave do cache e nas métricas
+ * @param dpi         resolução da renderização
+ * @param grayscale   renderiza em tons de cinza (8 bits) em vez de RGB
+ * @param binarize    reduz a preto e branco (limiar de Otsu) — só para transcrição de texto
+ * @param format      formato enviado ao Gemini
+ * @param maxPixels   orçamento de pixels após o recorte; {@code 0} = sem limite
+ * @param jpegQuality qualidade do JPEG (0..1)
+ * @param cropMargins recorta as margens sem conteúdo
+ */
+public record PageImageProfile(String name, float dpi, boolean grayscale, boolean binarize, Format format,
+                               long maxPixels, float jpegQuality, boolean cropMargins) {
+
+    public enum Format {
+        PNG("png", "image/png"),
+        JPEG("jpeg", "image/jpeg");
+
+        private final String imageIoName;
+        private final String mimeType;
+
+        Format(String imageIoName, String mimeType) {
+            this.imageIoName = imageIoName;
+            this.mimeType = mimeType;
+        }
+
+        public String imageIoName() {
+            return imageIoName;
+        }
+
+        public String mimeType() {
+            return mimeType;
+        }
+    }
+
+    /**
+     * Contracheques, demonstrativos e declarações em geral: 300 DPI em cinza, até ~6 MP
+     * (A4 recortado fica por volta de 250 DPI efetivos), JPEG 85.
+     */
+    public static final PageImageProfile DOCUMENT =
+            new PageImageProfile("DOCUMENT", 300f, true, false, Format.JPEG, 6_000_000L, 0.85f, true);
+
+    /**
+     * RESUMO/pagamentos/dependentes de IR: 400 DPI em cinza (valores pequenos em PDFs
+     * digitalizados), até ~12 MP, JPEG 90.
+     */
+    public static final PageImageProfile DOCUMENT_HIGH_RES =
+            new PageImageProfile("DOCUMENT_HIGH_RES", 400f, true, false, Format.JPEG, 12_000_000L, 0.90f, true);
+
+    /**
+     * Transcrição de texto de páginas escaneadas: 300 DPI binarizado em PNG de 1 bit.
+     */
+    public static final PageImageProfile TEXT =
+            new PageImageProfile("TEXT", 300f, true, true, Format.PNG, 0L, 1f, true);
+
+    /**
+     * PNG RGB sem perdas, sem recorte nem redução, no mesmo DPI deste perfil.
+     */
+    public PageImageProfile lossless() {
+        return new PageImageProfile(name + "_LOSSLESS", dpi, false, false, Format.PNG, 0L, 1f, false);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket com reserva antecipada (GCRA): quem chega sem ficha reserva a próxima e recebe
+ * quanto tempo deve esperar por ela, sem ocupar thread. Reservas cuja espera passaria de
+ * {@code maxWaitNanos} são recusadas sem consumir ficha.
+ *
+ * <p>O estado é um único instante teórico ({@code tat}): a partir dele o balde estaria cheio de
+ * novo. Tudo em nanossegundos inteiros; o relógio é injetável para os testes.</p>
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+
+    private long tat;
+
+    TokenBucket(int permitsPerMinute, int burst, LongSupplier nanoTime) {
+        this.intervalNanos = 60_000_000_000L / Math.max(1, permitsPerMinute);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.nanoTime = nanoTime;
+        this.tat = nanoTime.getAsLong();
+    }
+
+    /**
+     * @return espera em nanossegundos até a ficha reservada ficar disponível (0 = imediata),
+     *         ou {@code -1} se a espera passaria de {@code maxWaitNanos}
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        long now = nanoTime.getAsLong();
+        long next = Math.max(tat, now) + intervalNanos;
+        long waitNanos = Math.max(0, next - burstNanos - now);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tat = next;
+        return waitNanos;
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Slf4j
 @Component
 @Order(1) // Executa antes do RubricaDataInitializer
@@ -35,6 +37,15 @@ public class DatabaseInitializer implements CommandLineRunner {
         
         // Inicializar collection users com índice único em email
         initializeUsersCollection();
+
+        // Inicializar collection processing_jobs (fila de processamento)
+        initializeProcessingJobsCollection();
+
+        // Inicializar collection payroll_entries (leitura por pessoa)
+        initializePayrollEntriesCollection();
+
+        // Inicializar collection extraction_cache (TTL e limpeza por versão/arquivo)
+        initializeExtractionCacheCollection();
     }
 
     private void initializeRubricasCollection() {
@@ -241,5 +252,76 @@ public class DatabaseInitializer implements CommandLineRunner {
                 .onErrorResume(error -> Mono.empty())
                 .subscribe();
     }
-}
 
+    private void initializeProcessingJobsCollection() {
+        String collectionName = "processing_jobs";
+        log.info("Criando índices para collection '{}'...", collectionName);
+
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+        Index documentIdIndex = new Index()
+                .on("documentId", org.springframework.data.domain.Sort.Direction.ASC)
+                .unique();
+        // Usado pelo claim do worker: status + availableAt (fila) / leaseExpiresAt (recuperação)
+        Index statusAvailableIndex = new Index()
+                .on("status", org.springframework.data.domain.Sort.Direction.ASC)
+                .on("availableAt", org.springframework.data.domain.Sort.Direction.ASC)
+                .named("status_availableAt_idx");
+
+        Mono.when(
+                        indexOps.ensureIndex(documentIdIndex),
+                        indexOps.ensureIndex(statusAvailableIndex))
+                .doOnSuccess(v -> log.info("Collection '{}' inicializada com índices.", collectionName))
+                .doOnError(error -> log.warn("Aviso ao criar índices na collection '{}': {}", collectionName, error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    private void initializePayrollEntriesCollection() {
+        String collectionName = "payroll_entries";
+        log.info("Criando índices para collection '{}'...", collectionName);
+
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+        // Leitura de todas as entries de uma pessoa (consolidação, matriz, Excel) em um único cursor
+        Index tenantPersonReferenciaIndex = new Index()
+                .on("tenantId", org.springframework.data.domain.Sort.Direction.ASC)
+                .on("personId", org.springframework.data.domain.Sort.Direction.ASC)
+                .on("referencia", org.springframework.data.domain.Sort.Direction.ASC)
+                .named("tenant_person_referencia_idx");
+
+        indexOps.ensureIndex(tenantPersonReferenciaIndex)
+                .doOnSuccess(v -> log.info("Collection '{}' inicializada com índice (tenantId, personId, referencia).", collectionName))
+                .doOnError(error -> log.warn("Aviso ao criar índices na collection '{}': {}", collectionName, error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+
+    private void initializeExtractionCacheCollection() {
+        String collectionName = "extraction_cache";
+        log.info("Criando índices para collection '{}'...", collectionName);
+
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+        // Entradas expiram 90 dias após a extração
+        Index createdAtTtlIndex = new Index()
+                .on("createdAt", org.springframework.data.domain.Sort.Direction.ASC)
+                .expire(Duration.ofDays(90))
+                .named("createdAt_ttl_idx");
+        // Limpeza de versões antigas no startup
+        Index extractorVersionIndex = new Index()
+                .on("extractor", org.springframework.data.domain.Sort.Direction.ASC)
+                .on("version", org.springframework.data.domain.Sort.Direction.ASC)
+                .named("extractor_version_idx");
+        // Invalidação ao reprocessar um documento
+        Index fileHashIndex = new Index()
+                .on("fileHash", org.springframework.data.domain.Sort.Direction.ASC)
+                .named("fileHash_idx");
+
+        Mono.when(
+                        indexOps.ensureIndex(createdAtTtlIndex),
+                        indexOps.ensureIndex(extractorVersionIndex),
+                        indexOps.ensureIndex(fileHashIndex))
+                .doOnSuccess(v -> log.info("Collection '{}' inicializada com índices.", collectionName))
+                .doOnError(error -> log.warn("Aviso ao criar índices na collection '{}': {}", collectionName, error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .subscribe();
+    }
+}
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuração para integração com Google Gemini (Vertex AI).
  *
@@ -14,6 +17,8 @@ import org.springframework.context.annotation.Configuration;
  *   <li>{@code gemini.location} — Região do Vertex AI (env: GEMINI_LOCATION, default: us-central1)</li>
  *   <li>{@code gemini.model} — Modelo principal (env: GEMINI_MODEL, default: gemini-2.5-flash)</li>
  *   <li>{@code gemini.fallback-model} — Modelo fallback (env: GEMINI_FALLBACK_MODEL, default: gemini-2.5-pro)</li>
+ *   <li>{@code gemini.render-cache.*} — Cache das páginas renderizadas enviadas ao Gemini</li>
+ *   <li>{@code gemini.resilience.*} — Limite de chamadas simultâneas, cota e circuit breaker por modelo</li>
  * </ul>
  *
  * <p><strong>Modelos disponíveis:</strong></p>
@@ -88,4 +93,103 @@ public class GeminiConfig {
      * 120 segundos é um valor seguro para a maioria dos casos.
      */
     private int timeoutSeconds = 120;
+
+    /**
+     * Prepara as páginas em tons de cinza/JPEG, com margens recortadas e orçamento de pixels por
+     * tipo de prompt. Desligado por padrão: envia PNG RGB sem perdas até a qualidade da extração
+     * com o perfil adaptativo ser validada.
+     */
+    private boolean adaptiveImageEncoding = false;
+
+    /**
+     * Cache das imagens de página enviadas ao Gemini (ver {@code GeminiPageRenderer}).
+     */
+    private RenderCache renderCache = new RenderCache();
+
+    @Data
+    public static class RenderCache {
+
+        /**
+         * Bytes de PNG mantidos no heap. Ao estourar, as páginas menos usadas vão para o disco.
+         */
+        private long memoryMaxBytes = 64L * 1024 * 1024;
+
+        /**
+         * Bytes de PNG mantidos em arquivos temporários. Ao estourar, as páginas menos usadas são descartadas.
+         * {@code 0} (padrão) desliga o transbordo: o que sai do heap é descartado.
+         */
+        private long diskMaxBytes = 0;
+    }
+
+    /**
+     * Proteções aplicadas a cada modelo (bulkhead, cota e circuit breaker). Valem para os dois
+     * modelos; {@link #modelResilience} permite sobrescrever por nome de modelo.
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * Sobrescrita de {@link #resilience} por modelo (chave = nome do modelo, ex.: {@code gemini-2.5-pro}).
+     */
+    private Map<String, Resilience> modelResilience = new HashMap<>();
+
+    public Resilience resilienceFor(String modelName) {
+        return modelResilience.getOrDefault(modelName, resilience);
+    }
+
+    @Data
+    public static class Resilience {
+
+        /**
+         * Chamadas simultâneas por modelo. As excedentes esperam na fila (sem ocupar thread).
+         */
+        private int maxConcurrentCalls = 4;
+
+        /**
+         * Chamadas aguardando vaga ou cota. Acima disso a chamada é recusada na hora.
+         */
+        private int maxQueuedCalls = 64;
+
+        /**
+         * Espera máxima por vaga ou cota antes de recusar a chamada.
+         */
+        private int maxWaitSeconds = 60;
+
+        /**
+         * Cota de requisições por minuto do projeto (token bucket, com rajada de até {@link #burst}).
+         * {@code 0} desliga o limitador.
+         */
+        private int requestsPerMinute = 60;
+
+        private int burst = 4;
+
+        /**
+         * Réplicas que dividem a cota. O token bucket é local a cada instância, então cada uma usa
+         * {@code requestsPerMinute / instances}; com HPA, usar as réplicas do regime normal (não o
+         * {@code maxReplicas}, que deixaria a cota ociosa). Acima disso o 429 do Vertex AI faz o
+         * documento voltar à fila.
+         */
+        private int instances = 1;
+
+        /**
+         * Percentual de falhas na janela que abre o circuito.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Tamanho da janela (últimas N chamadas) e mínimo de chamadas para avaliar a taxa de falhas.
+         */
+        private int slidingWindowSize = 20;
+
+        private int minimumCalls = 6;
+
+        /**
+         * Tempo com o circuito aberto antes de liberar chamadas de teste (meio-aberto).
+         */
+        private int openSeconds = 60;
+
+        /**
+         * Chamadas de teste no estado meio-aberto; todas precisam ter sucesso para fechar o circuito.
+         */
+        private int halfOpenCalls = 2;
+    }
 }
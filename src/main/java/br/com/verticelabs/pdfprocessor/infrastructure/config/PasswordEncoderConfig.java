@@ -8,9 +8,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class PasswordEncoderConfig {
 
+    /**
+     * Memória (KB) alocada no heap por hash Argon2. Usada também para dimensionar o
+     * {@link br.com.verticelabs.pdfprocessor.infrastructure.security.PasswordHashingService}.
+     */
+    public static final int ARGON2_MEMORY_KB = 65536;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         // Parâmetros recomendados OWASP: saltLength=16, hashLength=32, parallelism=4, memory=65536 (64MB), iterations=3
-        return new Argon2PasswordEncoder(16, 32, 4, 65536, 3);
+        return new Argon2PasswordEncoder(16, 32, 4, ARGON2_MEMORY_KB, 3);
     }
 }
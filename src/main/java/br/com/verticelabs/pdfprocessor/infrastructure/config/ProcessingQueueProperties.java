@@ -0,0 +1,42 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuração da fila persistente de processamento de documentos (processing_jobs).
+ *
+ * app.processing.queue:
+ *   workers: 2            # documentos processados em paralelo por instância
+ *   lease: PT2M           # tempo até outro worker poder reassumir um job sem heartbeat
+ *   heartbeat: PT30S      # intervalo de renovação do lease durante o processamento
+ *   poll-interval: PT2S   # espera entre consultas quando a fila está vazia
+ *   max-attempts: 3       # tentativas antes de marcar o job como FAILED
+ *   backoff: PT10S        # espera base entre tentativas (dobra a cada falha)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.processing.queue")
+public class ProcessingQueueProperties {
+
+    private boolean enabled = true;
+
+    private int workers = 2;
+
+    private Duration lease = Duration.ofMinutes(2);
+
+    private Duration heartbeat = Duration.ofSeconds(30);
+
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    private int maxAttempts = 3;
+
+    private Duration backoff = Duration.ofSeconds(10);
+
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    private Duration metricsRefresh = Duration.ofSeconds(15);
+}
@@ -1,6 +1,7 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.excel;
 
 import br.com.verticelabs.pdfprocessor.application.excel.ExcelExportService;
+import br.com.verticelabs.pdfprocessor.application.excel.ResumoGeralMontagemResult;
 import br.com.verticelabs.pdfprocessor.application.incometax.IrpfPrevidenciaOficialResolver;
 import br.com.verticelabs.pdfprocessor.application.tributacao.IrCalculoProgressivoService;
 import br.com.verticelabs.pdfprocessor.application.tributacao.IrDoacoesDeducaoCalculator;
@@ -12,7 +13,6 @@ import br.com.verticelabs.pdfprocessor.application.tributacao.dto.SimuladorIrpfR
 import br.com.verticelabs.pdfprocessor.application.tributacao.dto.SimuladorIrpfResponse;
 import br.com.verticelabs.pdfprocessor.domain.model.IrParametrosAnuais;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.ExcelGenerationException;
-import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
 import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
 import br.com.verticelabs.pdfprocessor.domain.model.Person;
@@ -25,14 +25,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -58,157 +63,192 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
         private final br.com.verticelabs.pdfprocessor.application.empresas.EmpresaHonorariosResolver empresaHonorariosResolver;
     private final br.com.verticelabs.pdfprocessor.application.excel.ResumoGeralAssemblyService resumoGeralAssemblyService;
 
+    /** Linhas mantidas em memória por aba; as anteriores vão para o arquivo temporário do SXSSF. */
+    static final int ROW_WINDOW = 100;
+    private static final int STREAM_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Planilha de consolidação escrita direto no corpo da resposta: o workbook é gerado em
+     * streaming (SXSSF) conforme o cliente consome os buffers, sem montar o arquivo inteiro em memória.
+     */
     @Override
-    public Mono<byte[]> generateConsolidationExcel(Person person, ConsolidatedResponse consolidatedResponse,
-            String filename) {
+    public Mono<Flux<DataBuffer>> streamConsolidationExcel(Person person, ConsolidatedResponse consolidatedResponse) {
+        return prepararPlanilha(person, consolidatedResponse)
+                .map(montagem -> Flux.from(DataBufferUtils.outputStreamPublisher(
+                        out -> escreverWorkbook(person, consolidatedResponse, montagem, out),
+                        DefaultDataBufferFactory.sharedInstance,
+                        task -> Schedulers.boundedElastic().schedule(task),
+                        STREAM_CHUNK_SIZE)));
+    }
+
+    private Mono<ResumoGeralMontagemResult> prepararPlanilha(Person person, ConsolidatedResponse consolidatedResponse) {
         // Buscar entries de IR e declarações IRPF completas em paralelo
         return Mono.zip(
                 buscarEntriesIncomeTax(person),
                 buscarIrpfDeclaracoes(person)
-        ).flatMap(tuple -> {
-                    Map<String, Map<String, BigDecimal>> incomeTaxEntries = tuple.getT1();
-                    Map<String, IrpfDeclaracaoData> irpfDeclaracoes = tuple.getT2();
-                    return resumoGeralAssemblyService.montar(person, consolidatedResponse, irpfDeclaracoes)
-                            .flatMap(montagem -> {
-                                List<ExcelResumoGeralLinhaDTO> linhasResumo = montagem.linhas();
-                                var honorariosConfig = montagem.honorariosConfig();
-                                Map<String, IrpfDeclaracaoData> irpfDeclaracoesAlinhadas =
-                                        montagem.irpfDeclaracoesAlinhadas();
-                                Map<String, BigDecimal> prevComplPorAno = montagem.prevComplPorAno();
-                                Map<String, java.util.List<br.com.verticelabs.pdfprocessor.domain.model.IrTabelaTributacao>> tabelasTributacao =
-                                        montagem.tabelasTributacao();
-                                Map<String, IrParametrosAnuais> parametrosTributacao = montagem.parametrosTributacao();
-                                TreeSet<String> anosOrdenados = new TreeSet<>(consolidatedResponse.getAnos());
-
-                                return Mono.fromCallable(() -> {
-                                    try (Workbook workbook = new XSSFWorkbook();
-                                            ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-                                        log.debug("Criando workbook Excel...");
-
-                                        // Criar estilos
-                                        CellStyle headerStyle = createHeaderStyle(workbook);
-                                        CellStyle numberStyle = createNumberStyle(workbook);
-                                        CellStyle defaultStyle = createDefaultStyle(workbook);
-                                        CellStyle totalStyle = createTotalStyle(workbook);
-                                        CellStyle infoStyle = createInfoStyle(workbook);
-
-                                        log.info("Anos para criar abas: {} (ordem crescente)", anosOrdenados);
-
-                                        // Criar uma aba para cada ano
-                                        for (String ano : anosOrdenados) {
-                                            log.debug("Criando aba para ano: {}", ano);
-                                            Sheet sheet = workbook.createSheet(ano);
-
-                                            int currentRow = 0;
-
-                                            // Linha 1: Informações da pessoa (CPF e Nome na mesma linha)
-                                            currentRow = addPersonInfo(sheet, person, currentRow, infoStyle);
-
-                                            // Linha 2: Cabeçalho da matriz
-                                            currentRow = addMatrixHeader(sheet, ano, currentRow, headerStyle);
-
-                                            // Dados das rubricas (apenas do ano atual)
-                                            currentRow = addMatrixData(sheet, consolidatedResponse, ano, currentRow,
-                                                    numberStyle,
-                                                    defaultStyle);
-
-                                            // Linha de totais mensais
-                                            currentRow = addMonthlyTotals(sheet, consolidatedResponse, ano, currentRow,
-                                                    totalStyle,
-                                                    numberStyle);
-
-                                            // Duas simulações IRPF (declaração + contracheques), se houver declaração
-                                            BigDecimal prevComplPlanilha = prevComplPorAno.getOrDefault(ano, BigDecimal.ZERO);
-                                            CellStyle simTitleStyle = createSimTitleStyle(workbook);
-                                            CellStyle simBannerSubtitleStyle = createSimBannerSubtitleStyle(workbook);
-                                            CellStyle simLabelStyle = createSimLabelStyle(workbook);
-                                            CellStyle simValueStyle = createSimValueStyle(workbook);
-                                            CellStyle simSubLabelStyle = createSimSubLabelStyle(workbook);
-                                            CellStyle simTotalStyle = createSimTotalStyle(workbook);
-                                            CellStyle simTotalLabelStyle = createSimTotalLabelStyle(workbook);
-                                            CellStyle simAliquotaStyle = createSimAliquotaStyle(workbook);
-                                            CellStyle simHighlightGreenStyle = createSimHighlightGreenStyle(workbook);
-
-                                            IrpfDeclaracaoData irpfAno = irpfDeclaracoesAlinhadas.get(ano);
-                                            if (irpfAno != null) {
-                                                if ("SIMPLIFICADO".equalsIgnoreCase(irpfAno.getTipoTributacao())) {
-                                                    currentRow = addBlocoConformeDeclaracaoSimplificada(
-                                                            sheet, person, irpfAno, currentRow,
-                                                            simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
-                                                            simValueStyle, simSubLabelStyle, simTotalStyle,
-                                                            simTotalLabelStyle, simAliquotaStyle);
-                                                } else {
-                                                    currentRow = addBlocoConformeDeclaracaoCompleta(
-                                                            sheet, person, irpfAno, currentRow,
-                                                            simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
-                                                            simValueStyle, simSubLabelStyle, simTotalStyle,
-                                                            simTotalLabelStyle, simAliquotaStyle);
-                                                }
-                                                currentRow = addBlocoSimulacaoCompletaPlanilha(
-                                                        sheet, person, ano, irpfAno, prevComplPlanilha,
-                                                        tabelasTributacao, parametrosTributacao, currentRow,
-                                                        simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
-                                                        simValueStyle, simSubLabelStyle, simTotalStyle,
-                                                        simTotalLabelStyle, simAliquotaStyle, simHighlightGreenStyle);
-                                            }
-
-                                            // Ajustar largura das colunas
-                                            autoSizeColumns(sheet,
-                                                    consolidatedResponse.getRubricas().size() > 0
-                                                            ? consolidatedResponse.getRubricas().get(0).getValores()
-                                                                    .size()
-                                                            : 0);
-
-                                            // Congelar linha de cabeçalho (linha 2, índice 1)
-                                            sheet.createFreezePane(0, 2); // Congela após linha 2 (cabeçalho)
-                                        }
-
-                                        // Aba Resumo Geral (antes da Consolidação)
-                                        if (!linhasResumo.isEmpty()) {
-                                            log.info("Criando aba Resumo Geral com {} anos", linhasResumo.size());
-                                            addResumoGeralSheet(workbook, person, linhasResumo, honorariosConfig,
-                                                    headerStyle, numberStyle, defaultStyle, totalStyle);
-                                        }
-
-                                        // Criar aba "Consolidação" com todos os anos
-                                        log.info("Criando aba consolidada com todos os anos");
-                                        Sheet consolidatedSheet = workbook.createSheet("Consolidação");
-                                        int currentRow = 0;
-
-                                        // Linha 1: Informações da pessoa
-                                        currentRow = addPersonInfo(consolidatedSheet, person, currentRow, infoStyle);
-
-                                        // Linha 2: Cabeçalho consolidado (todos os anos)
-                                        currentRow = addConsolidatedHeader(consolidatedSheet, anosOrdenados, currentRow,
-                                                headerStyle);
-
-                                        // Dados consolidados (todas as rubricas de todos os anos)
-                                        currentRow = addConsolidatedData(consolidatedSheet, consolidatedResponse,
-                                                anosOrdenados,
-                                                currentRow, numberStyle, defaultStyle);
-
-                                        // Linha de totais consolidados
-                                        currentRow = addConsolidatedTotals(consolidatedSheet, consolidatedResponse,
-                                                anosOrdenados,
-                                                currentRow, totalStyle, numberStyle);
-
-                                        // Ajustar largura das colunas
-                                        autoSizeConsolidatedColumns(consolidatedSheet, anosOrdenados.size());
-
-                                        // Congelar linha de cabeçalho
-                                        consolidatedSheet.createFreezePane(0, 2);
-
-                                        workbook.write(out);
-                                        log.info("Workbook Excel gerado com sucesso. Tamanho: {} bytes", out.size());
-                                        return out.toByteArray();
-                                    } catch (Exception e) {
-                                        log.error("Erro ao gerar Excel", e);
-                                        throw new ExcelGenerationException(
-                                                "Erro ao gerar arquivo Excel: " + e.getMessage(), e);
-                                    }
-                                }).subscribeOn(Schedulers.boundedElastic());
-                            });
-                });
+        ).flatMap(tuple -> resumoGeralAssemblyService.montar(person, consolidatedResponse, tuple.getT2()));
+    }
+
+    void escreverWorkbook(Person person, ConsolidatedResponse consolidatedResponse,
+            ResumoGeralMontagemResult montagem, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            escreverWorkbook(workbook, person, consolidatedResponse, montagem, out);
+        } finally {
+            // Remove os arquivos temporários das abas
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Monta e grava o workbook. Abas por ano e Consolidação são escritas linha a linha (streaming
+     * quando {@code workbook} é SXSSF); o Resumo Geral é pequeno e relê linhas para aplicar bordas
+     * e posicionar o logo, então fica sempre no XSSFWorkbook subjacente.
+     */
+    void escreverWorkbook(Workbook workbook, Person person, ConsolidatedResponse consolidatedResponse,
+            ResumoGeralMontagemResult montagem, OutputStream out) {
+        List<ExcelResumoGeralLinhaDTO> linhasResumo = montagem.linhas();
+        var honorariosConfig = montagem.honorariosConfig();
+        Map<String, IrpfDeclaracaoData> irpfDeclaracoesAlinhadas = montagem.irpfDeclaracoesAlinhadas();
+        Map<String, BigDecimal> prevComplPorAno = montagem.prevComplPorAno();
+        Map<String, java.util.List<br.com.verticelabs.pdfprocessor.domain.model.IrTabelaTributacao>> tabelasTributacao =
+                montagem.tabelasTributacao();
+        Map<String, IrParametrosAnuais> parametrosTributacao = montagem.parametrosTributacao();
+        TreeSet<String> anosOrdenados = new TreeSet<>(consolidatedResponse.getAnos());
+
+        try {
+            log.debug("Criando workbook Excel...");
+            ExcelStyleRegistry estilos = new ExcelStyleRegistry(workbook);
+
+            // Criar estilos
+            CellStyle headerStyle = estilos.get("header", this::createHeaderStyle);
+            CellStyle numberStyle = estilos.get("number", this::createNumberStyle);
+            CellStyle defaultStyle = estilos.get("default", this::createDefaultStyle);
+            CellStyle totalStyle = estilos.get("total", this::createTotalStyle);
+            CellStyle infoStyle = estilos.get("info", this::createInfoStyle);
+
+            log.info("Anos para criar abas: {} (ordem crescente)", anosOrdenados);
+
+            // Criar uma aba para cada ano
+            for (String ano : anosOrdenados) {
+                log.debug("Criando aba para ano: {}", ano);
+                Sheet sheet = workbook.createSheet(ano);
+
+                int currentRow = 0;
+
+                // Linha 1: Informações da pessoa (CPF e Nome na mesma linha)
+                currentRow = addPersonInfo(sheet, person, currentRow, infoStyle);
+
+                // Linha 2: Cabeçalho da matriz
+                currentRow = addMatrixHeader(sheet, ano, currentRow, headerStyle);
+
+                // Dados das rubricas (apenas do ano atual)
+                currentRow = addMatrixData(sheet, consolidatedResponse, ano, currentRow,
+                        numberStyle,
+                        defaultStyle);
+
+                // Linha de totais mensais
+                currentRow = addMonthlyTotals(sheet, consolidatedResponse, ano, currentRow,
+                        totalStyle,
+                        numberStyle);
+
+                // Duas simulações IRPF (declaração + contracheques), se houver declaração
+                BigDecimal prevComplPlanilha = prevComplPorAno.getOrDefault(ano, BigDecimal.ZERO);
+                CellStyle simTitleStyle = estilos.get("simTitle", this::createSimTitleStyle);
+                CellStyle simBannerSubtitleStyle = estilos.get("simBannerSubtitle", this::createSimBannerSubtitleStyle);
+                CellStyle simLabelStyle = estilos.get("simLabel", this::createSimLabelStyle);
+                CellStyle simValueStyle = estilos.get("simValue", this::createSimValueStyle);
+                CellStyle simSubLabelStyle = estilos.get("simSubLabel", this::createSimSubLabelStyle);
+                CellStyle simTotalStyle = estilos.get("simTotal", this::createSimTotalStyle);
+                CellStyle simTotalLabelStyle = estilos.get("simTotalLabel", this::createSimTotalLabelStyle);
+                CellStyle simAliquotaStyle = estilos.get("simAliquota", this::createSimAliquotaStyle);
+                CellStyle simHighlightGreenStyle = estilos.get("simHighlightGreen", this::createSimHighlightGreenStyle);
+
+                IrpfDeclaracaoData irpfAno = irpfDeclaracoesAlinhadas.get(ano);
+                if (irpfAno != null) {
+                    if ("SIMPLIFICADO".equalsIgnoreCase(irpfAno.getTipoTributacao())) {
+                        currentRow = addBlocoConformeDeclaracaoSimplificada(
+                                sheet, person, irpfAno, currentRow,
+                                simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
+                                simValueStyle, simSubLabelStyle, simTotalStyle,
+                                simTotalLabelStyle, simAliquotaStyle);
+                    } else {
+                        currentRow = addBlocoConformeDeclaracaoCompleta(
+                                sheet, person, irpfAno, currentRow,
+                                simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
+                                simValueStyle, simSubLabelStyle, simTotalStyle,
+                                simTotalLabelStyle, simAliquotaStyle);
+                    }
+                    currentRow = addBlocoSimulacaoCompletaPlanilha(
+                            sheet, person, ano, irpfAno, prevComplPlanilha,
+                            tabelasTributacao, parametrosTributacao, currentRow,
+                            simTitleStyle, simBannerSubtitleStyle, simLabelStyle,
+                            simValueStyle, simSubLabelStyle, simTotalStyle,
+                            simTotalLabelStyle, simAliquotaStyle, simHighlightGreenStyle);
+                }
+
+                // Ajustar largura das colunas
+                autoSizeColumns(sheet,
+                        consolidatedResponse.getRubricas().size() > 0
+                                ? consolidatedResponse.getRubricas().get(0).getValores()
+                                        .size()
+                                : 0);
+
+                // Congelar linha de cabeçalho (linha 2, índice 1)
+                sheet.createFreezePane(0, 2); // Congela após linha 2 (cabeçalho)
+
+                // Aba do ano concluída: descarrega as linhas restantes, só uma aba fica em memória
+                if (sheet instanceof SXSSFSheet streamingSheet) {
+                    streamingSheet.flushRows();
+                }
+            }
+
+            // Aba Resumo Geral (antes da Consolidação)
+            if (!linhasResumo.isEmpty()) {
+                log.info("Criando aba Resumo Geral com {} anos", linhasResumo.size());
+                addResumoGeralSheet(xssf(workbook), estilos, person, linhasResumo, honorariosConfig,
+                        headerStyle, numberStyle, defaultStyle, totalStyle);
+            }
+
+            // Criar aba "Consolidação" com todos os anos
+            log.info("Criando aba consolidada com todos os anos");
+            Sheet consolidatedSheet = workbook.createSheet("Consolidação");
+            int currentRow = 0;
+
+            // Linha 1: Informações da pessoa
+            currentRow = addPersonInfo(consolidatedSheet, person, currentRow, infoStyle);
+
+            // Linha 2: Cabeçalho consolidado (todos os anos)
+            currentRow = addConsolidatedHeader(consolidatedSheet, anosOrdenados, currentRow,
+                    headerStyle);
+
+            // Dados consolidados (todas as rubricas de todos os anos)
+            currentRow = addConsolidatedData(consolidatedSheet, consolidatedResponse,
+                    anosOrdenados,
+                    currentRow, numberStyle, defaultStyle);
+
+            // Linha de totais consolidados
+            currentRow = addConsolidatedTotals(consolidatedSheet, consolidatedResponse,
+                    anosOrdenados,
+                    currentRow, totalStyle, numberStyle);
+
+            // Ajustar largura das colunas
+            autoSizeConsolidatedColumns(consolidatedSheet, anosOrdenados.size());
+
+            // Congelar linha de cabeçalho
+            consolidatedSheet.createFreezePane(0, 2);
+
+            workbook.write(out);
+        } catch (Exception e) {
+            log.error("Erro ao gerar Excel", e);
+            throw new ExcelGenerationException(
+                    "Erro ao gerar arquivo Excel: " + e.getMessage(), e);
+        }
+    }
+
+    /** Workbook XSSF por trás de um SXSSF (abas criadas nele não passam pela janela de linhas). */
+    private static XSSFWorkbook xssf(Workbook workbook) {
+        return workbook instanceof SXSSFWorkbook streaming ? streaming.getXSSFWorkbook() : (XSSFWorkbook) workbook;
     }
 
     /**
@@ -218,13 +258,8 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
     private Mono<Map<String, Map<String, BigDecimal>>> buscarEntriesIncomeTax(Person person) {
         log.info("Buscando entries de declaração de IR para pessoa: {} ({})", person.getNome(), person.getCpf());
 
-        // Buscar documentos de IR da pessoa
-        return documentRepository.findByTenantIdAndCpf(person.getTenantId(), person.getCpf())
-                .filter(doc -> doc.getTipo() == DocumentType.INCOME_TAX)
-                .flatMap(doc -> {
-                    log.debug("Documento de IR encontrado: {} (ano: {})", doc.getId(), doc.getAnoDetectado());
-                    return entryRepository.findByTenantIdAndDocumentoId(person.getTenantId(), doc.getId());
-                })
+        // Entries da pessoa em uma única query; as de IR têm origem INCOME_TAX
+        return entryRepository.findByTenantIdAndPersonId(person.getTenantId(), person.getId())
                 .filter(entry -> "INCOME_TAX".equals(entry.getOrigem()))
                 .collectList()
                 .map(entries -> {
@@ -1057,13 +1092,11 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
     private Mono<Map<String, IrpfDeclaracaoData>> buscarIrpfDeclaracoes(Person person) {
         log.info("Buscando declarações IRPF para pessoa: {} ({})", person.getNome(), person.getCpf());
 
-        return documentRepository.findByTenantIdAndCpf(person.getTenantId(), person.getCpf())
-                .filter(doc -> doc.getTipo() == DocumentType.INCOME_TAX && doc.getIrpfData() != null)
+        return documentRepository.findIrpfDataByTenantIdAndCpf(person.getTenantId(), person.getCpf())
                 .collectList()
-                .map(docs -> {
+                .map(declaracoes -> {
                     Map<String, IrpfDeclaracaoData> map = new HashMap<>();
-                    for (var doc : docs) {
-                        IrpfDeclaracaoData data = doc.getIrpfData();
+                    for (IrpfDeclaracaoData data : declaracoes) {
                         String anoCalendario = data.getAnoCalendario();
                         if (anoCalendario != null && !anoCalendario.isBlank()) {
                             map.put(anoCalendario.trim(), data);
@@ -1318,26 +1351,28 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     private void addResumoGeralSheet(
-            Workbook workbook, Person person, List<ExcelResumoGeralLinhaDTO> linhas,
+            Workbook workbook, ExcelStyleRegistry estilos, Person person, List<ExcelResumoGeralLinhaDTO> linhas,
             br.com.verticelabs.pdfprocessor.application.empresas.EmpresaHonorariosResolver.HonorariosConfig honorariosConfig,
             CellStyle headerStyle, CellStyle numberStyle, CellStyle defaultStyle, CellStyle totalStyle) {
 
         Sheet sheet = workbook.createSheet("Resumo Geral");
-        CellStyle resumoLabelStyle = createResumoLabelStyle(workbook);
-        CellStyle resumoHeaderTableStyle = createResumoHeaderTableStyle(workbook);
-        CellStyle resumoPercentStyle = createResumoPercentStyle(workbook);
-        CellStyle resumoHonorariosStyle = createResumoHonorariosStyle(workbook);
-        CellStyle resumoDateStyle = createResumoDateStyle(workbook);
-        CellStyle resumoTotalLabelStyle = createResumoTotalLabelStyle(workbook);
-        CellStyle resumoZeroDashStyle = createResumoZeroDashStyle(workbook);
-        CellStyle resumoEmptyStyle = createResumoEmptyStyle(workbook);
-        CellStyle resumoFooterDateTimeStyle = createResumoFooterDateTimeStyle(workbook);
+        CellStyle resumoLabelStyle = estilos.get("resumoLabel", this::createResumoLabelStyle);
+        CellStyle resumoHeaderTableStyle = estilos.get("resumoHeaderTable", this::createResumoHeaderTableStyle);
+        CellStyle resumoPercentStyle = estilos.get("resumoPercent", this::createResumoPercentStyle);
+        CellStyle resumoHonorariosStyle = estilos.get("resumoHonorarios", this::createResumoHonorariosStyle);
+        CellStyle resumoDateStyle = estilos.get("resumoDate", this::createResumoDateStyle);
+        CellStyle resumoTotalLabelStyle = estilos.get("resumoTotalLabel", this::createResumoTotalLabelStyle);
+        CellStyle resumoZeroDashStyle = estilos.get("resumoZeroDash", this::createResumoZeroDashStyle);
+        CellStyle resumoEmptyStyle = estilos.get("resumoEmpty", this::createResumoEmptyStyle);
+        CellStyle resumoFooterDateTimeStyle = estilos.get("resumoFooterDateTime", this::createResumoFooterDateTimeStyle);
 
         // Variantes em negrito para linhas em que a declaração entregue e a simulação
         // resultam em restituição (destaque dos valores).
-        CellStyle numberStyleBold = createBoldVariant(workbook, numberStyle);
-        CellStyle resumoPercentStyleBold = createBoldVariant(workbook, resumoPercentStyle);
-        CellStyle resumoZeroDashStyleBold = createBoldVariant(workbook, resumoZeroDashStyle);
+        CellStyle numberStyleBold = estilos.get("numberBold", wb -> createBoldVariant(wb, numberStyle));
+        CellStyle resumoPercentStyleBold = estilos.get("resumoPercentBold",
+                wb -> createBoldVariant(wb, resumoPercentStyle));
+        CellStyle resumoZeroDashStyleBold = estilos.get("resumoZeroDashBold",
+                wb -> createBoldVariant(wb, resumoZeroDashStyle));
 
         int row = 0;
         final int topRow = 0;
@@ -1450,17 +1485,10 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
         receberLabel.setCellStyle(resumoTotalLabelStyle);
         Cell receberCell = receberRow.createCell(6);
         receberCell.setCellValue(totais.valorReceber().doubleValue());
-        Font boldFont = workbook.createFont();
-        boldFont.setBold(true);
-        boldFont.setFontName("Arial");
-        boldFont.setFontHeightInPoints((short) 10);
-        CellStyle receberStyle = workbook.createCellStyle();
-        receberStyle.cloneStyleFrom(numberStyle);
-        receberStyle.setFont(boldFont);
-        receberCell.setCellStyle(receberStyle);
+        receberCell.setCellStyle(numberStyleBold);
 
         // Bordas externas espessas + internas finas (bloco principal A1:H até Valor a Receber)
-        applyResumoGeralBordas(sheet, workbook, resumoEmptyStyle,
+        applyResumoGeralBordas(sheet, estilos, resumoEmptyStyle,
                 topRow, receberRowIdx, dateGridStartRow, dateGridEndRow,
                 tableHeaderRow, firstDataRow, lastDataRow, firstTotalRow);
 
@@ -1490,7 +1518,7 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
         geracaoCell.setCellValue(LocalDateTime.now(RESUMO_FUSO_HORARIO).format(RESUMO_DATA_HORA_GERACAO));
         geracaoCell.setCellStyle(resumoFooterDateTimeStyle);
 
-        applyResumoGeralBordasRodape(sheet, workbook, resumoEmptyStyle, footerRow1, footerRow2);
+        applyResumoGeralBordasRodape(sheet, estilos, resumoEmptyStyle, footerRow1, footerRow2);
 
         for (int col = 0; col < 7; col++) {
             sheet.setColumnWidth(col, RESUMO_WIDTH_COL_AG);
@@ -1509,7 +1537,7 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
      * Aplica bordas externas espessas (MEDIUM) e internas finas na área principal A:H.
      */
     private void applyResumoGeralBordas(
-            Sheet sheet, Workbook workbook, CellStyle emptyStyle,
+            Sheet sheet, ExcelStyleRegistry estilos, CellStyle emptyStyle,
             int topRow, int bottomRow,
             int dateGridStartRow, int dateGridEndRow,
             int tableHeaderRow, int firstDataRow, int lastDataRow, int firstTotalRow) {
@@ -1533,9 +1561,6 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
                     cell.setCellStyle(emptyStyle);
                 }
 
-                CellStyle merged = workbook.createCellStyle();
-                merged.cloneStyleFrom(cell.getCellStyle());
-
                 BorderStyle top = inner;
                 BorderStyle bottom = inner;
                 BorderStyle left = (c == 0) ? outer : inner;
@@ -1566,19 +1591,15 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
                     bottom = outer;
                 }
 
-                merged.setBorderTop(top);
-                merged.setBorderBottom(bottom);
-                merged.setBorderLeft(left);
-                merged.setBorderRight(right);
-                cell.setCellStyle(merged);
+                cell.setCellStyle(estilos.comBordas(cell.getCellStyle(), top, bottom, left, right));
             }
         }
 
-        aplicarBordaAreaLogo(sheet, workbook, emptyStyle);
+        aplicarBordaAreaLogo(sheet, estilos, emptyStyle);
     }
 
     /** Borda da área mesclada G1:H8 (topo/direita/base externas). */
-    private void aplicarBordaAreaLogo(Sheet sheet, Workbook workbook, CellStyle emptyStyle) {
+    private void aplicarBordaAreaLogo(Sheet sheet, ExcelStyleRegistry estilos, CellStyle emptyStyle) {
         BorderStyle outer = BorderStyle.MEDIUM;
         BorderStyle inner = BorderStyle.THIN;
 
@@ -1591,18 +1612,12 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
             cell = sheetRow.createCell(ExcelResumoGeralLogoHelper.LOGO_FIRST_COL);
             cell.setCellStyle(emptyStyle);
         }
-        CellStyle style = workbook.createCellStyle();
-        style.cloneStyleFrom(cell.getCellStyle());
-        style.setBorderTop(outer);
-        style.setBorderBottom(outer);
-        style.setBorderLeft(inner);
-        style.setBorderRight(outer);
-        cell.setCellStyle(style);
+        cell.setCellStyle(estilos.comBordas(cell.getCellStyle(), outer, outer, inner, outer));
     }
 
     /** Borda espessa em torno do rodapé (Responsável / Economista). */
     private void applyResumoGeralBordasRodape(
-            Sheet sheet, Workbook workbook, CellStyle emptyStyle, int footerRow1, int footerRow2) {
+            Sheet sheet, ExcelStyleRegistry estilos, CellStyle emptyStyle, int footerRow1, int footerRow2) {
         BorderStyle outer = BorderStyle.MEDIUM;
         BorderStyle inner = BorderStyle.THIN;
 
@@ -1617,13 +1632,11 @@ public class ConsolidationExcelServiceImpl implements ExcelExportService {
                     cell = sheetRow.createCell(c);
                     cell.setCellStyle(emptyStyle);
                 }
-                CellStyle merged = workbook.createCellStyle();
-                merged.cloneStyleFrom(cell.getCellStyle());
-                merged.setBorderTop(r == footerRow1 ? outer : inner);
-                merged.setBorderBottom(r == footerRow2 ? outer : inner);
-                merged.setBorderLeft(c == 0 ? outer : inner);
-                merged.setBorderRight(c == RESUMO_LAST_COL ? outer : inner);
-                cell.setCellStyle(merged);
+                cell.setCellStyle(estilos.comBordas(cell.getCellStyle(),
+                        r == footerRow1 ? outer : inner,
+                        r == footerRow2 ? outer : inner,
+                        c == 0 ? outer : inner,
+                        c == RESUMO_LAST_COL ? outer : inner));
             }
         }
     }
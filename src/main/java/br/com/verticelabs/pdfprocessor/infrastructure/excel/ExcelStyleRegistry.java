@@ -0,0 +1,50 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.excel;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Estilos de um workbook, criados uma única vez.
+ *
+ * Cada {@code createCellStyle()} acrescenta uma entrada em styles.xml (limite de 64 000 por
+ * arquivo). Estilos nomeados ficam em cache por nome; variantes de borda — usadas célula a célula
+ * no Resumo Geral — ficam em cache por (estilo base, bordas).
+ */
+final class ExcelStyleRegistry {
+
+    private record VarianteBorda(short base, BorderStyle top, BorderStyle bottom,
+                                 BorderStyle left, BorderStyle right) {
+    }
+
+    private final Workbook workbook;
+    private final Map<String, CellStyle> porNome = new HashMap<>();
+    private final Map<VarianteBorda, CellStyle> variantesBorda = new HashMap<>();
+
+    ExcelStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    CellStyle get(String nome, Function<Workbook, CellStyle> fabrica) {
+        return porNome.computeIfAbsent(nome, k -> fabrica.apply(workbook));
+    }
+
+    /**
+     * Cópia de {@code base} com as quatro bordas informadas; a mesma combinação devolve o mesmo estilo.
+     */
+    CellStyle comBordas(CellStyle base, BorderStyle top, BorderStyle bottom, BorderStyle left, BorderStyle right) {
+        return variantesBorda.computeIfAbsent(new VarianteBorda(base.getIndex(), top, bottom, left, right), k -> {
+            CellStyle style = workbook.createCellStyle();
+            style.cloneStyleFrom(base);
+            style.setBorderTop(top);
+            style.setBorderBottom(bottom);
+            style.setBorderLeft(left);
+            style.setBorderRight(right);
+            return style;
+        });
+    }
+}
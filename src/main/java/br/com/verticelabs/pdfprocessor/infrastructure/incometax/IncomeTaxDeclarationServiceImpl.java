@@ -2,6 +2,7 @@ package br.com.verticelabs.pdfprocessor.infrastructure.incometax;
 
 import br.com.verticelabs.pdfprocessor.domain.service.IncomeTaxDeclarationService;
 import br.com.verticelabs.pdfprocessor.domain.service.PdfService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,6 +12,7 @@ import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -233,462 +235,468 @@ public class IncomeTaxDeclarationServiceImpl implements IncomeTaxDeclarationServ
 
         @Override
         public Mono<IncomeTaxInfo> extractIncomeTaxInfo(InputStream inputStream) {
-                log.info("Iniciando extração de informações da declaração de IR");
-
-                // Ler todos os bytes do inputStream primeiro (pois vamos precisar ler múltiplas
-                // vezes)
                 return Mono.fromCallable(() -> {
                         byte[] bytes = inputStream.readAllBytes();
                         inputStream.close();
                         return bytes;
                 })
                                 .subscribeOn(Schedulers.boundedElastic())
-                                .flatMap(bytes -> {
-                                        // Primeiro, encontrar a página RESUMO e extrair informações da primeira página
-                                        return pdfService.getTotalPages(new java.io.ByteArrayInputStream(bytes))
-                                                        .flatMap(totalPages -> {
-                                                                log.info("PDF tem {} páginas. Extraindo informações...",
-                                                                                totalPages);
-
-                                                                // Extrair texto da primeira página (onde geralmente
-                                                                // estão nome, CPF e
-                                                                // exercício)
-                                                                Mono<String> primeiraPaginaText = pdfService
-                                                                                .extractTextFromPage(
-                                                                                                new java.io.ByteArrayInputStream(
-                                                                                                                bytes),
-                                                                                                1);
-
-                                                                // Encontrar página RESUMO
-                                                                Mono<Integer> resumoPageNumber = findResumoPage(bytes,
-                                                                                totalPages);
-
-                                                                return Mono.zip(primeiraPaginaText, resumoPageNumber);
-                                                        })
-                                                        .flatMap(tuple -> {
-                                                                String primeiraPaginaText = tuple.getT1();
-                                                                Integer resumoPageNumber = tuple.getT2();
-
-                                                                log.info("Página RESUMO encontrada: página {}",
-                                                                                resumoPageNumber);
-
-                                                                // Extrair texto da página RESUMO
-                                                                return pdfService.extractTextFromPage(
-                                                                                new java.io.ByteArrayInputStream(bytes),
-                                                                                resumoPageNumber)
-                                                                                .map(resumoPageText -> {
-                                                                                        // DEBUG: Ver TODO o texto da
-                                                                                        // página RESUMO para entender o
-                                                                                        // layout
-                                                                                        if (resumoPageText != null) {
-                                                                                                log.info("🔍 DEBUG - Página RESUMO COMPLETA (raw): [{}]",
-                                                                                                                resumoPageText.replace(
-                                                                                                                                "\n",
-                                                                                                                                "\\n")
-                                                                                                                                .replace("\r", "\\r"));
-                                                                                        }
-
-                                                                                        // Extrair informações
-                                                                                        String nome = extractNome(
-                                                                                                        primeiraPaginaText); // Nome
-                                                                                                                             // geralmente
-                                                                                                                             // está
-                                                                                                                             // na
-                                                                                                                             // primeira
-                                                                                                                             // página
-                                                                                                                             // ou
-                                                                                                                             // cabeçalhos
-                                                                                        if (nome == null)
-                                                                                                nome = extractNome(
-                                                                                                                resumoPageText);
-
-                                                                                        String cpf = extractCpf(
-                                                                                                        primeiraPaginaText);
-                                                                                        if (cpf == null)
-                                                                                                cpf = extractCpf(
-                                                                                                                resumoPageText);
-
-                                                                                        // Tenta extrair Exercício e
-                                                                                        // Ano-Calendário do RESUMO
-                                                                                        // primeiro (onde o usuário
-                                                                                        // indicou), depois da 1ª pág
-                                                                                        String exercicio = extractExercicio(
-                                                                                                        resumoPageText);
-                                                                                        if (exercicio == null) {
-                                                                                                exercicio = extractExercicio(
-                                                                                                                primeiraPaginaText);
-                                                                                        }
-
-                                                                                        String anoCalendario = extractAnoCalendario(
-                                                                                                        resumoPageText);
-                                                                                        if (anoCalendario == null) {
-                                                                                                anoCalendario = extractAnoCalendario(
-                                                                                                                primeiraPaginaText);
-                                                                                        }
-
-                                                                                        // Extrair todos os valores da
-                                                                                        // seção IMPOSTO DEVIDO
-                                                                                        BigDecimal baseCalculoImposto = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        BASE_CALCULO_IMPOSTO_PATTERN);
-
-                                                                                        // DEBUG: Mostrar parte
-                                                                                        // relevante do texto para
-                                                                                        // diagnóstico
-                                                                                        int idxImposto = resumoPageText
-                                                                                                        .toUpperCase()
-                                                                                                        .indexOf("IMPOSTO DEVIDO");
-                                                                                        if (idxImposto >= 0) {
-                                                                                                int endIdx = Math.min(
-                                                                                                                idxImposto + 300,
-                                                                                                                resumoPageText.length());
-                                                                                                log.info("🔍 DEBUG - Texto 'IMPOSTO DEVIDO': [{}]",
-                                                                                                                resumoPageText.substring(
-                                                                                                                                idxImposto,
-                                                                                                                                endIdx)
-                                                                                                                                .replace("\n", "\\n")
-                                                                                                                                .replace("\r", "\\r"));
-                                                                                        }
-
-                                                                                        // Extrair "Imposto devido" com
-                                                                                        // estratégia alternativa se
-                                                                                        // necessário
-                                                                                        BigDecimal impostoDevido = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_DEVIDO_PATTERN);
-                                                                                        if (impostoDevido == null
-                                                                                                        || impostoDevido.compareTo(
-                                                                                                                        BigDecimal.ZERO) == 0) {
-                                                                                                // Tentar estratégia
-                                                                                                // alternativa: buscar
-                                                                                                // todas as ocorrências
-                                                                                                // e pegar a
-                                                                                                // primeira que não seja
-                                                                                                // I, II ou RRA
-                                                                                                impostoDevido = extractImpostoDevidoAlternativo(
-                                                                                                                resumoPageText);
-                                                                                        }
-
-                                                                                        BigDecimal deducaoIncentivo = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCAO_INCENTIVO_PATTERN);
-                                                                                        BigDecimal impostoDevidoI = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_DEVIDO_I_PATTERN);
-                                                                                        BigDecimal contribuicaoPrevEmpregadorDomestico = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        CONTRIBUICAO_PREV_EMPREGADOR_DOMESTICO_PATTERN);
-                                                                                        BigDecimal impostoDevidoII = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_DEVIDO_II_PATTERN);
-                                                                                        BigDecimal impostoDevidoRRA = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_DEVIDO_RRA_PATTERN);
-                                                                                        BigDecimal totalImpostoDevido = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        TOTAL_IMPOSTO_DEVIDO_PATTERN);
-                                                                                        BigDecimal saldoImpostoPagar = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        SALDO_IMPOSTO_PAGAR_PATTERN);
-
-                                                                                        // Estratégia alternativa para
-                                                                                        // "Saldo de imposto a pagar" se
-                                                                                        // o padrão
-                                                                                        // principal falhar
-                                                                                        // (PDF pode ter duas colunas:
-                                                                                        // label na primeira, valor na
-                                                                                        // segunda)
-                                                                                        if (saldoImpostoPagar == null) {
-                                                                                                saldoImpostoPagar = extractSaldoImpostoPagarAlternativo(
-                                                                                                                resumoPageText);
-                                                                                        }
-
-                                                                                        // FALLBACK: Se "Imposto devido"
-                                                                                        // não foi extraído corretamente
-                                                                                        // (devido ao PDF ter duas
-                                                                                        // colunas misturadas na
-                                                                                        // extração),
-                                                                                        // usar "Total do imposto
-                                                                                        // devido" que tem o mesmo valor
-                                                                                        if ((impostoDevido == null
-                                                                                                        || impostoDevido.compareTo(
-                                                                                                                        BigDecimal.ZERO) == 0)
-                                                                                                        && totalImpostoDevido != null
-                                                                                                        && totalImpostoDevido
-                                                                                                                        .compareTo(BigDecimal.ZERO) > 0) {
-                                                                                                log.info(
-                                                                                                                "⚠️ Usando 'Total do imposto devido' como fallback para 'Imposto devido': {}",
-                                                                                                                totalImpostoDevido);
-                                                                                                impostoDevido = totalImpostoDevido;
-                                                                                        }
-
-                                                                                        // Novos campos
-                                                                                        BigDecimal rendimentosTributaveis = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        RENDIMENTOS_TRIBUTAVEIS_TOTAL_PATTERN);
-                                                                                        BigDecimal deducoes = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_TOTAL_PATTERN);
-                                                                                        BigDecimal impostoRetidoFonteTitular = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_RETIDO_FONTE_TITULAR_PATTERN);
-                                                                                        BigDecimal impostoPagoTotal = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_PAGO_TOTAL_PATTERN);
-                                                                                        BigDecimal impostoRestituir = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_RESTITUIR_PATTERN);
-
-                                                                                        // Campos individuais de
-                                                                                        // DEDUÇÕES
-                                                                                        BigDecimal deducoesContribPrevOficial = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_CONTRIB_PREV_OFICIAL_PATTERN);
-                                                                                        BigDecimal deducoesContribPrevRRA = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_CONTRIB_PREV_RRA_PATTERN);
-                                                                                        BigDecimal deducoesContribPrevCompl = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_CONTRIB_PREV_COMPL_PATTERN);
-                                                                                        BigDecimal deducoesDependentes = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_DEPENDENTES_PATTERN);
-                                                                                        BigDecimal deducoesInstrucao = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_INSTRUCAO_PATTERN);
-                                                                                        BigDecimal deducoesMedicas = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_MEDICAS_PATTERN);
-                                                                                        BigDecimal deducoesPensaoJudicial = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_PENSAO_JUDICIAL_PATTERN);
-                                                                                        BigDecimal deducoesPensaoEscritura = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_PENSAO_ESCRITURA_PATTERN);
-                                                                                        BigDecimal deducoesPensaoRRA = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_PENSAO_RRA_PATTERN);
-                                                                                        BigDecimal deducoesLivroCaixa = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DEDUCOES_LIVRO_CAIXA_PATTERN);
-
-                                                                                        // FALLBACK: Extração posicional
-                                                                                        // para PDFs 2016/2017 com
-                                                                                        // layout duas colunas
-                                                                                        // Usa quando pelo menos 3
-                                                                                        // campos de deduções estão null
-                                                                                        int camposNulls = 0;
+                                .flatMap(bytes -> extractIncomeTaxInfo(pdfService.openSession(bytes)));
+        }
+
+        /**
+         * Lê o PDF direto do arquivo, sem carregá-lo inteiro no heap.
+         */
+        @Override
+        public Mono<IncomeTaxInfo> extractIncomeTaxInfo(Path pdfFile) {
+                return extractIncomeTaxInfo(pdfService.openSession(pdfFile));
+        }
+
+        private Mono<IncomeTaxInfo> extractIncomeTaxInfo(Mono<PdfSession> openSession) {
+                log.info("Iniciando extração de informações da declaração de IR");
+
+                // Primeiro, encontrar a página RESUMO e extrair informações da primeira página
+                // Uma única sessão do PDF para todas as páginas consultadas
+                return Mono.usingWhen(openSession,
+                                        session -> Mono.just(session.getTotalPages())
+                                        .flatMap(totalPages -> {
+                                                log.info("PDF tem {} páginas. Extraindo informações...",
+                                                                totalPages);
+
+                                                // Extrair texto da primeira página (onde geralmente
+                                                // estão nome, CPF e
+                                                // exercício)
+                                                Mono<String> primeiraPaginaText = session
+                                                                .extractTextFromPage(1);
+
+                                                // Encontrar página RESUMO
+                                                Mono<Integer> resumoPageNumber = findResumoPage(session,
+                                                                totalPages);
+
+                                                return Mono.zip(primeiraPaginaText, resumoPageNumber);
+                                        })
+                                        .flatMap(tuple -> {
+                                                String primeiraPaginaText = tuple.getT1();
+                                                Integer resumoPageNumber = tuple.getT2();
+
+                                                log.info("Página RESUMO encontrada: página {}",
+                                                                resumoPageNumber);
+
+                                                // Extrair texto da página RESUMO
+                                                return session.extractTextFromPage(
+                                                                resumoPageNumber)
+                                                                .map(resumoPageText -> {
+                                                                        // DEBUG: Ver TODO o texto da
+                                                                        // página RESUMO para entender o
+                                                                        // layout
+                                                                        if (resumoPageText != null) {
+                                                                                log.info("🔍 DEBUG - Página RESUMO COMPLETA (raw): [{}]",
+                                                                                                resumoPageText.replace(
+                                                                                                                "\n",
+                                                                                                                "\\n")
+                                                                                                                .replace("\r", "\\r"));
+                                                                        }
+
+                                                                        // Extrair informações
+                                                                        String nome = extractNome(
+                                                                                        primeiraPaginaText); // Nome
+                                                                                                             // geralmente
+                                                                                                             // está
+                                                                                                             // na
+                                                                                                             // primeira
+                                                                                                             // página
+                                                                                                             // ou
+                                                                                                             // cabeçalhos
+                                                                        if (nome == null)
+                                                                                nome = extractNome(
+                                                                                                resumoPageText);
+
+                                                                        String cpf = extractCpf(
+                                                                                        primeiraPaginaText);
+                                                                        if (cpf == null)
+                                                                                cpf = extractCpf(
+                                                                                                resumoPageText);
+
+                                                                        // Tenta extrair Exercício e
+                                                                        // Ano-Calendário do RESUMO
+                                                                        // primeiro (onde o usuário
+                                                                        // indicou), depois da 1ª pág
+                                                                        String exercicio = extractExercicio(
+                                                                                        resumoPageText);
+                                                                        if (exercicio == null) {
+                                                                                exercicio = extractExercicio(
+                                                                                                primeiraPaginaText);
+                                                                        }
+
+                                                                        String anoCalendario = extractAnoCalendario(
+                                                                                        resumoPageText);
+                                                                        if (anoCalendario == null) {
+                                                                                anoCalendario = extractAnoCalendario(
+                                                                                                primeiraPaginaText);
+                                                                        }
+
+                                                                        // Extrair todos os valores da
+                                                                        // seção IMPOSTO DEVIDO
+                                                                        BigDecimal baseCalculoImposto = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        BASE_CALCULO_IMPOSTO_PATTERN);
+
+                                                                        // DEBUG: Mostrar parte
+                                                                        // relevante do texto para
+                                                                        // diagnóstico
+                                                                        int idxImposto = resumoPageText
+                                                                                        .toUpperCase()
+                                                                                        .indexOf("IMPOSTO DEVIDO");
+                                                                        if (idxImposto >= 0) {
+                                                                                int endIdx = Math.min(
+                                                                                                idxImposto + 300,
+                                                                                                resumoPageText.length());
+                                                                                log.info("🔍 DEBUG - Texto 'IMPOSTO DEVIDO': [{}]",
+                                                                                                resumoPageText.substring(
+                                                                                                                idxImposto,
+                                                                                                                endIdx)
+                                                                                                                .replace("\n", "\\n")
+                                                                                                                .replace("\r", "\\r"));
+                                                                        }
+
+                                                                        // Extrair "Imposto devido" com
+                                                                        // estratégia alternativa se
+                                                                        // necessário
+                                                                        BigDecimal impostoDevido = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_DEVIDO_PATTERN);
+                                                                        if (impostoDevido == null
+                                                                                        || impostoDevido.compareTo(
+                                                                                                        BigDecimal.ZERO) == 0) {
+                                                                                // Tentar estratégia
+                                                                                // alternativa: buscar
+                                                                                // todas as ocorrências
+                                                                                // e pegar a
+                                                                                // primeira que não seja
+                                                                                // I, II ou RRA
+                                                                                impostoDevido = extractImpostoDevidoAlternativo(
+                                                                                                resumoPageText);
+                                                                        }
+
+                                                                        BigDecimal deducaoIncentivo = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCAO_INCENTIVO_PATTERN);
+                                                                        BigDecimal impostoDevidoI = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_DEVIDO_I_PATTERN);
+                                                                        BigDecimal contribuicaoPrevEmpregadorDomestico = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        CONTRIBUICAO_PREV_EMPREGADOR_DOMESTICO_PATTERN);
+                                                                        BigDecimal impostoDevidoII = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_DEVIDO_II_PATTERN);
+                                                                        BigDecimal impostoDevidoRRA = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_DEVIDO_RRA_PATTERN);
+                                                                        BigDecimal totalImpostoDevido = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        TOTAL_IMPOSTO_DEVIDO_PATTERN);
+                                                                        BigDecimal saldoImpostoPagar = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        SALDO_IMPOSTO_PAGAR_PATTERN);
+
+                                                                        // Estratégia alternativa para
+                                                                        // "Saldo de imposto a pagar" se
+                                                                        // o padrão
+                                                                        // principal falhar
+                                                                        // (PDF pode ter duas colunas:
+                                                                        // label na primeira, valor na
+                                                                        // segunda)
+                                                                        if (saldoImpostoPagar == null) {
+                                                                                saldoImpostoPagar = extractSaldoImpostoPagarAlternativo(
+                                                                                                resumoPageText);
+                                                                        }
+
+                                                                        // FALLBACK: Se "Imposto devido"
+                                                                        // não foi extraído corretamente
+                                                                        // (devido ao PDF ter duas
+                                                                        // colunas misturadas na
+                                                                        // extração),
+                                                                        // usar "Total do imposto
+                                                                        // devido" que tem o mesmo valor
+                                                                        if ((impostoDevido == null
+                                                                                        || impostoDevido.compareTo(
+                                                                                                        BigDecimal.ZERO) == 0)
+                                                                                        && totalImpostoDevido != null
+                                                                                        && totalImpostoDevido
+                                                                                                        .compareTo(BigDecimal.ZERO) > 0) {
+                                                                                log.info(
+                                                                                                "⚠️ Usando 'Total do imposto devido' como fallback para 'Imposto devido': {}",
+                                                                                                totalImpostoDevido);
+                                                                                impostoDevido = totalImpostoDevido;
+                                                                        }
+
+                                                                        // Novos campos
+                                                                        BigDecimal rendimentosTributaveis = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        RENDIMENTOS_TRIBUTAVEIS_TOTAL_PATTERN);
+                                                                        BigDecimal deducoes = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_TOTAL_PATTERN);
+                                                                        BigDecimal impostoRetidoFonteTitular = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_RETIDO_FONTE_TITULAR_PATTERN);
+                                                                        BigDecimal impostoPagoTotal = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_PAGO_TOTAL_PATTERN);
+                                                                        BigDecimal impostoRestituir = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_RESTITUIR_PATTERN);
+
+                                                                        // Campos individuais de
+                                                                        // DEDUÇÕES
+                                                                        BigDecimal deducoesContribPrevOficial = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_CONTRIB_PREV_OFICIAL_PATTERN);
+                                                                        BigDecimal deducoesContribPrevRRA = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_CONTRIB_PREV_RRA_PATTERN);
+                                                                        BigDecimal deducoesContribPrevCompl = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_CONTRIB_PREV_COMPL_PATTERN);
+                                                                        BigDecimal deducoesDependentes = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_DEPENDENTES_PATTERN);
+                                                                        BigDecimal deducoesInstrucao = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_INSTRUCAO_PATTERN);
+                                                                        BigDecimal deducoesMedicas = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_MEDICAS_PATTERN);
+                                                                        BigDecimal deducoesPensaoJudicial = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_PENSAO_JUDICIAL_PATTERN);
+                                                                        BigDecimal deducoesPensaoEscritura = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_PENSAO_ESCRITURA_PATTERN);
+                                                                        BigDecimal deducoesPensaoRRA = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_PENSAO_RRA_PATTERN);
+                                                                        BigDecimal deducoesLivroCaixa = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DEDUCOES_LIVRO_CAIXA_PATTERN);
+
+                                                                        // FALLBACK: Extração posicional
+                                                                        // para PDFs 2016/2017 com
+                                                                        // layout duas colunas
+                                                                        // Usa quando pelo menos 3
+                                                                        // campos de deduções estão null
+                                                                        int camposNulls = 0;
+                                                                        if (deducoesContribPrevOficial == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesContribPrevCompl == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesDependentes == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesInstrucao == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesMedicas == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesPensaoJudicial == null)
+                                                                                camposNulls++;
+                                                                        if (deducoesLivroCaixa == null)
+                                                                                camposNulls++;
+
+                                                                        if (camposNulls >= 3) {
+                                                                                log.info("🔄 Muitos campos de DEDUÇÕES null ({}). Tentando extração posicional...",
+                                                                                                camposNulls);
+                                                                                DeducoesPositionais deducoesPos = extractDeducoesPositional(
+                                                                                                resumoPageText);
+                                                                                if (deducoesPos != null) {
+                                                                                        log.info("✅ Usando valores da extração posicional de DEDUÇÕES");
                                                                                         if (deducoesContribPrevOficial == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesContribPrevOficial = deducoesPos
+                                                                                                                .getContribPrevOficial();
                                                                                         if (deducoesContribPrevCompl == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesContribPrevCompl = deducoesPos
+                                                                                                                .getContribPrevCompl();
                                                                                         if (deducoesDependentes == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesDependentes = deducoesPos
+                                                                                                                .getDependentes();
                                                                                         if (deducoesInstrucao == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesInstrucao = deducoesPos
+                                                                                                                .getInstrucao();
                                                                                         if (deducoesMedicas == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesMedicas = deducoesPos
+                                                                                                                .getMedicas();
                                                                                         if (deducoesPensaoJudicial == null)
-                                                                                                camposNulls++;
+                                                                                                deducoesPensaoJudicial = deducoesPos
+                                                                                                                .getPensaoJudicial();
                                                                                         if (deducoesLivroCaixa == null)
-                                                                                                camposNulls++;
-
-                                                                                        if (camposNulls >= 3) {
-                                                                                                log.info("🔄 Muitos campos de DEDUÇÕES null ({}). Tentando extração posicional...",
-                                                                                                                camposNulls);
-                                                                                                DeducoesPositionais deducoesPos = extractDeducoesPositional(
-                                                                                                                resumoPageText);
-                                                                                                if (deducoesPos != null) {
-                                                                                                        log.info("✅ Usando valores da extração posicional de DEDUÇÕES");
-                                                                                                        if (deducoesContribPrevOficial == null)
-                                                                                                                deducoesContribPrevOficial = deducoesPos
-                                                                                                                                .getContribPrevOficial();
-                                                                                                        if (deducoesContribPrevCompl == null)
-                                                                                                                deducoesContribPrevCompl = deducoesPos
-                                                                                                                                .getContribPrevCompl();
-                                                                                                        if (deducoesDependentes == null)
-                                                                                                                deducoesDependentes = deducoesPos
-                                                                                                                                .getDependentes();
-                                                                                                        if (deducoesInstrucao == null)
-                                                                                                                deducoesInstrucao = deducoesPos
-                                                                                                                                .getInstrucao();
-                                                                                                        if (deducoesMedicas == null)
-                                                                                                                deducoesMedicas = deducoesPos
-                                                                                                                                .getMedicas();
-                                                                                                        if (deducoesPensaoJudicial == null)
-                                                                                                                deducoesPensaoJudicial = deducoesPos
-                                                                                                                                .getPensaoJudicial();
-                                                                                                        if (deducoesLivroCaixa == null)
-                                                                                                                deducoesLivroCaixa = deducoesPos
-                                                                                                                                .getLivroCaixa();
-                                                                                                        if (deducoes == null
-                                                                                                                        && deducoesPos.getTotal() != null)
-                                                                                                                deducoes = deducoesPos
-                                                                                                                                .getTotal();
-                                                                                                }
-                                                                                        }
-
-                                                                                        // Campos individuais de IMPOSTO
-                                                                                        // PAGO
-                                                                                        BigDecimal impostoRetidoFonteDependentes = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_RETIDO_FONTE_DEPENDENTES_PATTERN);
-                                                                                        BigDecimal carneLeaoTitular = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        CARNE_LEAO_TITULAR_PATTERN);
-                                                                                        BigDecimal carneLeaoDependentes = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        CARNE_LEAO_DEPENDENTES_PATTERN);
-                                                                                        BigDecimal impostoComplementar = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_COMPLEMENTAR_PATTERN);
-                                                                                        BigDecimal impostoPagoExterior = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_PAGO_EXTERIOR_PATTERN);
-                                                                                        BigDecimal impostoRetidoFonteLei11033 = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_RETIDO_FONTE_LEI_11033_PATTERN);
-                                                                                        BigDecimal impostoRetidoRRA = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        IMPOSTO_RETIDO_RRA_PATTERN);
-
-                                                                                        // Campos exclusivos 2017+
-                                                                                        // (Desconto Simplificado)
-                                                                                        BigDecimal descontoSimplificado = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        DESCONTO_SIMPLIFICADO_PATTERN);
-                                                                                        BigDecimal aliquotaEfetiva = extractValorMonetario(
-                                                                                                        resumoPageText,
-                                                                                                        ALIQUOTA_EFETIVA_PATTERN);
-
-                                                                                        log.info(
-                                                                                                        "Informações extraídas - Nome: {}, CPF: {}, Exercício: {}, Ano-Calendário: {}",
-                                                                                                        nome, cpf,
-                                                                                                        exercicio,
-                                                                                                        anoCalendario);
-                                                                                        log.info(
-                                                                                                        "Valores IMPOSTO DEVIDO - Base: {}, Devido: {}, Dedução: {}, Devido I: {}, Contribuição: {}, Devido II: {}, RRA: {}, Total: {}, Saldo a Pagar: {}",
-                                                                                                        baseCalculoImposto,
-                                                                                                        impostoDevido,
-                                                                                                        deducaoIncentivo,
-                                                                                                        impostoDevidoI,
-                                                                                                        contribuicaoPrevEmpregadorDomestico,
-                                                                                                        impostoDevidoII,
-                                                                                                        impostoDevidoRRA,
-                                                                                                        totalImpostoDevido,
-                                                                                                        saldoImpostoPagar);
-
-                                                                                        log.info(
-                                                                                                        "Novos Campos - Rendimentos: {}, Deduções: {}, I.Retido Titular: {}, I. Pago Total: {}, A Restituir: {}",
-                                                                                                        rendimentosTributaveis,
-                                                                                                        deducoes,
-                                                                                                        impostoRetidoFonteTitular,
-                                                                                                        impostoPagoTotal,
-                                                                                                        impostoRestituir);
-
-                                                                                        log.info(
-                                                                                                        "Campos DEDUÇÕES - ContribPrev: {}, ContribPrevRRA: {}, ContribPrevCompl: {}, Depend: {}, Instrução: {}, Médicas: {}, PensãoJud: {}, PensãoEsc: {}, PensãoRRA: {}, LivroCaixa: {}",
-                                                                                                        deducoesContribPrevOficial,
-                                                                                                        deducoesContribPrevRRA,
-                                                                                                        deducoesContribPrevCompl,
-                                                                                                        deducoesDependentes,
-                                                                                                        deducoesInstrucao,
-                                                                                                        deducoesMedicas,
-                                                                                                        deducoesPensaoJudicial,
-                                                                                                        deducoesPensaoEscritura,
-                                                                                                        deducoesPensaoRRA,
-                                                                                                        deducoesLivroCaixa);
-
-                                                                                        log.info(
-                                                                                                        "Campos IMPOSTO PAGO - RetidoDep: {}, CarneLeaoTit: {}, CarneLeaoDep: {}, Compl: {}, Exterior: {}, Lei11033: {}, RRA: {}",
-                                                                                                        impostoRetidoFonteDependentes,
-                                                                                                        carneLeaoTitular,
-                                                                                                        carneLeaoDependentes,
-                                                                                                        impostoComplementar,
-                                                                                                        impostoPagoExterior,
-                                                                                                        impostoRetidoFonteLei11033,
-                                                                                                        impostoRetidoRRA);
-
-                                                                                        log.info(
-                                                                                                        "Campos 2017+ - Desconto Simplificado: {}, Alíquota Efetiva: {}",
-                                                                                                        descontoSimplificado,
-                                                                                                        aliquotaEfetiva);
-
-                                                                                        return new IncomeTaxInfo(nome,
-                                                                                                        cpf,
-                                                                                                        anoCalendario,
-                                                                                                        exercicio,
-                                                                                                        baseCalculoImposto,
-                                                                                                        impostoDevido,
-                                                                                                        deducaoIncentivo,
-                                                                                                        impostoDevidoI,
-                                                                                                        contribuicaoPrevEmpregadorDomestico,
-                                                                                                        impostoDevidoII,
-                                                                                                        impostoDevidoRRA,
-                                                                                                        totalImpostoDevido,
-                                                                                                        saldoImpostoPagar,
-                                                                                                        rendimentosTributaveis,
-                                                                                                        deducoes,
-                                                                                                        impostoRetidoFonteTitular,
-                                                                                                        impostoPagoTotal,
-                                                                                                        impostoRestituir,
-                                                                                                        // Campos DEDUÇÕES
-                                                                                                        deducoesContribPrevOficial,
-                                                                                                        deducoesContribPrevRRA,
-                                                                                                        deducoesContribPrevCompl,
-                                                                                                        deducoesDependentes,
-                                                                                                        deducoesInstrucao,
-                                                                                                        deducoesMedicas,
-                                                                                                        deducoesPensaoJudicial,
-                                                                                                        deducoesPensaoEscritura,
-                                                                                                        deducoesPensaoRRA,
-                                                                                                        deducoesLivroCaixa,
-                                                                                                        // Campos IMPOSTO PAGO
-                                                                                                        impostoRetidoFonteDependentes,
-                                                                                                        carneLeaoTitular,
-                                                                                                        carneLeaoDependentes,
-                                                                                                        impostoComplementar,
-                                                                                                        impostoPagoExterior,
-                                                                                                        impostoRetidoFonteLei11033,
-                                                                                                        impostoRetidoRRA,
-                                                                                                        // Campos 2017+
-                                                                                                        descontoSimplificado,
-                                                                                                        aliquotaEfetiva,
-                                                                                                        // Identificação/evolução/outras (não impl na legada)
-                                                                                                        null, null, null, null, null,
-                                                                                                        null, null, null, null,
-                                                                                                        null, null,
-                                                                                                        java.util.Collections.emptyList(),
-                                                                                                        java.util.Collections.emptyList(),
-                                                                                                        null,
-                                                                                                        java.util.Collections.emptyList(),
-                                                                                                        null,
-                                                                                                        java.util.Collections.emptyList(),
-                                                                                                        // Linhas individuais rendimentos (não impl na legada)
-                                                                                                        null, null, null, null, null, null, null,
-                                                                                                        // Outras informações (não impl na legada)
-                                                                                                        null, null, null, null, null, null, null, null, null, null, null,
-                                                                                                        // Doações efetuadas
-                                                                                                        java.util.Collections.emptyList());
-                                                                                });
-                                                        })
-                                                        .onErrorResume(e -> {
-                                                                log.error("Erro ao extrair informações da declaração de IR",
-                                                                                e);
-                                                                return Mono.error(e);
-                                                        });
-                                });
+                                                                                                deducoesLivroCaixa = deducoesPos
+                                                                                                                .getLivroCaixa();
+                                                                                        if (deducoes == null
+                                                                                                        && deducoesPos.getTotal() != null)
+                                                                                                deducoes = deducoesPos
+                                                                                                                .getTotal();
+                                                                                }
+                                                                        }
+
+                                                                        // Campos individuais de IMPOSTO
+                                                                        // PAGO
+                                                                        BigDecimal impostoRetidoFonteDependentes = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_RETIDO_FONTE_DEPENDENTES_PATTERN);
+                                                                        BigDecimal carneLeaoTitular = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        CARNE_LEAO_TITULAR_PATTERN);
+                                                                        BigDecimal carneLeaoDependentes = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        CARNE_LEAO_DEPENDENTES_PATTERN);
+                                                                        BigDecimal impostoComplementar = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_COMPLEMENTAR_PATTERN);
+                                                                        BigDecimal impostoPagoExterior = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_PAGO_EXTERIOR_PATTERN);
+                                                                        BigDecimal impostoRetidoFonteLei11033 = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_RETIDO_FONTE_LEI_11033_PATTERN);
+                                                                        BigDecimal impostoRetidoRRA = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        IMPOSTO_RETIDO_RRA_PATTERN);
+
+                                                                        // Campos exclusivos 2017+
+                                                                        // (Desconto Simplificado)
+                                                                        BigDecimal descontoSimplificado = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        DESCONTO_SIMPLIFICADO_PATTERN);
+                                                                        BigDecimal aliquotaEfetiva = extractValorMonetario(
+                                                                                        resumoPageText,
+                                                                                        ALIQUOTA_EFETIVA_PATTERN);
+
+                                                                        log.info(
+                                                                                        "Informações extraídas - Nome: {}, CPF: {}, Exercício: {}, Ano-Calendário: {}",
+                                                                                        nome, cpf,
+                                                                                        exercicio,
+                                                                                        anoCalendario);
+                                                                        log.info(
+                                                                                        "Valores IMPOSTO DEVIDO - Base: {}, Devido: {}, Dedução: {}, Devido I: {}, Contribuição: {}, Devido II: {}, RRA: {}, Total: {}, Saldo a Pagar: {}",
+                                                                                        baseCalculoImposto,
+                                                                                        impostoDevido,
+                                                                                        deducaoIncentivo,
+                                                                                        impostoDevidoI,
+                                                                                        contribuicaoPrevEmpregadorDomestico,
+                                                                                        impostoDevidoII,
+                                                                                        impostoDevidoRRA,
+                                                                                        totalImpostoDevido,
+                                                                                        saldoImpostoPagar);
+
+                                                                        log.info(
+                                                                                        "Novos Campos - Rendimentos: {}, Deduções: {}, I.Retido Titular: {}, I. Pago Total: {}, A Restituir: {}",
+                                                                                        rendimentosTributaveis,
+                                                                                        deducoes,
+                                                                                        impostoRetidoFonteTitular,
+                                                                                        impostoPagoTotal,
+                                                                                        impostoRestituir);
+
+                                                                        log.info(
+                                                                                        "Campos DEDUÇÕES - ContribPrev: {}, ContribPrevRRA: {}, ContribPrevCompl: {}, Depend: {}, Instrução: {}, Médicas: {}, PensãoJud: {}, PensãoEsc: {}, PensãoRRA: {}, LivroCaixa: {}",
+                                                                                        deducoesContribPrevOficial,
+                                                                                        deducoesContribPrevRRA,
+                                                                                        deducoesContribPrevCompl,
+                                                                                        deducoesDependentes,
+                                                                                        deducoesInstrucao,
+                                                                                        deducoesMedicas,
+                                                                                        deducoesPensaoJudicial,
+                                                                                        deducoesPensaoEscritura,
+                                                                                        deducoesPensaoRRA,
+                                                                                        deducoesLivroCaixa);
+
+                                                                        log.info(
+                                                                                        "Campos IMPOSTO PAGO - RetidoDep: {}, CarneLeaoTit: {}, CarneLeaoDep: {}, Compl: {}, Exterior: {}, Lei11033: {}, RRA: {}",
+                                                                                        impostoRetidoFonteDependentes,
+                                                                                        carneLeaoTitular,
+                                                                                        carneLeaoDependentes,
+                                                                                        impostoComplementar,
+                                                                                        impostoPagoExterior,
+                                                                                        impostoRetidoFonteLei11033,
+                                                                                        impostoRetidoRRA);
+
+                                                                        log.info(
+                                                                                        "Campos 2017+ - Desconto Simplificado: {}, Alíquota Efetiva: {}",
+                                                                                        descontoSimplificado,
+                                                                                        aliquotaEfetiva);
+
+                                                                        return new IncomeTaxInfo(nome,
+                                                                                        cpf,
+                                                                                        anoCalendario,
+                                                                                        exercicio,
+                                                                                        baseCalculoImposto,
+                                                                                        impostoDevido,
+                                                                                        deducaoIncentivo,
+                                                                                        impostoDevidoI,
+                                                                                        contribuicaoPrevEmpregadorDomestico,
+                                                                                        impostoDevidoII,
+                                                                                        impostoDevidoRRA,
+                                                                                        totalImpostoDevido,
+                                                                                        saldoImpostoPagar,
+                                                                                        rendimentosTributaveis,
+                                                                                        deducoes,
+                                                                                        impostoRetidoFonteTitular,
+                                                                                        impostoPagoTotal,
+                                                                                        impostoRestituir,
+                                                                                        // Campos DEDUÇÕES
+                                                                                        deducoesContribPrevOficial,
+                                                                                        deducoesContribPrevRRA,
+                                                                                        deducoesContribPrevCompl,
+                                                                                        deducoesDependentes,
+                                                                                        deducoesInstrucao,
+                                                                                        deducoesMedicas,
+                                                                                        deducoesPensaoJudicial,
+                                                                                        deducoesPensaoEscritura,
+                                                                                        deducoesPensaoRRA,
+                                                                                        deducoesLivroCaixa,
+                                                                                        // Campos IMPOSTO PAGO
+                                                                                        impostoRetidoFonteDependentes,
+                                                                                        carneLeaoTitular,
+                                                                                        carneLeaoDependentes,
+                                                                                        impostoComplementar,
+                                                                                        impostoPagoExterior,
+                                                                                        impostoRetidoFonteLei11033,
+                                                                                        impostoRetidoRRA,
+                                                                                        // Campos 2017+
+                                                                                        descontoSimplificado,
+                                                                                        aliquotaEfetiva,
+                                                                                        // Identificação/evolução/outras (não impl na legada)
+                                                                                        null, null, null, null, null,
+                                                                                        null, null, null, null,
+                                                                                        null, null,
+                                                                                        java.util.Collections.emptyList(),
+                                                                                        java.util.Collections.emptyList(),
+                                                                                        null,
+                                                                                        java.util.Collections.emptyList(),
+                                                                                        null,
+                                                                                        java.util.Collections.emptyList(),
+                                                                                        // Linhas individuais rendimentos (não impl na legada)
+                                                                                        null, null, null, null, null, null, null,
+                                                                                        // Outras informações (não impl na legada)
+                                                                                        null, null, null, null, null, null, null, null, null, null, null,
+                                                                                        // Doações efetuadas
+                                                                                        java.util.Collections.emptyList());
+                                                                });
+                                        })
+                                        .onErrorResume(e -> {
+                                                log.error("Erro ao extrair informações da declaração de IR",
+                                                                e);
+                                                return Mono.error(e);
+                                        }),
+                                        session -> Mono.fromRunnable(session::close));
         }
 
         /**
          * Encontra o número da página que contém "RESUMO".
          */
-        private Mono<Integer> findResumoPage(byte[] pdfBytes, int totalPages) {
+        private Mono<Integer> findResumoPage(PdfSession session, int totalPages) {
                 // Processar páginas sequencialmente até encontrar "RESUMO"
                 return Flux.range(1, totalPages)
                                 .concatMap(pageNumber -> {
-                                        return pdfService.extractTextFromPage(
-                                                        new java.io.ByteArrayInputStream(pdfBytes), pageNumber)
+                                        return session.extractTextFromPage(pageNumber)
                                                         .flatMap(pageText -> {
                                                                 if (pageText != null && pageText.toUpperCase()
                                                                                 .contains("RESUMO")) {
@@ -0,0 +1,163 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.metrics;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do pipeline de extração (texto por página, parser regex, Gemini, validação de
+ * rubricas, cache de extração e gravação de entries). Centraliza nomes e tags para que o dashboard
+ * {@code grafana-dashboard-extraction} (k8s/monitoring/grafana.yaml) continue válido.
+ *
+ * Todos os timers publicam histograma de percentis (exposto em {@code /actuator/prometheus}).
+ */
+@Component
+public class ExtractionMetrics {
+
+    public static final String PAGE_TEXT_EXTRACTION = "pdf.page.text.extraction";
+    public static final String REGEX_PARSE = "pdf.parser.regex";
+    public static final String GEMINI_REQUESTS = "gemini.requests";
+    public static final String RUBRICA_VALIDATION = "rubrica.validation";
+    public static final String ENTRIES_SAVE = "entries.save";
+    public static final String EXTRACTION_FALLBACK = "extraction.fallback";
+    public static final String DOCUMENT_PAGES = "pdf.document.pages";
+    public static final String EXTRACTION_CACHE = "extraction.cache";
+
+    /**
+     * Motivo do desvio do parser regex para o Gemini.
+     */
+    public enum FallbackReason {
+        TEXT_UNREADABLE("text_unreadable"),
+        ZERO_RUBRICAS("zero_rubricas"),
+        VALIDATION_FAILED("validation_failed");
+
+        private final String tag;
+
+        FallbackReason(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Timer pageTextTimer;
+    private final Map<FallbackReason, Counter> fallbackCounters = new EnumMap<>(FallbackReason.class);
+
+    public ExtractionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.pageTextTimer = Timer.builder(PAGE_TEXT_EXTRACTION)
+                .description("Extração de texto de uma página via PDFBox")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (FallbackReason reason : FallbackReason.values()) {
+            fallbackCounters.put(reason, Counter.builder(EXTRACTION_FALLBACK)
+                    .description("Páginas desviadas do parser regex para o Gemini")
+                    .tag("reason", reason.tag)
+                    .register(registry));
+        }
+    }
+
+    public <T> Mono<T> timePageTextExtraction(Mono<T> source) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return source.doFinally(signal -> sample.stop(pageTextTimer));
+        });
+    }
+
+    public <T> T timeRegexParse(DocumentType layout, Supplier<T> parse) {
+        return Timer.builder(REGEX_PARSE)
+                .description("Parser regex das linhas de uma página")
+                .tag("layout", layout != null ? layout.name() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(parse);
+    }
+
+    /**
+     * Mede uma chamada ao Gemini por modelo, com {@code outcome} success/error.
+     *
+     * @param mode {@code single} (uma página) ou {@code multi} (várias páginas na mesma request)
+     */
+    public <T> Mono<T> timeGeminiCall(String model, String mode, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call
+                    .doOnSuccess(result -> sample.stop(geminiTimer(model, mode, "success")))
+                    .doOnError(error -> sample.stop(geminiTimer(model, mode, "error")));
+        });
+    }
+
+    /**
+     * Mede a validação de uma rubrica ({@code outcome} found/not_found).
+     */
+    public <T> Mono<T> timeRubricaValidation(Mono<T> validation) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            AtomicBoolean found = new AtomicBoolean();
+            return validation
+                    .doOnNext(value -> found.set(true))
+                    .doFinally(signal -> sample.stop(Timer.builder(RUBRICA_VALIDATION)
+                            .description("Validação de rubrica extraída contra o catálogo")
+                            .tag("outcome", found.get() ? "found" : "not_found")
+                            .publishPercentileHistogram()
+                            .register(registry)));
+        });
+    }
+
+    /**
+     * Mede a gravação em lote das entries de um documento.
+     */
+    public <T> Mono<T> timeEntriesSave(DocumentType tipo, Mono<T> save) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return save.doFinally(signal -> sample.stop(Timer.builder(ENTRIES_SAVE)
+                    .description("entryRepository.insertAll (bulk) de um documento")
+                    .tag("tipo", tipo != null ? tipo.name() : "UNKNOWN")
+                    .publishPercentileHistogram()
+                    .register(registry)));
+        });
+    }
+
+    public void fallbackTriggered(FallbackReason reason) {
+        fallbackCounters.get(reason).increment();
+    }
+
+    /**
+     * Consulta ao cache de extração por página ({@code result} hit/miss).
+     */
+    public void cacheLookup(String extractor, boolean hit) {
+        Counter.builder(EXTRACTION_CACHE)
+                .description("Consultas ao cache de extração por página")
+                .tag("extractor", extractor)
+                .tag("result", hit ? "hit" : "miss")
+                .register(registry)
+                .increment();
+    }
+
+    public void recordDocumentPages(DocumentType tipo, int pages) {
+        DistributionSummary.builder(DOCUMENT_PAGES)
+                .description("Páginas por documento processado")
+                .tag("tipo", tipo != null ? tipo.name() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(pages);
+    }
+
+    private Timer geminiTimer(String model, String mode, String outcome) {
+        return Timer.builder(GEMINI_REQUESTS)
+                .description("Chamadas ao Gemini (render + request) por modelo")
+                .tag("model", model != null ? model : "unknown")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.migration;
+
+import br.com.verticelabs.pdfprocessor.application.consolidation.PersonConsolidationService;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Migração única: preenche {@code personId}/{@code cpf} nas payroll_entries gravadas antes da
+ * desnormalização, a partir de {@code Person.documentos}. Um updateMany por pessoa, apenas em
+ * entries ainda sem personId; ao final registra a conclusão em {@code migrations} para não
+ * repetir a varredura nos próximos startups.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "migration.payroll-entry-person.enabled", havingValue = "true", matchIfMissing = true)
+public class PayrollEntryPersonBackfillRunner {
+
+    static final String MIGRATION_ID = "payroll-entry-person-backfill";
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    private static final int CONCURRENCY = 4;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PayrollEntryPersonMigration migration;
+    private final PersonConsolidationService personConsolidationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        run().subscribe(
+                total -> {
+                    if (total > 0) {
+                        log.info("Migração payroll_entries.personId concluída: {} entries atualizadas", total);
+                    }
+                },
+                error -> log.error("Erro na migração payroll_entries.personId", error));
+    }
+
+    Mono<Long> run() {
+        Query marker = Query.query(Criteria.where("_id").is(MIGRATION_ID));
+        return mongoTemplate.exists(marker, MIGRATIONS_COLLECTION)
+                .flatMap(done -> done ? Mono.just(0L) : backfill()
+                        .flatMap(total -> mongoTemplate.save(new Document("_id", MIGRATION_ID)
+                                                .append("completedAt", Instant.now())
+                                                .append("entriesUpdated", total),
+                                        MIGRATIONS_COLLECTION)
+                                // entries reescritas: snapshots de consolidação calculados antes ficam inválidos
+                                .then(total > 0
+                                        ? personConsolidationService.invalidarTodos("backfill de personId")
+                                        : Mono.empty())
+                                .thenReturn(total)))
+                .doOnSuccess(total -> migration.marcarConcluida());
+    }
+
+    private Mono<Long> backfill() {
+        Query withDocuments = Query.query(Criteria.where("documentos.0").exists(true));
+        withDocuments.fields().include("tenantId").include("cpf").include("documentos");
+
+        return mongoTemplate.find(withDocuments, Person.class)
+                .flatMap(this::backfillPerson, CONCURRENCY)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> backfillPerson(Person person) {
+        Query entries = Query.query(Criteria.where("tenantId").is(person.getTenantId())
+                .and("documentoId").in(person.getDocumentos())
+                .and("personId").exists(false));
+        Update update = new Update()
+                .set("personId", person.getId())
+                .set("cpf", person.getCpf());
+
+        return mongoTemplate.updateMulti(entries, update, PayrollEntry.class)
+                .map(result -> result.getModifiedCount())
+                .doOnNext(modified -> {
+                    if (modified > 0) {
+                        log.debug("CPF {}: {} entries vinculadas à pessoa {}", person.getCpf(), modified, person.getId());
+                    }
+                });
+    }
+}
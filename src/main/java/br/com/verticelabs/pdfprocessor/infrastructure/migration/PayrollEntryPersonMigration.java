@@ -0,0 +1,74 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.migration;
+
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Estado da migração {@code payroll_entries.personId} ({@link PayrollEntryPersonBackfillRunner}).
+ *
+ * Enquanto o marcador em {@code migrations} não existir, entries antigas podem estar sem personId,
+ * então as leituras por pessoa continuam filtrando por {@code documentoId $in Person.documentos}.
+ * Depois de visto, o marcador fica em memória e não é mais consultado.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayrollEntryPersonMigration {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    private volatile boolean concluida;
+
+    public Mono<Boolean> isConcluida() {
+        if (concluida) {
+            return Mono.just(true);
+        }
+        Query marker = Query.query(Criteria.where("_id").is(PayrollEntryPersonBackfillRunner.MIGRATION_ID));
+        return mongoTemplate.exists(marker, PayrollEntryPersonBackfillRunner.MIGRATIONS_COLLECTION)
+                .doOnNext(existe -> {
+                    if (existe) {
+                        concluida = true;
+                    }
+                });
+    }
+
+    void marcarConcluida() {
+        concluida = true;
+    }
+
+    /**
+     * Filtro das entries da pessoa: {@code tenantId + personId} após a migração, senão
+     * {@code tenantId + documentoId $in documentos}. Vazio se a pessoa não tem documentos.
+     */
+    public Mono<Criteria> criteria(String tenantId, String personId, List<String> documentos) {
+        if (documentos == null || documentos.isEmpty()) {
+            return Mono.empty();
+        }
+        return isConcluida().map(migrada -> migrada
+                ? Criteria.where("tenantId").is(tenantId).and("personId").is(personId)
+                : Criteria.where("tenantId").is(tenantId).and("documentoId").in(documentos));
+    }
+
+    /**
+     * Como {@link #criteria(String, String, List)}, buscando os documentos da pessoa só enquanto
+     * a migração não terminou.
+     */
+    public Mono<Criteria> criteria(String tenantId, String personId) {
+        return isConcluida().flatMap(migrada -> migrada
+                ? Mono.just(Criteria.where("tenantId").is(tenantId).and("personId").is(personId))
+                : personDocumentos(personId).flatMap(documentos -> criteria(tenantId, personId, documentos)));
+    }
+
+    private Mono<List<String>> personDocumentos(String personId) {
+        Query query = Query.query(Criteria.where("_id").is(personId));
+        query.fields().include("documentos");
+        return mongoTemplate.findOne(query, Person.class)
+                .mapNotNull(Person::getDocumentos);
+    }
+}
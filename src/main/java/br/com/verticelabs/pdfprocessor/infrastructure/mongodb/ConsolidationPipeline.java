@@ -0,0 +1,187 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.exceptions.InvalidYearException;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pipeline de agregação da matriz de consolidação (payroll_entries → células rubrica × ano × mês).
+ *
+ * Reproduz no servidor as regras que o ConsolidationUseCase aplicava em memória:
+ * <ol>
+ *   <li>match por pessoa (tenant + personId ou documentos), rubricas ativas e origem (FUNCEF inclui o Demonstrativo);</li>
+ *   <li>normalização da referência (YYYY-MM, MM/YYYY, YYYY/MM) e filtro de ano;</li>
+ *   <li>referência ajustada: mesPagamento; "YYYY-13" → mês de outra entry da mesma página do
+ *       mesmo documento (na ordem referencia, _id), com fallback para novembro;</li>
+ *   <li>$group por (rubricaCodigo, ano, mês) com soma em Decimal128 e os marcadores usados
+ *       na regra de 13º da Funcef.</li>
+ * </ol>
+ * Usa $setWindowFields (MongoDB 5.0+).
+ */
+final class ConsolidationPipeline {
+
+    static final String COLLECTION = "payroll_entries";
+
+    private static final String REF_ISO = "^\\d{4}-\\d{2}$";
+    private static final String REF_MM_YYYY = "^\\d{2}/\\d{4}$";
+    private static final String REF_YYYY_MM = "^\\d{4}/\\d{2}$";
+    private static final String REF_13 = "^\\d{4}-13$";
+    private static final String ORIGEM_FUNCEF = "^\\s*(FUNCEF|FUNCEF_DEMONSTRATIVO)\\s*$";
+    private static final Pattern ANO = Pattern.compile("\\d{4}");
+    private static final List<String> ORIGENS_FUNCEF = List.of("FUNCEF", "FUNCEF_DEMONSTRATIVO");
+
+    // Mesma ordem de findByTenantIdAndPersonId (referencia asc); _id desempata como a ordem natural
+    private static final Document ORDEM_DAS_ENTRIES = new Document("referencia", 1).append("_id", 1);
+    private static final Document PARTICAO_INTEIRA = new Document("documents", List.of("unbounded", "unbounded"));
+
+    private ConsolidationPipeline() {
+    }
+
+    /**
+     * @param pessoa filtro das entries da pessoa (tenantId + personId, ou documentoId enquanto a
+     *               migração de personId não terminou)
+     */
+    static List<Document> stages(Document pessoa, Set<String> rubricasAtivas, String ano, String origem) {
+        List<Document> stages = new ArrayList<>();
+
+        Document match = new Document(pessoa)
+                .append("rubricaCodigo", new Document("$in", new ArrayList<>(rubricasAtivas)));
+        if (origem != null && !origem.isEmpty()) {
+            String regex = "FUNCEF".equalsIgnoreCase(origem) ? ORIGEM_FUNCEF : "^" + Pattern.quote(origem) + "$";
+            match.append("origem", new Document("$regex", regex).append("$options", "i"));
+        }
+        stages.add(new Document("$match", match));
+
+        stages.add(addFields(new Document("_ref", new Document("$trim",
+                new Document("input", ifNull("$referencia", ""))))));
+        stages.add(addFields(new Document("_refNorm", normalizar("$_ref"))));
+
+        if (ano != null && !ano.isEmpty()) {
+            if (!ANO.matcher(ano).matches()) {
+                throw new InvalidYearException(ano);
+            }
+            stages.add(new Document("$match", new Document("_refNorm", new Document("$regex", "^" + ano + "-"))));
+        }
+
+        // Referências normalizadas de todas as entries da mesma página (para resolver "YYYY-13")
+        stages.add(new Document("$setWindowFields", new Document("partitionBy",
+                new Document("documentoId", "$documentoId").append("pagina", "$pagina"))
+                .append("sortBy", ORDEM_DAS_ENTRIES)
+                .append("output", new Document("_refsPagina",
+                        new Document("$push", "$_refNorm").append("window", PARTICAO_INTEIRA)))));
+
+        stages.add(addFields(new Document("_ano13", cond(
+                regexMatch(ifNull("$_refNorm", ""), REF_13), substr("$_refNorm", 0, 4), null))));
+
+        stages.add(addFields(new Document("_refAjustada", new Document("$switch", new Document("branches", List.of(
+                branch(eq("$_refNorm", null), null),
+                branch(regexMatch(ifNull("$mesPagamento", ""), REF_ISO), "$mesPagamento"),
+                branch(new Document("$ne", Arrays.asList("$_ano13", null)),
+                        ifNull(mesDaPagina(), new Document("$concat", List.of("$_ano13", "-11"))))))
+                .append("default", "$_refNorm")))));
+
+        stages.add(addFields(new Document("_ano", cond(eq("$_refAjustada", null), null, substr("$_refAjustada", 0, 4)))
+                .append("_mes", cond(eq("$_refAjustada", null), null, substr("$_refAjustada", 5, 2)))
+                .append("_anoReferencia", cond(eq("$_refNorm", null), null, substr("$_refNorm", 0, 4)))
+                .append("_funcef", new Document("$in", List.of(
+                        new Document("$toUpper", new Document("$trim", new Document("input", ifNull("$origem", "")))),
+                        ORIGENS_FUNCEF)))
+                .append("_caixa", eq(new Document("$toUpper", ifNull("$origem", "")), "CAIXA"))));
+
+        stages.add(addFields(new Document("_de13", new Document("$and", List.of(
+                new Document("$ne", Arrays.asList("$_refAjustada", null)),
+                eq("$referencia", new Document("$concat", List.of("$_ano", "-13"))))))));
+
+        // Descrição da rubrica = a da primeira entry (com referência) na ordem da consulta
+        stages.add(new Document("$setWindowFields", new Document("partitionBy",
+                new Document("rubricaCodigo", "$rubricaCodigo")
+                        .append("comReferencia", new Document("$ne", Arrays.asList("$_refAjustada", null))))
+                .append("sortBy", ORDEM_DAS_ENTRIES)
+                .append("output", new Document("_descricao",
+                        new Document("$first", "$rubricaDescricao").append("window", PARTICAO_INTEIRA)))));
+
+        stages.add(new Document("$group", new Document("_id",
+                new Document("rubricaCodigo", "$rubricaCodigo").append("ano", "$_ano").append("mes", "$_mes"))
+                .append("rubricaDescricao", new Document("$first", "$_descricao"))
+                .append("valor", new Document("$sum", new Document("$convert", new Document("input", "$valor")
+                        .append("to", "decimal").append("onError", null).append("onNull", null))))
+                .append("deReferencia13", new Document("$max", "$_de13"))
+                .append("somenteFuncef", new Document("$min", "$_funcef"))
+                .append("possuiCaixa", new Document("$max", "$_caixa"))
+                .append("possuiFuncef", new Document("$max", "$_funcef"))
+                .append("anosReferencia", new Document("$addToSet", "$_anoReferencia"))));
+
+        stages.add(new Document("$project", new Document("_id", 0)
+                .append("rubricaCodigo", "$_id.rubricaCodigo")
+                .append("ano", "$_id.ano")
+                .append("mes", "$_id.mes")
+                .append("rubricaDescricao", 1)
+                .append("valor", 1)
+                .append("deReferencia13", 1)
+                .append("somenteFuncef", 1)
+                .append("possuiCaixa", 1)
+                .append("possuiFuncef", 1)
+                .append("anosReferencia", 1)));
+
+        return stages;
+    }
+
+    /** YYYY-MM, MM/YYYY ou YYYY/MM → YYYY-MM; qualquer outro formato → null. */
+    private static Document normalizar(String ref) {
+        return new Document("$switch", new Document("branches", List.of(
+                branch(regexMatch(ref, REF_ISO), ref),
+                branch(regexMatch(ref, REF_MM_YYYY),
+                        new Document("$concat", List.of(substr(ref, 3, 4), "-", substr(ref, 0, 2)))),
+                branch(regexMatch(ref, REF_YYYY_MM),
+                        new Document("$concat", List.of(substr(ref, 0, 4), "-", substr(ref, 5, 2))))))
+                .append("default", null));
+    }
+
+    /** Primeira referência da página com o mesmo ano da entry "YYYY-13" e mês diferente de 13. */
+    private static Document mesDaPagina() {
+        Document mesmoAnoOutroMes = new Document("$and", List.of(
+                eq(substr(ifNull("$$r", ""), 0, 4), "$_ano13"),
+                new Document("$ne", List.of(substr(ifNull("$$r", ""), 5, 2), "13"))));
+        Document candidatas = new Document("$filter", new Document("input", "$_refsPagina")
+                .append("as", "r")
+                .append("cond", mesmoAnoOutroMes));
+        // $gt null: verdadeiro só quando o campo existe e não é nulo
+        Document temPagina = new Document("$and", List.of(
+                new Document("$gt", Arrays.asList("$documentoId", null)),
+                new Document("$gt", Arrays.asList("$pagina", null))));
+        return cond(temPagina, new Document("$arrayElemAt", List.of(candidatas, 0)), null);
+    }
+
+    private static Document addFields(Document fields) {
+        return new Document("$addFields", fields);
+    }
+
+    private static Document branch(Object condition, Object then) {
+        return new Document("case", condition).append("then", then);
+    }
+
+    private static Document cond(Object condition, Object then, Object otherwise) {
+        return new Document("$cond", Arrays.asList(condition, then, otherwise));
+    }
+
+    private static Document eq(Object left, Object right) {
+        return new Document("$eq", Arrays.asList(left, right));
+    }
+
+    private static Document ifNull(Object expression, Object replacement) {
+        return new Document("$ifNull", Arrays.asList(expression, replacement));
+    }
+
+    private static Document regexMatch(Object input, String regex) {
+        return new Document("$regexMatch", new Document("input", input).append("regex", regex));
+    }
+
+    private static Document substr(Object input, int start, int length) {
+        return new Document("$substrCP", List.of(input, start, length));
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollup;
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollupDelta;
+import br.com.verticelabs.pdfprocessor.domain.repository.DashboardRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Os labels das séries viram nomes de campo ({@code $inc} em {@code lancamentosPorRubrica.<label>}),
+ * então {@code %}, {@code .} e {@code $} são gravados como {@code %25}, {@code %2E} e {@code %24}
+ * e decodificados na leitura.
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoDashboardRollupRepositoryAdapter implements DashboardRollupRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<DashboardRollup> findById(String id) {
+        return mongoTemplate.findById(id, DashboardRollup.class)
+                .map(rollup -> {
+                    rollup.setDocumentosPorAno(labels(rollup.getDocumentosPorAno()));
+                    rollup.setPessoasPorAno(labels(rollup.getPessoasPorAno()));
+                    rollup.setLancamentosPorAno(labels(rollup.getLancamentosPorAno()));
+                    rollup.setLancamentosPorRubrica(labels(rollup.getLancamentosPorRubrica()));
+                    return rollup;
+                });
+    }
+
+    @Override
+    public Mono<Boolean> saveIfUnchanged(DashboardRollup rollup, long versaoLida) {
+        Update update = new Update()
+                .set("documentos", rollup.getDocumentos())
+                .set("lancamentos", rollup.getLancamentos())
+                .set("pessoas", rollup.getPessoas())
+                .set("documentosPorAno", campos(rollup.getDocumentosPorAno()))
+                .set("pessoasPorAno", campos(rollup.getPessoasPorAno()))
+                .set("lancamentosPorAno", campos(rollup.getLancamentosPorAno()))
+                .set("lancamentosPorRubrica", campos(rollup.getLancamentosPorRubrica()))
+                .set("atualizadoEm", rollup.getAtualizadoEm())
+                .set("reconciliadoEm", rollup.getReconciliadoEm())
+                .set("versao", rollup.getVersao())
+                .set("escritasEmAndamento", rollup.getEscritasEmAndamento());
+
+        if (versaoLida == DashboardRollup.AUSENTE) {
+            // Só insere: se outro recálculo criou o rollup no meio, o upsert esbarra no _id
+            Query query = Query.query(Criteria.where("_id").is(rollup.getId()).and("versao").exists(false));
+            return mongoTemplate.upsert(query, update, DashboardRollup.class)
+                    .map(result -> result.getUpsertedId() != null)
+                    .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+        }
+
+        // Rollups gravados antes do campo versao são lidos como 0
+        Criteria versao = versaoLida == 0
+                ? new Criteria().orOperator(Criteria.where("versao").is(0L), Criteria.where("versao").exists(false))
+                : Criteria.where("versao").is(versaoLida);
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("_id").is(rollup.getId()), versao));
+        return mongoTemplate.updateFirst(query, update, DashboardRollup.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Void> increment(String tenantId, DashboardRollupDelta delta) {
+        Update update = new Update().set("atualizadoEm", Instant.now()).inc("versao", 1);
+        inc(update, "documentos", delta.getDocumentos());
+        inc(update, "lancamentos", delta.getLancamentos());
+        inc(update, "pessoas", delta.getPessoas());
+        inc(update, "escritasEmAndamento", delta.getEscritasEmAndamento());
+        inc(update, "documentosPorAno", delta.getDocumentosPorAno());
+        inc(update, "pessoasPorAno", delta.getPessoasPorAno());
+        inc(update, "lancamentosPorAno", delta.getLancamentosPorAno());
+        inc(update, "lancamentosPorRubrica", delta.getLancamentosPorRubrica());
+
+        // Sem upsert: um $inc num rollup inexistente criaria totais parciais
+        Query query = Query.query(Criteria.where("_id").in(tenantId, DashboardRollup.TODOS_OS_TENANTS));
+        return mongoTemplate.updateMulti(query, update, DashboardRollup.class).then();
+    }
+
+    private static void inc(Update update, String campo, long quantidade) {
+        if (quantidade != 0) {
+            update.inc(campo, quantidade);
+        }
+    }
+
+    private static void inc(Update update, String serie, Map<String, Long> quantidades) {
+        quantidades.forEach((label, quantidade) -> inc(update, serie + "." + campo(label), quantidade));
+    }
+
+    private static Map<String, Long> campos(Map<String, Long> serie) {
+        Map<String, Long> campos = new HashMap<>();
+        if (serie != null) {
+            serie.forEach((label, valor) -> campos.put(campo(label), valor));
+        }
+        return campos;
+    }
+
+    private static Map<String, Long> labels(Map<String, Long> serie) {
+        Map<String, Long> labels = new HashMap<>();
+        if (serie != null) {
+            serie.forEach((campo, valor) -> labels.put(label(campo), valor));
+        }
+        return labels;
+    }
+
+    static String campo(String label) {
+        StringBuilder campo = new StringBuilder(label.length());
+        for (char c : label.toCharArray()) {
+            if (c == '%' || c == '.' || c == '$') {
+                campo.append('%').append(String.format("%02X", (int) c));
+            } else {
+                campo.append(c);
+            }
+        }
+        return campo.toString();
+    }
+
+    static String label(String campo) {
+        StringBuilder label = new StringBuilder(campo.length());
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            // Chaves gravadas antes da codificação podem ter '%' seguido de qualquer coisa
+            if (c == '%' && i + 2 < campo.length()
+                    && Character.digit(campo.charAt(i + 1), 16) >= 0 && Character.digit(campo.charAt(i + 2), 16) >= 0) {
+                label.append((char) Integer.parseInt(campo.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                label.append(c);
+            }
+        }
+        return label.toString();
+    }
+}
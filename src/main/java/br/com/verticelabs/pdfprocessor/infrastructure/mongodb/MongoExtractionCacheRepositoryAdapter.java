@@ -0,0 +1,45 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ExtractionCacheEntry;
+import br.com.verticelabs.pdfprocessor.domain.repository.ExtractionCacheRepository;
+import com.mongodb.client.result.DeleteResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class MongoExtractionCacheRepositoryAdapter implements ExtractionCacheRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<String> findContent(String id) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        query.fields().include("content");
+        return mongoTemplate.findOne(query, ExtractionCacheEntry.class)
+                .mapNotNull(ExtractionCacheEntry::getContent);
+    }
+
+    @Override
+    public Mono<Void> save(ExtractionCacheEntry entry) {
+        return mongoTemplate.save(entry).then();
+    }
+
+    @Override
+    public Mono<Long> deleteByExtractorAndVersionNot(String extractor, String version) {
+        Query query = Query.query(Criteria.where("extractor").is(extractor).and("version").ne(version));
+        return mongoTemplate.remove(query, ExtractionCacheEntry.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Mono<Long> deleteByFileHash(String fileHash) {
+        Query query = Query.query(Criteria.where("fileHash").is(fileHash));
+        return mongoTemplate.remove(query, ExtractionCacheEntry.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+}
@@ -1,26 +1,40 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
 
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentStatus;
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentSummary;
 import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingEvent;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
 import lombok.RequiredArgsConstructor;
+import org.bson.Document;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 public class MongoPayrollDocumentRepositoryAdapter implements PayrollDocumentRepository {
 
+    private static final String COLLECTION = "payroll_documents";
+
+    // Eventos que marcam uma página como concluída (mesma regra do progresso na listagem)
+    private static final List<String> EVENTOS_PAGINA_CONCLUIDA = List.of(
+            "GEMINI_EXTRACTION_COMPLETED", "TEXT_EXTRACTED", "ESCALATION_COMPLETED");
+
     private final SpringDataPayrollDocumentRepository repository;
     private final ReactiveMongoTemplate mongoTemplate;
 
@@ -108,6 +122,11 @@ public class MongoPayrollDocumentRepositoryAdapter implements PayrollDocumentRep
         return repository.count();
     }
 
+    @Override
+    public Mono<Long> countByStatus(DocumentStatus status) {
+        return repository.countByStatus(status);
+    }
+
     @Override
     public Flux<DashboardChartItem> countDocumentosPorAno(String tenantId) {
         Criteria criteria = Criteria.where("anoDetectado").ne(null);
@@ -122,13 +141,168 @@ public class MongoPayrollDocumentRepositoryAdapter implements PayrollDocumentRep
                 Aggregation.project("valor").and("_id").as("label")
         );
 
-        return mongoTemplate.aggregate(aggregation, "payroll_documents", Map.class)
+        return mongoTemplate.aggregate(aggregation, COLLECTION, Map.class)
                 .map(doc -> DashboardChartItem.builder()
                         .label(doc.get("label").toString())
                         .valor(((Number) doc.get("valor")).longValue())
                         .build());
     }
 
+    @Override
+    public Mono<Void> appendProcessingEvents(String id, List<ProcessingEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return Mono.empty();
+        }
+        // Sem $sort: reordenar o array inteiro a cada flush custa O(n log n) por página; a leitura
+        // ordena por timestamp (flushes de páginas em paralelo podem chegar fora de ordem)
+        Update update = new Update();
+        update.push("processingLog").each(events.toArray());
+        return mongoTemplate.updateFirst(byId(id), update, PayrollDocument.class).then();
+    }
+
+    @Override
+    public Mono<Void> markProcessed(PayrollDocument document) {
+        Update update = new Update()
+                .set("status", DocumentStatus.PROCESSED)
+                .set("dataProcessamento", document.getDataProcessamento())
+                .set("totalEntries", document.getTotalEntries())
+                .unset("erro");
+        if (document.getProcessedPages() != null) {
+            update.set("processedPages", document.getProcessedPages());
+        }
+        if (document.getAnoDetectado() != null) {
+            update.set("anoDetectado", document.getAnoDetectado());
+        }
+        if (document.getIrpfData() != null) {
+            update.set("irpfData", document.getIrpfData());
+        }
+        return mongoTemplate.updateFirst(byId(document.getId()), update, PayrollDocument.class).then();
+    }
+
+    @Override
+    public Mono<Void> updateStatus(String id, DocumentStatus status, String erro) {
+        Update update = new Update().set("status", status);
+        if (erro != null) {
+            update.set("erro", erro);
+        } else {
+            update.unset("erro");
+        }
+        return mongoTemplate.updateFirst(byId(id), update, PayrollDocument.class).then();
+    }
+
+    @Override
+    public Mono<Void> startProgress(String id, int totalPages) {
+        Update update = new Update()
+                .set("totalPages", totalPages)
+                .set("processedPages", 0);
+        return mongoTemplate.updateFirst(byId(id), update, PayrollDocument.class).then();
+    }
+
+    @Override
+    public Mono<Void> incrementProcessedPages(String id) {
+        return mongoTemplate.updateFirst(byId(id), new Update().inc("processedPages", 1), PayrollDocument.class)
+                .then();
+    }
+
+    @Override
+    public Mono<PayrollDocument> findProcessingStatusById(String id) {
+        Query query = byId(id);
+        query.fields()
+                .include("tenantId")
+                .include("status")
+                .include("erro")
+                .include("totalPages")
+                .include("processedPages")
+                .include("processingLog");
+        return mongoTemplate.findOne(query, PayrollDocument.class);
+    }
+
+    private Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    @Override
+    public Flux<IrpfDeclaracaoData> findIrpfDataByTenantIdAndCpf(String tenantId, String cpf) {
+        Query query = Query.query(Criteria.where("tenantId").is(tenantId)
+                .and("cpf").is(cpf)
+                .and("tipo").is(DocumentType.INCOME_TAX)
+                .and("irpfData").ne(null));
+        query.fields().include("irpfData");
+        return mongoTemplate.find(query, PayrollDocument.class)
+                .mapNotNull(PayrollDocument::getIrpfData);
+    }
+
+    @Override
+    public Flux<DocumentSummary> findSummariesByTenantIdAndCpf(String tenantId, String cpf) {
+        return findSummaries(new Document("tenantId", tenantId).append("cpf", cpf));
+    }
+
+    @Override
+    public Flux<DocumentSummary> findSummariesByCpf(String cpf) {
+        return findSummaries(new Document("cpf", cpf));
+    }
+
+    /**
+     * $match + $project: devolve só os metadados e reduz o processingLog no servidor
+     * (contagem, totalPages do log, páginas concluídas distintas e evento mais recente), sem
+     * trafegar o log nem detectedPages/irpfData.
+     */
+    private Flux<DocumentSummary> findSummaries(Document match) {
+        Document log = new Document("$ifNull", List.of("$processingLog", List.of()));
+
+        Document eventoComTotalPages = new Document("$filter", new Document("input", log)
+                .append("as", "e")
+                .append("cond", new Document("$ne", List.of(
+                        new Document("$type", "$$e.details.totalPages"), "missing"))));
+        Document paginasConcluidas = new Document("$filter", new Document("input", log)
+                .append("as", "e")
+                .append("cond", new Document("$and", List.of(
+                        new Document("$in", List.of("$$e.type", EVENTOS_PAGINA_CONCLUIDA)),
+                        // page > null: exclui page nulo ou ausente
+                        new Document("$gt", Arrays.asList("$$e.page", null))))));
+        // Maior timestamp, não o último do array: páginas em paralelo fazem $push fora de ordem.
+        // Com $gte, no empate fica o gravado por último; timestamp ausente perde para qualquer data
+        Document ultimoEvento = new Document("$reduce", new Document("input", log)
+                .append("initialValue", null)
+                .append("in", new Document("$cond", List.of(
+                        new Document("$or", List.of(
+                                new Document("$eq", Arrays.asList("$$value", null)),
+                                new Document("$gte", List.of("$$this.timestamp", "$$value.timestamp")))),
+                        "$$this",
+                        "$$value"))));
+
+        Document project = new Document("tenantId", 1)
+                .append("cpf", 1)
+                .append("tipo", 1)
+                .append("status", 1)
+                .append("anoDetectado", 1)
+                .append("mesesDetectados", 1)
+                .append("dataUpload", 1)
+                .append("dataProcessamento", 1)
+                .append("totalEntries", 1)
+                .append("totalPages", 1)
+                .append("processedPages", 1)
+                .append("eventsCount", new Document("$size", log))
+                .append("totalPagesDoLog", new Document("$arrayElemAt", List.of(
+                        new Document("$map", new Document("input", eventoComTotalPages)
+                                .append("as", "e")
+                                .append("in", "$$e.details.totalPages")), 0)))
+                .append("pagesProcessed", new Document("$size", new Document("$setUnion", List.of(
+                        new Document("$map", new Document("input", paginasConcluidas)
+                                .append("as", "e")
+                                .append("in", "$$e.page")),
+                        List.of()))))
+                .append("lastEventType", new Document("$let", new Document("vars", new Document("u", ultimoEvento))
+                        .append("in", "$$u.type")))
+                .append("lastEventMessage", new Document("$let", new Document("vars", new Document("u", ultimoEvento))
+                        .append("in", "$$u.message")));
+
+        List<AggregationOperation> stages = List.of(
+                context -> new Document("$match", match),
+                context -> new Document("$project", project));
+        return mongoTemplate.aggregate(Aggregation.newAggregation(stages), COLLECTION, DocumentSummary.class);
+    }
+
     @Override
     public Flux<PayrollDocument> findByTenantIdAndFilters(
             String tenantId,
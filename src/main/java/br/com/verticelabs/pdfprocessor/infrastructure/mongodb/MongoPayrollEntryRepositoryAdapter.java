@@ -1,27 +1,85 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
 
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.migration.PayrollEntryPersonMigration;
 import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
-import lombok.RequiredArgsConstructor;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.DeleteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class MongoPayrollEntryRepositoryAdapter implements PayrollEntryRepository {
 
     private final SpringDataPayrollEntryRepository repository;
     private final ReactiveMongoTemplate mongoTemplate;
+    private final PayrollEntryPersonMigration personMigration;
+
+    /**
+     * Template do insertAll, com write concern próprio ({@code app.processing.entries.write-concern});
+     * leituras, remoções e gravações avulsas seguem no padrão.
+     */
+    private final ReactiveMongoTemplate bulkTemplate;
+    private final int bulkBatchSize;
+
+    public MongoPayrollEntryRepositoryAdapter(SpringDataPayrollEntryRepository repository,
+                                              ReactiveMongoTemplate mongoTemplate,
+                                              PayrollEntryPersonMigration personMigration,
+                                              @Value("${app.processing.entries.write-concern:ACKNOWLEDGED}") String writeConcern,
+                                              @Value("${app.processing.entries.bulk-batch-size:1000}") int bulkBatchSize) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.personMigration = personMigration;
+        this.bulkTemplate = new ReactiveMongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        this.bulkTemplate.setWriteConcern(writeConcern(writeConcern));
+        this.bulkBatchSize = Math.max(1, bulkBatchSize);
+        log.info("Gravação de entries em lote: {} por bulk (não ordenado), write concern {}",
+                this.bulkBatchSize, writeConcern);
+    }
+
+    /**
+     * Write concerns sem confirmação (W0/UNACKNOWLEDGED) são recusados: a contagem de inseridas
+     * alimenta o documento e o rollup do dashboard, e uma falha no lote passaria em silêncio.
+     */
+    static WriteConcern writeConcern(String name) {
+        return switch (name.trim().toUpperCase()) {
+            case "ACKNOWLEDGED" -> WriteConcern.ACKNOWLEDGED;
+            case "UNACKNOWLEDGED", "W0" -> throw new IllegalArgumentException(
+                    "Write concern sem confirmação não é suportado para entries: " + name);
+            case "W1" -> WriteConcern.W1;
+            case "W2" -> WriteConcern.W2;
+            case "W3" -> WriteConcern.W3;
+            case "MAJORITY" -> WriteConcern.MAJORITY;
+            case "JOURNALED" -> WriteConcern.JOURNALED;
+            default -> throw new IllegalArgumentException("Write concern inválido: " + name);
+        };
+    }
 
     @Override
     public Mono<PayrollEntry> save(PayrollEntry entry) {
@@ -33,6 +91,31 @@ public class MongoPayrollEntryRepositoryAdapter implements PayrollEntryRepositor
         return repository.saveAll(entries);
     }
 
+    /**
+     * Insere em bulks não ordenados de {@code bulk-batch-size} documentos: uma ida ao banco por
+     * lote em vez de uma por entry, e uma falha isolada não interrompe o resto do lote.
+     */
+    @Override
+    public Mono<Long> insertAll(List<PayrollEntry> entries) {
+        if (entries.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return Flux.fromIterable(entries)
+                .buffer(bulkBatchSize)
+                .concatMap(chunk -> bulkTemplate.bulkOps(BulkMode.UNORDERED, PayrollEntry.class)
+                        .insert(chunk)
+                        .execute()
+                        .map(MongoPayrollEntryRepositoryAdapter::insertedCount))
+                .reduce(0L, Long::sum);
+    }
+
+    private static long insertedCount(BulkWriteResult result) {
+        if (!result.wasAcknowledged()) {
+            throw new IllegalStateException("Bulk de entries sem confirmação do servidor");
+        }
+        return result.getInsertedCount();
+    }
+
     @Override
     public Mono<PayrollEntry> findById(String id) {
         return repository.findById(id);
@@ -63,6 +146,54 @@ public class MongoPayrollEntryRepositoryAdapter implements PayrollEntryRepositor
         return repository.findAllByTenantId(tenantId);
     }
 
+    @Override
+    public Flux<PayrollEntry> findByTenantIdAndPersonId(String tenantId, String personId) {
+        return personMigration.criteria(tenantId, personId)
+                .flatMapMany(pessoa -> mongoTemplate.find(
+                        Query.query(pessoa).with(Sort.by(Sort.Direction.ASC, "referencia")), PayrollEntry.class));
+    }
+
+    @Override
+    public Flux<ConsolidationCell> aggregateConsolidationCells(String tenantId, String personId,
+                                                               Set<String> rubricasAtivas, String ano, String origem) {
+        return personMigration.criteria(tenantId, personId)
+                .flatMapMany(pessoa -> {
+                    Aggregation aggregation = Aggregation.newAggregation(
+                                    ConsolidationPipeline.stages(pessoa.getCriteriaObject(), rubricasAtivas, ano, origem)
+                                            .stream()
+                                            .map(stage -> (AggregationOperation) context -> stage)
+                                            .toList())
+                            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+                    return mongoTemplate.aggregate(aggregation, ConsolidationPipeline.COLLECTION, Document.class)
+                            .map(MongoPayrollEntryRepositoryAdapter::toConsolidationCell);
+                });
+    }
+
+    private static ConsolidationCell toConsolidationCell(Document doc) {
+        Object valor = doc.get("valor");
+        BigDecimal total = valor instanceof Decimal128 decimal ? decimal.bigDecimalValue()
+                : valor instanceof Number number ? new BigDecimal(number.toString())
+                : BigDecimal.ZERO;
+        Set<String> anos = new HashSet<>();
+        Collection<?> anosReferencia = doc.get("anosReferencia", Collection.class);
+        if (anosReferencia != null) {
+            anosReferencia.stream().filter(Objects::nonNull).map(Object::toString).forEach(anos::add);
+        }
+        return ConsolidationCell.builder()
+                .rubricaCodigo(doc.getString("rubricaCodigo"))
+                .rubricaDescricao(doc.getString("rubricaDescricao"))
+                .ano(doc.getString("ano"))
+                .mes(doc.getString("mes"))
+                .valor(total)
+                .deReferencia13(Boolean.TRUE.equals(doc.getBoolean("deReferencia13")))
+                .somenteFuncef(Boolean.TRUE.equals(doc.getBoolean("somenteFuncef")))
+                .possuiCaixa(Boolean.TRUE.equals(doc.getBoolean("possuiCaixa")))
+                .possuiFuncef(Boolean.TRUE.equals(doc.getBoolean("possuiFuncef")))
+                .anosReferencia(anos)
+                .build();
+    }
+
     @Override
     public Mono<Long> countByTenantIdAndDocumentoId(String tenantId, String documentoId) {
         return repository.countByTenantIdAndDocumentoId(tenantId, documentoId);
@@ -107,50 +238,43 @@ public class MongoPayrollEntryRepositoryAdapter implements PayrollEntryRepositor
             criteria = criteria.and("tenantId").is(tenantId);
         }
 
+        // Agrupa pelo ano (4 primeiros caracteres da referência) no servidor: o resultado tem uma
+        // linha por ano em vez de uma por referência
         Aggregation aggregation = Aggregation.newAggregation(
                 Aggregation.match(criteria),
-                Aggregation.group("referencia").count().as("valor"),
-                Aggregation.project("valor").and("_id").as("referencia")
+                Aggregation.project().and(StringOperators.valueOf("referencia").substringCP(0, 4)).as("ano"),
+                Aggregation.group("ano").count().as("valor"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.project("valor").and("_id").as("label")
         );
 
         return mongoTemplate.aggregate(aggregation, "payroll_entries", Map.class)
-                .collectList()
-                .flatMapMany(list -> {
-                    Map<Integer, Long> porAno = new HashMap<>();
-                    for (Map<String, Object> doc : list) {
-                        String referencia = doc.get("referencia").toString();
-                        if (referencia.length() >= 4) {
-                            try {
-                                int ano = Integer.parseInt(referencia.substring(0, 4));
-                                long valor = ((Number) doc.get("valor")).longValue();
-                                porAno.merge(ano, valor, Long::sum);
-                            } catch (NumberFormatException ignored) {
-                                // Ignorar referências inválidas
-                            }
-                        }
-                    }
-                    return Flux.fromIterable(porAno.entrySet().stream()
-                            .sorted(Map.Entry.comparingByKey())
-                            .map(entry -> DashboardChartItem.builder()
-                                    .label(String.valueOf(entry.getKey()))
-                                    .valor(entry.getValue())
-                                    .build())
-                            .collect(Collectors.toList()));
-                });
+                // Ignorar referências inválidas
+                .filter(doc -> doc.get("label") != null && doc.get("label").toString().matches("\\d{4}"))
+                .map(doc -> DashboardChartItem.builder()
+                        .label(doc.get("label").toString())
+                        .valor(((Number) doc.get("valor")).longValue())
+                        .build());
     }
 
     @Override
     public Mono<Void> deleteByTenantIdAndDocumentoId(String tenantId, String documentoId) {
-        return repository.findByTenantIdAndDocumentoId(tenantId, documentoId)
-                .flatMap(repository::delete)
-                .then();
+        return deleteMany(Criteria.where("tenantId").is(tenantId).and("documentoId").is(documentoId));
     }
 
     @Override
     @Deprecated
     public Mono<Void> deleteByDocumentoId(String documentoId) {
-        return repository.findByDocumentoId(documentoId)
-                .flatMap(repository::delete)
+        return deleteMany(Criteria.where("documentoId").is(documentoId));
+    }
+
+    /**
+     * Um único deleteMany no servidor, em vez de buscar e remover entry por entry.
+     */
+    private Mono<Void> deleteMany(Criteria criteria) {
+        return mongoTemplate.remove(Query.query(criteria), PayrollEntry.class)
+                .map(DeleteResult::getDeletedCount)
+                .doOnNext(deleted -> log.debug("{} entries removidas ({})", deleted, criteria.getCriteriaObject()))
                 .then();
     }
 }
@@ -0,0 +1,65 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonConsolidationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class MongoPersonConsolidationRepositoryAdapter implements PersonConsolidationRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<PersonConsolidation> findByTenantIdAndPersonId(String tenantId, String personId) {
+        Query query = Query.query(Criteria.where("_id").is(personId).and("tenantId").is(tenantId));
+        return mongoTemplate.findOne(query, PersonConsolidation.class);
+    }
+
+    @Override
+    public Mono<Long> invalidate(String tenantId, String personId) {
+        Query query = Query.query(Criteria.where("_id").is(personId));
+        Update update = new Update()
+                .inc("version", 1)
+                .set("tenantId", tenantId)
+                .setOnInsert("builtVersion", 0L);
+
+        return mongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().upsert(true).returnNew(true), PersonConsolidation.class)
+                .map(PersonConsolidation::getVersion);
+    }
+
+    @Override
+    public Mono<Long> invalidateAll() {
+        return mongoTemplate.updateMulti(new Query(), new Update().inc("version", 1), PersonConsolidation.class)
+                .map(result -> result.getModifiedCount());
+    }
+
+    @Override
+    public Mono<Boolean> saveIfVersion(PersonConsolidation snapshot) {
+        // Upsert só cria o registro quando a pessoa nunca foi invalidada (versão 0); com outra versão
+        // no banco o filtro não casa e o insert esbarra no _id existente
+        Query query = Query.query(Criteria.where("_id").is(snapshot.getId())
+                .and("version").is(snapshot.getVersion()));
+        Update update = new Update()
+                .set("tenantId", snapshot.getTenantId())
+                .set("builtVersion", snapshot.getVersion())
+                .set("rubricasAtivas", snapshot.getRubricasAtivas())
+                .set("celulasPorOrigem", snapshot.getCelulasPorOrigem())
+                .set("atualizadoEm", Instant.now());
+
+        return mongoTemplate.upsert(query, update, PersonConsolidation.class)
+                .map(result -> result.getMatchedCount() > 0 || result.getUpsertedId() != null)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJob;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJobStatus;
+import br.com.verticelabs.pdfprocessor.domain.repository.ProcessingJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class MongoProcessingJobRepositoryAdapter implements ProcessingJobRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<ProcessingJob> enqueue(String documentId, String tenantId) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("documentId").is(documentId));
+        Update update = new Update()
+                .set("tenantId", tenantId)
+                .set("status", ProcessingJobStatus.QUEUED)
+                .set("attempts", 0)
+                .set("availableAt", now)
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt")
+                .unset("lastError")
+                .unset("startedAt")
+                .unset("finishedAt")
+                .setOnInsert("createdAt", now);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), ProcessingJob.class);
+    }
+
+    @Override
+    public Mono<ProcessingJob> claimNext(String owner, Duration lease, int maxAttempts) {
+        Instant now = Instant.now();
+        Criteria disponivel = new Criteria().orOperator(
+                Criteria.where("status").is(ProcessingJobStatus.QUEUED).and("availableAt").lte(now),
+                Criteria.where("status").is(ProcessingJobStatus.RUNNING).and("leaseExpiresAt").lt(now)
+                        .and("attempts").lt(maxAttempts));
+        Query query = Query.query(disponivel).with(Sort.by(Sort.Direction.ASC, "availableAt"));
+        Update update = new Update()
+                .set("status", ProcessingJobStatus.RUNNING)
+                .set("leaseOwner", owner)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("startedAt", now)
+                .set("updatedAt", now)
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), ProcessingJob.class);
+    }
+
+    @Override
+    public Mono<ProcessingJob> failExhausted(int maxAttempts, String error) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("status").is(ProcessingJobStatus.RUNNING)
+                .and("leaseExpiresAt").lt(now)
+                .and("attempts").gte(maxAttempts));
+        Update update = new Update()
+                .set("status", ProcessingJobStatus.FAILED)
+                .set("lastError", error)
+                .set("finishedAt", now)
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), ProcessingJob.class);
+    }
+
+    @Override
+    public Mono<Boolean> renewLease(String jobId, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now);
+        return mongoTemplate.updateFirst(ownedBy(jobId, owner), update, ProcessingJob.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+
+    @Override
+    public Mono<Void> markDone(String jobId, String owner) {
+        return finish(jobId, owner, ProcessingJobStatus.DONE, null);
+    }
+
+    @Override
+    public Mono<Void> markRetry(String jobId, String owner, Instant availableAt, String error) {
+        Update update = new Update()
+                .set("status", ProcessingJobStatus.QUEUED)
+                .set("availableAt", availableAt)
+                .set("lastError", error)
+                .set("updatedAt", Instant.now())
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        return mongoTemplate.updateFirst(ownedBy(jobId, owner), update, ProcessingJob.class).then();
+    }
+
+    @Override
+    public Mono<Void> markFailed(String jobId, String owner, String error) {
+        return finish(jobId, owner, ProcessingJobStatus.FAILED, error);
+    }
+
+    @Override
+    public Mono<Boolean> existsActiveByDocumentId(String documentId) {
+        Query query = Query.query(Criteria.where("documentId").is(documentId)
+                .and("status").in(List.of(ProcessingJobStatus.QUEUED, ProcessingJobStatus.RUNNING)));
+        return mongoTemplate.exists(query, ProcessingJob.class);
+    }
+
+    @Override
+    public Mono<Long> countByStatus(ProcessingJobStatus status) {
+        return mongoTemplate.count(Query.query(Criteria.where("status").is(status)), ProcessingJob.class);
+    }
+
+    private Mono<Void> finish(String jobId, String owner, ProcessingJobStatus status, String error) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("finishedAt", now)
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+        if (error != null) {
+            update.set("lastError", error);
+        }
+        return mongoTemplate.updateFirst(ownedBy(jobId, owner), update, ProcessingJob.class).then();
+    }
+
+    /**
+     * Só altera o job se o lease ainda pertence ao worker (evita sobrescrever um job reassumido).
+     */
+    private Query ownedBy(String jobId, String owner) {
+        return Query.query(Criteria.where("_id").is(jobId)
+                .and("leaseOwner").is(owner)
+                .and("status").is(ProcessingJobStatus.RUNNING));
+    }
+}
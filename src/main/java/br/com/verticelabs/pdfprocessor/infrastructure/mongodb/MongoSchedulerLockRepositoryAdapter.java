@@ -0,0 +1,43 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.domain.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Um documento por lock na collection scheduler_locks ({@code _id} = nome do lock).
+ */
+@Component
+@RequiredArgsConstructor
+public class MongoSchedulerLockRepositoryAdapter implements SchedulerLockRepository {
+
+    static final String COLLECTION = "scheduler_locks";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> tryAcquire(String name, String owner, Duration lease) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(name).orOperator(
+                Criteria.where("leaseExpiresAt").lt(now),
+                Criteria.where("leaseOwner").is(owner)));
+        Update update = new Update()
+                .set("leaseOwner", owner)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now);
+
+        // Lock de outra instância ainda válido: o upsert tenta inserir o mesmo _id e esbarra na chave
+        return mongoTemplate.upsert(query, update, COLLECTION)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+}
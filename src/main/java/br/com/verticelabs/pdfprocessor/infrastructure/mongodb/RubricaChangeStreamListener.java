@@ -0,0 +1,82 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Observa a coleção {@code rubricas} via change stream e recarrega o {@link RubricaCatalog}
+ * quando outra instância (ou uma alteração direta no banco) modifica as rubricas.
+ *
+ * Change streams exigem replica set (Atlas). Em MongoDB standalone o stream falha e o catálogo
+ * passa a depender apenas do TTL ({@code app.rubricas.catalog.ttl}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RubricaChangeStreamListener {
+
+    private static final String COLLECTION = "rubricas";
+    private static final int MAX_RETRIES = 5;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final RubricaCatalog rubricaCatalog;
+
+    @Value("${app.rubricas.catalog.change-stream-enabled:true}")
+    private boolean changeStreamEnabled;
+
+    private volatile Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rubricaCatalog.refresh()
+                .doOnError(error -> log.warn("Não foi possível pré-carregar o catálogo de rubricas: {}",
+                        error.getMessage()))
+                .onErrorComplete()
+                .subscribe();
+
+        if (!changeStreamEnabled) {
+            log.info("Change stream de rubricas desabilitado; catálogo atualizado por TTL e pelas operações da API");
+            return;
+        }
+
+        subscription = mongoTemplate.changeStream(COLLECTION, ChangeStreamOptions.empty(), Document.class)
+                .doOnSubscribe(s -> log.info("👀 Observando alterações na coleção '{}'", COLLECTION))
+                .concatMap(event -> {
+                    log.debug("Alteração em rubricas detectada ({}), recarregando catálogo",
+                            event.getOperationType());
+                    return rubricaCatalog.refresh()
+                            .doOnError(error -> log.warn("Falha ao recarregar catálogo de rubricas: {}",
+                                    error.getMessage()))
+                            .onErrorComplete();
+                })
+                .retryWhen(Retry.backoff(MAX_RETRIES, Duration.ofSeconds(5))
+                        .maxBackoff(Duration.ofMinutes(2))
+                        .doBeforeRetry(signal -> log.warn("Change stream de rubricas interrompido ({}); tentativa {}",
+                                signal.failure().getMessage(), signal.totalRetries() + 1)))
+                .subscribe(
+                        ignored -> { },
+                        error -> log.warn("Change stream de rubricas indisponível; catálogo seguirá apenas por TTL: {}",
+                                error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable atual = subscription;
+        if (atual != null) {
+            atual.dispose();
+        }
+    }
+}
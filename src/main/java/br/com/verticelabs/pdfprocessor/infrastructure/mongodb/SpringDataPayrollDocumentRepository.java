@@ -20,6 +20,8 @@ public interface SpringDataPayrollDocumentRepository extends ReactiveMongoReposi
     Mono<PayrollDocument> findByTenantIdAndFileHash(String tenantId, String fileHash);
     
     Mono<Long> countByTenantId(String tenantId);
+
+    Mono<Long> countByStatus(DocumentStatus status);
     
     // Métodos legados
     @Deprecated
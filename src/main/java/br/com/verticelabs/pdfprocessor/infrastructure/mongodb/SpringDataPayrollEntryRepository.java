@@ -13,7 +13,7 @@ public interface SpringDataPayrollEntryRepository extends ReactiveMongoRepositor
     Flux<PayrollEntry> findAllByTenantId(String tenantId);
     
     Mono<Long> countByTenantIdAndDocumentoId(String tenantId, String documentoId);
-    
+
     Mono<Long> countByTenantId(String tenantId);
     
     // Métodos legados
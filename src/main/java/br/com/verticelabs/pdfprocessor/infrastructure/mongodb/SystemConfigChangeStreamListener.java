@@ -0,0 +1,89 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.mongodb;
+
+import br.com.verticelabs.pdfprocessor.application.config.SystemConfigCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Carrega o {@link SystemConfigCache} no startup e o mantém sincronizado com a coleção
+ * {@code system_config} via change stream.
+ *
+ * A carga inicial roda antes dos demais listeners de {@link ApplicationReadyEvent} (ex.: workers
+ * da fila de processamento), para que a primeira página processada já enxergue {@code ai.enabled}.
+ * Sem replica set o change stream falha e o cache passa a depender do TTL
+ * ({@code app.system-config.cache.ttl}) e das gravações feitas pela própria instância.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SystemConfigChangeStreamListener {
+
+    private static final String COLLECTION = "system_config";
+    private static final int MAX_RETRIES = 5;
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final SystemConfigCache systemConfigCache;
+
+    @Value("${app.system-config.cache.change-stream-enabled:true}")
+    private boolean changeStreamEnabled;
+
+    private volatile Disposable subscription;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            systemConfigCache.refresh().block(WARM_UP_TIMEOUT);
+        } catch (Exception e) {
+            log.warn("Não foi possível pré-carregar as configurações do sistema: {}. "
+                    + "O cache será carregado no primeiro acesso.", e.getMessage());
+        }
+
+        if (!changeStreamEnabled) {
+            log.info("Change stream de system_config desabilitado; cache atualizado por TTL e pelas operações da API");
+            return;
+        }
+
+        subscription = mongoTemplate.changeStream(COLLECTION, ChangeStreamOptions.empty(), Document.class)
+                .doOnSubscribe(s -> log.info("👀 Observando alterações na coleção '{}'", COLLECTION))
+                .concatMap(event -> {
+                    log.debug("Alteração em system_config detectada ({}), recarregando cache",
+                            event.getOperationType());
+                    return systemConfigCache.refresh()
+                            .doOnError(error -> log.warn("Falha ao recarregar configurações do sistema: {}",
+                                    error.getMessage()))
+                            .onErrorComplete();
+                })
+                .retryWhen(Retry.backoff(MAX_RETRIES, Duration.ofSeconds(5))
+                        .maxBackoff(Duration.ofMinutes(2))
+                        .doBeforeRetry(signal -> log.warn("Change stream de system_config interrompido ({}); tentativa {}",
+                                signal.failure().getMessage(), signal.totalRetries() + 1)))
+                .subscribe(
+                        ignored -> { },
+                        error -> log.warn("Change stream de system_config indisponível; cache seguirá apenas por TTL: {}",
+                                error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable atual = subscription;
+        if (atual != null) {
+            atual.dispose();
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+/**
+ * Reconhecedor de linhas de rubrica (CAIXA, FUNCEF e FUNCEF_DEMONSTRATIVO) em uma única passada,
+ * sem regex e sem substrings intermediárias.
+ *
+ * Reproduz os padrões que o {@link PdfLineParser} aplicava em cascata, com a mesma semântica de
+ * backtracking: o código tenta 4 dígitos antes de 3, a descrição é a mais curta que permite casar o
+ * restante da linha e os campos opcionais (competência, prazo) são tentados antes de serem omitidos.
+ * Dos cinco padrões CAIXA, SIMPLES e DATA_SEPARADA aceitam subconjuntos de LINHA_UNICA e nunca eram
+ * alcançados; o scanner testa LINHA_UNICA, NATIVO (valor com competência colada) e FLEXIVEL, que só
+ * difere de LINHA_UNICA quando a descrição não pode absorver o prazo (quebra de linha no meio).
+ *
+ * Cada {@code scan*} recebe a linha já aparada como o intervalo {@code [inicio, fim)} de um
+ * {@link CharSequence}; em caso de match, os campos ficam disponíveis como intervalos (início/fim,
+ * {@code -1} quando ausentes). Não é thread-safe: uma instância por página.
+ */
+final class PayslipLineScanner {
+
+    static final String LINHA_UNICA = "LINHA_UNICA";
+    static final String NATIVO = "NATIVO";
+    static final String FLEXIVEL = "FLEXIVEL";
+    static final String FUNCEF = "FUNCEF";
+    static final String DEMONSTRATIVO = "DEMONSTRATIVO";
+    static final String DEMONSTRATIVO_GLUED = "DEMONSTRATIVO_GLUED";
+
+    private CharSequence s;
+
+    String formato;
+    int codigoInicio;
+    int codigoFim;
+    int descricaoInicio;
+    int descricaoFim;
+    int referenciaInicio;
+    int referenciaFim;
+    int valorInicio;
+    int valorFim;
+
+    // ========== CAIXA ==========
+
+    /**
+     * {@code CODIGO DESCRICAO? COMPETENCIA? PRAZO? [A-Z]?VALOR} ou, se não casar,
+     * {@code CODIGO DESCRICAO? PRAZO? VALORmm/aaaa}.
+     */
+    boolean scanCaixa(CharSequence texto, int inicio, int fim) {
+        reset(texto);
+        int c3 = codigo3(inicio, fim);
+        if (c3 < 0) {
+            return false;
+        }
+        int c4 = quartoDigito(c3, fim);
+        if (c4 >= 0 && linhaUnica(inicio, c4, fim)) {
+            return true;
+        }
+        if (linhaUnica(inicio, c3, fim)) {
+            return true;
+        }
+        if (c4 >= 0 && nativo(inicio, c4, fim)) {
+            return true;
+        }
+        if (nativo(inicio, c3, fim)) {
+            return true;
+        }
+        return (c4 >= 0 && flexivel(inicio, c4, fim)) || flexivel(inicio, c3, fim);
+    }
+
+    private boolean linhaUnica(int inicio, int codigoFim, int fim) {
+        return codigoDescricaoValor(LINHA_UNICA, inicio, codigoFim, fim);
+    }
+
+    /**
+     * Como LINHA_UNICA, mas a descrição também pode terminar antes de um prazo seguido de valor.
+     */
+    private boolean flexivel(int inicio, int codigoFim, int fim) {
+        return codigoDescricaoValor(FLEXIVEL, inicio, codigoFim, fim);
+    }
+
+    private boolean codigoDescricaoValor(String formatoCasado, int inicio, int codigoFim, int fim) {
+        if (!espaco(codigoFim, fim)) {
+            return false;
+        }
+        int p = pularEspacos(codigoFim, fim);
+        if (p < fim && !terminador(s.charAt(p))) {
+            for (int e = p + 1; e < fim; e++) {
+                char c = s.charAt(e);
+                if (inicioDeEspacos(e)) {
+                    int q = pularEspacos(e, fim);
+                    if (fimDaDescricao(formatoCasado, q, fim) && competenciaPrazoValor(q, fim)) {
+                        return aceitar(formatoCasado, inicio, codigoFim, p, e);
+                    }
+                }
+                if (terminador(c)) {
+                    break;
+                }
+            }
+        }
+        if (competenciaPrazoValor(p, fim)) {
+            return aceitar(formatoCasado, inicio, codigoFim, -1, -1);
+        }
+        return false;
+    }
+
+    /**
+     * A descrição termina antes de uma competência ou de um valor (FLEXIVEL: ou de prazo + valor).
+     */
+    private boolean fimDaDescricao(String formatoCasado, int q, int fim) {
+        if (data(q, fim) >= 0 || prefixoValor(q, fim)) {
+            return true;
+        }
+        return formatoCasado == FLEXIVEL && digitos(q, q + 3, fim) && espaco(q + 3, fim)
+                && prefixoValor(pularEspacos(q + 3, fim), fim);
+    }
+
+    /**
+     * {@code (COMPETENCIA\s+)? (PRAZO\s+)? [A-Z]?VALOR\s*$}
+     */
+    private boolean competenciaPrazoValor(int q, int fim) {
+        int d = data(q, fim);
+        if (d >= 0 && espaco(d, fim) && prazoValor(pularEspacos(d, fim), fim)) {
+            referenciaInicio = q;
+            referenciaFim = d;
+            return true;
+        }
+        referenciaInicio = -1;
+        referenciaFim = -1;
+        return prazoValor(q, fim);
+    }
+
+    private boolean prazoValor(int q, int fim) {
+        if (digitos(q, q + 3, fim) && espaco(q + 3, fim) && valorComLetra(pularEspacos(q + 3, fim), fim)) {
+            return true;
+        }
+        return valorComLetra(q, fim);
+    }
+
+    /**
+     * Valor até o fim da linha, com uma letra opcional antes (ex.: "T48,62"), descartada do campo.
+     */
+    private boolean valorComLetra(int q, int fim) {
+        int f = semEspacosFinais(q, fim);
+        int i = q < f && letraMaiuscula(s.charAt(q)) ? q + 1 : q;
+        if (!numero(i, f, true)) {
+            return false;
+        }
+        valorInicio = i;
+        valorFim = f;
+        return true;
+    }
+
+    private boolean nativo(int inicio, int codigoFim, int fim) {
+        if (!espaco(codigoFim, fim)) {
+            return false;
+        }
+        int p = pularEspacos(codigoFim, fim);
+        if (p < fim && !terminador(s.charAt(p))) {
+            for (int e = p + 1; e < fim; e++) {
+                char c = s.charAt(e);
+                if (inicioDeEspacos(e) && prazoValorComData(pularEspacos(e, fim), fim)) {
+                    return aceitar(NATIVO, inicio, codigoFim, p, e);
+                }
+                if (terminador(c)) {
+                    break;
+                }
+            }
+        }
+        if (prazoValorComData(p, fim)) {
+            return aceitar(NATIVO, inicio, codigoFim, -1, -1);
+        }
+        return false;
+    }
+
+    private boolean prazoValorComData(int q, int fim) {
+        if (digitos(q, q + 3, fim) && espaco(q + 3, fim) && valorComData(pularEspacos(q + 3, fim), fim)) {
+            return true;
+        }
+        return valorComData(q, fim);
+    }
+
+    /**
+     * {@code VALORmm/aaaa\s*$} — competência colada ao valor.
+     */
+    private boolean valorComData(int q, int fim) {
+        int f = semEspacosFinais(q, fim);
+        int d = f - 7;
+        if (d < q || !digitos(d, d + 2, f) || s.charAt(d + 2) != '/' || !digitos(d + 3, f, f)) {
+            return false;
+        }
+        if (!numero(q, d, true)) {
+            return false;
+        }
+        valorInicio = q;
+        valorFim = d;
+        referenciaInicio = d;
+        referenciaFim = f;
+        return true;
+    }
+
+    // ========== FUNCEF ==========
+
+    /**
+     * {@code CODIGO aaaa/mm DESCRICAO (PRAZO)? VALOR}
+     */
+    boolean scanFuncef(CharSequence texto, int inicio, int fim) {
+        reset(texto);
+        int c3 = codigo3(inicio, fim);
+        if (c3 < 0) {
+            return false;
+        }
+        int c4 = quartoDigito(c3, fim);
+        return (c4 >= 0 && funcef(inicio, c4, fim)) || funcef(inicio, c3, fim);
+    }
+
+    private boolean funcef(int inicio, int codigoFim, int fim) {
+        if (!espaco(codigoFim, fim)) {
+            return false;
+        }
+        int r = pularEspacos(codigoFim, fim);
+        if (!digitos(r, r + 4, fim) || r + 4 >= fim || s.charAt(r + 4) != '/' || !digito(r + 5, fim)) {
+            return false;
+        }
+        int rf = digito(r + 6, fim) ? r + 7 : r + 6;
+        if (!espaco(rf, fim)) {
+            return false;
+        }
+        int p = pularEspacos(rf, fim);
+        if (p >= fim || terminador(s.charAt(p))) {
+            return false;
+        }
+        for (int e = p + 1; e < fim; e++) {
+            char c = s.charAt(e);
+            if (inicioDeEspacos(e) && prazoValorFuncef(pularEspacos(e, fim), fim)) {
+                referenciaInicio = r;
+                referenciaFim = rf;
+                return aceitar(FUNCEF, inicio, codigoFim, p, e);
+            }
+            if (terminador(c)) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean prazoValorFuncef(int q, int fim) {
+        int n = q;
+        while (n < fim && n - q < 4 && digito(n, fim)) {
+            n++;
+        }
+        if (n > q && n - q <= 3 && espaco(n, fim) && valorSemLetra(pularEspacos(n, fim), fim)) {
+            return true;
+        }
+        return valorSemLetra(q, fim);
+    }
+
+    private boolean valorSemLetra(int q, int fim) {
+        int f = semEspacosFinais(q, fim);
+        if (!numero(q, f, false)) {
+            return false;
+        }
+        valorInicio = q;
+        valorFim = f;
+        return true;
+    }
+
+    // ========== FUNCEF_DEMONSTRATIVO ==========
+
+    /**
+     * {@code mm/aaaa (dd/mm/aaaa)? CODIGO6 DESCRICAO VALOR 0,00 0} ou, se não casar, a variante com
+     * colunas coladas {@code DESCRICAO VALORCODIGO6mm/aaaa 0,00 0}. O código fica com os 6 dígitos;
+     * quem chama usa só os 4 primeiros.
+     */
+    boolean scanFuncefDemonstrativo(CharSequence texto, int inicio, int fim) {
+        reset(texto);
+        return demonstrativo(inicio, fim) || demonstrativoGlued(inicio, fim);
+    }
+
+    private boolean demonstrativo(int inicio, int fim) {
+        int rf = data(inicio, fim);
+        if (rf < 0 || !espaco(rf, fim)) {
+            return false;
+        }
+        int p = pularEspacos(rf, fim);
+        if (digitos(p, p + 2, fim) && p + 10 <= fim && s.charAt(p + 2) == '/' && digitos(p + 3, p + 5, fim)
+                && s.charAt(p + 5) == '/' && digitos(p + 6, p + 10, fim) && espaco(p + 10, fim)) {
+            p = pularEspacos(p + 10, fim);
+        }
+        if (!digitos(p, p + 6, fim) || !espaco(p + 6, fim)) {
+            return false;
+        }
+        int cod = p;
+        int d = pularEspacos(p + 6, fim);
+        if (d >= fim || terminador(s.charAt(d))) {
+            return false;
+        }
+        for (int e = d + 1; e < fim; e++) {
+            char c = s.charAt(e);
+            if (inicioDeEspacos(e)) {
+                int q = pularEspacos(e, fim);
+                int v = fimDoToken(q, fim);
+                if (numero(q, v, false) && residuoEPrazo(v, fim)) {
+                    valorInicio = q;
+                    valorFim = v;
+                    referenciaInicio = inicio;
+                    referenciaFim = rf;
+                    formato = DEMONSTRATIVO;
+                    codigoInicio = cod;
+                    codigoFim = cod + 6;
+                    descricaoInicio = d;
+                    descricaoFim = e;
+                    return true;
+                }
+            }
+            if (terminador(c)) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean demonstrativoGlued(int inicio, int fim) {
+        if (inicio >= fim || terminador(s.charAt(inicio))) {
+            return false;
+        }
+        for (int e = inicio + 1; e < fim; e++) {
+            char c = s.charAt(e);
+            if (inicioDeEspacos(e)) {
+                int q = pularEspacos(e, fim);
+                int t = fimDoToken(q, fim);
+                if (valorCodigoCompetencia(q, t) && residuoEPrazo(t, fim)) {
+                    formato = DEMONSTRATIVO_GLUED;
+                    descricaoInicio = inicio;
+                    descricaoFim = e;
+                    return true;
+                }
+            }
+            if (terminador(c)) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code VALOR CODIGO6 m(m)/aaaa} colados num só token, ex.: "57,0843620412/2016".
+     */
+    private boolean valorCodigoCompetencia(int a, int b) {
+        int barra = b - 5;
+        if (barra <= a || s.charAt(barra) != '/' || !digitos(barra + 1, b, b)) {
+            return false;
+        }
+        for (int mes = 2; mes >= 1; mes--) {
+            int virgula = barra - mes - 6 - 3;
+            if (virgula > a && s.charAt(virgula) == ',' && digitos(virgula + 1, barra, b)
+                    && parteInteira(a, virgula)) {
+                valorInicio = a;
+                valorFim = virgula + 3;
+                codigoInicio = virgula + 3;
+                codigoFim = virgula + 9;
+                referenciaInicio = virgula + 9;
+                referenciaFim = b;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code \s+VALOR\s+\d+\s*$} — colunas de resíduo e prazo, ignoradas.
+     */
+    private boolean residuoEPrazo(int v, int fim) {
+        if (!espaco(v, fim)) {
+            return false;
+        }
+        int q = pularEspacos(v, fim);
+        int t = fimDoToken(q, fim);
+        if (!numero(q, t, false) || !espaco(t, fim)) {
+            return false;
+        }
+        int p = pularEspacos(t, fim);
+        int f = semEspacosFinais(p, fim);
+        return f > p && digitos(p, f, f);
+    }
+
+    // ========== Campos ==========
+
+    String codigo() {
+        StringBuilder sb = new StringBuilder(4);
+        for (int i = codigoInicio; i < codigoFim; i++) {
+            char c = s.charAt(i);
+            if (!espaco(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    String descricao() {
+        return descricaoInicio < 0 ? null : s.subSequence(descricaoInicio, descricaoFim).toString();
+    }
+
+    String referencia() {
+        return referenciaInicio < 0 ? null : s.subSequence(referenciaInicio, referenciaFim).toString();
+    }
+
+    String valor() {
+        return s.subSequence(valorInicio, valorFim).toString();
+    }
+
+    // ========== Primitivas ==========
+
+    private void reset(CharSequence texto) {
+        s = texto;
+        formato = null;
+        codigoInicio = codigoFim = -1;
+        descricaoInicio = descricaoFim = -1;
+        referenciaInicio = referenciaFim = -1;
+        valorInicio = valorFim = -1;
+    }
+
+    private boolean aceitar(String formatoCasado, int codigoInicio, int codigoFim, int descricaoInicio,
+                            int descricaoFim) {
+        this.formato = formatoCasado;
+        this.codigoInicio = codigoInicio;
+        this.codigoFim = codigoFim;
+        this.descricaoInicio = descricaoInicio;
+        this.descricaoFim = descricaoFim;
+        return true;
+    }
+
+    /**
+     * {@code [0-9]\s*[0-9]\s*[0-9]} no início da linha; retorna o fim ou -1.
+     */
+    private int codigo3(int i, int fim) {
+        if (!digito(i, fim)) {
+            return -1;
+        }
+        i = pularEspacos(i + 1, fim);
+        if (!digito(i, fim)) {
+            return -1;
+        }
+        i = pularEspacos(i + 1, fim);
+        return digito(i, fim) ? i + 1 : -1;
+    }
+
+    /**
+     * {@code \s*[0-9]} opcional após os três primeiros dígitos do código; retorna o fim ou -1.
+     */
+    private int quartoDigito(int i, int fim) {
+        int j = pularEspacos(i, fim);
+        return digito(j, fim) ? j + 1 : -1;
+    }
+
+    /**
+     * {@code [0-9]{1,2}/[0-9]{4}} em {@code q}; retorna o fim ou -1.
+     */
+    private int data(int q, int fim) {
+        if (!digito(q, fim)) {
+            return -1;
+        }
+        int b = digito(q + 1, fim) ? q + 2 : q + 1;
+        if (b >= fim || s.charAt(b) != '/' || !digitos(b + 1, b + 5, fim)) {
+            return -1;
+        }
+        return b + 5;
+    }
+
+    /**
+     * Existe um valor ({@code [A-Z]?[0-9]{1,3}(\.[0-9]{3})*[,.][0-9]{2}}) começando em {@code q}?
+     */
+    private boolean prefixoValor(int q, int fim) {
+        int i = q < fim && letraMaiuscula(s.charAt(q)) ? q + 1 : q;
+        for (int n = 1; n <= 3 && digito(i + n - 1, fim); n++) {
+            int j = i + n;
+            while (j < fim) {
+                char c = s.charAt(j);
+                if ((c == ',' || c == '.') && digitos(j + 1, j + 3, fim)) {
+                    return true;
+                }
+                if (c != '.' || !digitos(j + 1, j + 4, fim)) {
+                    break;
+                }
+                j += 4;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code [0-9]{1,3}(\.[0-9]{3})*[,.][0-9]{2}} ocupando exatamente {@code [a, b)}.
+     */
+    private boolean numero(int a, int b, boolean aceitaPontoDecimal) {
+        if (b - a < 4) {
+            return false;
+        }
+        char sep = s.charAt(b - 3);
+        if (!(sep == ',' || (aceitaPontoDecimal && sep == '.')) || !digitos(b - 2, b, b)) {
+            return false;
+        }
+        return parteInteira(a, b - 3);
+    }
+
+    /**
+     * {@code [0-9]{1,3}(\.[0-9]{3})*} ocupando exatamente {@code [a, b)}.
+     */
+    private boolean parteInteira(int a, int b) {
+        int j = a;
+        while (j < b && digito(j, b)) {
+            j++;
+        }
+        if (j == a || j - a > 3) {
+            return false;
+        }
+        while (j < b) {
+            if (s.charAt(j) != '.' || !digitos(j + 1, j + 4, b)) {
+                return false;
+            }
+            j += 4;
+        }
+        return true;
+    }
+
+    private boolean digitos(int a, int b, int fim) {
+        if (a < 0 || b > fim || a >= b) {
+            return false;
+        }
+        for (int i = a; i < b; i++) {
+            if (!digito(i, fim)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean digito(int i, int fim) {
+        if (i < 0 || i >= fim) {
+            return false;
+        }
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    private boolean inicioDeEspacos(int e) {
+        return espaco(s.charAt(e)) && !espaco(s.charAt(e - 1));
+    }
+
+    private boolean espaco(int i, int fim) {
+        return i < fim && espaco(s.charAt(i));
+    }
+
+    private int pularEspacos(int i, int fim) {
+        while (i < fim && espaco(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private int semEspacosFinais(int inicio, int fim) {
+        while (fim > inicio && espaco(s.charAt(fim - 1))) {
+            fim--;
+        }
+        return fim;
+    }
+
+    private int fimDoToken(int i, int fim) {
+        while (i < fim && !espaco(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /** Mesmo conjunto do {@code \s} de java.util.regex. */
+    private static boolean espaco(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /** Caracteres que o {@code .} de java.util.regex não aceita. */
+    private static boolean terminador(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean letraMaiuscula(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
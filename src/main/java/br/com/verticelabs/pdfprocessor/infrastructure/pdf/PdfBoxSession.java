@@ -0,0 +1,157 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link PdfSession} baseada em PDFBox: mantém um único {@link PDDocument} aberto,
+ * com um {@link PDFTextStripper} e um {@link PDFRenderer} reaproveitados entre páginas.
+ *
+ * <p>O PDFBox não é thread-safe, então todo acesso ao documento é feito sob o monitor
+ * da própria sessão.</p>
+ *
+ * <p>Quando aberta sobre um arquivo, o PDFBox lê o conteúdo sob demanda via
+ * {@link RandomAccessReadBufferedFile} (páginas de buffer de tamanho fixo) e os bytes brutos
+ * só são materializados se algum consumidor chamar {@link #getPdfBytes()}.</p>
+ */
+@Slf4j
+class PdfBoxSession implements PdfSession {
+
+    private final Path source;
+    private byte[] pdfBytes;
+    private final PDDocument document;
+    private final int totalPages;
+    private final PDFTextStripper stripper;
+    private PDFRenderer renderer;
+    private boolean closed;
+
+    private PdfBoxSession(Path source, byte[] pdfBytes, PDDocument document) throws IOException {
+        this.source = source;
+        this.pdfBytes = pdfBytes;
+        this.document = document;
+        this.totalPages = document.getNumberOfPages();
+        this.stripper = new PDFTextStripper();
+    }
+
+    static PdfBoxSession open(byte[] pdfBytes) throws IOException {
+        return wrap(null, pdfBytes, Loader.loadPDF(pdfBytes));
+    }
+
+    static PdfBoxSession open(Path pdfFile) throws IOException {
+        // o PDDocument assume o RandomAccessRead e o fecha junto com o documento
+        return wrap(pdfFile, null, Loader.loadPDF(new RandomAccessReadBufferedFile(pdfFile.toFile())));
+    }
+
+    private static PdfBoxSession wrap(Path source, byte[] pdfBytes, PDDocument document) throws IOException {
+        try {
+            return new PdfBoxSession(source, pdfBytes, document);
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized byte[] getPdfBytes() {
+        if (pdfBytes == null) {
+            try {
+                pdfBytes = Files.readAllBytes(source);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ler PDF de " + source, e);
+            }
+        }
+        return pdfBytes;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    @Override
+    public Mono<String> extractTextFromPage(int pageNumber) {
+        return Mono.fromCallable(() -> extractTextFromPageBlocking(pageNumber))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<String> extractText() {
+        return Mono.fromCallable(this::extractTextBlocking)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<BufferedImage> renderPage(int pageNumber, float dpi) {
+        return renderPage(pageNumber, dpi, false);
+    }
+
+    @Override
+    public Mono<BufferedImage> renderPage(int pageNumber, float dpi, boolean grayscale) {
+        return Mono.fromCallable(() -> renderPageBlocking(pageNumber, dpi, grayscale))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    synchronized String extractTextFromPageBlocking(int pageNumber) throws IOException {
+        ensureOpen();
+        stripper.setStartPage(pageNumber);
+        stripper.setEndPage(pageNumber);
+        return stripper.getText(document);
+    }
+
+    synchronized String extractTextBlocking() throws IOException {
+        ensureOpen();
+        stripper.setStartPage(1);
+        stripper.setEndPage(Integer.MAX_VALUE);
+        return stripper.getText(document);
+    }
+
+    synchronized BufferedImage renderPageBlocking(int pageNumber, float dpi, boolean grayscale) throws IOException {
+        ensureOpen();
+        int pageIndex = pageNumber - 1;
+        if (pageIndex < 0 || pageIndex >= totalPages) {
+            throw new IllegalArgumentException(
+                    "Página " + pageNumber + " não existe. O PDF tem " + totalPages + " páginas.");
+        }
+        if (renderer == null) {
+            renderer = new PDFRenderer(document);
+        }
+        return renderer.renderImageWithDPI(pageIndex, dpi, grayscale ? ImageType.GRAY : ImageType.RGB);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        renderer = null;
+        if (source != null) {
+            pdfBytes = null;
+        }
+        try {
+            document.close();
+        } catch (IOException e) {
+            log.warn("Erro ao fechar sessão do PDF: {}", e.getMessage());
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Sessão do PDF já foi fechada");
+        }
+    }
+}
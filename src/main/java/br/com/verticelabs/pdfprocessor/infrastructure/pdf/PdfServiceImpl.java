@@ -1,6 +1,7 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
 
 import br.com.verticelabs.pdfprocessor.domain.service.PdfService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
@@ -15,6 +16,7 @@ import reactor.core.scheduler.Schedulers;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -74,6 +76,18 @@ public class PdfServiceImpl implements PdfService {
         }).subscribeOn(Schedulers.boundedElastic());
     }
 
+    @Override
+    public Mono<PdfSession> openSession(byte[] pdfBytes) {
+        return Mono.fromCallable(() -> (PdfSession) PdfBoxSession.open(pdfBytes))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<PdfSession> openSession(Path pdfFile) {
+        return Mono.fromCallable(() -> (PdfSession) PdfBoxSession.open(pdfFile))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     private byte[] readAllBytes(InputStream inputStream) throws IOException {
         return inputStream.readAllBytes();
     }
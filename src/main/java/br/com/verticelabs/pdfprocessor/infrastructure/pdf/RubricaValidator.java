@@ -1,7 +1,7 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
 
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
 import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
-import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -25,10 +25,10 @@ public class RubricaValidator {
             "4436", "FUNCEF CONTRIB EQU SALDADO 02 GRT NATAL"
     );
 
-    private final RubricaRepository rubricaRepository;
+    private final RubricaCatalog rubricaCatalog;
 
     /**
-     * Valida se uma rubrica existe e está ativa no banco de dados.
+     * Valida se uma rubrica existe e está ativa (consulta o catálogo em memória, não o banco).
      * Para 3396, 4432 e 4436, exige também que a descrição extraída bata com a esperada.
      * Retorna a rubrica se válida, ou Mono.empty() caso contrário.
      */
@@ -39,7 +39,7 @@ public class RubricaValidator {
 
         String codigoNormalizado = codigo.trim().replaceAll("\\s+", "");
 
-        return rubricaRepository.findByCodigo(codigoNormalizado)
+        return rubricaCatalog.findByCodigo(codigoNormalizado)
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn(
                             "⚠️ Rubrica {} não encontrada no banco. Cadastre via POST /api/v1/rubricas.",
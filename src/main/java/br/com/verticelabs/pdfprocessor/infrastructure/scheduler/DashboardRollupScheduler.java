@@ -0,0 +1,76 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.scheduler;
+
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
+import br.com.verticelabs.pdfprocessor.domain.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scheduler da reconciliação periódica dos rollups do dashboard.
+ *
+ * Só uma instância reconcilia por intervalo: quem assume o lock {@value #LOCK} o mantém por
+ * {@code reconcile-interval} (sem liberar ao terminar), e as demais pulam enquanto ele vale.
+ * Na mesma instância, uma execução não começa enquanto a anterior não terminou.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardRollupScheduler {
+
+    static final String LOCK = "dashboard-rollup-reconcile";
+
+    private final DashboardRollupService dashboardRollupService;
+    private final SchedulerLockRepository lockRepository;
+
+    private final String instanceId = resolveInstanceId();
+    private final AtomicBoolean emExecucao = new AtomicBoolean();
+
+    @Value("${app.dashboard.rollup.reconcile-interval:PT30M}")
+    private Duration reconcileInterval;
+
+    /**
+     * Recalcula os rollups a cada {@code app.dashboard.rollup.reconcile-interval}; a primeira
+     * execução, logo após o startup, também cria os rollups que ainda não existem.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.rollup.reconcile-interval:PT30M}", initialDelayString = "PT1M")
+    public void reconcile() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            log.info("Reconciliação dos rollups do dashboard anterior ainda em execução; pulando");
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        // Sem block(): a thread de @Scheduled é compartilhada com as demais tarefas agendadas
+        lockRepository.tryAcquire(LOCK, instanceId, reconcileInterval)
+                .flatMap(assumido -> {
+                    if (!assumido) {
+                        log.debug("Rollups do dashboard reconciliados por outra instância neste intervalo");
+                        return Mono.<Long>empty();
+                    }
+                    return dashboardRollupService.reconciliarTodos();
+                })
+                .doFinally(signal -> emExecucao.set(false))
+                .subscribe(
+                        tenants -> log.info("Rollups do dashboard reconciliados: {} tenants em {} ms",
+                                tenants, System.currentTimeMillis() - inicio),
+                        e -> log.error("Erro ao reconciliar rollups do dashboard", e));
+    }
+
+    private static String resolveInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
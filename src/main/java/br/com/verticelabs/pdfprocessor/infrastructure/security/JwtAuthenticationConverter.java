@@ -26,22 +26,18 @@ public class JwtAuthenticationConverter implements ServerAuthenticationConverter
         return Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("Authorization"))
                 .filter(header -> header.startsWith("Bearer "))
                 .map(header -> header.substring(7))
-                .filter(jwtService::isTokenValid)
-                .map(token -> {
-                    String userId = jwtService.extractUsername(token);
-                    String tenantId = jwtService.extractTenantId(token);
-                    List<String> roles = jwtService.extractRoles(token);
-                    
-                    List<SimpleGrantedAuthority> authorities = roles.stream()
+                .flatMap(token -> Mono.justOrEmpty(jwtService.verify(token)))
+                .map(verified -> {
+                    List<SimpleGrantedAuthority> authorities = verified.roles().stream()
                             .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                             .collect(Collectors.toList());
                     
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userId, null, authorities
+                            verified.userId(), null, authorities
                     );
                     
                     // Adicionar tenantId como detalhe
-                    auth.setDetails(tenantId);
+                    auth.setDetails(verified.tenantId());
                     
                     return auth;
                 });
@@ -50,33 +50,25 @@ public class JwtAuthenticationWebFilter extends AuthenticationWebFilter {
             }
             
             String token = authHeader.substring(7);
-            
-            // Validar token
-            if (!jwtService.isTokenValid(token)) {
-                return Mono.empty();
-            }
-            
-            try {
-                String userId = jwtService.extractUsername(token);
-                String tenantId = jwtService.extractTenantId(token);
-                List<String> roles = jwtService.extractRoles(token);
-                
-                List<SimpleGrantedAuthority> authorities = roles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                        .collect(Collectors.toList());
-                
-                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userId, null, authorities
-                );
-                
-                // Adicionar tenantId como detalhe
-                auth.setDetails(tenantId);
-                
-                return Mono.just(auth);
-            } catch (Exception e) {
-                // Se houver erro ao processar token, retornar empty
-                return Mono.empty();
-            }
+
+            // Um único parse/verificação por request (ou hit no cache de tokens verificados)
+            return Mono.justOrEmpty(jwtService.verify(token))
+                    .map(JwtServerAuthenticationConverter::toAuthentication);
+        }
+
+        private static Authentication toAuthentication(VerifiedToken verified) {
+            List<SimpleGrantedAuthority> authorities = verified.roles().stream()
+                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                    .collect(Collectors.toList());
+
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    verified.userId(), null, authorities
+            );
+
+            // Adicionar tenantId como detalhe
+            auth.setDetails(verified.tenantId());
+
+            return auth;
         }
     }
 }
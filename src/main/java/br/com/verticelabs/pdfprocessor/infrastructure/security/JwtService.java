@@ -1,27 +1,90 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
 import java.util.*;
 import java.util.function.Function;
 
+@Slf4j
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final String secretKey;
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+    private final VerifiedTokenCache verifiedTokens;
+
+    // Chave HMAC e parser são derivados uma única vez (na primeira utilização, para não quebrar
+    // o startup quando jwt.secret não está configurado em ambientes sem autenticação)
+    private volatile SecretKey signInKey;
+    private volatile JwtParser parser;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.refresh-expiration}") long refreshExpiration,
+                      @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.secretKey = secretKey;
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxSize, Clock.systemUTC());
+
+        FunctionCounter.builder("jwt.verified.cache", verifiedTokens, VerifiedTokenCache::hits)
+                .description("Tokens atendidos pelo cache de tokens verificados")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.verified.cache", verifiedTokens, VerifiedTokenCache::misses)
+                .description("Tokens que precisaram de verificação HMAC")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifica o token uma única vez (assinatura + expiração) e devolve todas as claims usadas
+     * na autenticação. Tokens recentes são servidos do cache até o {@code exp}.
+     *
+     * @return vazio se o token for inválido, adulterado ou expirado
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String cacheKey = VerifiedTokenCache.keyOf(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+        try {
+            VerifiedToken verified = toVerifiedToken(extractAllClaims(token));
+            verifiedTokens.put(cacheKey, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token JWT rejeitado: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-    @Value("${jwt.refresh-expiration}")
-    private long refreshExpiration;
+    /**
+     * Remove periodicamente entradas expiradas do cache de tokens verificados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.verified-cache.cleanup-interval:PT5M}")
+    public void evictExpiredTokens() {
+        verifiedTokens.evictExpired();
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -31,13 +94,8 @@ public class JwtService {
         return extractClaim(token, claims -> claims.get("tenantId", String.class));
     }
     
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        Object rolesObj = extractClaim(token, claims -> claims.get("roles"));
-        if (rolesObj instanceof List) {
-            return (List<String>) rolesObj;
-        }
-        return Collections.emptyList();
+        return extractClaim(token, JwtService::rolesOf);
     }
     
     public String extractJti(String token) {
@@ -99,14 +157,45 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("tenantId", String.class),
+                rolesOf(claims),
+                claims.getId(),
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> rolesOf(Claims claims) {
+        Object rolesObj = claims.get("roles");
+        if (rolesObj instanceof List) {
+            return List.copyOf((List<String>) rolesObj);
+        }
+        return Collections.emptyList();
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().verifyWith(getSignInKey()).build();
+            parser = current;
+        }
+        return current;
+    }
+
     private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        SecretKey current = signInKey;
+        if (current == null) {
+            current = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+            signInKey = current;
+        }
+        return current;
     }
 }
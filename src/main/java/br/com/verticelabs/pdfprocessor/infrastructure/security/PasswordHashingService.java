@@ -0,0 +1,156 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import br.com.verticelabs.pdfprocessor.domain.exceptions.TooManyRequestsException;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.PasswordEncoderConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executa {@code matches}/{@code encode} do Argon2 fora do event loop, num pool próprio com número
+ * fixo de threads dimensionado pela memória: cada hash aloca
+ * {@link PasswordEncoderConfig#ARGON2_MEMORY_KB} no heap, então o pool nunca passa de
+ * {@code memory-budget-percent} do heap (nem do número de CPUs).
+ *
+ * <p>Pedidos além das threads esperam numa fila limitada. Com a fila cheia, ou quando o pedido
+ * esperou mais que {@code max-wait}, a resposta é {@link TooManyRequestsException} (HTTP 429) na
+ * hora, em vez de empilhar logins e memória.</p>
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final long maxWaitNanos;
+
+    private final Timer waitTimer;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedWaitTimeout = new AtomicLong();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${app.security.password-hashing.max-concurrent:0}") int maxConcurrent,
+                                  @Value("${app.security.password-hashing.memory-budget-percent:25}") int memoryBudgetPercent,
+                                  @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.security.password-hashing.max-wait:PT2S}") Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.maxWaitNanos = maxWait.toNanos();
+        int threads = maxConcurrent > 0
+                ? maxConcurrent
+                : permitsFor(Runtime.getRuntime().maxMemory(), memoryBudgetPercent,
+                        Runtime.getRuntime().availableProcessors());
+
+        AtomicInteger threadSeq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hash");
+        log.info("Hash de senha: {} threads (Argon2 {} MB cada), fila de {}, espera máxima {}",
+                threads, PasswordEncoderConfig.ARGON2_MEMORY_KB / 1024, queueCapacity, maxWait);
+
+        this.waitTimer = Timer.builder("auth.password.hash.wait")
+                .description("Espera na fila do pool de hash de senha")
+                .register(meterRegistry);
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        FunctionCounter.builder("auth.password.hash.rejected", rejectedQueueFull, AtomicLong::get)
+                .description("Pedidos de hash recusados com 429")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.password.hash.rejected", rejectedWaitTimeout, AtomicLong::get)
+                .description("Pedidos de hash recusados com 429")
+                .tag("reason", "wait_timeout")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes de senha em execução")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queued", executor, e -> e.getQueue().size())
+                .description("Pedidos de hash de senha na fila")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Duração do hash Argon2")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Threads que cabem em {@code budgetPercent} do heap com 64 MB por hash, limitadas às CPUs.
+     */
+    static int permitsFor(long maxHeapBytes, int budgetPercent, int cpus) {
+        long perHash = PasswordEncoderConfig.ARGON2_MEMORY_KB * 1024L;
+        long byMemory = maxHeapBytes / 100 * budgetPercent / perHash;
+        return (int) Math.max(1, Math.min(cpus, byMemory));
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Scheduler do pool, para quem executa o {@link PasswordEncoder} por conta própria.
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    private <T> Mono<T> submit(Timer hashTimer, Callable<T> hash) {
+        return Mono.defer(() -> {
+            long enqueuedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                waitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxWaitNanos) {
+                    rejectedWaitTimeout.incrementAndGet();
+                    throw busy();
+                }
+                return hashTimer.recordCallable(hash);
+            }).subscribeOn(scheduler);
+        }).onErrorMap(RejectedExecutionException.class, e -> {
+            rejectedQueueFull.incrementAndGet();
+            return busy();
+        });
+    }
+
+    private static TooManyRequestsException busy() {
+        return new TooManyRequestsException("Servidor ocupado. Tente novamente em instantes.");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
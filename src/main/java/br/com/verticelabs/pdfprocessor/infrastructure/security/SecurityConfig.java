@@ -3,11 +3,16 @@ package br.com.verticelabs.pdfprocessor.infrastructure.security;
 import br.com.verticelabs.pdfprocessor.infrastructure.config.ApiVersion;
 import br.com.verticelabs.pdfprocessor.infrastructure.config.CorsProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -15,10 +20,14 @@ import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Arrays;
 
 @Configuration
@@ -30,7 +39,8 @@ public class SecurityConfig {
         private final CorsProperties corsProperties;
 
         @Bean
-        public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+        public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http,
+                        @Value("${app.security.metrics-scrape-token:}") String metricsScrapeToken) {
                 String apiPrefix = ApiVersion.PREFIX; // "/api/v1"
                 
                 // Criar filtro JWT
@@ -54,6 +64,9 @@ public class SecurityConfig {
                                                                 apiPrefix + "/auth/**",
                                                                 apiPrefix + "/tenants") // Permitir criação de tenants (apenas SUPER_ADMIN depois)
                                                 .permitAll()
+                                                // Métricas: token de coleta do Prometheus ou SUPER_ADMIN
+                                                .pathMatchers("/actuator/prometheus")
+                                                .access(metricsAccess(metricsScrapeToken))
                                                 .pathMatchers(apiPrefix + "/tenants/**")
                                                 .hasRole("SUPER_ADMIN")
                                                 .pathMatchers(apiPrefix + "/admin/repasse/**")
@@ -73,6 +86,22 @@ public class SecurityConfig {
                                 .build();
         }
 
+        private static ReactiveAuthorizationManager<AuthorizationContext> metricsAccess(String scrapeToken) {
+                ReactiveAuthorizationManager<AuthorizationContext> superAdmin =
+                                AuthorityReactiveAuthorizationManager.hasRole("SUPER_ADMIN");
+                byte[] esperado = scrapeToken.getBytes(StandardCharsets.UTF_8);
+                return (authentication, context) -> {
+                        String header = context.getExchange().getRequest().getHeaders()
+                                        .getFirst(HttpHeaders.AUTHORIZATION);
+                        if (esperado.length > 0 && header != null && header.startsWith("Bearer ")
+                                        && MessageDigest.isEqual(esperado,
+                                                        header.substring(7).getBytes(StandardCharsets.UTF_8))) {
+                                return Mono.just(new AuthorizationDecision(true));
+                        }
+                        return superAdmin.check(authentication, context);
+                };
+        }
+
         @Bean
         public CorsConfigurationSource corsConfigurationSource() {
                 CorsConfiguration configuration = new CorsConfiguration();
@@ -125,9 +154,12 @@ public class SecurityConfig {
         @Bean
         public ReactiveAuthenticationManager reactiveAuthenticationManager(
                         ReactiveUserDetailsService userDetailsService,
-                        PasswordEncoder passwordEncoder) {
+                        PasswordEncoder passwordEncoder,
+                        PasswordHashingService passwordHashingService) {
                 var authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
                 authenticationManager.setPasswordEncoder(passwordEncoder);
+                // mesmo pool limitado do login (Argon2 64 MB por hash)
+                authenticationManager.setScheduler(passwordHashingService.scheduler());
                 return authenticationManager;
         }
 }
@@ -0,0 +1,19 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims de um access token já verificado (assinatura + expiração), extraídas em um único parse.
+ */
+public record VerifiedToken(
+        String userId,
+        String tenantId,
+        List<String> roles,
+        String jti,
+        Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
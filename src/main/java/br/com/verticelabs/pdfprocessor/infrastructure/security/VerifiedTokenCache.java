@@ -0,0 +1,86 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado de tokens já verificados, para que clientes em polling (status de
+ * processamento, dashboard) não paguem HMAC + parse JSON a cada request.
+ *
+ * A chave é o SHA-256 do token (o token em si não fica em memória) e cada entrada vale até o
+ * {@code exp} do próprio token. Quando o limite é atingido, as entradas expiradas são
+ * removidas; se ainda não houver espaço, o token é verificado normalmente sem ser cacheado.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    VerifiedTokenCache(int maxSize, Clock clock) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    VerifiedToken get(String key) {
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (cached.isExpired(clock.instant())) {
+            entries.remove(key, cached);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached;
+    }
+
+    void put(String key, VerifiedToken token) {
+        if (maxSize <= 0 || token.expiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(key, token);
+    }
+
+    void evictExpired() {
+        Instant now = clock.instant();
+        entries.values().removeIf(token -> token.isExpired(now));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    static String keyOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
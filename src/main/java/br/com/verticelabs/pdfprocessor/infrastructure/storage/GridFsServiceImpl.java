@@ -7,21 +7,33 @@ import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsResource;
 import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class GridFsServiceImpl implements GridFsService {
 
+    /**
+     * Tamanho dos blocos lidos do arquivo/stream de origem. O GridFS reagrupa em chunks de 255 KB,
+     * então no máximo alguns blocos ficam no heap por upload.
+     */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
     private final ReactiveGridFsTemplate gridFsTemplate;
 
     @Override
@@ -32,6 +44,21 @@ public class GridFsServiceImpl implements GridFsService {
     
     @Override
     public Mono<String> storeFileWithHash(InputStream inputStream, String filename, String contentType, String fileHash) {
+        return storeWithDeduplication(
+                () -> DataBufferUtils.readInputStream(() -> inputStream, DefaultDataBufferFactory.sharedInstance,
+                        READ_BUFFER_SIZE),
+                filename, contentType, fileHash);
+    }
+
+    @Override
+    public Mono<String> storeFileWithHash(Path file, String filename, String contentType, String fileHash) {
+        return storeWithDeduplication(
+                () -> DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE),
+                filename, contentType, fileHash);
+    }
+
+    private Mono<String> storeWithDeduplication(Supplier<Flux<DataBuffer>> content,
+                                                String filename, String contentType, String fileHash) {
         log.info("GridFS: Iniciando armazenamento do arquivo '{}' (tipo: {}, hash: {})", 
                 filename, contentType, fileHash != null ? fileHash.substring(0, 16) + "..." : "não fornecido");
         
@@ -45,11 +72,11 @@ public class GridFsServiceImpl implements GridFsService {
                     })
                     .switchIfEmpty(
                             // Arquivo não existe, salvar novo
-                            Mono.defer(() -> saveNewFile(inputStream, filename, contentType, fileHash))
+                            Mono.defer(() -> saveNewFile(content.get(), filename, contentType, fileHash))
                     );
         } else {
             // Sem hash, salvar diretamente (sem deduplicação)
-            return saveNewFile(inputStream, filename, contentType, null);
+            return Mono.defer(() -> saveNewFile(content.get(), filename, contentType, null));
         }
     }
     
@@ -63,54 +90,54 @@ public class GridFsServiceImpl implements GridFsService {
                 });
     }
     
-    private Mono<String> saveNewFile(InputStream inputStream, String filename, String contentType, String fileHash) {
-        return Mono.fromCallable(() -> {
-            byte[] bytes = inputStream.readAllBytes();
-            log.info("GridFS: Arquivo lido. Tamanho: {} bytes ({} KB)", bytes.length, bytes.length / 1024);
-            return bytes;
-        })
-        .flatMap(bytes -> {
-            Flux<DataBuffer> dataBufferFlux = Flux.just(
-                    org.springframework.core.io.buffer.DefaultDataBufferFactory.sharedInstance.wrap(bytes)
-            );
-            
-            // Preparar metadados com hash (se fornecido)
-            Document metadata = new Document();
-            metadata.put("_contentType", contentType);
-            if (fileHash != null && !fileHash.isEmpty()) {
-                metadata.put("fileHash", fileHash);
-            }
-            
-            log.info("GridFS: Salvando novo arquivo no MongoDB (collections fs.files e fs.chunks)...");
-            return gridFsTemplate.store(dataBufferFlux, filename, contentType, metadata)
-                    .map(objectId -> {
-                        String fileId = objectId.toHexString();
-                        log.info("✅ GridFS: Arquivo salvo com sucesso! ID: {}", fileId);
-                        if (fileHash != null) {
-                            log.info("GridFS: Hash '{}' armazenado nos metadados para deduplicação futura", 
-                                    fileHash.substring(0, 16) + "...");
-                        }
-                        return fileId;
-                    })
-                    .doOnError(error -> log.error("GridFS: Erro ao salvar arquivo: {}", error.getMessage(), error));
-        });
+    private Mono<String> saveNewFile(Flux<DataBuffer> content, String filename, String contentType, String fileHash) {
+        // Preparar metadados com hash (se fornecido)
+        Document metadata = new Document();
+        metadata.put("_contentType", contentType);
+        if (fileHash != null && !fileHash.isEmpty()) {
+            metadata.put("fileHash", fileHash);
+        }
+
+        // Os blocos são enviados aos chunks do GridFS conforme lidos; nada é acumulado em byte[]
+        log.info("GridFS: Salvando novo arquivo no MongoDB (collections fs.files e fs.chunks)...");
+        return gridFsTemplate.store(content, filename, contentType, metadata)
+                .map(objectId -> {
+                    String fileId = objectId.toHexString();
+                    log.info("✅ GridFS: Arquivo salvo com sucesso! ID: {}", fileId);
+                    if (fileHash != null) {
+                        log.info("GridFS: Hash '{}' armazenado nos metadados para deduplicação futura", 
+                                fileHash.substring(0, 16) + "...");
+                    }
+                    return fileId;
+                })
+                .doOnError(error -> log.error("GridFS: Erro ao salvar arquivo: {}", error.getMessage(), error));
     }
 
     @Override
-    public Mono<InputStream> retrieveFile(String fileId) {
-        return gridFsTemplate.findOne(org.springframework.data.mongodb.core.query.Query.query(
-                org.springframework.data.mongodb.core.query.Criteria.where("_id").is(new ObjectId(fileId))
-        ))
-        .flatMap(gridFsTemplate::getResource)
-        .flatMap(resource -> {
-            return DataBufferUtils.join(resource.getDownloadStream())
-                    .map(dataBuffer -> {
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-                        return new ByteArrayInputStream(bytes);
-                    });
-        });
+    public Mono<Path> retrieveFileToTemp(String fileId) {
+        return findResource(fileId)
+                .flatMap(resource -> Mono.fromCallable(() -> Files.createTempFile("gridfs-", ".pdf"))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(tempFile -> DataBufferUtils.write(resource.getDownloadStream(), tempFile)
+                                .thenReturn(tempFile)
+                                .doOnCancel(() -> deleteQuietly(tempFile))
+                                .onErrorResume(error -> {
+                                    deleteQuietly(tempFile);
+                                    return Mono.error(error);
+                                })));
+    }
+
+    private Mono<ReactiveGridFsResource> findResource(String fileId) {
+        return gridFsTemplate.findOne(Query.query(Criteria.where("_id").is(new ObjectId(fileId))))
+                .flatMap(gridFsTemplate::getResource);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("GridFS: Não foi possível remover arquivo temporário {}: {}", file, e.getMessage());
+        }
     }
 
     @Override
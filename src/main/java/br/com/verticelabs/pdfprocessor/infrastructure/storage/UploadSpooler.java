@@ -0,0 +1,78 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recebe o conteúdo de um upload multipart em arquivo temporário calculando o SHA-256
+ * à medida que os {@link DataBuffer}s chegam.
+ *
+ * <p>Cada buffer é somado ao digest e gravado em disco antes de ser liberado, então o arquivo
+ * nunca é materializado no heap e o hash fica disponível ao fim da mesma passada, pronto para
+ * a verificação de duplicidade antes de qualquer parse ou gravação no GridFS.</p>
+ */
+@Slf4j
+@Component
+public class UploadSpooler {
+
+    /**
+     * Arquivo recebido. O chamador é responsável por apagar {@code path} (ver {@link #delete(Path)}).
+     */
+    public record SpooledUpload(Path path, String sha256, long size) {
+    }
+
+    public Mono<SpooledUpload> spool(FilePart filePart) {
+        return Mono.fromCallable(() -> Files.createTempFile("pdf-upload-", ".tmp"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(tempPath -> {
+                    MessageDigest digest = sha256();
+                    AtomicLong size = new AtomicLong();
+                    Flux<DataBuffer> content = filePart.content()
+                            .doOnNext(buffer -> {
+                                size.addAndGet(buffer.readableByteCount());
+                                // views somente leitura: não alteram a posição de leitura usada na escrita
+                                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                                    while (chunks.hasNext()) {
+                                        digest.update(chunks.next());
+                                    }
+                                }
+                            });
+                    return DataBufferUtils.write(content, tempPath)
+                            .then(Mono.fromSupplier(() -> new SpooledUpload(tempPath,
+                                    HexFormat.of().formatHex(digest.digest()), size.get())))
+                            .doOnNext(upload -> log.info("Upload '{}' recebido em {} ({} bytes, hash: {}...)",
+                                    filePart.filename(), tempPath, upload.size(), upload.sha256().substring(0, 16)))
+                            .onErrorResume(error -> delete(tempPath).then(Mono.error(error)));
+                });
+    }
+
+    public Mono<Void> delete(Path tempPath) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(tempPath))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(error -> log.warn("Não foi possível remover arquivo temporário {}: {}",
+                        tempPath, error.getMessage()))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.util;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Semáforo reativo: no máximo {@code permits} vagas ocupadas; quem chega sem vaga espera numa
+ * fila sem ocupar thread, e a vaga liberada passa direto para o primeiro da fila (ordem de chegada).
+ *
+ * <p>Uso: {@link #acquire(Permit)} antes do trabalho e {@link #release(Permit)} no
+ * {@code doFinally} — a mesma chamada devolve a vaga obtida ou tira da fila quem desistiu
+ * (cancelamento ou timeout) antes de obtê-la.</p>
+ */
+public final class ReactiveSemaphore {
+
+    private final int permits;
+    private final int maxQueued;
+
+    private final ArrayDeque<Permit> waiters = new ArrayDeque<>();
+    private int active;
+
+    /**
+     * Vaga de uma execução. {@code held} só muda sob o monitor do semáforo.
+     */
+    public static final class Permit {
+        private MonoSink<Void> sink;
+        private boolean held;
+    }
+
+    /**
+     * @param permits   vagas simultâneas (mínimo 1)
+     * @param maxQueued tamanho máximo da fila; {@link Integer#MAX_VALUE} para fila sem limite
+     */
+    public ReactiveSemaphore(int permits, int maxQueued) {
+        this.permits = Math.max(1, permits);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    public int permits() {
+        return permits;
+    }
+
+    /**
+     * Completa quando {@code permit} obtém a vaga. Com a fila cheia, falha na hora com
+     * {@link RejectedExecutionException}.
+     */
+    public Mono<Void> acquire(Permit permit) {
+        return Mono.create(sink -> {
+            boolean granted;
+            synchronized (this) {
+                granted = active < permits;
+                if (granted) {
+                    active++;
+                    permit.held = true;
+                } else if (waiters.size() < maxQueued) {
+                    permit.sink = sink;
+                    waiters.add(permit);
+                    return;
+                }
+            }
+            if (granted) {
+                sink.success();
+            } else {
+                sink.error(new RejectedExecutionException("fila cheia"));
+            }
+        });
+    }
+
+    /**
+     * Devolve a vaga (se obtida) ou sai da fila. Com gente esperando, a vaga passa direto para o
+     * primeiro da fila.
+     */
+    public void release(Permit permit) {
+        Permit next;
+        synchronized (this) {
+            if (!permit.held) {
+                waiters.remove(permit);
+                return;
+            }
+            permit.held = false;
+            next = waiters.poll();
+            if (next == null) {
+                active--;
+                return;
+            }
+            next.held = true;
+        }
+        // fora do monitor: o sucesso continua a cadeia do próximo na fila nesta thread
+        next.sink.success();
+    }
+
+    public synchronized int active() {
+        return active;
+    }
+
+    public synchronized int queued() {
+        return waiters.size();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Snapshot em memória carregado sob demanda, com uma única carga em andamento por vez.
+ *
+ * <ul>
+ *   <li>{@link #loadShared()} compartilha a carga entre chamadas concorrentes (ex.: várias
+ *       páginas validando lançamentos com o cache ainda vazio);</li>
+ *   <li>{@link #refresh()} inicia uma carga nova e faz qualquer carga anterior ainda em
+ *       andamento ser descartada ao terminar;</li>
+ *   <li>{@link #update(UnaryOperator)} aplica uma alteração local que nenhuma carga iniciada
+ *       antes dela pode sobrescrever.</li>
+ * </ul>
+ * A ordem é garantida por um contador de geração: o snapshot só é substituído por outro de
+ * geração igual ou maior.
+ */
+public final class SingleFlightLoader<T> {
+
+    private final Supplier<Mono<T>> loader;
+
+    private final AtomicReference<Versioned<T>> snapshot = new AtomicReference<>();
+    private final AtomicReference<Mono<T>> inflight = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public SingleFlightLoader(Supplier<Mono<T>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Snapshot atual, ou {@code null} se ainda não foi carregado.
+     */
+    public T current() {
+        Versioned<T> atual = snapshot.get();
+        return atual != null ? atual.value() : null;
+    }
+
+    /**
+     * Snapshot atual; vazio, aguarda a carga compartilhada.
+     */
+    public Mono<T> get() {
+        return Mono.defer(() -> {
+            T atual = current();
+            return atual != null ? Mono.just(atual) : loadShared();
+        });
+    }
+
+    /**
+     * Junta-se à carga em andamento ou inicia uma nova.
+     */
+    public Mono<T> loadShared() {
+        Mono<T> emAndamento = inflight.get();
+        if (emAndamento != null) {
+            return emAndamento;
+        }
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> nova = load()
+                .doFinally(signal -> inflight.compareAndSet(self.get(), null))
+                .cache();
+        self.set(nova);
+        if (inflight.compareAndSet(null, nova)) {
+            return nova;
+        }
+        Mono<T> outra = inflight.get();
+        return outra != null ? outra : nova;
+    }
+
+    /**
+     * Recarrega o snapshot. Qualquer carga iniciada antes desta chamada é ignorada ao terminar.
+     */
+    public Mono<T> refresh() {
+        return Mono.defer(() -> {
+            generation.incrementAndGet();
+            return load();
+        });
+    }
+
+    /**
+     * Altera o snapshot já carregado (sem efeito se ainda não houver snapshot).
+     */
+    public void update(UnaryOperator<T> alteracao) {
+        long geracao = generation.incrementAndGet();
+        snapshot.updateAndGet(atual -> atual == null
+                ? null
+                : new Versioned<>(alteracao.apply(atual.value()), Math.max(atual.generation(), geracao)));
+    }
+
+    private Mono<T> load() {
+        long geracao = generation.get();
+        return loader.get()
+                .map(novo -> snapshot.accumulateAndGet(new Versioned<>(novo, geracao), (atual, candidato) ->
+                        atual == null || candidato.generation() >= atual.generation() ? candidato : atual))
+                .map(Versioned::value);
+    }
+
+    private record Versioned<T>(T value, long generation) {
+    }
+}
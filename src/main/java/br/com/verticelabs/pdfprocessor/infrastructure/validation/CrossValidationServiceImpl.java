@@ -4,6 +4,7 @@ import br.com.verticelabs.pdfprocessor.domain.model.CrossValidationResult;
 import br.com.verticelabs.pdfprocessor.domain.model.FieldComparison;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
 import br.com.verticelabs.pdfprocessor.domain.service.CrossValidationService;
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
 import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiPdfServiceImpl;
 import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiPrompts;
 import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiResponseParser;
@@ -47,7 +48,7 @@ public class CrossValidationServiceImpl implements CrossValidationService {
 
     @Override
     public Mono<CrossValidationResult> crossValidate(
-            byte[] pdfBytes,
+            PdfSession session,
             int pageNumber,
             List<PayrollEntry> firstEntries,
             String firstJson,
@@ -60,7 +61,7 @@ public class CrossValidationServiceImpl implements CrossValidationService {
         log.info("════════════════════════════════════════════════════════════════════════════════");
 
         // Executar segunda extração com prompt alternativo (bottom-up)
-        return geminiService.processWithPrimaryModel(pdfBytes, pageNumber, GeminiPrompts.CONTRACHEQUE_EXTRACTION_ALT)
+        return geminiService.processWithPrimaryModel(session, pageNumber, GeminiPrompts.CONTRACHEQUE_EXTRACTION_ALT)
                 .map(secondJson -> {
                     log.info("✅ 2ª extração concluída: {} chars de JSON", secondJson != null ? secondJson.length() : 0);
 
@@ -2,6 +2,7 @@ package br.com.verticelabs.pdfprocessor.interfaces.consolidation;
 
 import br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationUseCase;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.*;
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -9,6 +10,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequestMapping("/persons")
@@ -87,6 +91,49 @@ public class ConsolidationController {
                 });
     }
 
+    /**
+     * POST /api/v1/persons/{cpf}/consolidated/rebuild
+     * Recalcula do zero o snapshot de consolidação (person_consolidation) da pessoa.
+     */
+    @PostMapping("/{cpf}/consolidated/rebuild")
+    public Mono<ResponseEntity<Object>> rebuildSnapshot(@PathVariable String cpf) {
+        log.info("Rebuild do snapshot de consolidação solicitado para CPF: {}", cpf);
+
+        return consolidationUseCase.rebuildSnapshot(cpf)
+                .<ResponseEntity<Object>>map(snapshot -> ResponseEntity.ok((Object) Map.of(
+                        "cpf", cpf,
+                        "personId", snapshot.getId(),
+                        "version", snapshot.getVersion(),
+                        "celulas", snapshot.getCelulasPorOrigem()
+                                .getOrDefault(PersonConsolidation.ESCOPO_TODAS, List.of()).size())))
+                .onErrorResume(PersonNotFoundException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body((Object) new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()))))
+                .onErrorResume(Exception.class, e -> {
+                    log.error("Falha no rebuild do snapshot de consolidação (CPF {})", cpf, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body((Object) new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                                    "Erro interno ao recalcular consolidação")));
+                });
+    }
+
+    /**
+     * GET /api/v1/persons/{cpf}/consolidated/consistency
+     * Compara o snapshot de consolidação com um recálculo a partir das entries.
+     */
+    @GetMapping("/{cpf}/consolidated/consistency")
+    public Mono<ResponseEntity<Object>> checkSnapshot(@PathVariable String cpf) {
+        return consolidationUseCase.checkSnapshot(cpf)
+                .<ResponseEntity<Object>>map(ResponseEntity::ok)
+                .onErrorResume(PersonNotFoundException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body((Object) new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage()))))
+                .onErrorResume(Exception.class, e -> {
+                    log.error("Falha ao verificar snapshot de consolidação (CPF {})", cpf, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body((Object) new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                                    "Erro interno ao verificar consolidação")));
+                });
+    }
+
     // Classe interna para respostas de erro
     private static class ErrorResponse {
         private final int status;
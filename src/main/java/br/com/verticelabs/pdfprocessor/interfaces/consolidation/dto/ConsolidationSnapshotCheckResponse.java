@@ -0,0 +1,27 @@
+package br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Resultado da comparação entre o snapshot person_consolidation e um recálculo do zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsolidationSnapshotCheckResponse {
+    private String cpf;
+    private String personId;
+    private boolean snapshotExiste;
+    private Long version;
+    private Long builtVersion;
+    private Instant atualizadoEm;
+    private boolean consistente;
+    private List<String> divergencias; // ex: "FUNCEF 4482 2017-11: valor snapshot=1000.00, recalculado=1100.00"
+}
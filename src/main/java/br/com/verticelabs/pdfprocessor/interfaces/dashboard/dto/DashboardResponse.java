@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -20,4 +21,6 @@ public class DashboardResponse {
     private List<DashboardChartItem> graficoPessoas;
     private List<DashboardChartItem> graficoDocumentos;
     private List<DashboardChartItem> graficoLancamentos;
+    private Instant atualizadoEm; // Última atualização dos números (rollup do dashboard)
+    private Instant reconciliadoEm; // Último recálculo completo dos números
 }
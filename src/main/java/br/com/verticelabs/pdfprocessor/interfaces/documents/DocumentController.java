@@ -273,10 +273,13 @@ public class DocumentController {
 
         /**
          * POST /api/v1/documents/{id}/reprocess
-         * Reprocessa um documento já enviado.
+         * Reprocessa um documento já enviado. Páginas já extraídas vêm do cache de extração;
+         * {@code refreshCache=true} força a extração de todas as páginas de novo.
          */
         @PostMapping("/{id}/reprocess")
-        public Mono<ResponseEntity<Object>> reprocessDocument(@PathVariable String id) {
+        public Mono<ResponseEntity<Object>> reprocessDocument(
+                        @PathVariable String id,
+                        @RequestParam(value = "refreshCache", defaultValue = "false") boolean refreshCache) {
                 log.debug("=== INÍCIO: POST /api/v1/documents/{}/reprocess ===", id);
 
                 return documentQueryUseCase.findById(id)
@@ -293,7 +296,7 @@ public class DocumentController {
                                         log.debug("✓ Documento validado para reprocessamento: {} - Status atual: {}", id,
                                                         document.getStatus());
 
-                                        return documentProcessUseCase.processDocument(id)
+                                        return documentProcessUseCase.reprocessDocument(id, refreshCache)
                                                         .map(processResponse -> {
                                                                 ReprocessResponse response = ReprocessResponse.builder()
                                                                                 .documentId(id)
@@ -19,6 +19,7 @@ public class ProcessingStatusResponse {
     private String documentId;
     private DocumentStatus status;
     private Integer totalPages;
+    private Integer processedPages;
     private String erro;
     private List<ProcessingEvent> processingLog;
 }
@@ -1,7 +1,7 @@
 package br.com.verticelabs.pdfprocessor.interfaces.entries;
 
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
 import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
-import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
 import br.com.verticelabs.pdfprocessor.interfaces.entries.dto.EntryResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -11,7 +11,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class EntryMapper {
 
-    private final RubricaRepository rubricaRepository;
+    private final RubricaCatalog rubricaCatalog;
 
     /**
      * Converte PayrollEntry para EntryResponse sem buscar informações da rubrica.
@@ -53,7 +53,7 @@ public class EntryMapper {
         String codigoNormalizado = entry.getRubricaCodigo().trim().replaceAll("\\s+", "");
         
         // Buscar rubrica (pode não existir para entries de IRPF)
-        return rubricaRepository.findByCodigo(codigoNormalizado)
+        return rubricaCatalog.findByCodigo(codigoNormalizado)
                 .map(rubrica -> {
                     return EntryResponse.builder()
                             .id(entry.getId())
@@ -10,12 +10,14 @@ import br.com.verticelabs.pdfprocessor.interfaces.excel.dto.ResumoGeralResponse;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -82,7 +84,7 @@ public class ExcelController {
      * para evitar problemas com múltiplas pessoas com o mesmo CPF em diferentes tenants.
      */
     @GetMapping(value = "/{cpf}/excel", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Mono<ResponseEntity<byte[]>> generateExcel(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateExcel(
             @PathVariable String cpf,
             @RequestParam(required = false) String ano,
             @RequestParam(required = false) String origem) {
@@ -95,15 +97,14 @@ public class ExcelController {
                     HttpHeaders headers = new HttpHeaders();
                     headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
                     headers.setContentDispositionFormData("attachment", result.getFilename());
-                    headers.setContentLength(result.getBytes().length);
-                    
+                    // Sem Content-Length: o corpo é gerado em streaming (chunked)
+
                     log.debug("=== SUCESSO: Excel gerado para CPF: {} ===", cpf);
-                    log.debug("Tamanho do arquivo: {} bytes ({} KB)", result.getBytes().length, result.getBytes().length / 1024);
                     log.debug("Nome do arquivo: {}", result.getFilename());
                     
                     return ResponseEntity.ok()
                             .headers(headers)
-                            .body(result.getBytes());
+                            .body(result.getContent());
                 })
                 .onErrorResume(PersonNotFoundException.class, e -> {
                     log.warn("=== ERRO: Pessoa não encontrada ===");
@@ -159,7 +160,7 @@ public class ExcelController {
      * - origem: filtra CAIXA/FUNCEF
      */
     @GetMapping(value = "/{personId}/excel-by-id", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Mono<ResponseEntity<byte[]>> generateExcelById(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateExcelById(
             @PathVariable String personId,
             @RequestParam(required = false) String ano,
             @RequestParam(required = false) String origem) {
@@ -172,15 +173,14 @@ public class ExcelController {
                     HttpHeaders headers = new HttpHeaders();
                     headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
                     headers.setContentDispositionFormData("attachment", result.getFilename());
-                    headers.setContentLength(result.getBytes().length);
-                    
+                    // Sem Content-Length: o corpo é gerado em streaming (chunked)
+
                     log.debug("=== SUCESSO: Excel gerado para personId: {} ===", personId);
-                    log.debug("Tamanho do arquivo: {} bytes ({} KB)", result.getBytes().length, result.getBytes().length / 1024);
                     log.debug("Nome do arquivo: {}", result.getFilename());
                     
                     return ResponseEntity.ok()
                             .headers(headers)
-                            .body(result.getBytes());
+                            .body(result.getContent());
                 })
                 .onErrorResume(PersonNotFoundException.class, e -> {
                     log.warn("=== ERRO: Pessoa não encontrada ===");
@@ -239,7 +239,7 @@ public class ExcelController {
      * - origem: filtra CAIXA/FUNCEF
      */
     @GetMapping(value = "/{cpf}/excel-by-tenant", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Mono<ResponseEntity<byte[]>> generateExcelByCpfAndTenant(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> generateExcelByCpfAndTenant(
             @PathVariable String cpf,
             @RequestParam(required = true) String tenantId,
             @RequestParam(required = false) String ano,
@@ -260,16 +260,15 @@ public class ExcelController {
                                     .filename(filename)
                                     .build()
                     );
-                    headers.setContentLength(result.getBytes().length);
-                    
+                    // Sem Content-Length: o corpo é gerado em streaming (chunked)
+
                     log.debug("=== SUCESSO: Excel gerado para CPF: {} no tenant: {} ===", cpf, tenantId);
-                    log.debug("Tamanho do arquivo: {} bytes ({} KB)", result.getBytes().length, result.getBytes().length / 1024);
                     log.debug("Nome do arquivo: {}", filename);
                     log.debug("Content-Disposition header: {}", headers.getContentDisposition());
                     
                     return ResponseEntity.ok()
                             .headers(headers)
-                            .body(result.getBytes());
+                            .body(result.getContent());
                 })
                 .onErrorResume(PersonNotFoundException.class, e -> {
                     log.warn("=== ERRO: Pessoa não encontrada ===");
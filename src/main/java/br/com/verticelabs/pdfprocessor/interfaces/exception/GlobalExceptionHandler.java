@@ -2,6 +2,7 @@ package br.com.verticelabs.pdfprocessor.interfaces.exception;
 
 import br.com.verticelabs.pdfprocessor.domain.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
@@ -150,6 +151,20 @@ public class GlobalExceptionHandler {
         return Mono.just(createErrorResponse(HttpStatus.FORBIDDEN, ex.getMessage(), request));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public Mono<ResponseEntity<ApiErrorResponse>> handleTooManyRequestsException(TooManyRequestsException ex,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        if (response.isCommitted()) {
+            logCommittedResponseError(ex, request);
+            return Mono.empty();
+        }
+        ResponseEntity<ApiErrorResponse> error = createErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request);
+        return Mono.just(ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error.getBody()));
+    }
+
     @ExceptionHandler(WebExchangeBindException.class)
     public Mono<ResponseEntity<ApiErrorResponse>> handleValidationException(WebExchangeBindException ex,
             ServerHttpRequest request, ServerHttpResponse response) {
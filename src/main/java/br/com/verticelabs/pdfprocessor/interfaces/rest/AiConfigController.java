@@ -1,7 +1,7 @@
 package br.com.verticelabs.pdfprocessor.interfaces.rest;
 
+import br.com.verticelabs.pdfprocessor.application.config.SystemConfigCache;
 import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
-import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
 import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
 import br.com.verticelabs.pdfprocessor.interfaces.rest.dto.AiConfigRequest;
 import br.com.verticelabs.pdfprocessor.interfaces.rest.dto.AiConfigResponse;
@@ -39,7 +39,7 @@ import java.time.Instant;
 @SecurityRequirement(name = "bearerAuth")
 public class AiConfigController {
 
-    private final SystemConfigRepository configRepository;
+    private final SystemConfigCache systemConfigCache;
     private final GeminiConfig geminiConfig;
 
     /**
@@ -49,7 +49,7 @@ public class AiConfigController {
     @Operation(summary = "Obter configuração de IA",
             description = "Retorna o status atual da configuração de IA, incluindo modelos principal e fallback")
     public Mono<ResponseEntity<AiConfigResponse>> getConfig() {
-        return configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_AI_ENABLED)
+        return systemConfigCache.find(SystemConfig.KEY_AI_ENABLED)
                 .map(config -> buildResponse(config, true))
                 .defaultIfEmpty(buildResponse(null, false))
                 .map(ResponseEntity::ok);
@@ -71,7 +71,7 @@ public class AiConfigController {
                 request.enabled(), request.model(), request.fallbackModel(),
                 userDetails != null ? userDetails.getUsername() : "unknown");
 
-        return configRepository.findByKeyAndTenantIdIsNull(SystemConfig.KEY_AI_ENABLED)
+        return systemConfigCache.find(SystemConfig.KEY_AI_ENABLED)
                 .switchIfEmpty(Mono.just(SystemConfig.builder()
                         .key(SystemConfig.KEY_AI_ENABLED)
                         .createdAt(Instant.now())
@@ -81,7 +81,7 @@ public class AiConfigController {
                     config.setDescription("Habilita uso de IA (Gemini 2.5) para PDFs escaneados e extração inteligente");
                     config.setUpdatedAt(Instant.now());
                     config.setUpdatedBy(userDetails != null ? userDetails.getUsername() : "system");
-                    return configRepository.save(config);
+                    return systemConfigCache.save(config);
                 })
                 .flatMap(savedConfig -> {
                     // Salvar modelo principal se fornecido
@@ -114,7 +114,7 @@ public class AiConfigController {
      */
     private Mono<SystemConfig> saveModelConfig(String key, String value,
                                                 String description, UserDetails userDetails) {
-        return configRepository.findByKeyAndTenantIdIsNull(key)
+        return systemConfigCache.find(key)
                 .switchIfEmpty(Mono.just(SystemConfig.builder()
                         .key(key)
                         .createdAt(Instant.now())
@@ -124,7 +124,7 @@ public class AiConfigController {
                     config.setDescription(description);
                     config.setUpdatedAt(Instant.now());
                     config.setUpdatedBy(userDetails != null ? userDetails.getUsername() : "system");
-                    return configRepository.save(config);
+                    return systemConfigCache.save(config);
                 });
     }
 
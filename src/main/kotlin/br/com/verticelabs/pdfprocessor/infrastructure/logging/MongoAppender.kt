@@ -1,32 +1,78 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.logging
 
 import ch.qos.logback.classic.spi.ILoggingEvent
-import ch.qos.logback.core.AppenderBase
+import ch.qos.logback.core.UnsynchronizedAppenderBase
 import com.mongodb.ConnectionString
 import com.mongodb.client.MongoClient
 import com.mongodb.client.MongoClients
 import com.mongodb.client.MongoCollection
 import com.mongodb.client.model.IndexOptions
 import com.mongodb.client.model.Indexes
+import com.mongodb.client.model.InsertManyOptions
+import io.micrometer.core.instrument.FunctionCounter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.Meter
+import io.micrometer.core.instrument.Metrics
+import io.micrometer.core.instrument.Timer
 import org.bson.Document
 import java.util.Date
+import java.util.concurrent.ArrayBlockingQueue
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
 
-class MongoAppender : AppenderBase<ILoggingEvent>() {
+/**
+ * Appender de logs para a collection `logs` com buffer próprio.
+ *
+ * Os eventos são convertidos em [Document] na thread que loga e enfileirados em um buffer
+ * circular limitado ([bufferSize]). Uma thread daemon grava em lote com `insertMany`
+ * não ordenado quando acumula [batchSize] eventos ou a cada [flushIntervalMillis].
+ * Quando o buffer enche, [overflowPolicy] decide entre descartar o evento novo
+ * (`DROP_NEWEST`), o mais antigo (`DROP_OLDEST`) ou bloquear por até [maxBlockMillis]
+ * (`BLOCK`). Em todas as políticas o descarte é por nível: um WARN/ERROR que não cabe
+ * no buffer remove o INFO/DEBUG mais antigo, e um INFO/DEBUG nunca remove um WARN/ERROR
+ * (com o buffer só de WARN/ERROR, o evento menor é descartado). A busca pelo evento a
+ * remover percorre o buffer, mas só acontece com ele cheio.
+ *
+ * Estende [UnsynchronizedAppenderBase]: o buffer já é thread-safe, então as threads que
+ * logam não disputam o lock do appender.
+ *
+ * Métricas (registry global do Micrometer): `logging.mongo.events` (written/dropped/failed),
+ * `logging.mongo.buffer.size` e `logging.mongo.flush`.
+ */
+open class MongoAppender : UnsynchronizedAppenderBase<ILoggingEvent>() {
+
+    enum class OverflowPolicy { DROP_NEWEST, DROP_OLDEST, BLOCK }
 
     var uri: String = ""
     var collection: String = "logs"
     var retentionDays: Long = 30
     var enabled: Boolean = true
+    var bufferSize: Int = 8192
+    var batchSize: Int = 500
+    var flushIntervalMillis: Long = 1000
+    var overflowPolicy: String = OverflowPolicy.DROP_NEWEST.name
+    var maxBlockMillis: Long = 100
+    var shutdownTimeoutMillis: Long = 5000
 
     private var mongoClient: MongoClient? = null
     private var logCollection: MongoCollection<Document>? = null
 
+    private lateinit var buffer: ArrayBlockingQueue<Document>
+    private lateinit var policy: OverflowPolicy
+    private var flusher: Thread? = null
+    @Volatile private var flushing = false
+
+    private val written = AtomicLong()
+    private val dropped = AtomicLong()
+    private val failed = AtomicLong()
+    private var flushTimer: Timer? = null
+    private val meters = mutableListOf<Meter>()
+
     override fun start() {
         if (!enabled) {
             return
         }
-        
+
         if (uri.isBlank()) {
             addError("MongoDB URI is missing")
             return
@@ -35,7 +81,7 @@ class MongoAppender : AppenderBase<ILoggingEvent>() {
         try {
             val connectionString = ConnectionString(uri)
             mongoClient = MongoClients.create(connectionString)
-            
+
             val dbName = connectionString.database ?: "pdfprocessor"
             val db = mongoClient!!.getDatabase(dbName)
             logCollection = db.getCollection(collection)
@@ -48,39 +94,213 @@ class MongoAppender : AppenderBase<ILoggingEvent>() {
                 addError("Failed to create TTL index", e)
             }
 
-            super.start()
+            startBuffer()
         } catch (e: Exception) {
             addError("Failed to start MongoAppender: ${e.message}", e)
         }
     }
 
+    /**
+     * Inicializa buffer, métricas e a thread de flush. Separado de [start] para que
+     * subclasses (testes) possam substituir a escrita sem um MongoDB real.
+     */
+    protected fun startBuffer() {
+        policy = try {
+            OverflowPolicy.valueOf(overflowPolicy.trim().uppercase())
+        } catch (e: IllegalArgumentException) {
+            addWarn("Unknown overflowPolicy '$overflowPolicy', using DROP_NEWEST")
+            OverflowPolicy.DROP_NEWEST
+        }
+        buffer = ArrayBlockingQueue(bufferSize.coerceAtLeast(1))
+        registerMetrics()
+
+        flushing = true
+        flusher = Thread(::flushLoop, "mongo-log-flusher").apply {
+            isDaemon = true
+            start()
+        }
+        super.start()
+    }
+
     override fun stop() {
-        mongoClient?.close()
+        if (!isStarted) {
+            mongoClient?.close()
+            return
+        }
+        // Para de aceitar eventos antes de drenar o que já está no buffer
         super.stop()
+        flushing = false
+        flusher?.let {
+            // Sem interrupt: um insertMany em andamento termina; o poll sai em até flushIntervalMillis
+            try {
+                it.join(shutdownTimeoutMillis)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+            }
+            if (it.isAlive) {
+                addWarn("Mongo log flusher did not finish in ${shutdownTimeoutMillis}ms; ${buffer.size} event(s) lost")
+            }
+        }
+        flusher = null
+        meters.forEach { Metrics.globalRegistry.remove(it) }
+        meters.clear()
+        mongoClient?.close()
     }
 
     override fun append(event: ILoggingEvent) {
-        if (logCollection == null) return
+        val doc = try {
+            toDocument(event)
+        } catch (e: Exception) {
+            addError("Failed to convert log event", e)
+            return
+        }
 
-        try {
-            val doc = Document()
-                .append("timestamp", Date(event.timeStamp))
-                .append("level", event.level.toString())
-                .append("logger", event.loggerName)
-                .append("thread", event.threadName)
-                .append("message", event.formattedMessage)
-
-            if (event.throwableProxy != null) {
-                doc.append("exception", event.throwableProxy.className + ": " + event.throwableProxy.message)
-            }
-            
-            if (event.mdcPropertyMap != null && event.mdcPropertyMap.isNotEmpty()) {
-                doc.append("context", event.mdcPropertyMap)
+        if (buffer.offer(doc)) return
+
+        val severe = isSevere(doc)
+        val accepted = when (policy) {
+            OverflowPolicy.DROP_NEWEST -> severe && offerEvicting(doc) { !isSevere(it) }
+            OverflowPolicy.DROP_OLDEST -> offerEvicting(doc) { !isSevere(it) } || (severe && offerEvicting(doc) { true })
+            OverflowPolicy.BLOCK -> offerBlocking(doc) || (severe && offerEvicting(doc) { !isSevere(it) })
+        }
+        if (!accepted) dropped.incrementAndGet()
+    }
+
+    /**
+     * Grava um lote. Protegido para permitir substituição em testes.
+     */
+    protected open fun writeBatch(batch: MutableList<Document>) {
+        logCollection!!.insertMany(batch, InsertManyOptions().ordered(false))
+    }
+
+    private fun flushLoop() {
+        val batch = ArrayList<Document>(batchSize)
+        while (flushing) {
+            try {
+                val first = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS)
+                if (first != null) {
+                    batch.add(first)
+                    buffer.drainTo(batch, batchSize - 1)
+                    if (batch.size < batchSize) {
+                        // Janela curta para acumular um lote maior sem atrasar além do intervalo
+                        waitForBatch(batch)
+                    }
+                    flush(batch)
+                }
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                break
             }
+        }
+        flush(batch)
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch)
+        }
+    }
+
+    private fun waitForBatch(batch: MutableList<Document>) {
+        val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis)
+        while (batch.size < batchSize && flushing) {
+            val remaining = deadline - System.nanoTime()
+            if (remaining <= 0) return
+            val next = buffer.poll(remaining, TimeUnit.NANOSECONDS) ?: return
+            batch.add(next)
+            buffer.drainTo(batch, batchSize - batch.size)
+        }
+    }
 
-            logCollection!!.insertOne(doc)
+    private fun flush(batch: MutableList<Document>) {
+        if (batch.isEmpty()) return
+        val start = System.nanoTime()
+        try {
+            writeBatch(batch)
+            written.addAndGet(batch.size.toLong())
         } catch (e: Exception) {
-            addError("Failed to write log to MongoDB", e)
+            failed.addAndGet(batch.size.toLong())
+            addError("Failed to write ${batch.size} log event(s) to MongoDB", e)
+        } finally {
+            flushTimer?.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+            batch.clear()
         }
     }
+
+    /**
+     * Enfileira [doc] removendo, um a um, os eventos mais antigos aceitos por [evictable].
+     * Retorna false se o buffer continua cheio e não há mais o que remover.
+     */
+    private fun offerEvicting(doc: Document, evictable: (Document) -> Boolean): Boolean {
+        while (!buffer.offer(doc)) {
+            if (!evictOldest(evictable)) return false
+        }
+        return true
+    }
+
+    private fun evictOldest(evictable: (Document) -> Boolean): Boolean {
+        val iterator = buffer.iterator()
+        while (iterator.hasNext()) {
+            if (evictable(iterator.next())) {
+                iterator.remove()
+                dropped.incrementAndGet()
+                return true
+            }
+        }
+        return false
+    }
+
+    private fun offerBlocking(doc: Document): Boolean = try {
+        buffer.offer(doc, maxBlockMillis, TimeUnit.MILLISECONDS)
+    } catch (e: InterruptedException) {
+        Thread.currentThread().interrupt()
+        false
+    }
+
+    private fun isSevere(doc: Document): Boolean {
+        val level = doc.getString("level")
+        return level == "WARN" || level == "ERROR"
+    }
+
+    private fun toDocument(event: ILoggingEvent): Document {
+        val doc = Document()
+            .append("timestamp", Date(event.timeStamp))
+            .append("level", event.level.toString())
+            .append("logger", event.loggerName)
+            .append("thread", event.threadName)
+            .append("message", event.formattedMessage)
+
+        if (event.throwableProxy != null) {
+            doc.append("exception", event.throwableProxy.className + ": " + event.throwableProxy.message)
+        }
+
+        if (event.mdcPropertyMap != null && event.mdcPropertyMap.isNotEmpty()) {
+            doc.append("context", HashMap(event.mdcPropertyMap))
+        }
+        return doc
+    }
+
+    private fun registerMetrics() {
+        val registry = Metrics.globalRegistry
+        fun events(outcome: String, counter: AtomicLong) {
+            meters += FunctionCounter.builder("logging.mongo.events", counter, AtomicLong::toDouble)
+                .description("Eventos de log processados pelo MongoAppender")
+                .tag("outcome", outcome)
+                .register(registry)
+        }
+        events("written", written)
+        events("dropped", dropped)
+        events("failed", failed)
+        meters += Gauge.builder("logging.mongo.buffer.size", buffer) { it.size.toDouble() }
+            .description("Eventos aguardando gravação no buffer do MongoAppender")
+            .register(registry)
+        val timer = Timer.builder("logging.mongo.flush")
+            .description("Latência do insertMany de um lote de logs")
+            .register(registry)
+        flushTimer = timer
+        meters += timer
+    }
+
+    /** Eventos descartados por overflow desde o start (usado em testes e diagnósticos). */
+    fun droppedCount(): Long = dropped.get()
+
+    /** Eventos gravados com sucesso desde o start. */
+    fun writtenCount(): Long = written.get()
 }
@@ -0,0 +1,93 @@
+package br.com.verticelabs.pdfprocessor.application.config;
+
+import br.com.verticelabs.pdfprocessor.domain.model.SystemConfig;
+import br.com.verticelabs.pdfprocessor.domain.repository.SystemConfigRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SystemConfigCache - configurações globais em memória")
+class SystemConfigCacheTest {
+
+    @Mock
+    private SystemConfigRepository configRepository;
+
+    private SystemConfigCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SystemConfigCache(configRepository, Duration.ofMinutes(5));
+    }
+
+    private static SystemConfig config(String key, String value, String tenantId) {
+        return SystemConfig.builder().key(key).value(value).tenantId(tenantId).build();
+    }
+
+    @Test
+    @DisplayName("Após a carga, leituras síncronas não consultam o banco")
+    void leiturasSemBanco() {
+        when(configRepository.findAll()).thenReturn(Flux.just(
+                config(SystemConfig.KEY_AI_ENABLED, "true", null),
+                config(SystemConfig.KEY_AI_ENABLED, "false", "tenant-1")));
+
+        cache.refresh().block();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(cache.getBoolean(SystemConfig.KEY_AI_ENABLED, false));
+        }
+
+        verify(configRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Cache vazio: leitura síncrona usa o default e carrega em background")
+    void cacheVazioUsaDefault() {
+        when(configRepository.findAll()).thenReturn(Flux.just(config(SystemConfig.KEY_AI_ENABLED, "true", null)));
+
+        assertFalse(cache.getBoolean(SystemConfig.KEY_AI_ENABLED, false));
+        assertTrue(cache.getBoolean(SystemConfig.KEY_AI_ENABLED, false));
+    }
+
+    @Test
+    @DisplayName("save() grava no banco e atualiza o cache imediatamente")
+    void saveAtualizaCache() {
+        when(configRepository.findAll()).thenReturn(Flux.just(config(SystemConfig.KEY_LOGS_RETENTION, "MONTH", null)));
+        when(configRepository.save(any(SystemConfig.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(cache.find(SystemConfig.KEY_LOGS_RETENTION)
+                        .flatMap(config -> {
+                            config.setValue("WEEK");
+                            // alterar a cópia não afeta o cache antes de salvar
+                            assertEquals("MONTH", cache.get(SystemConfig.KEY_LOGS_RETENTION).orElseThrow().getValue());
+                            return cache.save(config);
+                        })
+                        .then(cache.find(SystemConfig.KEY_LOGS_RETENTION)))
+                .assertNext(config -> assertEquals("WEEK", config.getValue()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Chave inexistente retorna vazio")
+    void chaveInexistente() {
+        when(configRepository.findAll()).thenReturn(Flux.empty());
+
+        StepVerifier.create(cache.find(SystemConfig.KEY_REPASSE_ANO_BASE))
+                .verifyComplete();
+    }
+}
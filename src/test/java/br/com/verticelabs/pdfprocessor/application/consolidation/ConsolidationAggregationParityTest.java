@@ -0,0 +1,196 @@
+package br.com.verticelabs.pdfprocessor.application.consolidation;
+
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonConsolidationRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.migration.PayrollEntryPersonMigration;
+import br.com.verticelabs.pdfprocessor.infrastructure.mongodb.MongoPayrollEntryRepositoryAdapter;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidatedResponse;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationRow;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.CPF;
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.PERSON_ID;
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.TENANT_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Paridade entre o pipeline de agregação (MongoDB real) e as regras em memória que o
+ * ConsolidationUseCase aplicava antes, e a consolidação completa executada sobre o pipeline.
+ * Ignorado quando não há Docker disponível.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("ConsolidationPipeline - paridade com a consolidação em memória")
+class ConsolidationAggregationParityTest {
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate template;
+    private static MongoPayrollEntryRepositoryAdapter adapter;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getConnectionString());
+        template = new ReactiveMongoTemplate(client, "consolidation_parity");
+        // entries das massas já têm personId: leitura como após a migração
+        template.save(new Document("_id", "payroll-entry-person-backfill"), "migrations").block();
+        adapter = new MongoPayrollEntryRepositoryAdapter(null, template, new PayrollEntryPersonMigration(template),
+                "ACKNOWLEDGED", 1000);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    @BeforeEach
+    void limparColecao() {
+        template.dropCollection(PayrollEntry.class).block();
+    }
+
+    @ParameterizedTest(name = "decimoTerceiro ano={0} origem={1}")
+    @CsvSource(value = {"null,null", "2016,null", "2017,null", "null,FUNCEF", "null,CAIXA", "2018,FUNCEF"},
+            nullValues = "null")
+    void decimoTerceiro(String ano, String origem) {
+        assertParidade(ConsolidationFixtures.decimoTerceiro(),
+                ConsolidationFixtures.rubricasAtivasDecimoTerceiro(), ano, origem);
+    }
+
+    @ParameterizedTest(name = "precisao ano={0}")
+    @CsvSource(value = {"null", "2024"}, nullValues = "null")
+    void precisao(String ano) {
+        assertParidade(ConsolidationFixtures.precisao(), ConsolidationFixtures.rubricasAtivasPrecisao(), ano, null);
+    }
+
+    @Test
+    @DisplayName("Consolidação sobre o pipeline: 13º Funcef e Caixa")
+    void consolidacaoDecimoTerceiro() {
+        template.insertAll(ConsolidationFixtures.decimoTerceiro()).blockLast();
+
+        ConsolidatedResponse response = consolidate(ConsolidationFixtures.rubricasAtivasDecimoTerceiro(), null);
+
+        assertEquals(Set.of("2016", "2017", "2018"), response.getAnos());
+        assertNull(response.getOrigem(), "CAIXA e FUNCEF misturados: sem origem única");
+        assertEquals(List.of("4430", "4482"),
+                response.getRubricas().stream().map(ConsolidationRow::getCodigo).toList());
+
+        ConsolidationRow abono = response.getRubricas().get(0);
+        assertEquals("ABONO ANUAL", abono.getDescricao());
+        // 2017: "2017-13" resolvido pela página (nov e dez) → regra Funcef usa só o último mês
+        assertValor("500.00", abono.getValores().get("2017-11"));
+        assertValor("500.00", abono.getValores().get("2017-12"));
+        assertValor("500.00", abono.getTotaisPorAno().get("2017"));
+        // 2018: sem entry irmã na página → novembro
+        assertValor("300.00", abono.getValores().get("2018-11"));
+        // 2016: "13/2016" e "2016-13" caem no mês da página (agosto); CAIXA soma
+        assertValor("290.00", abono.getValores().get("2016-08"));
+        assertValor("290.00", abono.getTotaisPorAno().get("2016"));
+        assertValor("1090.00", abono.getTotal());
+
+        ConsolidationRow salario = response.getRubricas().get(1);
+        assertEquals("SALARIO PADRAO", salario.getDescricao());
+        // mesPagamento tem prioridade sobre a referência
+        assertValor("0", salario.getValores().get("2018-01"));
+        assertValor("1100.00", salario.getValores().get("2018-02"));
+        // "05-2016" não normaliza e fica fora da matriz
+        assertValor("900.50", salario.getValores().get("2016-05"));
+        assertValor("902.50", salario.getTotaisPorAno().get("2016"));
+        assertValor("4002.50", salario.getTotal());
+
+        assertValor("292.00", response.getTotaisMensais().get("2016-08"));
+        assertValor("5092.50", response.getTotalGeral());
+    }
+
+    @Test
+    @DisplayName("Consolidação sobre o pipeline filtrada por origem FUNCEF")
+    void consolidacaoDecimoTerceiroFuncef() {
+        template.insertAll(ConsolidationFixtures.decimoTerceiro()).blockLast();
+
+        ConsolidatedResponse response = consolidate(ConsolidationFixtures.rubricasAtivasDecimoTerceiro(), "FUNCEF");
+
+        assertEquals("FUNCEF", response.getOrigem());
+        assertEquals(Set.of("2017", "2018"), response.getAnos());
+        assertValor("3900.00", response.getTotalGeral());
+    }
+
+    /**
+     * ConsolidationUseCase real sobre o adapter (sem snapshot gravado: cada leitura recalcula).
+     */
+    private ConsolidatedResponse consolidate(Set<String> rubricasAtivas, String origem) {
+        Person person = ConsolidationFixtures.person();
+        PersonRepository personRepository = mock(PersonRepository.class);
+        when(personRepository.findByTenantIdAndCpf(TENANT_ID, CPF)).thenReturn(Mono.just(person));
+        RubricaCatalog rubricaCatalog = mock(RubricaCatalog.class);
+        when(rubricaCatalog.codigosAtivos()).thenReturn(Mono.just(rubricasAtivas));
+        PersonConsolidationRepository snapshotRepository = mock(PersonConsolidationRepository.class);
+        when(snapshotRepository.findByTenantIdAndPersonId(TENANT_ID, PERSON_ID)).thenReturn(Mono.empty());
+        when(snapshotRepository.saveIfVersion(any())).thenReturn(Mono.just(true));
+
+        PersonConsolidationService service = new PersonConsolidationService(
+                snapshotRepository, adapter, personRepository, rubricaCatalog);
+        return new ConsolidationUseCase(personRepository, service, rubricaCatalog)
+                .consolidate(CPF, TENANT_ID, null, origem)
+                .block();
+    }
+
+    private static void assertValor(String esperado, BigDecimal atual) {
+        assertNotNull(atual);
+        assertEquals(0, new BigDecimal(esperado).compareTo(atual), () -> "esperado " + esperado + " mas foi " + atual);
+    }
+
+    private void assertParidade(List<PayrollEntry> entries, Set<String> rubricasAtivas, String ano, String origem) {
+        template.insertAll(entries).blockLast();
+
+        List<ConsolidationCell> esperado = ConsolidationFixtures.ordenadas(
+                ConsolidationFixtures.cells(entries, rubricasAtivas, ano, origem));
+        List<ConsolidationCell> agregado = ConsolidationFixtures.ordenadas(
+                adapter.aggregateConsolidationCells(TENANT_ID, PERSON_ID, rubricasAtivas, ano, origem)
+                        .collectList()
+                        .block());
+
+        assertEquals(esperado.size(), agregado.size(), () -> "células: esperado " + esperado + " agregado " + agregado);
+        for (int i = 0; i < esperado.size(); i++) {
+            ConsolidationCell e = esperado.get(i);
+            ConsolidationCell a = agregado.get(i);
+            String celula = e.getRubricaCodigo() + " " + e.getAno() + "-" + e.getMes();
+            assertEquals(e.getRubricaCodigo(), a.getRubricaCodigo(), celula);
+            assertEquals(e.getAno(), a.getAno(), celula);
+            assertEquals(e.getMes(), a.getMes(), celula);
+            assertEquals(e.getRubricaDescricao(), a.getRubricaDescricao(), celula);
+            assertEquals(0, e.getValor().compareTo(a.getValor()), () -> celula + " valor " + a.getValor());
+            assertEquals(e.isDeReferencia13(), a.isDeReferencia13(), celula);
+            assertEquals(e.isSomenteFuncef(), a.isSomenteFuncef(), celula);
+            assertEquals(e.isPossuiCaixa(), a.isPossuiCaixa(), celula);
+            assertEquals(e.isPossuiFuncef(), a.isPossuiFuncef(), celula);
+            assertEquals(e.getAnosReferencia(), a.getAnosReferencia(), celula);
+        }
+    }
+}
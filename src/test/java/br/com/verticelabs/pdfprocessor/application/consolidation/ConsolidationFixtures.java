@@ -0,0 +1,205 @@
+package br.com.verticelabs.pdfprocessor.application.consolidation;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Massas de entries usadas pelo teste de paridade da agregação.
+ */
+final class ConsolidationFixtures {
+
+    static final String CPF = "123.456.789-00";
+    static final String TENANT_ID = "tenant1";
+    static final String PERSON_ID = "person1";
+
+    private ConsolidationFixtures() {
+    }
+
+    static Person person() {
+        Person person = new Person();
+        person.setId(PERSON_ID);
+        person.setCpf(CPF);
+        person.setNome("Test Person");
+        person.setTenantId(TENANT_ID);
+        person.setDocumentos(List.of("doc1", "d-funcef", "d-caixa"));
+        return person;
+    }
+
+    /** Cenário de precisão: 0.1 + 0.2 deve somar exatamente 0.3. */
+    static List<PayrollEntry> precisao() {
+        return List.of(
+                entry("entry1", "doc1", 1, "R001", "Rubrica Teste", "2024-01", null, "0.1", null),
+                entry("entry2", "doc1", 1, "R001", "Rubrica Teste", "2024-02", null, "0.2", null));
+    }
+
+    static Set<String> rubricasAtivasPrecisao() {
+        return Set.of("R001");
+    }
+
+    /**
+     * Funcef com "YYYY-13" resolvido pela página (dois meses → regra do 13º), "YYYY-13" sem
+     * página irmã (fallback novembro), mesPagamento, Demonstrativo, formatos MM/YYYY e YYYY/MM,
+     * referência não normalizável, valor nulo e rubrica inativa.
+     */
+    static List<PayrollEntry> decimoTerceiro() {
+        return List.of(
+                // Funcef 2017: página 1 → novembro, página 2 → dezembro
+                entry("e01", "d-funcef", 1, "4482", "SALARIO", "2017-11", null, "1000.00", "FUNCEF"),
+                entry("e02", "d-funcef", 1, "4430", "ABONO ANUAL", "2017-13", null, "500.00", "FUNCEF"),
+                entry("e03", "d-funcef", 2, "4482", "SALARIO PADRAO", "12/2017", null, "1000.00", "FUNCEF"),
+                entry("e04", "d-funcef", 2, "4430", "ABONO ANUAL", "2017-13", null, "500.00", "FUNCEF"),
+                // Funcef 2018: 13º sem entry irmã na página → novembro
+                entry("e05", "d-funcef", 3, "4430", "ABONO ANUAL", "2018-13", null, "300.00", "FUNCEF"),
+                // mesPagamento tem prioridade sobre a referência
+                entry("e06", "d-funcef", 4, "4482", "SALARIO", "2018-01", "2018-02", "1100.00",
+                        "FUNCEF_DEMONSTRATIVO"),
+                // Caixa 2016
+                entry("e07", "d-caixa", 5, "4482", "SALARIO", "2016/05", null, "900.50", "CAIXA"),
+                entry("e08", "d-caixa", 5, "9999", "INATIVA", "2016-05", null, "10.00", "CAIXA"),
+                entry("e09", "d-caixa", 5, "4482", "SALARIO", "05-2016", null, "1.00", "CAIXA"),
+                entry("e10", "d-caixa", 6, "4430", "ABONO ANUAL", "2016-06", null, null, "CAIXA"),
+                entry("e11", "d-caixa", 7, "4430", "ABONO ANUAL", "13/2016", null, "250.00", "caixa"),
+                entry("e12", "d-caixa", 7, "4482", "SALARIO", "2016-08", null, "2.00", "CAIXA"),
+                entry("e13", "d-caixa", 7, "4430", "ABONO ANUAL", "2016-13", null, "40.00", "CAIXA"));
+    }
+
+    static Set<String> rubricasAtivasDecimoTerceiro() {
+        return Set.of("4482", "4430");
+    }
+
+    /**
+     * Referência em memória da agregação: aplica às entries as mesmas regras que o
+     * ConsolidationUseCase executava em Java antes do pipeline (filtros, normalização,
+     * "YYYY-13" pela página, mesPagamento) e devolve as células que o MongoDB deve produzir.
+     */
+    static List<ConsolidationCell> cells(List<PayrollEntry> entries, Set<String> rubricasAtivas,
+                                         String ano, String origem) {
+        ReferenceNormalizer normalizer = new ReferenceNormalizer();
+
+        // Mesma ordem de findByTenantIdAndPersonId: referencia asc, _id desempata
+        List<PayrollEntry> filtradas = entries.stream()
+                .filter(e -> rubricasAtivas.contains(e.getRubricaCodigo()))
+                .filter(e -> ano == null || ano.isEmpty()
+                        || ano.equals(normalizer.extractYear(normalizer.normalize(e.getReferencia()))))
+                .filter(e -> origem == null || origem.isEmpty() || origemCorresponde(origem, e.getOrigem()))
+                .sorted(Comparator.comparing(PayrollEntry::getReferencia, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(PayrollEntry::getId))
+                .toList();
+
+        Map<List<String>, ConsolidationCell> cells = new LinkedHashMap<>();
+        Map<String, String> descricaoPorRubrica = new LinkedHashMap<>();
+        for (PayrollEntry entry : filtradas) {
+            String normalizada = normalizer.normalize(entry.getReferencia());
+            String ajustada = normalizada == null ? null : ajustar(entry, normalizada, filtradas, normalizer);
+            String anoCell = ajustada == null ? null : ajustada.substring(0, 4);
+            String mesCell = ajustada == null ? null : ajustada.substring(5, 7);
+            boolean funcef = ConsolidationUseCase.isOrigemFuncef(entry.getOrigem());
+
+            if (ajustada != null) {
+                descricaoPorRubrica.putIfAbsent(entry.getRubricaCodigo(), entry.getRubricaDescricao());
+            }
+            ConsolidationCell cell = cells.computeIfAbsent(
+                    Arrays.asList(entry.getRubricaCodigo(), anoCell, mesCell),
+                    k -> ConsolidationCell.builder()
+                            .rubricaCodigo(entry.getRubricaCodigo())
+                            .ano(anoCell)
+                            .mes(mesCell)
+                            .valor(BigDecimal.ZERO)
+                            .somenteFuncef(true)
+                            .anosReferencia(new HashSet<>())
+                            .build());
+            cell.setValor(cell.getValor().add(entry.getValor() != null ? entry.getValor() : BigDecimal.ZERO));
+            cell.setDeReferencia13(cell.isDeReferencia13()
+                    || ajustada != null && entry.getReferencia().equals(anoCell + "-13"));
+            cell.setSomenteFuncef(cell.isSomenteFuncef() && funcef);
+            cell.setPossuiCaixa(cell.isPossuiCaixa() || "CAIXA".equalsIgnoreCase(entry.getOrigem()));
+            cell.setPossuiFuncef(cell.isPossuiFuncef() || funcef);
+            if (normalizada != null) {
+                cell.getAnosReferencia().add(normalizada.substring(0, 4));
+            }
+        }
+
+        List<ConsolidationCell> result = new ArrayList<>(cells.values());
+        result.forEach(cell -> cell.setRubricaDescricao(cell.getAno() != null
+                ? descricaoPorRubrica.get(cell.getRubricaCodigo())
+                : filtradas.stream()
+                        .filter(e -> e.getRubricaCodigo().equals(cell.getRubricaCodigo()))
+                        .filter(e -> normalizer.normalize(e.getReferencia()) == null)
+                        .map(PayrollEntry::getRubricaDescricao)
+                        .findFirst()
+                        .orElse(null)));
+        return result;
+    }
+
+    private static String ajustar(PayrollEntry entry, String normalizada, List<PayrollEntry> filtradas,
+                                  ReferenceNormalizer normalizer) {
+        String mesPagamento = entry.getMesPagamento();
+        if (mesPagamento != null && mesPagamento.matches("\\d{4}-\\d{2}")) {
+            return mesPagamento;
+        }
+        if (!normalizada.matches("\\d{4}-13")) {
+            return normalizada;
+        }
+        String ano13 = normalizada.substring(0, 4);
+        if (entry.getPagina() != null && entry.getDocumentoId() != null) {
+            for (PayrollEntry irma : filtradas) {
+                if (!entry.getDocumentoId().equals(irma.getDocumentoId())
+                        || !entry.getPagina().equals(irma.getPagina())
+                        || irma.getReferencia() == null || irma.getReferencia().matches("\\d{4}-13")) {
+                    continue;
+                }
+                String ref = normalizer.normalize(irma.getReferencia());
+                if (ref != null && ref.startsWith(ano13 + "-") && !ref.endsWith("-13")) {
+                    return ref;
+                }
+            }
+        }
+        return ano13 + "-11";
+    }
+
+    private static boolean origemCorresponde(String filtro, String entryOrigem) {
+        if (entryOrigem == null) {
+            return false;
+        }
+        return filtro.equalsIgnoreCase(entryOrigem)
+                || "FUNCEF".equalsIgnoreCase(filtro) && ConsolidationUseCase.isOrigemFuncef(entryOrigem);
+    }
+
+    /** Ordena as células por (rubrica, ano, mês) para comparar resultados independentes da ordem. */
+    static List<ConsolidationCell> ordenadas(List<ConsolidationCell> cells) {
+        return cells.stream()
+                .sorted(Comparator.comparing(ConsolidationCell::getRubricaCodigo)
+                        .thenComparing(ConsolidationCell::getAno, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(ConsolidationCell::getMes, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    static PayrollEntry entry(String id, String documentoId, Integer pagina, String rubrica, String descricao,
+                              String referencia, String mesPagamento, String valor, String origem) {
+        return PayrollEntry.builder()
+                .id(id)
+                .tenantId(TENANT_ID)
+                .personId(PERSON_ID)
+                .cpf(CPF)
+                .documentoId(documentoId)
+                .pagina(pagina)
+                .rubricaCodigo(rubrica)
+                .rubricaDescricao(descricao)
+                .referencia(referencia)
+                .mesPagamento(mesPagamento)
+                .valor(valor != null ? new BigDecimal(valor) : null)
+                .origem(origem)
+                .build();
+    }
+}
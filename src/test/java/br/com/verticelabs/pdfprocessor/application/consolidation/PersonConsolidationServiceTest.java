@@ -0,0 +1,213 @@
+package br.com.verticelabs.pdfprocessor.application.consolidation;
+
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
+import br.com.verticelabs.pdfprocessor.domain.model.ConsolidationCell;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.domain.model.PersonConsolidation;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonConsolidationRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationSnapshotCheckResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.CPF;
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.PERSON_ID;
+import static br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationFixtures.TENANT_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PersonConsolidationService - snapshot person_consolidation")
+class PersonConsolidationServiceTest {
+
+    private static final Set<String> ATIVAS = Set.of("4482");
+
+    @Mock
+    private PersonConsolidationRepository snapshotRepository;
+
+    @Mock
+    private PayrollEntryRepository entryRepository;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private RubricaCatalog rubricaCatalog;
+
+    @InjectMocks
+    private PersonConsolidationService service;
+
+    @Test
+    @DisplayName("Snapshot atualizado é servido sem agregar as entries")
+    void snapshotAtualizado() {
+        ConsolidationCell caixa = cell("2016", "05", "900.50");
+        when(snapshotRepository.findByTenantIdAndPersonId(TENANT_ID, PERSON_ID))
+                .thenReturn(Mono.just(snapshot(3, 3, ATIVAS, List.of(caixa))));
+
+        List<ConsolidationCell> cells = service.cells(ConsolidationFixtures.person(), ATIVAS, null, "CAIXA").block();
+
+        assertEquals(List.of(caixa), cells);
+        verify(entryRepository, never()).aggregateConsolidationCells(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Snapshot desatualizado é recalculado e gravado com a versão lida")
+    void snapshotDesatualizado() {
+        when(snapshotRepository.findByTenantIdAndPersonId(TENANT_ID, PERSON_ID))
+                .thenReturn(Mono.just(snapshot(4, 3, ATIVAS, List.of())));
+        stubAggregation("1000.00");
+        when(snapshotRepository.saveIfVersion(any())).thenReturn(Mono.just(true));
+
+        List<ConsolidationCell> cells = service.cells(ConsolidationFixtures.person(), ATIVAS, null, null).block();
+
+        assertEquals(1, cells.size());
+        ArgumentCaptor<PersonConsolidation> salvo = ArgumentCaptor.forClass(PersonConsolidation.class);
+        verify(snapshotRepository).saveIfVersion(salvo.capture());
+        assertEquals(4, salvo.getValue().getVersion());
+        assertEquals(4, salvo.getValue().getBuiltVersion());
+        assertEquals(Set.of(PersonConsolidation.ESCOPO_TODAS, PersonConsolidation.ESCOPO_CAIXA,
+                PersonConsolidation.ESCOPO_FUNCEF), salvo.getValue().getCelulasPorOrigem().keySet());
+    }
+
+    @Test
+    @DisplayName("Mudança nas rubricas ativas invalida o snapshot")
+    void rubricasAlteradas() {
+        when(snapshotRepository.findByTenantIdAndPersonId(TENANT_ID, PERSON_ID))
+                .thenReturn(Mono.just(snapshot(2, 2, Set.of("4482", "4430"), List.of())));
+        stubAggregation("1000.00");
+        when(snapshotRepository.saveIfVersion(any())).thenReturn(Mono.just(true));
+
+        List<ConsolidationCell> cells = service.cells(ConsolidationFixtures.person(), ATIVAS, null, null).block();
+
+        assertEquals(1, cells.size());
+        verify(snapshotRepository).saveIfVersion(any());
+    }
+
+    @Test
+    @DisplayName("Filtro de ano usa a agregação direta")
+    void filtroDeAno() {
+        when(entryRepository.aggregateConsolidationCells(TENANT_ID, PERSON_ID, ATIVAS, "2017", null))
+                .thenReturn(Flux.just(cell("2017", "11", "1000.00")));
+
+        List<ConsolidationCell> cells = service.cells(ConsolidationFixtures.person(), ATIVAS, "2017", null).block();
+
+        assertEquals(1, cells.size());
+        verify(snapshotRepository, never()).findByTenantIdAndPersonId(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Alteração nas entries incrementa a versão antes de recalcular")
+    void entriesAlteradas() {
+        when(personRepository.findByTenantIdAndCpf(TENANT_ID, CPF))
+                .thenReturn(Mono.just(ConsolidationFixtures.person()));
+        when(snapshotRepository.invalidate(TENANT_ID, PERSON_ID)).thenReturn(Mono.just(7L));
+        when(rubricaCatalog.codigosAtivos()).thenReturn(Mono.just(ATIVAS));
+        stubAggregation("1000.00");
+        when(snapshotRepository.saveIfVersion(any())).thenReturn(Mono.just(false));
+
+        service.entriesAlteradas(TENANT_ID, CPF).block();
+
+        ArgumentCaptor<PersonConsolidation> salvo = ArgumentCaptor.forClass(PersonConsolidation.class);
+        verify(snapshotRepository).saveIfVersion(salvo.capture());
+        assertEquals(7, salvo.getValue().getVersion());
+    }
+
+    @Test
+    @DisplayName("Verificação aponta células divergentes do recálculo")
+    void checkDivergente() {
+        Person person = ConsolidationFixtures.person();
+        when(rubricaCatalog.codigosAtivos()).thenReturn(Mono.just(ATIVAS));
+        when(snapshotRepository.findByTenantIdAndPersonId(TENANT_ID, PERSON_ID))
+                .thenReturn(Mono.just(snapshot(3, 3, ATIVAS, List.of(cell("2016", "05", "900.50")))));
+        stubAggregation("1000.00");
+
+        ConsolidationSnapshotCheckResponse response = service.check(person).block();
+
+        assertTrue(response.isSnapshotExiste());
+        assertFalse(response.isConsistente());
+        assertTrue(response.getDivergencias().stream().anyMatch(d -> d.contains("4482 2016-05")));
+    }
+
+    @Test
+    @DisplayName("Células iguais ao recálculo não geram divergência")
+    void divergenciasVazias() {
+        List<ConsolidationCell> cells = List.of(cell("2016", "05", "900.50"));
+        List<ConsolidationCell> recalculado = List.of(cell("2016", "05", "900.5"));
+
+        assertTrue(PersonConsolidationService.divergencias("TODAS", cells, recalculado).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Origem do filtro é normalizada para o escopo do snapshot")
+    void escopoNormalizado() {
+        assertEquals(PersonConsolidation.ESCOPO_TODAS, PersonConsolidationService.escopo(" "));
+        assertEquals(PersonConsolidation.ESCOPO_CAIXA, PersonConsolidationService.escopo("caixa"));
+        assertEquals(PersonConsolidation.ESCOPO_FUNCEF, PersonConsolidationService.escopo("Funcef"));
+        assertEquals(PersonConsolidation.ESCOPO_FUNCEF, PersonConsolidationService.escopo("FUNCEF_DEMONSTRATIVO"));
+    }
+
+    @Test
+    @DisplayName("Invalidação geral incrementa a versão de todos os snapshots")
+    void invalidarTodos() {
+        when(snapshotRepository.invalidateAll()).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(service.invalidarTodos("teste")).verifyComplete();
+
+        verify(snapshotRepository).invalidateAll();
+    }
+
+    private void stubAggregation(String valor) {
+        when(entryRepository.aggregateConsolidationCells(eq(TENANT_ID), eq(PERSON_ID), eq(ATIVAS), isNull(), any()))
+                .thenAnswer(invocation -> Flux.just(cell("2016", "05", valor)));
+    }
+
+    private static PersonConsolidation snapshot(long version, long builtVersion, Set<String> ativas,
+                                                List<ConsolidationCell> cells) {
+        return PersonConsolidation.builder()
+                .id(PERSON_ID)
+                .tenantId(TENANT_ID)
+                .version(version)
+                .builtVersion(builtVersion)
+                .rubricasAtivas(new HashSet<>(ativas))
+                .celulasPorOrigem(Map.of(
+                        PersonConsolidation.ESCOPO_TODAS, cells,
+                        PersonConsolidation.ESCOPO_CAIXA, cells,
+                        PersonConsolidation.ESCOPO_FUNCEF, List.of()))
+                .build();
+    }
+
+    private static ConsolidationCell cell(String ano, String mes, String valor) {
+        return ConsolidationCell.builder()
+                .rubricaCodigo("4482")
+                .rubricaDescricao("SALARIO")
+                .ano(ano)
+                .mes(mes)
+                .valor(new BigDecimal(valor))
+                .possuiCaixa(true)
+                .anosReferencia(Set.of(ano))
+                .build();
+    }
+}
@@ -0,0 +1,289 @@
+package br.com.verticelabs.pdfprocessor.application.dashboard;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollup;
+import br.com.verticelabs.pdfprocessor.domain.model.DashboardRollupDelta;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.repository.DashboardRollupRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.TenantRepository;
+import br.com.verticelabs.pdfprocessor.interfaces.dashboard.dto.DashboardChartItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardRollupService - rollups incrementais do dashboard")
+class DashboardRollupServiceTest {
+
+    private static final String TENANT = "tenant-1";
+
+    @Mock
+    private DashboardRollupRepository rollupRepository;
+    @Mock
+    private PayrollDocumentRepository documentRepository;
+    @Mock
+    private PayrollEntryRepository entryRepository;
+    @Mock
+    private PersonRepository personRepository;
+    @Mock
+    private TenantRepository tenantRepository;
+
+    @InjectMocks
+    private DashboardRollupService service;
+
+    private static PayrollEntry entry(String rubricaCodigo, String referencia) {
+        return PayrollEntry.builder().tenantId(TENANT).rubricaCodigo(rubricaCodigo).referencia(referencia).build();
+    }
+
+    private static DashboardChartItem item(String label, long valor) {
+        return DashboardChartItem.builder().label(label).valor(valor).build();
+    }
+
+    /**
+     * Liga o mock do repositório a um rollup em memória: $inc soma, saveIfUnchanged compara a versao.
+     */
+    private AtomicReference<DashboardRollup> rollupEmMemoria(DashboardRollup inicial) {
+        AtomicReference<DashboardRollup> rollup = new AtomicReference<>(inicial);
+        lenient().when(rollupRepository.findById(TENANT)).thenAnswer(invocation -> Mono.fromCallable(() -> {
+            DashboardRollup atual = rollup.get();
+            return DashboardRollup.builder().id(TENANT).lancamentos(atual.getLancamentos())
+                    .versao(atual.getVersao()).escritasEmAndamento(atual.getEscritasEmAndamento())
+                    .atualizadoEm(atual.getAtualizadoEm()).build();
+        }));
+        lenient().when(rollupRepository.increment(eq(TENANT), any())).thenAnswer(invocation -> Mono.fromRunnable(() -> {
+            DashboardRollupDelta delta = invocation.getArgument(1);
+            DashboardRollup atual = rollup.get();
+            atual.setLancamentos(atual.getLancamentos() + delta.getLancamentos());
+            atual.setEscritasEmAndamento(atual.getEscritasEmAndamento() + delta.getEscritasEmAndamento());
+            atual.setVersao(atual.getVersao() + 1);
+            atual.setAtualizadoEm(Instant.now());
+        }));
+        lenient().when(rollupRepository.saveIfUnchanged(any(), anyLong())).thenAnswer(invocation -> Mono.fromCallable(() -> {
+            long versaoLida = invocation.getArgument(1);
+            if (rollup.get().getVersao() != versaoLida) {
+                return false;
+            }
+            rollup.set(invocation.getArgument(0));
+            return true;
+        }));
+        return rollup;
+    }
+
+    private void agregacoesDoTenant(AtomicLong lancamentos) {
+        lenient().when(documentRepository.countByTenantId(TENANT)).thenReturn(Mono.just(1L));
+        lenient().when(entryRepository.countByTenantId(TENANT)).thenReturn(Mono.fromCallable(lancamentos::get));
+        lenient().when(personRepository.countByTenantId(TENANT)).thenReturn(Mono.just(1L));
+        lenient().when(documentRepository.countDocumentosPorAno(TENANT)).thenReturn(Flux.empty());
+        lenient().when(personRepository.countPessoasPorAno(TENANT)).thenReturn(Flux.empty());
+        lenient().when(entryRepository.countLancamentosPorAno(TENANT)).thenReturn(Flux.empty());
+        lenient().when(entryRepository.countTopRubricas(TENANT, Integer.MAX_VALUE)).thenReturn(Flux.empty());
+    }
+
+    @Test
+    @DisplayName("Entries gravadas incrementam total, ano da referência e rubrica depois da gravação")
+    void inserindoEntries() {
+        AtomicBoolean gravado = new AtomicBoolean();
+        when(rollupRepository.increment(eq(TENANT), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.inserindoEntries(TENANT, List.of(
+                        entry("4482", "2017-08"),
+                        entry("4482", "2017-13"),
+                        entry("3430", "2018-01"),
+                        entry(null, "xx")), Mono.fromCallable(() -> {
+                            gravado.set(true);
+                            return 4L;
+                        })))
+                .expectNext(4L)
+                .verifyComplete();
+
+        assertTrue(gravado.get());
+        ArgumentCaptor<DashboardRollupDelta> delta = ArgumentCaptor.forClass(DashboardRollupDelta.class);
+        verify(rollupRepository, times(2)).increment(eq(TENANT), delta.capture());
+        DashboardRollupDelta marca = delta.getAllValues().get(0);
+        assertEquals(1, marca.getEscritasEmAndamento());
+        assertEquals(0, marca.getLancamentos());
+        DashboardRollupDelta concluida = delta.getAllValues().get(1);
+        assertEquals(-1, concluida.getEscritasEmAndamento());
+        assertEquals(4, concluida.getLancamentos());
+        assertEquals(Map.of("2017", 2L, "2018", 1L), concluida.getLancamentosPorAno());
+        assertEquals(Map.of("4482", 2L, "3430", 1L), concluida.getLancamentosPorRubrica());
+    }
+
+    @Test
+    @DisplayName("Remoção conta as entries antes de excluir e desconta depois")
+    void removendoEntries() {
+        AtomicBoolean removido = new AtomicBoolean();
+        when(entryRepository.findByTenantIdAndDocumentoId(TENANT, "doc-1"))
+                .thenReturn(Flux.defer(() -> removido.get()
+                        ? Flux.empty()
+                        : Flux.just(entry("4482", "2017-08"), entry("4482", "2017-09"))));
+        when(rollupRepository.increment(eq(TENANT), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.removendoEntries(TENANT, "doc-1", Mono.fromRunnable(() -> removido.set(true))))
+                .verifyComplete();
+
+        assertTrue(removido.get());
+        ArgumentCaptor<DashboardRollupDelta> delta = ArgumentCaptor.forClass(DashboardRollupDelta.class);
+        verify(rollupRepository, times(2)).increment(eq(TENANT), delta.capture());
+        DashboardRollupDelta concluida = delta.getAllValues().get(1);
+        assertEquals(-2, concluida.getLancamentos());
+        assertEquals(Map.of("4482", -2L), concluida.getLancamentosPorRubrica());
+    }
+
+    @Test
+    @DisplayName("Falha ao atualizar o rollup não interrompe a operação")
+    void falhaNoIncremento() {
+        when(rollupRepository.increment(eq(TENANT), any()))
+                .thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        StepVerifier.create(service.inserindoEntries(TENANT, List.of(entry("4482", "2017-08")), Mono.just(1L)))
+                .expectNext(1L)
+                .verifyComplete();
+
+        // Sem a marca aplicada, o $inc final não tenta retirá-la
+        ArgumentCaptor<DashboardRollupDelta> delta = ArgumentCaptor.forClass(DashboardRollupDelta.class);
+        verify(rollupRepository, times(2)).increment(eq(TENANT), delta.capture());
+        assertEquals(0, delta.getAllValues().get(1).getEscritasEmAndamento());
+    }
+
+    @Test
+    @DisplayName("Falha na gravação de origem retira a marca sem aplicar a variação")
+    void falhaNaGravacao() {
+        AtomicReference<DashboardRollup> rollup = rollupEmMemoria(
+                DashboardRollup.builder().id(TENANT).lancamentos(10).versao(4).atualizadoEm(Instant.now()).build());
+
+        StepVerifier.create(service.inserindoEntries(TENANT, List.of(entry("4482", "2017-08")),
+                        Mono.error(new IllegalStateException("bulk write"))))
+                .verifyErrorMessage("bulk write");
+
+        assertEquals(10, rollup.get().getLancamentos());
+        assertEquals(0, rollup.get().getEscritasEmAndamento());
+    }
+
+    @Test
+    @DisplayName("Reconciliação entre a gravação das entries e o $inc não conta as entries duas vezes")
+    void reconciliarEntreGravacaoEIncremento() {
+        AtomicReference<DashboardRollup> rollup = rollupEmMemoria(
+                DashboardRollup.builder().id(TENANT).lancamentos(10).versao(4).atualizadoEm(Instant.now()).build());
+        AtomicLong entriesGravadas = new AtomicLong(10);
+        agregacoesDoTenant(entriesGravadas);
+
+        // As entries já estão na collection quando a reconciliação agrega; o $inc vem depois
+        Mono<Long> insercao = Mono.fromCallable(() -> entriesGravadas.addAndGet(2) - 10)
+                .flatMap(inseridas -> service.reconciliar(TENANT).thenReturn(inseridas));
+
+        StepVerifier.create(service.inserindoEntries(TENANT,
+                        List.of(entry("4482", "2017-08"), entry("4482", "2017-09")), insercao))
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertEquals(12, rollup.get().getLancamentos());
+        assertEquals(0, rollup.get().getEscritasEmAndamento());
+        verify(rollupRepository, never()).saveIfUnchanged(any(), anyLong());
+
+        // Sem gravações em andamento, a reconciliação chega ao mesmo total
+        StepVerifier.create(service.reconciliar(TENANT))
+                .assertNext(reconciliado -> assertEquals(12, reconciliado.getLancamentos()))
+                .verifyComplete();
+        assertEquals(12, rollup.get().getLancamentos());
+    }
+
+    @Test
+    @DisplayName("Marca de gravação interrompida há muito tempo não bloqueia a reconciliação")
+    void reconciliarComMarcaExpirada() {
+        AtomicReference<DashboardRollup> rollup = rollupEmMemoria(DashboardRollup.builder().id(TENANT)
+                .lancamentos(10).versao(4).escritasEmAndamento(1)
+                .atualizadoEm(Instant.now().minus(Duration.ofHours(1))).build());
+        agregacoesDoTenant(new AtomicLong(12));
+
+        StepVerifier.create(service.reconciliar(TENANT))
+                .assertNext(reconciliado -> assertEquals(12, reconciliado.getLancamentos()))
+                .verifyComplete();
+
+        assertEquals(0, rollup.get().getEscritasEmAndamento());
+        assertEquals(5, rollup.get().getVersao());
+    }
+
+    @Test
+    @DisplayName("Rollup ausente da visão SUPER_ADMIN é calculado a partir das collections e gravado")
+    void rollupAusente() {
+        when(rollupRepository.findById(DashboardRollup.TODOS_OS_TENANTS)).thenReturn(Mono.empty());
+        when(documentRepository.countAll()).thenReturn(Mono.just(3L));
+        when(entryRepository.countAll()).thenReturn(Mono.just(120L));
+        when(personRepository.countAll()).thenReturn(Mono.just(2L));
+        when(documentRepository.countDocumentosPorAno(null)).thenReturn(Flux.just(item("2017", 3)));
+        when(personRepository.countPessoasPorAno(null)).thenReturn(Flux.just(item("2025", 2)));
+        when(entryRepository.countLancamentosPorAno(null)).thenReturn(Flux.just(item("2017", 120)));
+        when(entryRepository.countTopRubricas(null, Integer.MAX_VALUE))
+                .thenReturn(Flux.just(item("4482", 100), item("4.4", 20)));
+        when(rollupRepository.saveIfUnchanged(any(), eq(DashboardRollup.AUSENTE))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.rollup(null))
+                .assertNext(rollup -> {
+                    assertEquals(DashboardRollup.TODOS_OS_TENANTS, rollup.getId());
+                    assertEquals(3, rollup.getDocumentos());
+                    assertEquals(120, rollup.getLancamentos());
+                    assertEquals(2, rollup.getPessoas());
+                    assertEquals(Map.of("4482", 100L, "4.4", 20L), rollup.getLancamentosPorRubrica());
+                    assertEquals(0, rollup.getVersao());
+                    assertNotNull(rollup.getReconciliadoEm());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Rollup alterado durante o recálculo não é sobrescrito: recalcula com a nova versão")
+    void reconciliarComIncrementoConcorrente() {
+        when(rollupRepository.findById(TENANT)).thenReturn(
+                Mono.just(DashboardRollup.builder().id(TENANT).versao(4).build()),
+                Mono.just(DashboardRollup.builder().id(TENANT).versao(5).build()));
+        when(documentRepository.countByTenantId(TENANT)).thenReturn(Mono.just(1L));
+        when(entryRepository.countByTenantId(TENANT)).thenReturn(Mono.just(10L));
+        when(personRepository.countByTenantId(TENANT)).thenReturn(Mono.just(1L));
+        when(documentRepository.countDocumentosPorAno(TENANT)).thenReturn(Flux.just(item("2017", 1)));
+        when(personRepository.countPessoasPorAno(TENANT)).thenReturn(Flux.just(item("2025", 1)));
+        when(entryRepository.countLancamentosPorAno(TENANT)).thenReturn(Flux.just(item("2017", 10)));
+        when(entryRepository.countTopRubricas(TENANT, Integer.MAX_VALUE)).thenReturn(Flux.just(item("4482", 10)));
+        when(rollupRepository.saveIfUnchanged(any(), eq(4L))).thenReturn(Mono.just(false));
+        when(rollupRepository.saveIfUnchanged(any(), eq(5L))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.reconciliar(TENANT))
+                .assertNext(rollup -> {
+                    assertEquals(10, rollup.getLancamentos());
+                    assertEquals(6, rollup.getVersao());
+                })
+                .verifyComplete();
+
+        verify(rollupRepository).saveIfUnchanged(any(), eq(4L));
+        verify(rollupRepository).saveIfUnchanged(any(), eq(5L));
+    }
+}
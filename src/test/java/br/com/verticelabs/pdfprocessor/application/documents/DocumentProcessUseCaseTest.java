@@ -1,12 +1,20 @@
 package br.com.verticelabs.pdfprocessor.application.documents;
 
+import br.com.verticelabs.pdfprocessor.application.dashboard.DashboardRollupService;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiQuotaExceededException;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException;
 import br.com.verticelabs.pdfprocessor.domain.model.*;
+import br.com.verticelabs.pdfprocessor.domain.repository.ExtractionCacheRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.ProcessingJobRepository;
 import br.com.verticelabs.pdfprocessor.domain.service.*;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics;
 import br.com.verticelabs.pdfprocessor.infrastructure.pdf.PdfLineParser;
 import br.com.verticelabs.pdfprocessor.infrastructure.pdf.PdfNormalizer;
 import br.com.verticelabs.pdfprocessor.infrastructure.pdf.RubricaValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +22,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -35,6 +43,10 @@ public class DocumentProcessUseCaseTest {
     @Mock
     private PayrollEntryRepository entryRepository;
     @Mock
+    private PersonRepository personRepository;
+    @Mock
+    private ProcessingJobRepository processingJobRepository;
+    @Mock
     private GridFsService gridFsService;
     @Mock
     private PdfService pdfService;
@@ -54,12 +66,24 @@ public class DocumentProcessUseCaseTest {
     private PdfNormalizer normalizer;
     @Mock
     private RubricaValidator rubricaValidator;
+    @Mock
+    private PdfSession pdfSession;
+    @Mock
+    private DashboardRollupService dashboardRollupService;
+    @Spy
+    private ExtractionMetrics extractionMetrics = new ExtractionMetrics(new SimpleMeterRegistry());
+
+    private final ExtractionCacheRepository extractionCacheRepository = Mockito.mock(ExtractionCacheRepository.class);
+    @Spy
+    private PageExtractionCache pageExtractionCache = new PageExtractionCache(
+            extractionCacheRepository, new ExtractionMetrics(new SimpleMeterRegistry()), true);
+    @Spy
+    private PagePipeline pagePipeline = new PagePipeline(2, 2, 8, new SimpleMeterRegistry());
 
     @InjectMocks
     private DocumentProcessUseCase useCase;
 
     private PayrollDocument document;
-    private byte[] pdfBytes;
 
     @BeforeEach
     public void setUp() {
@@ -68,17 +92,49 @@ public class DocumentProcessUseCaseTest {
         document.setTenantId("tenant-1");
         document.setTipo(DocumentType.FUNCEF);
         document.setProcessingLog(new ArrayList<>());
-        pdfBytes = new byte[]{1, 2, 3};
 
         lenient().when(documentRepository.save(any(PayrollDocument.class)))
                 .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        lenient().when(documentRepository.appendProcessingEvents(anyString(), anyList())).thenReturn(Mono.empty());
+        lenient().when(documentRepository.markProcessed(any(PayrollDocument.class))).thenReturn(Mono.empty());
+        lenient().when(documentRepository.incrementProcessedPages(anyString())).thenReturn(Mono.empty());
+        lenient().when(documentRepository.updateStatus(anyString(), any(), any())).thenReturn(Mono.empty());
+        lenient().when(dashboardRollupService.inserindoEntries(anyString(), anyList(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        lenient().when(dashboardRollupService.detectandoAnoDoDocumento(any(PayrollDocument.class), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Test
+    public void testProcessDocumentEnqueuesInsteadOfProcessingInline() {
+        document.setStatus(DocumentStatus.PENDING);
+        when(documentRepository.findById("doc-1")).thenReturn(Mono.just(document));
+        when(processingJobRepository.enqueue("doc-1", "tenant-1"))
+                .thenReturn(Mono.just(ProcessingJob.builder().id("job-1").documentId("doc-1").build()));
+
+        var response = useCase.processDocument("doc-1").block();
+
+        Assertions.assertNotNull(response);
+        Assertions.assertEquals(DocumentStatus.PROCESSING, response.getStatus());
+        Assertions.assertEquals(DocumentStatus.PROCESSING, document.getStatus());
+        verify(processingJobRepository).enqueue("doc-1", "tenant-1");
+        verifyNoInteractions(gridFsService, pdfService);
+    }
+
+    @Test
+    public void testReprocessRejectsDocumentAlreadyProcessing() {
+        document.setStatus(DocumentStatus.PROCESSING);
+        when(documentRepository.findById("doc-1")).thenReturn(Mono.just(document));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> useCase.reprocessDocument("doc-1").block());
+        verifyNoInteractions(processingJobRepository);
     }
 
     @Test
     public void testFallbackWhenParserReturnsZeroEntries() {
         // Arrange: mock PDF text is readable but has no entries
         String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
-        when(pdfService.extractTextFromPage(any(InputStream.class), eq(1)))
+        when(pdfSession.extractTextFromPage(1))
                 .thenReturn(Mono.just(pageText));
         when(monthYearDetectionService.detectMonthYear(anyString()))
                 .thenReturn(Mono.just(Optional.of("2016/01")));
@@ -87,23 +143,44 @@ public class DocumentProcessUseCaseTest {
 
         // Mock Gemini Enabled & Extraction
         when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(true);
         when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
-        when(aiPdfExtractionService.extractPayrollData(any(byte[].class), eq(1)))
-                .thenReturn(Mono.just("{\"entries\": []}")); // returns empty json but goes to Gemini
+        when(aiPdfExtractionService.extractPayrollDataWithModel(any(PdfSession.class), eq(1)))
+                .thenReturn(Mono.just(new AiPdfExtractionService.ModelResponse("{\"entries\": []}", "gemini-1.5-flash"))); // returns empty json but goes to Gemini
 
         // Act
-        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfBytes, 1, 1).block();
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
 
         // Assert
-        verify(aiPdfExtractionService, times(1)).extractPayrollData(any(byte[].class), eq(1));
+        verify(aiPdfExtractionService, times(1)).extractPayrollDataWithModel(any(PdfSession.class), eq(1));
+        verify(pdfSession, never()).getPdfBytes(); // a página é renderizada da sessão, sem ler o PDF inteiro
         Assertions.assertNotNull(result);
     }
 
+    @Test
+    public void testIntermediateProgressAppendsEventsWithoutRewritingDocument() {
+        String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
+        when(pdfSession.extractTextFromPage(1)).thenReturn(Mono.just(pageText));
+        when(monthYearDetectionService.detectMonthYear(anyString())).thenReturn(Mono.just(Optional.of("2016/01")));
+        when(lineParser.parseLinesFuncef(anyString(), anyString())).thenReturn(Collections.emptyList());
+        when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(true);
+        when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
+        when(aiPdfExtractionService.extractPayrollDataWithModel(any(PdfSession.class), eq(1)))
+                .thenReturn(Mono.just(new AiPdfExtractionService.ModelResponse("{\"entries\": []}", "gemini-1.5-flash")));
+
+        useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
+
+        // Eventos gravados com $push; o PayrollDocument inteiro não é reescrito a cada página
+        verify(documentRepository, atLeastOnce()).appendProcessingEvents(eq("doc-1"), anyList());
+        verify(documentRepository, never()).save(any(PayrollDocument.class));
+    }
+
     @Test
     public void testFallbackWhenValidationFails() {
         // Arrange: mock PDF text has values but validation score will be < 0.85
         String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
-        when(pdfService.extractTextFromPage(any(InputStream.class), eq(1)))
+        when(pdfSession.extractTextFromPage(1))
                 .thenReturn(Mono.just(pageText));
         when(monthYearDetectionService.detectMonthYear(anyString()))
                 .thenReturn(Mono.just(Optional.of("2016/01")));
@@ -124,15 +201,16 @@ public class DocumentProcessUseCaseTest {
 
         // Mock Gemini Enabled & Extraction
         when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(true);
         when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
-        when(aiPdfExtractionService.extractPayrollData(any(byte[].class), eq(1)))
-                .thenReturn(Mono.just("{\"entries\": []}"));
+        when(aiPdfExtractionService.extractPayrollDataWithModel(any(PdfSession.class), eq(1)))
+                .thenReturn(Mono.just(new AiPdfExtractionService.ModelResponse("{\"entries\": []}", "gemini-1.5-flash")));
 
         // Act
-        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfBytes, 1, 1).block();
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
 
         // Assert
-        verify(aiPdfExtractionService, times(1)).extractPayrollData(any(byte[].class), eq(1));
+        verify(aiPdfExtractionService, times(1)).extractPayrollDataWithModel(any(PdfSession.class), eq(1));
         Assertions.assertNotNull(result);
     }
 
@@ -140,7 +218,7 @@ public class DocumentProcessUseCaseTest {
     public void testNoFallbackWhenValidationPasses() {
         // Arrange: mock PDF text has values and validation score is >= 0.85 (valid)
         String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
-        when(pdfService.extractTextFromPage(any(InputStream.class), eq(1)))
+        when(pdfSession.extractTextFromPage(1))
                 .thenReturn(Mono.just(pageText));
         when(monthYearDetectionService.detectMonthYear(anyString()))
                 .thenReturn(Mono.just(Optional.of("2016/01")));
@@ -158,11 +236,123 @@ public class DocumentProcessUseCaseTest {
                 .thenReturn(validationResult);
 
         // Act
-        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfBytes, 1, 1).block();
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
 
         // Assert
-        verify(aiPdfExtractionService, never()).extractPayrollData(any(byte[].class), eq(1));
+        verify(aiPdfExtractionService, never()).extractPayrollDataWithModel(any(PdfSession.class), eq(1));
         Assertions.assertNotNull(result);
         Assertions.assertEquals(1, result.getEntries().size());
     }
+
+    @Test
+    public void testRegexResultKeptWhenGeminiCircuitIsOpen() {
+        String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
+        stubInvalidRegexPage(pageText);
+        when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(false);
+
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
+
+        // Circuito aberto: nem tenta o Gemini, fica com a extração por regex
+        verify(aiPdfExtractionService, never()).extractPayrollDataWithModel(any(PdfSession.class), anyInt());
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(1, result.getEntries().size());
+    }
+
+    @Test
+    public void testRegexResultKeptWhenGeminiRejectsCall() {
+        String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
+        stubInvalidRegexPage(pageText);
+        when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(true);
+        when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
+        when(aiPdfExtractionService.extractPayrollDataWithModel(any(PdfSession.class), eq(1)))
+                .thenReturn(Mono.error(new AiUnavailableException("Gemini [gemini-1.5-flash] indisponível: circuito aberto")));
+
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
+
+        // Recusa do guard: volta ao resultado do regex sem tentar a extração de texto pelo Gemini
+        verify(aiPdfExtractionService, never()).extractTextFromScannedPage(any(PdfSession.class), anyInt());
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(1, result.getEntries().size());
+    }
+
+    @Test
+    public void testGeminiQuotaRejectionFailsThePageInsteadOfDroppingIt() {
+        String pageText = "DEMONSTRATIVO DE PROVENTOS\nCPF: 123.456.789-01\nBruto: R$ 5.000,00\nDescontos: R$ 1.000,00\nLíquido: R$ 4.000,00";
+        stubInvalidRegexPage(pageText);
+        when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.isAvailable()).thenReturn(true);
+        when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
+        when(aiPdfExtractionService.extractPayrollDataWithModel(any(PdfSession.class), eq(1)))
+                .thenReturn(Mono.error(new AiQuotaExceededException("Gemini [gemini-1.5-flash] sem vazão: cota por minuto esgotada")));
+
+        // Cota esgotada: o erro chega ao ProcessingJobWorker, que retenta o documento com backoff
+        Assertions.assertThrows(AiQuotaExceededException.class,
+                () -> useCase.processPageWithMetadata(document, pdfSession, 1, 1).block());
+        verify(aiPdfExtractionService, never()).extractTextFromScannedPage(any(PdfSession.class), anyInt());
+    }
+
+    @Test
+    public void testReprocessKeepsExtractionCacheOfTheFile() {
+        document.setStatus(DocumentStatus.PROCESSED);
+        document.setFileHash("abc123");
+        when(documentRepository.findById("doc-1")).thenReturn(Mono.just(document));
+        when(processingJobRepository.enqueue("doc-1", "tenant-1"))
+                .thenReturn(Mono.just(ProcessingJob.builder().id("job-1").documentId("doc-1").build()));
+
+        useCase.reprocessDocument("doc-1").block();
+
+        verify(extractionCacheRepository, never()).deleteByFileHash(anyString());
+        verify(processingJobRepository).enqueue("doc-1", "tenant-1");
+    }
+
+    @Test
+    public void testReprocessWithRefreshCacheDiscardsExtractionCacheOfTheFile() {
+        document.setStatus(DocumentStatus.PROCESSED);
+        document.setFileHash("abc123");
+        when(documentRepository.findById("doc-1")).thenReturn(Mono.just(document));
+        when(extractionCacheRepository.deleteByFileHash("abc123")).thenReturn(Mono.just(3L));
+        when(processingJobRepository.enqueue("doc-1", "tenant-1"))
+                .thenReturn(Mono.just(ProcessingJob.builder().id("job-1").documentId("doc-1").build()));
+
+        useCase.reprocessDocument("doc-1", true).block();
+
+        verify(extractionCacheRepository).deleteByFileHash("abc123");
+        verify(processingJobRepository).enqueue("doc-1", "tenant-1");
+    }
+
+    @Test
+    public void testRetryReusesCachedPageTextAndGeminiJson() {
+        document.setFileHash("abc123");
+        when(extractionCacheRepository.findContent(anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            return Mono.just(key.contains(":" + PageExtractionCache.PDF_TEXT + ":") ? "" : "{\"entries\": []}");
+        });
+        when(pdfSession.extractTextFromPage(1)).thenReturn(Mono.error(new AssertionError("PDF não deveria ser lido")));
+        when(aiPdfExtractionService.isEnabled()).thenReturn(true);
+        when(aiPdfExtractionService.getPrimaryModelName()).thenReturn("gemini-1.5-flash");
+
+        DocumentProcessUseCase.PageResult result = useCase.processPageWithMetadata(document, pdfSession, 1, 1).block();
+
+        // Texto vazio (página escaneada) e JSON do Gemini vêm do cache pelo hash do arquivo
+        verify(aiPdfExtractionService, never()).extractPayrollDataWithModel(any(PdfSession.class), anyInt());
+        verify(extractionCacheRepository, never()).save(any());
+        Assertions.assertNotNull(result);
+    }
+
+    private void stubInvalidRegexPage(String pageText) {
+        when(pdfSession.extractTextFromPage(1)).thenReturn(Mono.just(pageText));
+        when(monthYearDetectionService.detectMonthYear(anyString())).thenReturn(Mono.just(Optional.of("2016/01")));
+        PdfLineParser.ParsedLine line = new PdfLineParser.ParsedLine("409", "BENEFICIO FUNCEF", "5000.00", "2016/01");
+        when(lineParser.parseLinesFuncef(anyString(), anyString())).thenReturn(List.of(line));
+        when(normalizer.normalizeValue(anyString())).thenReturn(new BigDecimal("5000.00"));
+        when(normalizer.normalizeReference(anyString())).thenReturn("2016/01");
+        when(normalizer.normalizeDescription(anyString())).thenReturn("BENEFICIO FUNCEF");
+        ValidationResult validationResult = new ValidationResult(0.5, false, List.of(
+                new ValidationIssue("salarioLiquido", "TYPE", "4000.00", "5000.00", "Divergência")
+        ), "REJECT");
+        when(validationService.validatePayrollExtraction(anyList(), any(BigDecimal.class), any(BigDecimal.class), any(BigDecimal.class), anyString(), any()))
+                .thenReturn(validationResult);
+    }
 }
@@ -0,0 +1,197 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import br.com.verticelabs.pdfprocessor.domain.model.ExtractionCacheEntry;
+import br.com.verticelabs.pdfprocessor.domain.repository.ExtractionCacheRepository;
+import br.com.verticelabs.pdfprocessor.domain.service.AiPdfExtractionService.ModelResponse;
+import br.com.verticelabs.pdfprocessor.infrastructure.ai.GeminiPrompts;
+import br.com.verticelabs.pdfprocessor.infrastructure.metrics.ExtractionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PageExtractionCache - cache por página e hash do arquivo")
+class PageExtractionCacheTest {
+
+    private static final String HASH = "a1b2c3";
+    private static final String PROFILE = "DOCUMENT_LOSSLESS";
+
+    @Mock
+    private ExtractionCacheRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PageExtractionCache cache;
+    private final AtomicInteger sourceCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PageExtractionCache(repository, new ExtractionMetrics(meterRegistry), true);
+    }
+
+    private Mono<String> source(String content) {
+        return Mono.fromCallable(() -> {
+            sourceCalls.incrementAndGet();
+            return content;
+        });
+    }
+
+    private Mono<ModelResponse> respondedBy(String model, String content) {
+        return source(content).map(json -> new ModelResponse(json, model));
+    }
+
+    private double lookups(String extractor, String result) {
+        return meterRegistry.get(ExtractionMetrics.EXTRACTION_CACHE)
+                .tag("extractor", extractor).tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("Miss chama o Gemini e grava o JSON com a versão dos prompts, o modelo e o perfil da imagem")
+    void missGrava() {
+        when(repository.findContent(anyString())).thenReturn(Mono.empty());
+        when(repository.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(cache.geminiPayroll(HASH, 3, "gemini-2.5-flash", PROFILE,
+                        respondedBy("gemini-2.5-flash", "{\"rubricas\": []}")))
+                .expectNext("{\"rubricas\": []}")
+                .verifyComplete();
+
+        ArgumentCaptor<ExtractionCacheEntry> saved = ArgumentCaptor.forClass(ExtractionCacheEntry.class);
+        verify(repository).save(saved.capture());
+        assertEquals(ExtractionCacheEntry.key(HASH, 3, PageExtractionCache.GEMINI_PAYROLL,
+                GeminiPrompts.VERSION, "gemini-2.5-flash", PROFILE), saved.getValue().getId());
+        assertEquals(GeminiPrompts.VERSION, saved.getValue().getVersion());
+        assertEquals(PROFILE, saved.getValue().getImageProfile());
+        assertEquals(1, sourceCalls.get());
+        assertEquals(1, lookups(PageExtractionCache.GEMINI_PAYROLL, "miss"));
+    }
+
+    @Test
+    @DisplayName("Hit devolve o conteúdo guardado sem chamar a extração")
+    void hit() {
+        String key = ExtractionCacheEntry.key(HASH, 1, PageExtractionCache.PDF_TEXT,
+                PageExtractionCache.PDF_TEXT_VERSION, "pdfbox");
+        when(repository.findContent(key)).thenReturn(Mono.just("texto da página"));
+
+        StepVerifier.create(cache.pageText(HASH, 1, source("novo")))
+                .expectNext("texto da página")
+                .verifyComplete();
+
+        assertEquals(0, sourceCalls.get());
+        verify(repository, never()).save(any());
+        assertEquals(1, lookups(PageExtractionCache.PDF_TEXT, "hit"));
+    }
+
+    @Test
+    @DisplayName("Resposta vazia do Gemini não é guardada; texto vazio do PDF é")
+    void conteudoVazio() {
+        when(repository.findContent(anyString())).thenReturn(Mono.empty());
+        when(repository.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(cache.geminiPayrollPro(HASH, 2, "gemini-2.5-pro", PROFILE, source(" ")))
+                .expectNext(" ")
+                .verifyComplete();
+        verify(repository, never()).save(any());
+
+        StepVerifier.create(cache.pageText(HASH, 2, source("")))
+                .expectNext("")
+                .verifyComplete();
+        verify(repository).save(any());
+    }
+
+    @Test
+    @DisplayName("Falha do MongoDB não interrompe a extração")
+    void falhaDoRepositorio() {
+        when(repository.findContent(anyString())).thenReturn(Mono.error(new IllegalStateException("timeout")));
+        when(repository.save(any())).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        StepVerifier.create(cache.pageText(HASH, 1, source("texto")))
+                .expectNext("texto")
+                .verifyComplete();
+        assertEquals(1, sourceCalls.get());
+    }
+
+    @Test
+    @DisplayName("Sem hash do arquivo ou com o cache desabilitado, vai direto à extração")
+    void bypass() {
+        StepVerifier.create(cache.pageText(null, 1, source("texto"))).expectNext("texto").verifyComplete();
+
+        PageExtractionCache disabled = new PageExtractionCache(repository, new ExtractionMetrics(meterRegistry), false);
+        StepVerifier.create(disabled.pageText(HASH, 1, source("texto"))).expectNext("texto").verifyComplete();
+        disabled.purgeStaleVersions();
+
+        assertEquals(2, sourceCalls.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Chamada promovida ao fallback é gravada sob o modelo que respondeu")
+    void promovidaGravaSobFallback() {
+        when(repository.findContent(anyString())).thenReturn(Mono.empty());
+        when(repository.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(cache.geminiPayroll(HASH, 1, "gemini-2.5-flash", PROFILE,
+                        respondedBy("gemini-2.5-pro", "{\"rubricas\": []}")))
+                .expectNext("{\"rubricas\": []}")
+                .verifyComplete();
+
+        ArgumentCaptor<ExtractionCacheEntry> saved = ArgumentCaptor.forClass(ExtractionCacheEntry.class);
+        verify(repository).save(saved.capture());
+        assertEquals(ExtractionCacheEntry.key(HASH, 1, PageExtractionCache.GEMINI_PAYROLL,
+                GeminiPrompts.VERSION, "gemini-2.5-pro", PROFILE), saved.getValue().getId());
+        assertEquals("gemini-2.5-pro", saved.getValue().getModel());
+    }
+
+    @Test
+    @DisplayName("Perfil de imagem diferente é outra entrada do cache")
+    void perfilNaChave() {
+        when(repository.findContent(ExtractionCacheEntry.key(HASH, 1, PageExtractionCache.GEMINI_PAYROLL,
+                GeminiPrompts.VERSION, "gemini-2.5-flash", "DOCUMENT"))).thenReturn(Mono.empty());
+        when(repository.save(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(cache.geminiPayroll(HASH, 1, "gemini-2.5-flash", "DOCUMENT",
+                        respondedBy("gemini-2.5-flash", "{}")))
+                .expectNext("{}")
+                .verifyComplete();
+        assertEquals(1, sourceCalls.get());
+    }
+
+    @Test
+    @DisplayName("Reprocessamento descarta as entradas do arquivo")
+    void invalidate() {
+        when(repository.deleteByFileHash(HASH)).thenReturn(Mono.just(5L));
+
+        StepVerifier.create(cache.invalidate(HASH)).verifyComplete();
+
+        verify(repository).deleteByFileHash(HASH);
+    }
+
+    @Test
+    @DisplayName("Startup remove entradas de versões anteriores de cada extrator")
+    void purgeVersoesAntigas() {
+        when(repository.deleteByExtractorAndVersionNot(anyString(), anyString())).thenReturn(Mono.just(0L));
+
+        cache.purgeStaleVersions();
+
+        verify(repository).deleteByExtractorAndVersionNot(PageExtractionCache.PDF_TEXT, PageExtractionCache.PDF_TEXT_VERSION);
+        verify(repository).deleteByExtractorAndVersionNot(PageExtractionCache.GEMINI_PAYROLL, GeminiPrompts.VERSION);
+        verify(repository).deleteByExtractorAndVersionNot(PageExtractionCache.GEMINI_PAYROLL_PRO, GeminiPrompts.VERSION);
+    }
+}
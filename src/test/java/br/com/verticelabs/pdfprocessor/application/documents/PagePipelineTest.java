@@ -0,0 +1,91 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("PagePipeline - estágios limitados de texto e IA")
+class PagePipelineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PagePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new PagePipeline(2, 1, 16, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    private double gauge(String name, String stage) {
+        return meterRegistry.get(name).tag("stage", stage).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Estágio ai limita as páginas simultâneas e libera a vaga na ordem de chegada")
+    void aiLimitado() {
+        Sinks.One<String> first = Sinks.one();
+        List<String> done = new ArrayList<>();
+
+        pipeline.ai(first.asMono()).subscribe(done::add);
+        pipeline.ai(Mono.fromCallable(() -> "segunda")).subscribe(done::add);
+        pipeline.ai(Mono.fromCallable(() -> "terceira")).subscribe(done::add);
+
+        assertEquals(1, gauge(PagePipeline.STAGE_ACTIVE, "ai"));
+        assertEquals(2, gauge(PagePipeline.STAGE_QUEUED, "ai"));
+        assertTrue(done.isEmpty());
+
+        first.tryEmitValue("primeira");
+
+        assertEquals(List.of("primeira", "segunda", "terceira"), done);
+        assertEquals(0, gauge(PagePipeline.STAGE_ACTIVE, "ai"));
+        assertEquals(0, gauge(PagePipeline.STAGE_QUEUED, "ai"));
+        assertEquals(3, meterRegistry.get(PagePipeline.STAGE_WAIT).tag("stage", "ai").timer().count());
+    }
+
+    @Test
+    @DisplayName("Página esperando a IA não segura o estágio de texto")
+    void estagiosIndependentes() {
+        Sinks.One<String> gemini = Sinks.one();
+        pipeline.ai(gemini.asMono()).subscribe();
+        pipeline.ai(Mono.just("na fila")).subscribe();
+
+        StepVerifier.create(pipeline.text(Mono.fromCallable(() -> Thread.currentThread().getName())))
+                .assertNext(thread -> assertTrue(thread.startsWith("page-text"), thread))
+                .verifyComplete();
+        assertEquals(1, gauge(PagePipeline.STAGE_QUEUED, "ai"));
+
+        gemini.tryEmitValue("ok");
+    }
+
+    @Test
+    @DisplayName("Página cancelada na fila não segura vaga")
+    void canceladaNaFila() {
+        Sinks.One<String> running = Sinks.one();
+        pipeline.ai(running.asMono()).subscribe();
+        Disposable waiting = pipeline.ai(Mono.just("x")).subscribe();
+        assertEquals(1, gauge(PagePipeline.STAGE_QUEUED, "ai"));
+
+        waiting.dispose();
+        assertEquals(0, gauge(PagePipeline.STAGE_QUEUED, "ai"));
+
+        running.tryEmitValue("ok");
+        assertEquals(0, gauge(PagePipeline.STAGE_ACTIVE, "ai"));
+    }
+}
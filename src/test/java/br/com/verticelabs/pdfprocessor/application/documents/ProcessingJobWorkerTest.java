@@ -0,0 +1,192 @@
+package br.com.verticelabs.pdfprocessor.application.documents;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentStatus;
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
+import br.com.verticelabs.pdfprocessor.domain.model.ProcessingJob;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.ProcessingJobRepository;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.ProcessingQueueProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProcessingJobWorker - fila persistente de processamento")
+class ProcessingJobWorkerTest {
+
+    private static final String OWNER = "host-1-0";
+
+    @Mock
+    private ProcessingJobRepository jobRepository;
+
+    @Mock
+    private PayrollDocumentRepository documentRepository;
+
+    @Mock
+    private DocumentProcessUseCase documentProcessUseCase;
+
+    private ProcessingQueueProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessingJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProcessingQueueProperties();
+        properties.setMaxAttempts(3);
+        properties.setBackoff(Duration.ofSeconds(10));
+        properties.setMaxBackoff(Duration.ofSeconds(30));
+        meterRegistry = new SimpleMeterRegistry();
+        worker = new ProcessingJobWorker(jobRepository, documentRepository, documentProcessUseCase,
+                properties, meterRegistry);
+    }
+
+    private static ProcessingJob job(int attempts) {
+        return ProcessingJob.builder().id("job-1").documentId("doc-1").tenantId("t1").attempts(attempts).build();
+    }
+
+    @Test
+    @DisplayName("Sucesso: marca job como DONE e conta conclusão")
+    void sucessoMarcaDone() {
+        when(documentProcessUseCase.runQueuedDocument("doc-1")).thenReturn(Mono.just(42L));
+        when(jobRepository.markDone("job-1", OWNER)).thenReturn(Mono.empty());
+
+        StepVerifier.create(worker.runJob(job(1), OWNER)).verifyComplete();
+
+        verify(jobRepository).markDone("job-1", OWNER);
+        assertEquals(1.0, meterRegistry.counter("processing.jobs", "outcome", "completed").count());
+    }
+
+    @Test
+    @DisplayName("Falha antes do limite: devolve à fila com backoff e mantém documento em PROCESSING")
+    void falhaComRetry() {
+        when(documentProcessUseCase.runQueuedDocument("doc-1"))
+                .thenReturn(Mono.error(new IllegalStateException("gemini indisponível")));
+        when(jobRepository.markRetry(eq("job-1"), eq(OWNER), any(Instant.class), eq("gemini indisponível")))
+                .thenReturn(Mono.empty());
+
+        Instant antes = Instant.now();
+        StepVerifier.create(worker.runJob(job(1), OWNER)).verifyComplete();
+
+        ArgumentCaptor<Instant> availableAt = ArgumentCaptor.forClass(Instant.class);
+        verify(jobRepository).markRetry(eq("job-1"), eq(OWNER), availableAt.capture(), anyString());
+        assertTrue(!availableAt.getValue().isBefore(antes.plusSeconds(10)));
+        verify(jobRepository, never()).markFailed(anyString(), anyString(), anyString());
+        // Documento já está em PROCESSING: nenhuma troca de status entre as tentativas
+        verify(documentRepository, never()).updateStatus(anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Falha na última tentativa: marca job FAILED e documento ERROR")
+    void falhaDefinitiva() {
+        when(documentProcessUseCase.runQueuedDocument("doc-1"))
+                .thenReturn(Mono.error(new IllegalStateException("PDF corrompido")));
+        when(jobRepository.markFailed("job-1", OWNER, "PDF corrompido")).thenReturn(Mono.empty());
+        when(documentRepository.updateStatus("doc-1", DocumentStatus.ERROR, "PDF corrompido")).thenReturn(Mono.empty());
+
+        StepVerifier.create(worker.runJob(job(3), OWNER)).verifyComplete();
+
+        verify(documentRepository).updateStatus("doc-1", DocumentStatus.ERROR, "PDF corrompido");
+        assertEquals(1.0, meterRegistry.counter("processing.jobs", "outcome", "failed").count());
+    }
+
+    @Test
+    @DisplayName("Lease perdido no meio: cancela o processamento sem marcar o job")
+    void leasePerdidoCancelaProcessamento() {
+        AtomicBoolean cancelado = new AtomicBoolean();
+        when(documentProcessUseCase.runQueuedDocument("doc-1"))
+                .thenReturn(Mono.<Long>never().doOnCancel(() -> cancelado.set(true)));
+        when(jobRepository.renewLease("job-1", OWNER, properties.getLease()))
+                .thenReturn(Mono.just(true), Mono.just(false));
+
+        StepVerifier.withVirtualTime(() -> worker.runJob(job(1), OWNER))
+                .thenAwait(properties.getHeartbeat().multipliedBy(2))
+                .verifyComplete();
+
+        assertTrue(cancelado.get());
+        verify(jobRepository, never()).markDone(anyString(), anyString());
+        verify(jobRepository, never()).markRetry(anyString(), anyString(), any(), anyString());
+        verify(jobRepository, never()).markFailed(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Renovações falhando seguidas até o lease expirar também cancelam o processamento")
+    void renovacaoComFalhasSeguidas() {
+        AtomicBoolean cancelado = new AtomicBoolean();
+        when(documentProcessUseCase.runQueuedDocument("doc-1"))
+                .thenReturn(Mono.<Long>never().doOnCancel(() -> cancelado.set(true)));
+        when(jobRepository.renewLease("job-1", OWNER, properties.getLease()))
+                .thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        // lease PT2M com heartbeat PT30S: desiste na terceira falha seguida
+        StepVerifier.withVirtualTime(() -> worker.runJob(job(1), OWNER))
+                .thenAwait(properties.getHeartbeat().multipliedBy(2))
+                .then(() -> assertFalse(cancelado.get()))
+                .thenAwait(properties.getHeartbeat())
+                .verifyComplete();
+
+        assertTrue(cancelado.get());
+        verify(jobRepository, never()).markRetry(anyString(), anyString(), any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Backoff exponencial limitado por max-backoff")
+    void backoffExponencial() {
+        assertEquals(Duration.ofSeconds(10), worker.backoffFor(1));
+        assertEquals(Duration.ofSeconds(20), worker.backoffFor(2));
+        assertEquals(Duration.ofSeconds(30), worker.backoffFor(3));
+        assertEquals(Duration.ofSeconds(30), worker.backoffFor(30));
+    }
+
+    @Test
+    @DisplayName("Startup: reenfileira apenas documentos em PROCESSING sem job ativo")
+    void recuperaDocumentosPresos() {
+        PayrollDocument semJob = PayrollDocument.builder().id("doc-1").tenantId("t1").build();
+        PayrollDocument comJob = PayrollDocument.builder().id("doc-2").tenantId("t1").build();
+        when(documentRepository.findByStatus(DocumentStatus.PROCESSING)).thenReturn(Flux.just(semJob, comJob));
+        when(jobRepository.existsActiveByDocumentId("doc-1")).thenReturn(Mono.just(false));
+        when(jobRepository.existsActiveByDocumentId("doc-2")).thenReturn(Mono.just(true));
+        when(jobRepository.enqueue("doc-1", "t1")).thenReturn(Mono.just(job(0)));
+
+        StepVerifier.create(worker.recoverStuckDocuments())
+                .expectNext(1L)
+                .verifyComplete();
+
+        verify(jobRepository, never()).enqueue(eq("doc-2"), anyString());
+    }
+
+    @Test
+    @DisplayName("Lease expirado sem tentativas restantes: job FAILED e documento ERROR")
+    void leaseExpiradoNaUltimaTentativa() {
+        when(jobRepository.failExhausted(eq(3), anyString()))
+                .thenReturn(Mono.just(job(3)));
+        when(documentRepository.updateStatus(eq("doc-1"), eq(DocumentStatus.ERROR), anyString()))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(worker.failExhaustedJobs()).verifyComplete();
+
+        verify(documentRepository).updateStatus(eq("doc-1"), eq(DocumentStatus.ERROR), anyString());
+        assertEquals(1.0, meterRegistry.counter("processing.jobs", "outcome", "failed").count());
+    }
+}
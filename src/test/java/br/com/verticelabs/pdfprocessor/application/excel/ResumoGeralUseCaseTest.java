@@ -4,9 +4,7 @@ import br.com.verticelabs.pdfprocessor.application.consolidation.ConsolidationUs
 import br.com.verticelabs.pdfprocessor.application.empresas.EmpresaHonorariosResolver;
 import br.com.verticelabs.pdfprocessor.application.security.EvaluatorAccessService;
 import br.com.verticelabs.pdfprocessor.domain.exceptions.NoEntriesFoundException;
-import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
 import br.com.verticelabs.pdfprocessor.domain.model.IrpfDeclaracaoData;
-import br.com.verticelabs.pdfprocessor.domain.model.PayrollDocument;
 import br.com.verticelabs.pdfprocessor.domain.model.Person;
 import br.com.verticelabs.pdfprocessor.domain.repository.PayrollDocumentRepository;
 import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
@@ -120,11 +118,8 @@ class ResumoGeralUseCaseTest {
         when(personRepository.findById("p1")).thenReturn(Mono.just(person));
         when(consolidationUseCase.consolidate(eq(person.getCpf()), eq("t1"), eq(null), eq(null)))
                 .thenReturn(Mono.just(consolidated));
-        when(documentRepository.findByTenantIdAndCpf("t1", person.getCpf()))
-                .thenReturn(Flux.just(PayrollDocument.builder()
-                        .tipo(DocumentType.INCOME_TAX)
-                        .irpfData(IrpfDeclaracaoData.builder().anoCalendario("2018").build())
-                        .build()));
+        when(documentRepository.findIrpfDataByTenantIdAndCpf("t1", person.getCpf()))
+                .thenReturn(Flux.just(IrpfDeclaracaoData.builder().anoCalendario("2018").build()));
         when(resumoGeralAssemblyService.montar(eq(person), eq(consolidated), any()))
                 .thenReturn(Mono.just(montagem));
         when(resumoGeralResponseMapper.toResponse(person, montagem)).thenReturn(response);
@@ -155,7 +150,7 @@ class ResumoGeralUseCaseTest {
         when(personRepository.findById("p1")).thenReturn(Mono.just(person));
         when(consolidationUseCase.consolidate(eq(person.getCpf()), eq("t1"), eq(null), eq(null)))
                 .thenReturn(Mono.just(consolidated));
-        when(documentRepository.findByTenantIdAndCpf("t1", person.getCpf())).thenReturn(Flux.empty());
+        when(documentRepository.findIrpfDataByTenantIdAndCpf("t1", person.getCpf())).thenReturn(Flux.empty());
         when(resumoGeralAssemblyService.montar(eq(person), eq(consolidated), any()))
                 .thenReturn(Mono.just(montagemVazia));
 
@@ -0,0 +1,74 @@
+package br.com.verticelabs.pdfprocessor.application.persons;
+
+import br.com.verticelabs.pdfprocessor.domain.model.PayrollEntry;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.domain.repository.PayrollEntryRepository;
+import br.com.verticelabs.pdfprocessor.domain.repository.PersonRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PersonRubricasMatrixUseCase - leitura por pessoa em uma query")
+class PersonRubricasMatrixUseCaseTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private PayrollEntryRepository entryRepository;
+
+    @InjectMocks
+    private PersonRubricasMatrixUseCase useCase;
+
+    private static PayrollEntry entry(String documentoId, String rubrica, String referencia, String valor) {
+        return PayrollEntry.builder().tenantId("t1").personId("p1").documentoId(documentoId)
+                .rubricaCodigo(rubrica).referencia(referencia).valor(new BigDecimal(valor)).build();
+    }
+
+    @Test
+    @DisplayName("Monta a matriz com uma única busca por (tenantId, personId), sem query por documento")
+    void umaQueryPorPessoa() {
+        Person person = Person.builder().id("p1").tenantId("t1").cpf("12345678900").nome("Fulano")
+                .documentos(List.of("d1", "d2", "d3")).build();
+        when(personRepository.findByTenantIdAndCpf("t1", "12345678900")).thenReturn(Mono.just(person));
+        when(entryRepository.findByTenantIdAndPersonId("t1", "p1")).thenReturn(Flux.just(
+                entry("d1", "4482", "2017-01", "100.00"),
+                entry("d2", "4482", "2017-01", "50.00"),
+                entry("d3", "4430", "2017-02", "10.00")));
+
+        var auth = new UsernamePasswordAuthenticationToken("u1", null,
+                List.of(new SimpleGrantedAuthority("ROLE_TENANT_ADMIN")));
+        auth.setDetails("t1");
+
+        StepVerifier.create(useCase.execute("12345678900")
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                .assertNext(response -> {
+                    assertEquals(new BigDecimal("160.00"), response.getTotalGeral());
+                    assertEquals(2, response.getMatrix().get("4482").get("2017-01").getQuantidade());
+                    assertEquals(new BigDecimal("150.00"), response.getRubricasTotais().get("4482"));
+                })
+                .verifyComplete();
+
+        verify(entryRepository, never()).findByTenantIdAndDocumentoId(anyString(), anyString());
+        verify(entryRepository, never()).findByDocumentoId(anyString());
+    }
+}
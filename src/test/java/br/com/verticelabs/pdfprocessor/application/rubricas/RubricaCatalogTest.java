@@ -0,0 +1,146 @@
+package br.com.verticelabs.pdfprocessor.application.rubricas;
+
+import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
+import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RubricaCatalog - catálogo em memória de rubricas")
+class RubricaCatalogTest {
+
+    @Mock
+    private RubricaRepository rubricaRepository;
+
+    private RubricaCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new RubricaCatalog(rubricaRepository, Duration.ofMinutes(5));
+    }
+
+    private static Rubrica rubrica(String codigo, boolean ativo) {
+        return Rubrica.builder().codigo(codigo).descricao("RUBRICA " + codigo).ativo(ativo).build();
+    }
+
+    @Test
+    @DisplayName("Carrega o banco uma única vez para várias consultas")
+    void carregaUmaVez() {
+        when(rubricaRepository.findAll()).thenReturn(Flux.just(rubrica("4482", true), rubrica("3396", false)));
+
+        Flux<Rubrica> consultas = Flux.range(0, 300)
+                .flatMap(i -> catalog.findByCodigo(i % 2 == 0 ? "4482" : "3396"));
+
+        StepVerifier.create(consultas.count())
+                .expectNext(300L)
+                .verifyComplete();
+        verify(rubricaRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Código inexistente retorna vazio")
+    void codigoInexistente() {
+        when(rubricaRepository.findAll()).thenReturn(Flux.just(rubrica("4482", true)));
+
+        StepVerifier.create(catalog.findByCodigo("9999"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Códigos ativos e contagem ignoram rubricas inativas")
+    void somenteAtivas() {
+        when(rubricaRepository.findAll())
+                .thenReturn(Flux.just(rubrica("4482", true), rubrica("3396", false), rubrica("4432", true)));
+
+        StepVerifier.create(catalog.codigosAtivos())
+                .expectNext(Set.of("4482", "4432"))
+                .verifyComplete();
+        StepVerifier.create(catalog.countAtivas())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("refresh() substitui o snapshot com o estado atual do banco")
+    void refreshRecarrega() {
+        when(rubricaRepository.findAll())
+                .thenReturn(Flux.just(rubrica("4482", true)))
+                .thenReturn(Flux.just(rubrica("4482", false)));
+
+        StepVerifier.create(catalog.codigosAtivos())
+                .expectNext(Set.of("4482"))
+                .verifyComplete();
+
+        StepVerifier.create(catalog.refresh().then(catalog.codigosAtivos()))
+                .expectNext(Set.of())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("TTL vencido: serve o snapshot anterior e recarrega em background")
+    void ttlVencido() {
+        catalog = new RubricaCatalog(rubricaRepository, Duration.ZERO);
+        when(rubricaRepository.findAll())
+                .thenReturn(Flux.just(rubrica("4482", true)))
+                .thenReturn(Flux.just(rubrica("4482", true), rubrica("4432", true)));
+
+        StepVerifier.create(catalog.countAtivas()).expectNext(1L).verifyComplete();
+        // primeira consulta após o TTL ainda enxerga o snapshot antigo e dispara a recarga
+        StepVerifier.create(catalog.countAtivas().delaySubscription(Duration.ofMillis(5)))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(catalog.countAtivas())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Falha na recarga por TTL mantém o snapshot anterior")
+    void falhaNaRecargaMantemSnapshot() {
+        catalog = new RubricaCatalog(rubricaRepository, Duration.ZERO);
+        when(rubricaRepository.findAll())
+                .thenReturn(Flux.just(rubrica("4482", true)))
+                .thenReturn(Flux.error(new IllegalStateException("mongo indisponível")));
+
+        StepVerifier.create(catalog.countAtivas()).expectNext(1L).verifyComplete();
+        StepVerifier.create(catalog.findByCodigo("4482").map(Rubrica::getCodigo).delaySubscription(Duration.ofMillis(5)))
+                .expectNext("4482")
+                .verifyComplete();
+        StepVerifier.create(catalog.countAtivas())
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Rubrica devolvida é cópia: alterá-la não afeta o catálogo")
+    void devolveCopia() {
+        when(rubricaRepository.findAll()).thenReturn(Flux.just(rubrica("4482", true)));
+
+        StepVerifier.create(catalog.findByCodigo("4482"))
+                .assertNext(rubrica -> {
+                    rubrica.setDescricao("ALTERADA");
+                    rubrica.setAtivo(false);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(catalog.findByCodigo("4482").map(Rubrica::getDescricao))
+                .expectNext("RUBRICA 4482")
+                .verifyComplete();
+        StepVerifier.create(catalog.countAtivas())
+                .expectNext(1L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.verticelabs.pdfprocessor.application.selic;
+
+import br.com.verticelabs.pdfprocessor.application.selic.dto.DetalhamentoMes;
+import br.com.verticelabs.pdfprocessor.application.selic.dto.SelicReceitaCalculoResponse;
+import br.com.verticelabs.pdfprocessor.domain.model.SelicMensalEntity;
+import br.com.verticelabs.pdfprocessor.infrastructure.mongodb.SpringDataSelicMensalRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CalculadoraSelicReceitaService - SELIC Receita Federal por índice acumulado")
+class CalculadoraSelicReceitaServiceTest {
+
+    private static final YearMonth JAN_2023 = YearMonth.of(2023, 1);
+    private static final YearMonth ABR_2023 = YearMonth.of(2023, 4);
+
+    @Mock
+    private SpringDataSelicMensalRepository selicMensalRepository;
+
+    @InjectMocks
+    private CalculadoraSelicReceitaService calculadora;
+
+    private static SelicMensalEntity taxa(int ano, int mes, String valor) {
+        return SelicMensalEntity.builder().ano(ano).mes(mes).taxa(new BigDecimal(valor)).build();
+    }
+
+    @Test
+    @DisplayName("Soma simples dos meses anteriores ao final + 1% no último mês")
+    void somaSimples() {
+        when(selicMensalRepository.findAll()).thenReturn(Flux.just(
+                taxa(2023, 1, "1.12"), taxa(2023, 2, "0.92"), taxa(2023, 3, "1.17"), taxa(2023, 4, "0.92")));
+
+        SelicReceitaCalculoResponse r = calculadora.calcular(JAN_2023, ABR_2023, new BigDecimal("1000")).block();
+
+        // 1.12 + 0.92 + 1.17 + 1.00 (abril fixo)
+        assertEquals(new BigDecimal("4.21"), r.taxaTotalAcumulada());
+        assertEquals(new BigDecimal("1.042100"), r.fatorMultiplicacao());
+        assertEquals(new BigDecimal("1042.10"), r.valorCorrigido());
+        assertEquals(4, r.totalMeses());
+
+        List<DetalhamentoMes> detalhamento = r.detalhamento();
+        assertEquals(4, detalhamento.size());
+        assertEquals(new BigDecimal("0.00"), detalhamento.get(0).taxaAcumulada());
+        assertEquals(new BigDecimal("2.12"), detalhamento.get(1).taxaAcumulada());
+        assertEquals(new BigDecimal("4.21"), detalhamento.get(3).taxaAcumulada());
+        assertTrue(detalhamento.get(3).taxaFixaUltimoMes());
+    }
+
+    @Test
+    @DisplayName("Mês sem taxa e meses fora da série valem zero")
+    void mesesSemTaxa() {
+        when(selicMensalRepository.findAll()).thenReturn(Flux.just(taxa(2023, 1, "1.12"), taxa(2023, 3, "1.17")));
+
+        SelicReceitaCalculoResponse r = calculadora
+                .calcular(YearMonth.of(2022, 11), YearMonth.of(2023, 6), BigDecimal.ZERO, false)
+                .block();
+
+        assertEquals(new BigDecimal("3.29"), r.taxaTotalAcumulada());
+        assertEquals(8, r.totalMeses());
+        assertTrue(r.detalhamento().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mesmo mês de início e fim: apenas o 1% fixo")
+    void mesmoMes() {
+        when(selicMensalRepository.findAll()).thenReturn(Flux.just(taxa(2023, 1, "1.12")));
+
+        SelicReceitaCalculoResponse r = calculadora.calcular(JAN_2023, JAN_2023, new BigDecimal("100")).block();
+
+        assertEquals(new BigDecimal("1.00"), r.taxaTotalAcumulada());
+        assertEquals(new BigDecimal("101.00"), r.valorCorrigido());
+        assertEquals(1, r.totalMeses());
+    }
+
+    @Test
+    @DisplayName("Carrega a série uma vez e recarrega após sincronização")
+    void carregaUmaVezERecarrega() {
+        when(selicMensalRepository.findAll())
+                .thenReturn(Flux.just(taxa(2023, 1, "1.12")))
+                .thenReturn(Flux.just(taxa(2023, 1, "2.00")));
+
+        Flux.range(0, 50)
+                .flatMap(i -> calculadora.calcular(JAN_2023, ABR_2023, BigDecimal.TEN, false))
+                .blockLast();
+        verify(selicMensalRepository, times(1)).findAll();
+
+        calculadora.recarregarIndice().block();
+
+        SelicReceitaCalculoResponse r = calculadora.calcular(JAN_2023, ABR_2023, BigDecimal.TEN, false).block();
+        assertEquals(new BigDecimal("3.00"), r.taxaTotalAcumulada());
+        verify(selicMensalRepository, times(2)).findAll();
+    }
+}
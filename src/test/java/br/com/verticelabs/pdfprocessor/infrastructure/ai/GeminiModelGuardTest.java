@@ -0,0 +1,201 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiQuotaExceededException;
+import br.com.verticelabs.pdfprocessor.domain.exceptions.AiUnavailableException;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("GeminiModelGuard - bulkhead, cota e circuit breaker por modelo")
+class GeminiModelGuardTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private GeminiConfig.Resilience resilience;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resilience = new GeminiConfig.Resilience();
+        resilience.setRequestsPerMinute(0);
+    }
+
+    private GeminiModelGuard guard() {
+        return new GeminiModelGuard("flash", resilience, 120, meterRegistry, clock::get);
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get(GeminiModelGuard.REJECTED).tag("reason", reason).functionCounter().count();
+    }
+
+    private static Mono<String> failing() {
+        return Mono.error(new IllegalStateException("503 Service Unavailable"));
+    }
+
+    @Test
+    @DisplayName("Bulkhead limita chamadas simultâneas; excedentes esperam na fila e a fila cheia recusa")
+    void bulkhead() {
+        resilience.setMaxConcurrentCalls(2);
+        resilience.setMaxQueuedCalls(1);
+        GeminiModelGuard guard = guard();
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        AtomicInteger thirdStarted = new AtomicInteger();
+
+        Disposable a = guard.execute(first.asMono()).subscribe();
+        Disposable b = guard.execute(second.asMono()).subscribe();
+        Mono<String> third = guard.execute(Mono.fromCallable(() -> {
+            thirdStarted.incrementAndGet();
+            return "terceira";
+        }));
+        StepVerifier.create(third)
+                .then(() -> {
+                    assertEquals(2, guard.inFlight());
+                    assertEquals(1, guard.queued());
+                    assertEquals(0, thirdStarted.get());
+                    StepVerifier.create(guard.execute(Mono.just("quarta")))
+                            .expectError(AiQuotaExceededException.class)
+                            .verify();
+                    first.tryEmitValue("primeira");
+                })
+                .expectNext("terceira")
+                .verifyComplete();
+
+        assertEquals(1, rejected("bulkhead"));
+        assertEquals(1, guard.inFlight());
+        assertEquals(0, guard.queued());
+        a.dispose();
+        b.dispose();
+        assertEquals(0, guard.inFlight());
+    }
+
+    @Test
+    @DisplayName("Chamada cancelada na fila não segura vaga")
+    void canceladaNaFila() {
+        resilience.setMaxConcurrentCalls(1);
+        GeminiModelGuard guard = guard();
+        Sinks.One<String> running = Sinks.one();
+
+        guard.execute(running.asMono()).subscribe();
+        Disposable waiting = guard.execute(Mono.just("x")).subscribe();
+        assertEquals(1, guard.queued());
+        waiting.dispose();
+        assertEquals(0, guard.queued());
+
+        running.tryEmitValue("ok");
+        assertEquals(0, guard.inFlight());
+    }
+
+    @Test
+    @DisplayName("Circuito abre com a taxa de falhas e recusa sem chamar o modelo; meio-aberto fecha após sucessos")
+    void circuitBreaker() {
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumCalls(4);
+        resilience.setFailureRateThreshold(50);
+        resilience.setOpenSeconds(60);
+        resilience.setHalfOpenCalls(2);
+        GeminiModelGuard guard = guard();
+
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.execute(failing())).expectError(IllegalStateException.class).verify();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+        StepVerifier.create(guard.execute(failing())).expectError(IllegalStateException.class).verify();
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+        assertFalse(guard.isCallPermitted());
+
+        AtomicInteger calls = new AtomicInteger();
+        StepVerifier.create(guard.execute(Mono.fromCallable(calls::incrementAndGet)))
+                .expectError(AiUnavailableException.class)
+                .verify();
+        assertEquals(0, calls.get());
+        assertEquals(1, rejected("circuit_open"));
+        assertEquals(1, meterRegistry.get(GeminiModelGuard.CIRCUIT_STATE).gauge().value());
+
+        clock.addAndGet(Duration.ofSeconds(60).toNanos());
+        assertTrue(guard.isCallPermitted());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, guard.circuitState());
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+        assertEquals(1, meterRegistry.get(GeminiModelGuard.CIRCUIT_OPENED).functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Falha no meio-aberto reabre o circuito")
+    void falhaNoMeioAberto() {
+        resilience.setSlidingWindowSize(2);
+        resilience.setMinimumCalls(2);
+        GeminiModelGuard guard = guard();
+        StepVerifier.create(guard.execute(failing())).expectError().verify();
+        StepVerifier.create(guard.execute(failing())).expectError().verify();
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+
+        clock.addAndGet(Duration.ofSeconds(resilience.getOpenSeconds()).toNanos());
+        StepVerifier.create(guard.execute(failing())).expectError(IllegalStateException.class).verify();
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+        assertEquals(2, meterRegistry.get(GeminiModelGuard.CIRCUIT_OPENED).functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Cota por minuto: sem ficha dentro da espera máxima a chamada é recusada")
+    void cotaPorMinuto() {
+        resilience.setRequestsPerMinute(60);
+        resilience.setBurst(1);
+        resilience.setMaxWaitSeconds(0);
+        GeminiModelGuard guard = guard();
+
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectError(AiQuotaExceededException.class).verify();
+        assertEquals(1, rejected("rate_limit"));
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        assertEquals(0, guard.inFlight());
+    }
+
+    @Test
+    @DisplayName("Cota dividida entre as instâncias")
+    void cotaPorInstancia() {
+        resilience.setRequestsPerMinute(120);
+        resilience.setInstances(4);
+        resilience.setBurst(1);
+        resilience.setMaxWaitSeconds(0);
+        GeminiModelGuard guard = guard();
+
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectError(AiQuotaExceededException.class).verify();
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        StepVerifier.create(guard.execute(Mono.just("ok"))).expectNext("ok").verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Token bucket reserva a próxima ficha e informa a espera")
+    void reservaDeFicha() {
+        TokenBucket bucket = new TokenBucket(60, 2, clock::get);
+        long second = Duration.ofSeconds(1).toNanos();
+
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(second, bucket.reserve(10 * second));
+        assertEquals(2 * second, bucket.reserve(10 * second));
+        assertEquals(-1, bucket.reserve(2 * second));
+    }
+}
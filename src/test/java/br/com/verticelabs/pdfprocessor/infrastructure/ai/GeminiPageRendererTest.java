@@ -0,0 +1,105 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import br.com.verticelabs.pdfprocessor.infrastructure.config.GeminiConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("GeminiPageRenderer - páginas renderizadas da sessão aberta e cacheadas")
+class GeminiPageRendererTest {
+
+    private final PdfSession session = mock(PdfSession.class);
+    private SimpleMeterRegistry meterRegistry;
+    private GeminiPageRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(session.getPdfBytes()).thenReturn(new byte[]{1, 2, 3});
+        when(session.renderPage(anyInt(), anyFloat(), anyBoolean()))
+                .thenAnswer(inv -> Mono.just(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB)));
+        renderer = new GeminiPageRenderer(new GeminiConfig(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        renderer.shutdown();
+    }
+
+    private double cache(String result) {
+        return meterRegistry.get("gemini.render.cache").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Mesma página e DPI: renderiza uma vez; o hash da sessão é calculado uma vez")
+    void renderizaUmaVezPorPagina() {
+        PageImage first = renderer.render(session, 1, PageImageProfile.DOCUMENT).block();
+        PageImage again = renderer.render(session, 1, PageImageProfile.DOCUMENT).block();
+        renderer.render(session, 2, PageImageProfile.DOCUMENT).block();
+        renderer.render(session, 1, PageImageProfile.DOCUMENT_HIGH_RES).block();
+
+        assertArrayEquals(first.data(), again.data());
+        assertEquals("image/jpeg", again.mimeType());
+        verify(session, times(1)).getPdfBytes();
+        verify(session, times(1)).renderPage(1, 300f, true);
+        verify(session, times(1)).renderPage(1, 400f, true);
+        verify(session, never()).close();
+        assertEquals(1, cache("hit_memory"));
+        assertEquals(3, cache("miss"));
+    }
+
+    @Test
+    @DisplayName("Perfil sem perdas é outra entrada do cache e renderiza em RGB")
+    void perfilSemPerdas() {
+        renderer.render(session, 1, PageImageProfile.DOCUMENT).block();
+        PageImage lossless = renderer.render(session, 1, PageImageProfile.DOCUMENT.lossless()).block();
+
+        assertEquals("image/png", lossless.mimeType());
+        verify(session, times(1)).renderPage(1, 300f, false);
+        assertEquals(2, cache("miss"));
+    }
+
+    @Test
+    @DisplayName("Outra sessão do mesmo conteúdo reaproveita o cache (chave é o SHA-256)")
+    void chavePorConteudo() {
+        PdfSession reopened = mock(PdfSession.class);
+        when(reopened.getPdfBytes()).thenReturn(new byte[]{1, 2, 3});
+
+        renderer.render(session, 1, PageImageProfile.DOCUMENT).block();
+        renderer.render(reopened, 1, PageImageProfile.DOCUMENT).block();
+
+        verify(session, times(1)).renderPage(1, 300f, true);
+        verify(reopened, never()).renderPage(anyInt(), anyFloat(), anyBoolean());
+        assertEquals(1, cache("hit_memory"));
+    }
+
+    @Test
+    @DisplayName("Sessão da execução no contexto: usa o fileHash do documento sem ler o PDF inteiro")
+    void usaSessaoDaExecucao() {
+        GeminiPageRenderer.withSession(renderer.render(session, 1, PageImageProfile.DOCUMENT), session, "hash-do-upload")
+                .block();
+        GeminiPageRenderer.withSession(renderer.render(session, 1, PageImageProfile.DOCUMENT), session, "hash-do-upload")
+                .block();
+
+        verify(session, times(1)).renderPage(1, 300f, true);
+        verify(session, never()).getPdfBytes();
+        assertEquals(1, cache("hit_memory"));
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("PageImageCache - imagens de página em heap com transbordo em disco")
+class PageImageCacheTest {
+
+    private final PageImageCache cache = new PageImageCache(100, 150);
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    private static PageImageCache.Key pagina(int page) {
+        return new PageImageCache.Key("hash", page, 300f, "RGB");
+    }
+
+    private static byte[] imagem(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (seed + i);
+        }
+        return data;
+    }
+
+    @Test
+    @DisplayName("Página cacheada é servida do heap; chave diferente é miss")
+    void hitEmMemoria() {
+        cache.put(pagina(1), imagem(40, 1));
+
+        assertArrayEquals(imagem(40, 1), cache.get(pagina(1)));
+        assertNull(cache.get(new PageImageCache.Key("hash", 1, 400f, "RGB")));
+        assertEquals(1, cache.memoryHits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Acima do limite do heap a página menos usada vai para o disco e volta no acerto")
+    void transbordaParaDisco() {
+        cache.put(pagina(1), imagem(40, 1));
+        cache.put(pagina(2), imagem(40, 2));
+        cache.get(pagina(1));
+        cache.put(pagina(3), imagem(40, 3));
+
+        // página 2 era a menos usada
+        assertEquals(80, cache.memoryBytes());
+        assertEquals(40, cache.diskBytes());
+
+        assertArrayEquals(imagem(40, 2), cache.get(pagina(2)));
+        assertEquals(1, cache.diskHits());
+        // promovida de volta ao heap, derrubando a página 1 para o disco
+        assertEquals(80, cache.memoryBytes());
+        assertEquals(40, cache.diskBytes());
+        assertArrayEquals(imagem(40, 1), cache.get(pagina(1)));
+    }
+
+    @Test
+    @DisplayName("Disco também é limitado: as páginas mais antigas são descartadas")
+    void discoLimitado() {
+        for (int page = 1; page <= 8; page++) {
+            cache.put(pagina(page), imagem(40, page));
+        }
+
+        assertEquals(80, cache.memoryBytes());
+        assertEquals(120, cache.diskBytes());
+        assertNull(cache.get(pagina(1)));
+        assertNull(cache.get(pagina(3)));
+        assertArrayEquals(imagem(40, 4), cache.get(pagina(4)));
+    }
+
+    @Test
+    @DisplayName("Imagem maior que o heap vai direto para o disco")
+    void imagemGrandeVaiDiretoParaDisco() {
+        cache.put(pagina(1), imagem(120, 1));
+
+        assertEquals(0, cache.memoryBytes());
+        assertEquals(120, cache.diskBytes());
+    }
+
+    @Test
+    @DisplayName("close descarta tudo")
+    void closeDescarta() {
+        cache.put(pagina(1), imagem(40, 1));
+        cache.put(pagina(2), imagem(90, 2));
+
+        cache.close();
+
+        assertEquals(0, cache.memoryBytes());
+        assertEquals(0, cache.diskBytes());
+        assertNull(cache.get(pagina(1)));
+    }
+}
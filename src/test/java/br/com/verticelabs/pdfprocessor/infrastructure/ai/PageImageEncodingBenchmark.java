@@ -0,0 +1,71 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU de preparo/codificação de uma página escaneada sintética (A4, 300 DPI) por perfil, contra
+ * o PNG RGB sem perdas que era enviado antes. O tamanho do payload de cada perfil é impresso no
+ * setup.
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*PageImageEncodingBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageImageEncodingBenchmark {
+
+    @Param({"LOSSLESS", "DOCUMENT", "DOCUMENT_HIGH_RES", "TEXT"})
+    public String profileName;
+
+    private PageImageProfile profile;
+    private BufferedImage rendered;
+
+    @Setup
+    public void setUp() {
+        profile = switch (profileName) {
+            case "DOCUMENT" -> PageImageProfile.DOCUMENT;
+            case "DOCUMENT_HIGH_RES" -> PageImageProfile.DOCUMENT_HIGH_RES;
+            case "TEXT" -> PageImageProfile.TEXT;
+            default -> PageImageProfile.DOCUMENT.lossless();
+        };
+        // os perfis adaptativos recebem a página já renderizada em cinza pelo PDFBox
+        rendered = profile.grayscale()
+                ? SyntheticScanFactory.scannedPayslipGray(1)
+                : SyntheticScanFactory.scannedPayslip(1);
+        PageImage image = PageImagePreparer.prepare(rendered, profile);
+        System.out.printf("%n%s: %d KB (%s)%n", profile.name(), image.data().length / 1024, image.mimeType());
+    }
+
+    @Benchmark
+    public PageImage prepare() {
+        return PageImagePreparer.prepare(rendered, profile);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(PageImageEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Preparo das páginas sobre o corpus sintético de páginas escaneadas: payload menor que o PNG
+ * RGB sem perdas, sem perder conteúdo no recorte e com fidelidade medida contra a imagem
+ * em cinza antes da codificação (proxy offline da precisão da extração).
+ */
+@DisplayName("PageImagePreparer - cinza, recorte, orçamento de pixels e JPEG")
+class PageImagePreparerTest {
+
+    private static BufferedImage rgb;
+    private static BufferedImage gray;
+
+    @BeforeAll
+    static void setUp() {
+        rgb = SyntheticScanFactory.scannedPayslip(1);
+        gray = SyntheticScanFactory.scannedPayslipGray(1);
+    }
+
+    @Test
+    @DisplayName("Perfis adaptativos geram payload muito menor que o PNG RGB")
+    void payloadMenor() {
+        int lossless = PageImagePreparer.prepare(rgb, PageImageProfile.DOCUMENT.lossless()).data().length;
+        PageImage document = PageImagePreparer.prepare(gray, PageImageProfile.DOCUMENT);
+        PageImage text = PageImagePreparer.prepare(gray, PageImageProfile.TEXT);
+
+        assertEquals("image/jpeg", document.mimeType());
+        assertEquals("image/png", text.mimeType());
+        assertTrue(document.data().length * 4L < lossless,
+                () -> "JPEG " + document.data().length + " vs PNG " + lossless);
+        assertTrue(text.data().length * 20L < lossless,
+                () -> "PNG 1 bit " + text.data().length + " vs PNG " + lossless);
+    }
+
+    @Test
+    @DisplayName("Recorte remove as margens sem perder tinta; poeira não segura o recorte")
+    void recorteMantemConteudo() {
+        BufferedImage cropped = PageImagePreparer.cropMargins(gray);
+
+        assertTrue(cropped.getWidth() < gray.getWidth() * 0.85);
+        assertTrue(cropped.getHeight() < gray.getHeight() * 0.9);
+        // tinta = pixels bem escuros; a poeira isolada fora do recorte é a única perda aceitável
+        assertTrue(ink(cropped) >= ink(gray) - 400, () -> ink(cropped) + " de " + ink(gray));
+    }
+
+    @Test
+    @DisplayName("Página em branco não é recortada")
+    void paginaEmBranco() {
+        BufferedImage blank = new BufferedImage(200, 300, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = blank.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 200, 300);
+        g.dispose();
+
+        assertSame(blank, PageImagePreparer.cropMargins(blank));
+    }
+
+    @Test
+    @DisplayName("Orçamento de pixels é respeitado mantendo a proporção")
+    void orcamentoDePixels() {
+        BufferedImage fitted = PageImagePreparer.fitPixelBudget(gray, 2_000_000L);
+
+        assertTrue((long) fitted.getWidth() * fitted.getHeight() <= 2_000_000L);
+        assertTrue((long) fitted.getWidth() * fitted.getHeight() > 1_900_000L);
+        double ratio = (double) gray.getWidth() / gray.getHeight();
+        assertEquals(ratio, (double) fitted.getWidth() / fitted.getHeight(), 0.01);
+    }
+
+    @Test
+    @DisplayName("JPEG do perfil DOCUMENT fica acima de 30 dB de PSNR contra o cinza recortado")
+    void fidelidadeDoJpeg() throws IOException {
+        BufferedImage reference = PageImagePreparer.fitPixelBudget(
+                PageImagePreparer.cropMargins(gray), PageImageProfile.DOCUMENT.maxPixels());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(
+                PageImagePreparer.prepare(gray, PageImageProfile.DOCUMENT).data()));
+
+        assertEquals(reference.getWidth(), decoded.getWidth());
+        assertEquals(reference.getHeight(), decoded.getHeight());
+        double psnr = psnr(pixels(reference), pixels(PageImagePreparer.toGray(decoded)));
+        assertTrue(psnr > 30, () -> "PSNR " + psnr);
+    }
+
+    @Test
+    @DisplayName("Binarização preserva a tinta da página")
+    void binarizacao() {
+        BufferedImage cropped = PageImagePreparer.cropMargins(gray);
+        BufferedImage binary = PageImagePreparer.binarize(cropped);
+
+        assertEquals(BufferedImage.TYPE_BYTE_BINARY, binary.getType());
+        int threshold = PageImagePreparer.otsuThreshold(pixels(cropped));
+        assertTrue(threshold > 60 && threshold < 220, () -> "limiar " + threshold);
+
+        long pretos = blackPixels(binary);
+        long tinta = ink(cropped);
+        assertTrue(pretos >= tinta, () -> pretos + " pretos para " + tinta + " pixels de tinta");
+    }
+
+    private static long blackPixels(BufferedImage binary) {
+        long count = 0;
+        for (int y = 0; y < binary.getHeight(); y++) {
+            for (int x = 0; x < binary.getWidth(); x++) {
+                if (binary.getRaster().getSample(x, y, 0) == 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long ink(BufferedImage gray) {
+        long count = 0;
+        for (byte p : pixels(gray)) {
+            if ((p & 0xFF) < 80) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] pixels(BufferedImage gray) {
+        return ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+    }
+
+    private static double psnr(byte[] expected, byte[] actual) {
+        double sum = 0;
+        for (int i = 0; i < expected.length; i++) {
+            int d = (expected[i] & 0xFF) - (actual[i] & 0xFF);
+            sum += d * d;
+        }
+        double mse = sum / expected.length;
+        return 10 * Math.log10(255.0 * 255.0 / mse);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.ai;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Páginas A4 "escaneadas" sintéticas (300 DPI RGB, como o PDFBox entrega): fundo levemente
+ * amarelado, ruído de sensor, poeira, leve inclinação e um contracheque em colunas com margens
+ * largas. O conteúdo é determinístico por semente, para comparar o preparo das imagens.
+ */
+final class SyntheticScanFactory {
+
+    static final int WIDTH = 2480;
+    static final int HEIGHT = 3508;
+
+    private SyntheticScanFactory() {
+    }
+
+    static BufferedImage scannedPayslip(long seed) {
+        Random random = new Random(seed);
+        BufferedImage page = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = page.createGraphics();
+        try {
+            g.setColor(new Color(238, 236, 228));
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.rotate(Math.toRadians(random.nextDouble() * 0.6 - 0.3), WIDTH / 2.0, HEIGHT / 2.0);
+            g.setColor(new Color(30, 30, 35));
+
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 50));
+            g.drawString("CAIXA ECONOMICA FEDERAL - DEMONSTRATIVO DE PAGAMENTO", 260, 420);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 38));
+            g.drawString("NOME: FULANO DE TAL " + seed + "   CPF: 123.456.789-09   MATRICULA 0" + (100000 + seed), 260, 520);
+            g.drawLine(260, 560, 2200, 560);
+
+            int y = 660;
+            for (int i = 0; i < 40; i++) {
+                String codigo = String.format("%04d", 2000 + random.nextInt(3000));
+                String valor = String.format(Locale.ROOT, "%d.%03d,%02d", 1 + random.nextInt(9),
+                        random.nextInt(1000), random.nextInt(100));
+                g.drawString(codigo, 260, y);
+                g.drawString("RUBRICA DE TESTE NUMERO " + i, 420, y);
+                g.drawString(String.format("%02d/2016", 1 + random.nextInt(12)), 1450, y);
+                g.drawString(valor, 1900, y);
+                y += 62;
+            }
+            g.drawLine(260, y, 2200, y);
+            g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 40));
+            g.drawString("TOTAL BRUTO 10.000,00   DESCONTOS 2.000,00   LIQUIDO 8.000,00", 260, y + 80);
+        } finally {
+            g.dispose();
+        }
+
+        int[] pixels = ((DataBufferInt) page.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < pixels.length; i++) {
+            int noise = (int) (random.nextGaussian() * 6);
+            int rgb = pixels[i];
+            int r = clamp(((rgb >> 16) & 0xFF) + noise);
+            int gr = clamp(((rgb >> 8) & 0xFF) + noise);
+            int b = clamp((rgb & 0xFF) + noise);
+            pixels[i] = (r << 16) | (gr << 8) | b;
+        }
+        for (int i = 0; i < 400; i++) {
+            pixels[random.nextInt(pixels.length)] = 0x202020;
+        }
+        return page;
+    }
+
+    /**
+     * Versão em cinza da mesma página, como o PDFBox renderiza com {@code ImageType.GRAY}.
+     */
+    static BufferedImage scannedPayslipGray(long seed) {
+        return PageImagePreparer.toGray(scannedPayslip(seed));
+    }
+
+    private static int clamp(int v) {
+        return Math.max(0, Math.min(255, v));
+    }
+}
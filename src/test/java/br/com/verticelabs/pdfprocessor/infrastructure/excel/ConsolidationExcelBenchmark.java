@@ -0,0 +1,113 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.excel;
+
+import br.com.verticelabs.pdfprocessor.application.excel.ResumoGeralMontagemResult;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidatedResponse;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationRow;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a planilha de consolidação montada em XSSF (workbook inteiro em memória até o write)
+ * com a geração em streaming (SXSSF, uma aba por vez), por quantidade de anos. O tempo médio é a
+ * latência do download; {@code gc.alloc.rate.norm} do {@link GCProfiler} dá os bytes alocados por
+ * planilha. Para ver o pico de heap, rodar com {@code -Xmx} reduzido: o modo XSSF estoura antes.
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*ConsolidationExcelBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConsolidationExcelBenchmark {
+
+    private static final int RUBRICAS = 60;
+
+    @Param({"5", "15", "30"})
+    public int anos;
+
+    private final ConsolidationExcelServiceImpl service = new ConsolidationExcelServiceImpl(
+            null, null, null, null, null, null, null, null, null, null, null);
+    private final Person person = Person.builder().cpf("12345678909").nome("BENCHMARK").build();
+    private final ResumoGeralMontagemResult montagem = new ResumoGeralMontagemResult(
+            List.of(), null, null, Map.of(), Map.of(), Map.of(), Map.of(), null, null);
+    private ConsolidatedResponse consolidated;
+
+    @Setup
+    public void setUp() {
+        Set<String> anosSet = new LinkedHashSet<>();
+        Map<String, BigDecimal> totaisMensais = new HashMap<>();
+        List<ConsolidationRow> rubricas = new ArrayList<>();
+        for (int r = 0; r < RUBRICAS; r++) {
+            Map<String, BigDecimal> valores = new HashMap<>();
+            for (int a = 0; a < anos; a++) {
+                String ano = String.valueOf(2000 + a);
+                anosSet.add(ano);
+                for (int mes = 1; mes <= 12; mes++) {
+                    String referencia = String.format("%s-%02d", ano, mes);
+                    BigDecimal valor = BigDecimal.valueOf(100 + r * 13 + mes, 2);
+                    valores.put(referencia, valor);
+                    totaisMensais.merge(referencia, valor, BigDecimal::add);
+                }
+            }
+            rubricas.add(ConsolidationRow.builder()
+                    .codigo(String.valueOf(4000 + r))
+                    .descricao("RUBRICA SINTETICA " + r)
+                    .valores(valores)
+                    .build());
+        }
+        consolidated = ConsolidatedResponse.builder()
+                .cpf(person.getCpf())
+                .nome(person.getNome())
+                .anos(anosSet)
+                .rubricas(rubricas)
+                .totaisMensais(totaisMensais)
+                .build();
+    }
+
+    @Benchmark
+    public void xssfEmMemoria() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            service.escreverWorkbook(workbook, person, consolidated, montagem, OutputStream.nullOutputStream());
+        }
+    }
+
+    @Benchmark
+    public void sxssfStreaming() {
+        service.escreverWorkbook(person, consolidated, montagem, OutputStream.nullOutputStream());
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(ConsolidationExcelBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
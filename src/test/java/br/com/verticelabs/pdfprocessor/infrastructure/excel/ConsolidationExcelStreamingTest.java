@@ -0,0 +1,170 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.excel;
+
+import br.com.verticelabs.pdfprocessor.application.excel.ResumoGeralMontagemResult;
+import br.com.verticelabs.pdfprocessor.domain.model.Person;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidatedResponse;
+import br.com.verticelabs.pdfprocessor.interfaces.consolidation.dto.ConsolidationRow;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.PaneInformation;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ConsolidationExcelServiceImpl - planilha SXSSF igual à XSSF")
+class ConsolidationExcelStreamingTest {
+
+    private final ConsolidationExcelServiceImpl service = new ConsolidationExcelServiceImpl(
+            null, null, null, null, null, null, null, null, null, null, null);
+    private final Person person = Person.builder().cpf("12345678909").nome("FULANO DE TAL").build();
+    private final ResumoGeralMontagemResult montagem = new ResumoGeralMontagemResult(
+            List.of(), null, null, Map.of(), Map.of(), Map.of(), Map.of(), null, null);
+
+    @Test
+    @DisplayName("Streaming (SXSSF, janela menor que as abas) gera as mesmas células e estilos do XSSF")
+    void mesmasCelulasEEstilos() throws Exception {
+        // Mais linhas que ROW_WINDOW na aba Consolidação para forçar o flush no meio da aba
+        ConsolidatedResponse consolidated = consolidated(3, ConsolidationExcelServiceImpl.ROW_WINDOW + 20);
+
+        ByteArrayOutputStream xssfOut = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            service.escreverWorkbook(workbook, person, consolidated, montagem, xssfOut);
+        }
+        ByteArrayOutputStream sxssfOut = new ByteArrayOutputStream();
+        service.escreverWorkbook(person, consolidated, montagem, sxssfOut);
+
+        try (XSSFWorkbook esperado = new XSSFWorkbook(new ByteArrayInputStream(xssfOut.toByteArray()));
+             XSSFWorkbook streaming = new XSSFWorkbook(new ByteArrayInputStream(sxssfOut.toByteArray()))) {
+            assertEquals(esperado.getNumberOfSheets(), streaming.getNumberOfSheets());
+            for (int i = 0; i < esperado.getNumberOfSheets(); i++) {
+                assertMesmaAba(esperado.getSheetAt(i), streaming.getSheetAt(i));
+            }
+        }
+    }
+
+    private static void assertMesmaAba(XSSFSheet esperada, XSSFSheet atual) {
+        String aba = esperada.getSheetName();
+        assertEquals(aba, atual.getSheetName());
+        assertEquals(esperada.getLastRowNum(), atual.getLastRowNum(), aba);
+        assertEquals(regioes(esperada), regioes(atual), aba + " merged regions");
+        assertEquals(painel(esperada.getPaneInformation()), painel(atual.getPaneInformation()), aba + " freeze pane");
+
+        int colunas = 0;
+        for (int r = 0; r <= esperada.getLastRowNum(); r++) {
+            Row linhaEsperada = esperada.getRow(r);
+            Row linhaAtual = atual.getRow(r);
+            assertEquals(linhaEsperada == null, linhaAtual == null, aba + " linha " + r);
+            if (linhaEsperada == null) {
+                continue;
+            }
+            assertEquals(linhaEsperada.getHeight(), linhaAtual.getHeight(), aba + " altura da linha " + r);
+            assertEquals(linhaEsperada.getLastCellNum(), linhaAtual.getLastCellNum(), aba + " linha " + r);
+            colunas = Math.max(colunas, linhaEsperada.getLastCellNum());
+            for (int c = 0; c < linhaEsperada.getLastCellNum(); c++) {
+                XSSFCell esperadaCell = (XSSFCell) linhaEsperada.getCell(c);
+                XSSFCell atualCell = (XSSFCell) linhaAtual.getCell(c);
+                String celula = aba + "!" + r + "," + c;
+                assertEquals(esperadaCell == null, atualCell == null, celula);
+                if (esperadaCell != null) {
+                    assertEquals(valor(esperadaCell), valor(atualCell), celula);
+                    assertEquals(estilo(esperadaCell.getCellStyle()), estilo(atualCell.getCellStyle()), celula);
+                }
+            }
+        }
+        for (int c = 0; c < colunas; c++) {
+            assertEquals(esperada.getColumnWidth(c), atual.getColumnWidth(c), aba + " largura da coluna " + c);
+        }
+    }
+
+    private static List<String> regioes(XSSFSheet sheet) {
+        return sheet.getMergedRegions().stream().map(CellRangeAddress::formatAsString).sorted().toList();
+    }
+
+    private static String painel(PaneInformation pane) {
+        return pane == null ? "-" : pane.getHorizontalSplitPosition() + "," + pane.getVerticalSplitPosition()
+                + "," + pane.isFreezePane();
+    }
+
+    private static String valor(Cell cell) {
+        return switch (cell.getCellType()) {
+            case NUMERIC -> "N:" + cell.getNumericCellValue();
+            case STRING -> "S:" + cell.getStringCellValue();
+            case FORMULA -> "F:" + cell.getCellFormula();
+            case BOOLEAN -> "B:" + cell.getBooleanCellValue();
+            default -> cell.getCellType().name();
+        };
+    }
+
+    private static String estilo(XSSFCellStyle style) {
+        XSSFFont font = style.getFont();
+        return String.join("|",
+                style.getDataFormatString(),
+                String.valueOf(style.getAlignment()),
+                String.valueOf(style.getVerticalAlignment()),
+                String.valueOf(style.getWrapText()),
+                String.valueOf(style.getFillPattern()),
+                cor(style.getFillForegroundColorColor()),
+                String.valueOf(style.getBorderTop()),
+                String.valueOf(style.getBorderBottom()),
+                String.valueOf(style.getBorderLeft()),
+                String.valueOf(style.getBorderRight()),
+                font.getFontName(),
+                String.valueOf(font.getFontHeightInPoints()),
+                String.valueOf(font.getBold()),
+                String.valueOf(font.getItalic()),
+                cor(font.getXSSFColor()));
+    }
+
+    private static String cor(XSSFColor color) {
+        return color == null ? "-" : color.getARGBHex();
+    }
+
+    private static ConsolidatedResponse consolidated(int anos, int rubricas) {
+        Set<String> anosSet = new LinkedHashSet<>();
+        Map<String, BigDecimal> totaisMensais = new HashMap<>();
+        List<ConsolidationRow> rows = new ArrayList<>();
+        for (int r = 0; r < rubricas; r++) {
+            Map<String, BigDecimal> valores = new HashMap<>();
+            for (int a = 0; a < anos; a++) {
+                String ano = String.valueOf(2016 + a);
+                anosSet.add(ano);
+                for (int mes = 1; mes <= 12; mes++) {
+                    String referencia = String.format("%s-%02d", ano, mes);
+                    BigDecimal valor = BigDecimal.valueOf(100 + r * 13 + mes, 2);
+                    valores.put(referencia, valor);
+                    totaisMensais.merge(referencia, valor, BigDecimal::add);
+                }
+            }
+            rows.add(ConsolidationRow.builder()
+                    .codigo(String.valueOf(4000 + r))
+                    .descricao("RUBRICA " + r)
+                    .valores(valores)
+                    .build());
+        }
+        return ConsolidatedResponse.builder()
+                .cpf("12345678909")
+                .nome("FULANO DE TAL")
+                .anos(anosSet)
+                .rubricas(rows)
+                .totaisMensais(totaisMensais)
+                .build();
+    }
+}
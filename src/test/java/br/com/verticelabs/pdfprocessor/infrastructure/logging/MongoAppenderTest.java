@@ -0,0 +1,139 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MongoAppender - buffer limitado com insertMany em lote")
+class MongoAppenderTest {
+
+    private static final LoggerContext CONTEXT = new LoggerContext();
+
+    /**
+     * Substitui o insertMany por uma lista em memória; opcionalmente segura o primeiro lote.
+     */
+    static class InMemoryAppender extends MongoAppender {
+        final List<List<Document>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        void startInMemory() {
+            setContext(CONTEXT);
+            startBuffer();
+        }
+
+        @Override
+        protected void writeBatch(List<Document> batch) {
+            firstWriteStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(List.copyOf(batch));
+        }
+
+        List<String> messages() {
+            return batches.stream().flatMap(List::stream).map(doc -> doc.getString("message")).toList();
+        }
+    }
+
+    private static LoggingEvent event(Level level, String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName("test");
+        event.setLevel(level);
+        event.setMessage(message);
+        event.setThreadName("main");
+        event.setTimeStamp(System.currentTimeMillis());
+        event.setMDCPropertyMap(Map.of());
+        return event;
+    }
+
+    @Test
+    @DisplayName("Agrupa eventos em lotes de até batchSize e drena tudo no stop()")
+    void agrupaEmLotesEDrenaNoStop() {
+        InMemoryAppender appender = new InMemoryAppender();
+        appender.setBufferSize(100);
+        appender.setBatchSize(10);
+        appender.setFlushIntervalMillis(50);
+        appender.startInMemory();
+
+        for (int i = 0; i < 25; i++) {
+            appender.doAppend(event(Level.INFO, "linha " + i));
+        }
+        appender.stop();
+
+        assertEquals(25, appender.messages().size());
+        assertEquals(25, appender.writtenCount());
+        assertTrue(appender.batches.stream().allMatch(batch -> batch.size() <= 10));
+        assertEquals(0, appender.droppedCount());
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST: descarta INFO com buffer cheio, mas preserva WARN removendo o mais antigo")
+    void dropNewestPreservaWarn() throws InterruptedException {
+        InMemoryAppender appender = new InMemoryAppender();
+        appender.setBufferSize(5);
+        appender.setBatchSize(1);
+        appender.setFlushIntervalMillis(10);
+        appender.release = new CountDownLatch(1);
+        appender.startInMemory();
+
+        // Primeiro evento fica preso no writeBatch; os próximos 5 enchem o buffer
+        appender.doAppend(event(Level.INFO, "em gravação"));
+        assertTrue(appender.firstWriteStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(event(Level.INFO, "buffer " + i));
+        }
+        appender.doAppend(event(Level.INFO, "descartado 1"));
+        appender.doAppend(event(Level.INFO, "descartado 2"));
+        appender.doAppend(event(Level.WARN, "aviso importante"));
+
+        appender.release.countDown();
+        appender.stop();
+
+        List<String> messages = appender.messages();
+        assertEquals(3, appender.droppedCount());
+        assertEquals(6, messages.size());
+        assertTrue(messages.contains("aviso importante"));
+        assertTrue(messages.stream().noneMatch(message -> message.startsWith("descartado")));
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST: INFO novo remove o INFO mais antigo, nunca um WARN")
+    void dropOldestPreservaWarn() throws InterruptedException {
+        InMemoryAppender appender = new InMemoryAppender();
+        appender.setBufferSize(3);
+        appender.setBatchSize(1);
+        appender.setFlushIntervalMillis(10);
+        appender.setOverflowPolicy("DROP_OLDEST");
+        appender.release = new CountDownLatch(1);
+        appender.startInMemory();
+
+        appender.doAppend(event(Level.INFO, "em gravação"));
+        assertTrue(appender.firstWriteStarted.await(5, TimeUnit.SECONDS));
+        appender.doAppend(event(Level.WARN, "aviso antigo"));
+        appender.doAppend(event(Level.INFO, "info 1"));
+        appender.doAppend(event(Level.INFO, "info 2"));
+        appender.doAppend(event(Level.INFO, "info 3"));
+
+        appender.release.countDown();
+        appender.stop();
+
+        List<String> messages = appender.messages();
+        assertEquals(1, appender.droppedCount());
+        assertEquals(List.of("em gravação", "aviso antigo", "info 2", "info 3"), messages);
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.metrics;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("ExtractionMetrics - métricas do pipeline de extração")
+class ExtractionMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ExtractionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new ExtractionMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("Gemini: separa sucesso e erro por modelo")
+    void geminiPorModeloEOutcome() {
+        StepVerifier.create(metrics.timeGeminiCall("gemini-2.5-flash", "single", Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(metrics.timeGeminiCall("gemini-2.5-flash", "single",
+                        Mono.error(new IllegalStateException("quota"))))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(1, registry.get(ExtractionMetrics.GEMINI_REQUESTS)
+                .tags("model", "gemini-2.5-flash", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(ExtractionMetrics.GEMINI_REQUESTS)
+                .tags("model", "gemini-2.5-flash", "outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Validação de rubrica vazia conta como not_found")
+    void rubricaNaoEncontrada() {
+        StepVerifier.create(metrics.timeRubricaValidation(Mono.empty())).verifyComplete();
+
+        assertEquals(1, registry.get(ExtractionMetrics.RUBRICA_VALIDATION)
+                .tag("outcome", "not_found").timer().count());
+    }
+
+    @Test
+    @DisplayName("Parser regex, fallback e páginas por documento")
+    void parserFallbackEPaginas() {
+        Integer linhas = metrics.timeRegexParse(DocumentType.CAIXA, () -> 12);
+        metrics.fallbackTriggered(ExtractionMetrics.FallbackReason.ZERO_RUBRICAS);
+        metrics.recordDocumentPages(DocumentType.CAIXA, 30);
+
+        assertEquals(12, linhas);
+        assertEquals(1, registry.get(ExtractionMetrics.REGEX_PARSE).tag("layout", "CAIXA").timer().count());
+        assertEquals(1.0, registry.get(ExtractionMetrics.EXTRACTION_FALLBACK)
+                .tag("reason", "zero_rubricas").counter().count());
+        assertEquals(30.0, registry.get(ExtractionMetrics.DOCUMENT_PAGES).summary().totalAmount());
+    }
+}
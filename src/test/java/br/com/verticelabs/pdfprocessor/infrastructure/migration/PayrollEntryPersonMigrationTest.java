@@ -0,0 +1,72 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.migration;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PayrollEntryPersonMigration - filtro das entries por pessoa")
+class PayrollEntryPersonMigrationTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+
+    private PayrollEntryPersonMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new PayrollEntryPersonMigration(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Sem o marcador da migração filtra pelos documentos da pessoa")
+    void semMarcadorUsaDocumentos() {
+        when(mongoTemplate.exists(any(Query.class), eq("migrations"))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(migration.criteria("t1", "p1", List.of("d1", "d2")))
+                .assertNext(criteria -> assertEquals(
+                        new Document("tenantId", "t1").append("documentoId", new Document("$in", List.of("d1", "d2"))),
+                        criteria.getCriteriaObject()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Com o marcador filtra por personId e não consulta o marcador de novo")
+    void comMarcadorUsaPersonId() {
+        when(mongoTemplate.exists(any(Query.class), eq("migrations"))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(migration.criteria("t1", "p1", List.of("d1")))
+                .assertNext(criteria -> assertEquals(new Document("tenantId", "t1").append("personId", "p1"),
+                        criteria.getCriteriaObject()))
+                .verifyComplete();
+        StepVerifier.create(migration.criteria("t1", "p1"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(mongoTemplate, times(1)).exists(any(Query.class), eq("migrations"));
+    }
+
+    @Test
+    @DisplayName("Pessoa sem documentos não tem entries")
+    void semDocumentos() {
+        StepVerifier.create(migration.criteria("t1", "p1", List.of()))
+                .verifyComplete();
+    }
+}
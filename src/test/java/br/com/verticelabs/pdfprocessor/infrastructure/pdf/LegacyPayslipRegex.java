@@ -0,0 +1,119 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cascata de regex que o {@link PdfLineParser} usava antes do {@link PayslipLineScanner}, sem os logs.
+ * Referência para o teste de paridade e linha de base do benchmark.
+ */
+final class LegacyPayslipRegex {
+
+    private static final String VALOR = "[A-Z]?[0-9]{1,3}(?:\\.[0-9]{3})*[,\\.][0-9]{2}";
+    private static final String CODIGO = "^([0-9]\\s*[0-9]\\s*[0-9]\\s*[0-9]?)\\s+";
+
+    static final Pattern CAIXA_PATTERN_LINHA_UNICA = Pattern.compile(
+            CODIGO + "(?:(.+?)\\s+(?=([0-9]{1,2}/[0-9]{4}|" + VALOR + ")))?"
+                    + "(?:([0-9]{1,2}/[0-9]{4})\\s+)?(?:([0-9]{3})\\s+)?(" + VALOR + ")\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern CAIXA_PATTERN_SIMPLES = Pattern.compile(
+            "^([0-9]{3,4})\\s+(?:(.+?)\\s+(?=([0-9]{1,2}/[0-9]{4}|" + VALOR + ")))?"
+                    + "(?:([0-9]{1,2}/[0-9]{4})\\s+)?(?:[0-9]{3}\\s+)?(" + VALOR + ")\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern CAIXA_PATTERN_DATA_SEPARADA = CAIXA_PATTERN_LINHA_UNICA;
+    static final Pattern CAIXA_PATTERN_NATIVE = Pattern.compile(
+            CODIGO + "(?:(.+?)\\s+)?(?:([0-9]{3})\\s+)?"
+                    + "([0-9]{1,3}(?:\\.[0-9]{3})*[,\\.][0-9]{2})([0-9]{2}/[0-9]{4})\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern CAIXA_PATTERN_FLEXIVEL = Pattern.compile(
+            CODIGO + "(?:(.+?)\\s+(?=([0-9]{1,2}/[0-9]{4}|[0-9]{3}\\s+" + VALOR + "|" + VALOR + ")))?"
+                    + "(?:([0-9]{1,2}/[0-9]{4})\\s+)?(?:([0-9]{3})\\s+)?(" + VALOR + ")\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern FUNCEF_DEMONSTRATIVO_PATTERN = Pattern.compile(
+            "^(\\d{1,2}/\\d{4})\\s+(?:\\d{2}/\\d{2}/\\d{4}\\s+)?(\\d{6})\\s+(.+?)"
+                    + "\\s+(\\d{1,3}(?:\\.\\d{3})*,\\d{2})\\s+\\d{1,3}(?:\\.\\d{3})*,\\d{2}\\s+\\d+\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern FUNCEF_DEMONSTRATIVO_PATTERN_GLUED = Pattern.compile(
+            "^(.+?)\\s+(\\d{1,3}(?:\\.\\d{3})*,\\d{2})(\\d{6})(\\d{1,2}/\\d{4})"
+                    + "\\s+\\d{1,3}(?:\\.\\d{3})*,\\d{2}\\s+\\d+\\s*$",
+            Pattern.MULTILINE);
+    static final Pattern FUNCEF_PATTERN = Pattern.compile(
+            CODIGO + "([0-9]{4}/[0-9]{1,2})\\s+(.+?)\\s+(?:([0-9]{1,3})\\s+)?"
+                    + "([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*$",
+            Pattern.MULTILINE);
+
+    private final PdfNormalizer normalizer = new PdfNormalizer();
+
+    List<PdfLineParser.ParsedLine> parseLines(String pageText, DocumentType documentType) {
+        List<PdfLineParser.ParsedLine> parsedLines = new ArrayList<>();
+        if (pageText == null || pageText.trim().isEmpty()) {
+            return parsedLines;
+        }
+        List<Pattern> patternsToTry = new ArrayList<>();
+        if (documentType == DocumentType.CAIXA || documentType == DocumentType.CAIXA_FUNCEF) {
+            patternsToTry.add(CAIXA_PATTERN_LINHA_UNICA);
+            patternsToTry.add(CAIXA_PATTERN_SIMPLES);
+            patternsToTry.add(CAIXA_PATTERN_DATA_SEPARADA);
+            patternsToTry.add(CAIXA_PATTERN_NATIVE);
+            patternsToTry.add(CAIXA_PATTERN_FLEXIVEL);
+        } else if (documentType == DocumentType.FUNCEF) {
+            patternsToTry.add(FUNCEF_PATTERN);
+        } else if (documentType == DocumentType.FUNCEF_DEMONSTRATIVO) {
+            patternsToTry.add(FUNCEF_DEMONSTRATIVO_PATTERN);
+            patternsToTry.add(FUNCEF_DEMONSTRATIVO_PATTERN_GLUED);
+        }
+
+        for (String rawLine : pageText.split("\n")) {
+            String line = rawLine.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            for (Pattern pattern : patternsToTry) {
+                Matcher m = pattern.matcher(line);
+                if (!m.matches()) {
+                    continue;
+                }
+                String codigo = m.group(1).replaceAll("\\s+", "").trim();
+                String descricao;
+                String referencia;
+                String valorStr;
+                if (pattern == CAIXA_PATTERN_SIMPLES) {
+                    descricao = normalizer.normalizeDescription(m.group(2));
+                    referencia = m.group(4);
+                    valorStr = m.group(5).replaceFirst("^[A-Z]", "").trim();
+                } else if (pattern == CAIXA_PATTERN_NATIVE) {
+                    descricao = normalizer.normalizeDescription(m.group(2));
+                    valorStr = m.group(4);
+                    referencia = m.group(5);
+                } else if (pattern == CAIXA_PATTERN_LINHA_UNICA || pattern == CAIXA_PATTERN_FLEXIVEL) {
+                    descricao = normalizer.normalizeDescription(m.group(2));
+                    referencia = m.group(4);
+                    valorStr = m.group(6).replaceFirst("^[A-Z]", "").trim();
+                } else if (pattern == FUNCEF_DEMONSTRATIVO_PATTERN_GLUED) {
+                    descricao = normalizer.normalizeDescription(m.group(1));
+                    valorStr = m.group(2);
+                    codigo = m.group(3).substring(0, 4);
+                    referencia = m.group(4);
+                } else if (pattern == FUNCEF_DEMONSTRATIVO_PATTERN) {
+                    referencia = m.group(1);
+                    codigo = m.group(2).substring(0, 4);
+                    descricao = normalizer.normalizeDescription(m.group(3));
+                    valorStr = m.group(4);
+                } else {
+                    referencia = m.group(2);
+                    descricao = normalizer.normalizeDescription(m.group(3));
+                    valorStr = m.group(5);
+                }
+                if (!valorStr.isEmpty()) {
+                    parsedLines.add(new PdfLineParser.ParsedLine(codigo, descricao, referencia, valorStr));
+                }
+                break;
+            }
+        }
+        return parsedLines;
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o carregamento de um PDF vindo do GridFS pelo caminho antigo (join dos chunks em um
+ * buffer, cópia para {@code byte[]}, {@code ByteArrayInputStream} e {@code readAllBytes}) com a
+ * cópia chunk a chunk para arquivo temporário lido pelo PDFBox sob demanda. Os chunks simulam o
+ * download do GridFS (255 KB cada). Só a primeira página é extraída, para que
+ * {@code gc.alloc.rate.norm} (reportado pelo {@link GCProfiler}) reflita as cópias do arquivo e
+ * não o custo de extração, que é igual nos dois caminhos.
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*PdfGridFsLoadBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfGridFsLoadBenchmark {
+
+    private static final int GRIDFS_CHUNK_SIZE = 255 * 1024;
+
+    @Param({"60", "600"})
+    public int pages;
+
+    private final PdfServiceImpl pdfService = new PdfServiceImpl();
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws Exception {
+        pdf = SyntheticPdfFactory.caixaPayslips(pages);
+    }
+
+    private Flux<DataBuffer> downloadStream() {
+        return Flux.range(0, (pdf.length + GRIDFS_CHUNK_SIZE - 1) / GRIDFS_CHUNK_SIZE)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(pdf,
+                        i * GRIDFS_CHUNK_SIZE, Math.min(pdf.length, (i + 1) * GRIDFS_CHUNK_SIZE))));
+    }
+
+    @Benchmark
+    public void joinIntoByteArray(Blackhole bh) throws Exception {
+        DataBuffer joined = DataBufferUtils.join(downloadStream()).block();
+        byte[] copy = new byte[joined.readableByteCount()];
+        joined.read(copy);
+        DataBufferUtils.release(joined);
+        byte[] bytes;
+        try (InputStream in = new ByteArrayInputStream(copy)) {
+            bytes = in.readAllBytes();
+        }
+        try (PdfSession session = pdfService.openSession(bytes).block()) {
+            bh.consume(session.extractTextFromPage(1).block());
+        }
+    }
+
+    @Benchmark
+    public void streamToTempFile(Blackhole bh) throws Exception {
+        Path tempFile = Files.createTempFile("gridfs-bench-", ".pdf");
+        try {
+            DataBufferUtils.write(downloadStream(), tempFile).block();
+            try (PdfSession session = pdfService.openSession(tempFile).block()) {
+                bh.consume(session.extractTextFromPage(1).block());
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(PdfGridFsLoadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linhas por segundo do {@link PayslipLineScanner} contra a cascata de regex anterior
+ * ({@link LegacyPayslipRegex}, já sem os logs INFO que ela fazia por linha). Cada página tem
+ * {@value #LINHAS} linhas, metade rubricas e metade cabeçalho/rodapé; {@code gc.alloc.rate.norm}
+ * dá os bytes alocados por linha.
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*PdfLineParserBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PdfLineParserBenchmark {
+
+    static final int LINHAS = 80;
+
+    @Param({"CAIXA", "FUNCEF", "FUNCEF_DEMONSTRATIVO"})
+    public DocumentType tipo;
+
+    private final PdfLineParser parser = new PdfLineParser(new PdfNormalizer());
+    private final LegacyPayslipRegex legacy = new LegacyPayslipRegex();
+    private String pagina;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINHAS / 2; i++) {
+            sb.append("NOME: FULANO DE TAL   CPF: 123.456.789-09   AGENCIA 1234 CONTA ").append(i).append('\n');
+            sb.append(rubrica(i)).append('\n');
+        }
+        pagina = sb.toString();
+    }
+
+    private String rubrica(int i) {
+        String valor = String.format("%d.%03d,%02d", 1 + i % 9, i * 7 % 1000, i % 100);
+        return switch (tipo) {
+            case FUNCEF -> String.format("%d %03d 2016/%02d CONTRIBUICAO EXTRAORDINARIA %d %s",
+                    4, 400 + i, 1 + i % 12, 2014, valor);
+            case FUNCEF_DEMONSTRATIVO -> i % 2 == 0
+                    ? String.format("%02d/2016 4362%02d TAXA ADMINISTRATIVA - SALDADO %s 0,00 0", 1 + i % 12, i, valor)
+                    : String.format("TAXA ADMINISTRATIVA - SALDADO %s4362%02d%02d/2016 0,00 0", valor, i, 1 + i % 12);
+            default -> i % 3 == 0
+                    ? String.format("%04d RUBRICA DE TESTE NUMERO %d 001 %s%02d/2016", 2000 + i, i, valor, 1 + i % 12)
+                    : String.format("%04d RUBRICA DE TESTE NUMERO %d %02d/2016 001 %s", 2000 + i, i, 1 + i % 12, valor);
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void regex(Blackhole bh) {
+        bh.consume(legacy.parseLines(pagina, tipo));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINHAS)
+    public void scanner(Blackhole bh) {
+        bh.consume(parser.parseLines(pagina, tipo));
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(PdfLineParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.model.DocumentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * O {@link PayslipLineScanner} precisa extrair exatamente o que a cascata de regex extraía.
+ */
+@DisplayName("PdfLineParser - scanner de linhas equivalente às regex")
+class PdfLineParserParityTest {
+
+    private static final List<DocumentType> TIPOS = List.of(
+            DocumentType.CAIXA, DocumentType.FUNCEF, DocumentType.FUNCEF_DEMONSTRATIVO);
+
+    private static final String PAGINA_DOCUMENTADA = String.join("\n",
+            "CAIXA ECONOMICA FEDERAL - DEMONSTRATIVO DE PAGAMENTO",
+            "2002 SALARIO PADRAO 01/2020 7.521,00",
+            "2043 REMUNERACAO 1/3 DAS FERIAS 12/2015 001 3.097,16",
+            "4346 FUNCEF - NOVO PLANO - 01/2020 999 T48,62",
+            "1120 AC GRAT NATAL - MEDIA HORA EXTRA 12/2015 10,87",
+            "1034 AC APIP/IP - CONVERSAO 001 1.632,1301/2016",
+            "2002 SALARIO PADRAO 5.518,0001/2016",
+            "4412 FUNCEF CONTR. EQUACIONAMENTO1 SALDADO 11/2016 001 115,37",
+            "2002 SALARIO PADRAO 5.825,00",
+            "4412 115,37",
+            "  4 416 DESC   01/2016 001 5,00\r",
+            "01/2016 436204 TAXA ADMINISTRATIVA - SALDADO 57,08 0,00 0",
+            "13/2016 436404 TAXA ADM. AB. ANUAL FUNCEF - SALDADO 28,54 0,00 0",
+            "01/2016 01/01/2016 436204 TAXA 57,08 0,00 0",
+            "TAXA ADMINISTRATIVA - SALDADO 57,0843620412/2016 0,00 0",
+            "IMPOSTO RENDA FONTE (FUNCEF) 309,9543270409/2016 0,00 0",
+            "2 033 2018/01 SUPL. APOS. TEMPO CONTRIB. BENEF. SALD. 4.741,41",
+            "4 430 2018/01 CONTRIBUIÇÃO EXTRAORDINARIA 2014 131,81",
+            "4 459 2016/13 CONT. EXTRAORDINARIA ABONO ANUAL - 2014 107,77",
+            "2409 2016/01 BENEFICIO FUNCEF - IN1343 5.613,99",
+            "4437 2016/01 EMPREST. NOVO CREDINAMICO FIXO 58 1.234,56",
+            "TOTAL BRUTO: 10.000,00  TOTAL DESCONTOS: 2.000,00  LIQUIDO: 8.000,00",
+            "");
+
+    private static final String[] TOKENS = {"1", "12", "123", "1234", "001", "999", "2014", "2 033", "4 416",
+            "01/2016", "1/2016", "13/2016", "2016/01", "2018/1", "5,00", "1.000,00", "115,37", "T48,62",
+            "12.345,67", "1.632,1301/2016", "57,0843620412/2016", "0,00", "0", "58", "436204", "SALARIO",
+            "PADRAO", "-", "FUNCEF", "1/3", "A", "1.00", "1.000.00", "12/12/2016", "12,3", "X1,23", "1234,56"};
+    private static final String[] ESPACOS = {" ", " ", " ", "  ", "\t", "\r"};
+
+    private final PdfLineParser parser = new PdfLineParser(new PdfNormalizer());
+    private final LegacyPayslipRegex legacy = new LegacyPayslipRegex();
+
+    @Test
+    @DisplayName("Formatos documentados: mesmos campos das regex")
+    void formatosDocumentados() {
+        assertParidade(PAGINA_DOCUMENTADA);
+
+        List<PdfLineParser.ParsedLine> caixa = parser.parseLines(PAGINA_DOCUMENTADA, DocumentType.CAIXA);
+        PdfLineParser.ParsedLine ferias = caixa.get(1);
+        assertEquals("2043", ferias.getCodigo());
+        assertEquals("REMUNERACAO 1/3 DAS FERIAS", ferias.getDescricao());
+        assertEquals("12/2015", ferias.getReferencia());
+        assertEquals("3.097,16", ferias.getValorStr());
+        assertEquals("48,62", caixa.get(2).getValorStr());
+        assertEquals("01/2016", caixa.get(4).getReferencia());
+        assertEquals("1.632,13", caixa.get(4).getValorStr());
+        assertNull(caixa.get(8).getDescricao());
+        assertEquals("4416", caixa.get(9).getCodigo());
+
+        List<PdfLineParser.ParsedLine> glued = parser.parseLines(PAGINA_DOCUMENTADA, DocumentType.FUNCEF_DEMONSTRATIVO);
+        assertEquals(5, glued.size());
+        assertEquals("4327", glued.get(4).getCodigo());
+        assertEquals("09/2016", glued.get(4).getReferencia());
+        assertEquals("309,95", glued.get(4).getValorStr());
+    }
+
+    @Test
+    @DisplayName("Linhas geradas aleatoriamente: mesmos campos das regex")
+    void linhasAleatorias() {
+        Random random = new Random(20240617L);
+        for (int pagina = 0; pagina < 200; pagina++) {
+            StringBuilder texto = new StringBuilder();
+            for (int linha = 0; linha < 60; linha++) {
+                texto.append(linha % 2 == 0 ? linhaEstruturada(random) : linhaSolta(random)).append('\n');
+            }
+            assertParidade(texto.toString());
+        }
+    }
+
+    private void assertParidade(String pagina) {
+        for (DocumentType tipo : TIPOS) {
+            List<PdfLineParser.ParsedLine> esperado = legacy.parseLines(pagina, tipo);
+            List<PdfLineParser.ParsedLine> atual = parser.parseLines(pagina, tipo);
+            assertEquals(esperado.size(), atual.size(), () -> tipo + "\n" + pagina);
+            for (int i = 0; i < esperado.size(); i++) {
+                PdfLineParser.ParsedLine e = esperado.get(i);
+                PdfLineParser.ParsedLine a = atual.get(i);
+                String contexto = tipo + " rubrica " + i + " em\n" + pagina;
+                assertEquals(e.getCodigo(), a.getCodigo(), contexto);
+                assertEquals(e.getDescricao(), a.getDescricao(), contexto);
+                assertEquals(e.getReferencia(), a.getReferencia(), contexto);
+                assertEquals(e.getValorStr(), a.getValorStr(), contexto);
+            }
+        }
+    }
+
+    private static String linhaSolta(Random r) {
+        StringBuilder sb = new StringBuilder();
+        int n = 1 + r.nextInt(7);
+        for (int k = 0; k < n; k++) {
+            if (k > 0) {
+                sb.append(ESPACOS[r.nextInt(ESPACOS.length)]);
+            }
+            sb.append(TOKENS[r.nextInt(TOKENS.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static String linhaEstruturada(Random r) {
+        String[][] layouts = {
+                {"CODIGO", "COMPETENCIA_FUNCEF", "DESCRICAO", "PRAZO?", "VALOR"},
+                {"COMPETENCIA", "DATA?", "CODIGO6", "DESCRICAO", "VALOR", "VALOR", "PRAZO"},
+                {"DESCRICAO", "COLADO", "VALOR", "PRAZO"},
+                {"CODIGO", "DESCRICAO?", "COMPETENCIA?", "PRAZO?", "VALOR_CAIXA"},
+                {"CODIGO", "DESCRICAO?", "PRAZO?", "VALOR_COM_DATA"}};
+        StringBuilder sb = new StringBuilder();
+        for (String coluna : layouts[r.nextInt(layouts.length)]) {
+            if (coluna.endsWith("?") && r.nextBoolean()) {
+                continue;
+            }
+            String token = r.nextInt(25) == 0 ? TOKENS[r.nextInt(TOKENS.length)] : coluna(coluna.replace("?", ""), r);
+            if (!sb.isEmpty()) {
+                sb.append(r.nextInt(20) == 0 ? ESPACOS[r.nextInt(ESPACOS.length)] : " ");
+            }
+            sb.append(token);
+        }
+        return sb.toString();
+    }
+
+    private static String coluna(String tipo, Random r) {
+        return switch (tipo) {
+            case "CODIGO" -> {
+                String c = digitos(r, 3 + r.nextInt(2));
+                yield r.nextInt(4) == 0 ? c.charAt(0) + " " + c.substring(1) : c;
+            }
+            case "COMPETENCIA_FUNCEF" -> digitos(r, 4) + "/" + digitos(r, 1 + r.nextInt(2));
+            case "COMPETENCIA" -> digitos(r, 1 + r.nextInt(2)) + "/" + digitos(r, 4);
+            case "DATA" -> digitos(r, 2) + "/" + digitos(r, 2) + "/" + digitos(r, 4);
+            case "CODIGO6" -> digitos(r, 6);
+            case "PRAZO" -> digitos(r, 1 + r.nextInt(3));
+            case "VALOR" -> valor(r);
+            case "VALOR_CAIXA" -> (r.nextInt(6) == 0 ? "T" : "") + (r.nextInt(5) == 0 ? valor(r).replace(',', '.') : valor(r));
+            case "VALOR_COM_DATA" -> valor(r) + digitos(r, 2) + "/" + digitos(r, 4);
+            case "COLADO" -> valor(r) + digitos(r, 6) + digitos(r, 1 + r.nextInt(2)) + "/" + digitos(r, 4);
+            default -> linhaSolta(r);
+        };
+    }
+
+    private static String valor(Random r) {
+        StringBuilder v = new StringBuilder(digitos(r, 1 + r.nextInt(3)));
+        for (int g = r.nextInt(3); g > 0; g--) {
+            v.append('.').append(digitos(r, 3));
+        }
+        return v.append(',').append(digitos(r, 2)).toString();
+    }
+
+    private static String digitos(Random r, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) {
+            sb.append((char) ('0' + r.nextInt(10)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("PdfServiceImpl - sessão com parse único")
+class PdfServiceImplTest {
+
+    private final PdfServiceImpl pdfService = new PdfServiceImpl();
+
+    @Test
+    @DisplayName("Sessão retorna o mesmo texto por página que a extração avulsa")
+    void sessaoEquivaleAExtracaoAvulsa() throws Exception {
+        byte[] pdf = SyntheticPdfFactory.caixaPayslips(5);
+
+        try (PdfSession session = pdfService.openSession(pdf).block()) {
+            assertEquals(5, session.getTotalPages());
+            assertEquals(pdfService.getTotalPages(new ByteArrayInputStream(pdf)).block(), session.getTotalPages());
+            for (int page = 1; page <= 5; page++) {
+                String expected = pdfService.extractTextFromPage(new ByteArrayInputStream(pdf), page).block();
+                assertEquals(expected, session.extractTextFromPage(page).block());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sessão renderiza página sem recarregar o PDF")
+    void sessaoRenderizaPagina() throws Exception {
+        byte[] pdf = SyntheticPdfFactory.caixaPayslips(2);
+
+        try (PdfSession session = pdfService.openSession(pdf).block()) {
+            BufferedImage image = session.renderPage(2, 72f).block();
+            assertTrue(image.getWidth() > 0 && image.getHeight() > 0);
+            assertThrows(IllegalArgumentException.class, () -> session.renderPage(3, 72f).block());
+        }
+    }
+
+    @Test
+    @DisplayName("Sessão fechada rejeita novas leituras")
+    void sessaoFechadaRejeitaLeitura() throws Exception {
+        PdfSession session = pdfService.openSession(SyntheticPdfFactory.caixaPayslips(1)).block();
+        session.close();
+        session.close();
+
+        assertThrows(IllegalStateException.class, () -> session.extractTextFromPage(1).block());
+    }
+
+    @Test
+    @DisplayName("Sessão sobre arquivo extrai o mesmo texto e só lê os bytes sob demanda")
+    void sessaoSobreArquivo(@TempDir Path dir) throws Exception {
+        byte[] pdf = SyntheticPdfFactory.caixaPayslips(3);
+        Path file = Files.write(dir.resolve("doc.pdf"), pdf);
+
+        try (PdfSession fromBytes = pdfService.openSession(pdf).block();
+             PdfSession fromFile = pdfService.openSession(file).block()) {
+            assertEquals(fromBytes.getTotalPages(), fromFile.getTotalPages());
+            for (int page = 1; page <= 3; page++) {
+                assertEquals(fromBytes.extractTextFromPage(page).block(), fromFile.extractTextFromPage(page).block());
+            }
+            assertEquals(fromBytes.extractText().block(), fromFile.extractText().block());
+            assertArrayEquals(pdf, fromFile.getPdfBytes());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import br.com.verticelabs.pdfprocessor.domain.service.PdfSession;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a extração página a página com recarga do PDF (caminho antigo) contra uma única
+ * {@link PdfSession}. O {@link GCProfiler} reporta {@code gc.alloc.rate.norm} (bytes alocados
+ * por operação), que é a economia de heap; o tempo médio por operação reflete a CPU.
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*PdfSessionBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfSessionBenchmark {
+
+    @Param({"10", "60"})
+    public int pages;
+
+    private final PdfServiceImpl pdfService = new PdfServiceImpl();
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws Exception {
+        pdf = SyntheticPdfFactory.caixaPayslips(pages);
+    }
+
+    @Benchmark
+    public void reloadPerPage(Blackhole bh) {
+        int total = pdfService.getTotalPages(new ByteArrayInputStream(pdf)).block();
+        for (int page = 1; page <= total; page++) {
+            bh.consume(pdfService.extractTextFromPage(new ByteArrayInputStream(pdf), page).block());
+        }
+    }
+
+    @Benchmark
+    public void singleSession(Blackhole bh) {
+        try (PdfSession session = pdfService.openSession(pdf).block()) {
+            for (int page = 1; page <= session.getTotalPages(); page++) {
+                bh.consume(session.extractTextFromPage(page).block());
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(PdfSessionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
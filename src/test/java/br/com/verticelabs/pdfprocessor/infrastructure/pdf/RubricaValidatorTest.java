@@ -1,7 +1,7 @@
 package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
 
+import br.com.verticelabs.pdfprocessor.application.rubricas.RubricaCatalog;
 import br.com.verticelabs.pdfprocessor.domain.model.Rubrica;
-import br.com.verticelabs.pdfprocessor.domain.repository.RubricaRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,7 +18,7 @@ import static org.mockito.Mockito.when;
 class RubricaValidatorTest {
 
     @Mock
-    private RubricaRepository rubricaRepository;
+    private RubricaCatalog rubricaCatalog;
 
     @InjectMocks
     private RubricaValidator rubricaValidator;
@@ -31,7 +31,7 @@ class RubricaValidatorTest {
                 .descricao("REP TAXA ADMINISTRATIVA BUA NOVO PLANO")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "3396", "REP TAXA ADMINISTRATIVA BUA NOVO PLANO"))
@@ -47,7 +47,7 @@ class RubricaValidatorTest {
                 .descricao("REP TAXA ADMINISTRATIVA BUA NOVO PLANO")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "3396", "REP TAXA ADMINISTRATIVA BUA"))
@@ -62,7 +62,7 @@ class RubricaValidatorTest {
                 .descricao("FUNCEF CONTRIB EQU SALDADO 02")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("4432")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("4432")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "4432", "FUNCEF CONTR. EQUACIONAMENTO2 SALDADO"))
@@ -78,7 +78,7 @@ class RubricaValidatorTest {
                 .descricao("FUNCEF CONTRIB EQU SALDADO 02")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("4432")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("4432")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "4432", "FUNCEF CONTRIB EQU SALDADO 02"))
@@ -93,7 +93,7 @@ class RubricaValidatorTest {
                 .descricao("FUNCEF CONTRIB EQU SALDADO 02 GRT NATAL")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("4436")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("4436")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "4436", "FUNCEF CONTRIB EQU SALDADO 02 GRT NATAL"))
@@ -109,7 +109,7 @@ class RubricaValidatorTest {
                 .descricao("FUNCEF CONTRIB EQU SALDADO 02 GRT NATAL")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("4436")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("4436")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "4436", "FUNCEF CONTR. EQUACIONAMENTO2 SALDADO"))
@@ -124,7 +124,7 @@ class RubricaValidatorTest {
                 .descricao("CONTRIBUIÇÃO EXTRAORDINÁRIA ABONO ANUAL 2015")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("4482")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("4482")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "4482", "QUALQUER TEXTO EXTRAIDO"))
@@ -140,7 +140,7 @@ class RubricaValidatorTest {
                 .descricao("REP TAXA ADMINISTRATIVA BUA NOVO PLANO")
                 .ativo(true)
                 .build();
-        when(rubricaRepository.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
+        when(rubricaCatalog.findByCodigo("3396")).thenReturn(Mono.just(rubrica));
 
         StepVerifier.create(rubricaValidator.validateRubrica(
                         "3396", "  rep taxa administrativa bua novo plano  "))
@@ -0,0 +1,53 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.pdf;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Gera PDFs sintéticos no formato de contracheque CAIXA (uma competência por página)
+ * para testes e benchmarks que não podem depender dos PDFs reais de clientes.
+ */
+final class SyntheticPdfFactory {
+
+    private SyntheticPdfFactory() {
+    }
+
+    static byte[] caixaPayslips(int pages) throws IOException {
+        try (PDDocument document = new PDDocument();
+             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                int mes = (i % 12) + 1;
+                int ano = 2016 + (i / 12);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14f);
+                    content.newLineAtOffset(40, 800);
+                    content.showText("CAIXA ECONOMICA FEDERAL - DEMONSTRATIVO DE PAGAMENTO");
+                    content.newLine();
+                    content.showText(String.format("NOME: FULANO DE TAL   CPF: 123.456.789-09   COMPETENCIA: %02d/%d", mes, ano));
+                    content.newLine();
+                    for (int r = 0; r < 30; r++) {
+                        content.showText(String.format("%04d RUBRICA DE TESTE NUMERO %d %02d/%d 1.%03d,%02d",
+                                2000 + r, r, mes, ano, r * 7, r));
+                        content.newLine();
+                    }
+                    content.showText("TOTAL BRUTO: 10.000,00  TOTAL DESCONTOS: 2.000,00  LIQUIDO: 8.000,00");
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
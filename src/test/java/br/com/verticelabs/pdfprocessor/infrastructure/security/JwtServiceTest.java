@@ -0,0 +1,82 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("JwtService - verificação única e cache de tokens verificados")
+class JwtServiceTest {
+
+    static final String SECRET = "segredo-de-teste-com-pelo-menos-256-bits-para-hmac-sha";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, 60_000, 120_000, 100, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("verify devolve userId, tenantId e roles em um único parse")
+    void verifyExtraiClaims() {
+        String token = jwtService.generateToken("user-1", "a@b.com", "t1", Set.of("TENANT_ADMIN"));
+
+        VerifiedToken verified = jwtService.verify(token).orElseThrow();
+
+        assertEquals("user-1", verified.userId());
+        assertEquals("t1", verified.tenantId());
+        assertEquals(List.of("TENANT_ADMIN"), verified.roles());
+        assertEquals(jwtService.extractJti(token), verified.jti());
+    }
+
+    @Test
+    @DisplayName("Segunda verificação do mesmo token vem do cache")
+    void segundaVerificacaoVemDoCache() {
+        String token = jwtService.generateToken("user-1", "a@b.com", "t1", Set.of("USER"));
+
+        VerifiedToken first = jwtService.verify(token).orElseThrow();
+        VerifiedToken second = jwtService.verify(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("jwt.verified.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("jwt.verified.cache").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Token adulterado, de outra chave ou expirado é rejeitado")
+    void rejeitaTokensInvalidos() {
+        String token = jwtService.generateToken("user-1", "a@b.com", "t1", Set.of("USER"));
+        JwtService outraChave = new JwtService(SECRET.replace('s', 'x'), 60_000, 120_000, 100,
+                new SimpleMeterRegistry());
+        JwtService expirado = new JwtService(SECRET, -1_000, 120_000, 100, new SimpleMeterRegistry());
+
+        assertEquals(Optional.empty(), jwtService.verify(token.substring(0, token.length() - 2) + "xx"));
+        assertEquals(Optional.empty(), outraChave.verify(token));
+        assertEquals(Optional.empty(), jwtService.verify(
+                expirado.generateToken("user-1", "a@b.com", "t1", Set.of("USER"))));
+        assertEquals(Optional.empty(), jwtService.verify("não-é-um-jwt"));
+    }
+
+    @Test
+    @DisplayName("Cache cheio: token continua válido, apenas não é cacheado")
+    void cacheCheioNaoImpedeVerificacao() {
+        JwtService pequeno = new JwtService(SECRET, 60_000, 120_000, 1, meterRegistry);
+        String a = pequeno.generateToken("user-a", "a@b.com", "t1", Set.of("USER"));
+        String b = pequeno.generateToken("user-b", "b@b.com", "t1", Set.of("USER"));
+
+        assertTrue(pequeno.verify(a).isPresent());
+        assertEquals("user-b", pequeno.verify(b).orElseThrow().userId());
+        assertEquals("user-b", pequeno.verify(b).orElseThrow().userId());
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compara a autenticação de um request no caminho antigo (isTokenValid + extractUsername +
+ * extractTenantId + extractRoles, cada um com parse/HMAC e chave recriada) contra
+ * {@link JwtService#verify} sem cache (um parse) e com cache (token quente de polling).
+ *
+ * <p>Executar com {@code RUN_BENCHMARKS=true ./gradlew test --tests '*JwtVerificationBenchmark'}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtVerificationBenchmark {
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtService(JwtServiceTest.SECRET, 3_600_000, 7_200_000, 10_000, new SimpleMeterRegistry());
+        uncached = new JwtService(JwtServiceTest.SECRET, 3_600_000, 7_200_000, 0, new SimpleMeterRegistry());
+        token = cached.generateToken("user-1", "a@b.com", "tenant-1", Set.of("TENANT_ADMIN", "USER"));
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole bh) {
+        bh.consume(legacyClaim(token, Claims::getExpiration).before(new Date()));
+        bh.consume(legacyClaim(token, Claims::getSubject));
+        bh.consume(legacyClaim(token, claims -> claims.get("tenantId", String.class)));
+        bh.consume(legacyClaim(token, claims -> claims.get("roles")));
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole bh) {
+        bh.consume(uncached.verify(token));
+    }
+
+    @Benchmark
+    public void cachedVerify(Blackhole bh) {
+        bh.consume(cached.verify(token));
+    }
+
+    private static <T> T legacyClaim(String token, Function<Claims, T> resolver) {
+        Claims claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(JwtServiceTest.SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        return resolver.apply(claims);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+    void run() throws Exception {
+        // forks(0): o worker de teste do Gradle não expõe o classpath completo para um fork do JMH
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(0)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).run();
+    }
+}
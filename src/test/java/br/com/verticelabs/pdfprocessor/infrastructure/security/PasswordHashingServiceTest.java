@@ -0,0 +1,133 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.security;
+
+import br.com.verticelabs.pdfprocessor.domain.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("PasswordHashingService - pool limitado, fila com timeout e 429")
+class PasswordHashingServiceTest {
+
+    private static final long MB = 1024L * 1024;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService service;
+
+    /**
+     * Encoder que segura a thread até o teste liberar, para encher o pool de forma determinística.
+     */
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword + ":" + Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).startsWith(encodedPassword);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("auth.password.hash.rejected").tag("reason", reason).functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Hash roda no pool dedicado, não na thread de quem chama")
+    void rodaNoPoolDedicado() {
+        service = new PasswordHashingService(blockingEncoder, 1, 25, 4, Duration.ofSeconds(2), meterRegistry);
+        release.countDown();
+
+        StepVerifier.create(service.encode("segredo"))
+                .assertNext(hash -> assertTrue(hash.endsWith("password-hash-1"), hash))
+                .verifyComplete();
+        StepVerifier.create(service.matches("segredo", "hash:segredo"))
+                .expectNext(true)
+                .verifyComplete();
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count()
+                + meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Fila cheia responde 429 na hora")
+    void filaCheia() throws InterruptedException {
+        service = new PasswordHashingService(blockingEncoder, 1, 25, 1, Duration.ofSeconds(2), meterRegistry);
+
+        Mono<String> running = service.encode("a");
+        running.subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Mono<String> queued = service.encode("b");
+        queued.subscribe();
+
+        StepVerifier.create(service.encode("c"))
+                .expectError(TooManyRequestsException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals(1, rejected("queue_full"));
+    }
+
+    @Test
+    @DisplayName("Pedido que esperou mais que max-wait na fila responde 429 sem calcular o hash")
+    void esperaMaxima() throws InterruptedException {
+        service = new PasswordHashingService(blockingEncoder, 1, 25, 4, Duration.ofMillis(50), meterRegistry);
+
+        service.encode("a").subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Mono<String> queued = service.encode("b");
+
+        StepVerifier.create(queued)
+                .then(() -> {
+                    try {
+                        Thread.sleep(150);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    release.countDown();
+                })
+                .expectError(TooManyRequestsException.class)
+                .verify(Duration.ofSeconds(5));
+        assertEquals(1, rejected("wait_timeout"));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    @DisplayName("Threads dimensionadas pela memória (64 MB por hash) e limitadas às CPUs")
+    void dimensionamento() {
+        service = new PasswordHashingService(blockingEncoder, 1, 25, 1, Duration.ofSeconds(1), meterRegistry);
+
+        // 25% de 1 GiB = 256 MB → 4 hashes de 64 MB
+        assertEquals(4, PasswordHashingService.permitsFor(1024 * MB, 25, 8));
+        assertEquals(2, PasswordHashingService.permitsFor(1024 * MB, 25, 2));
+        assertEquals(1, PasswordHashingService.permitsFor(128 * MB, 25, 8));
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.storage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.multipart.FilePart;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UploadSpooler - recepção do upload com hash em passada única")
+class UploadSpoolerTest {
+
+    @Mock
+    private FilePart filePart;
+
+    private final UploadSpooler spooler = new UploadSpooler();
+
+    private static Flux<DataBuffer> chunks(byte[] content, int chunkSize) {
+        return Flux.range(0, (content.length + chunkSize - 1) / chunkSize)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(content,
+                        i * chunkSize, Math.min(content.length, (i + 1) * chunkSize))));
+    }
+
+    @Test
+    @DisplayName("Grava o arquivo e calcula o SHA-256 igual ao do conteúdo completo")
+    void hashIncremental() throws Exception {
+        byte[] content = new byte[300_000];
+        new Random(42).nextBytes(content);
+        when(filePart.content()).thenReturn(chunks(content, 8_192));
+        when(filePart.filename()).thenReturn("contracheque.pdf");
+
+        UploadSpooler.SpooledUpload upload = spooler.spool(filePart).block();
+        try {
+            String esperado = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            assertEquals(esperado, upload.sha256());
+            assertEquals(content.length, upload.size());
+            assertArrayEquals(content, Files.readAllBytes(upload.path()));
+        } finally {
+            spooler.delete(upload.path()).block();
+        }
+        assertFalse(Files.exists(upload.path()));
+    }
+
+    @Test
+    @DisplayName("Falha no recebimento propaga o erro")
+    void falhaNoRecebimento() {
+        when(filePart.content()).thenReturn(Flux.concat(chunks(new byte[1_000], 100),
+                Flux.error(new IllegalStateException("conexão encerrada"))));
+
+        assertThrows(IllegalStateException.class, () -> spooler.spool(filePart).block());
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ReactiveSemaphore - vagas com fila sem ocupar thread")
+class ReactiveSemaphoreTest {
+
+    @Test
+    @DisplayName("Sem vaga espera na fila; a vaga liberada passa para o primeiro da fila")
+    void vagaPassaParaAFila() {
+        ReactiveSemaphore semaphore = new ReactiveSemaphore(1, 1);
+        ReactiveSemaphore.Permit primeiro = new ReactiveSemaphore.Permit();
+        ReactiveSemaphore.Permit segundo = new ReactiveSemaphore.Permit();
+
+        StepVerifier.create(semaphore.acquire(primeiro)).verifyComplete();
+        AtomicBoolean obtida = new AtomicBoolean();
+        semaphore.acquire(segundo).subscribe(null, null, () -> obtida.set(true));
+        assertFalse(obtida.get());
+        assertEquals(1, semaphore.queued());
+
+        semaphore.release(primeiro);
+
+        assertTrue(obtida.get());
+        assertEquals(1, semaphore.active());
+        assertEquals(0, semaphore.queued());
+        semaphore.release(segundo);
+        assertEquals(0, semaphore.active());
+    }
+
+    @Test
+    @DisplayName("Fila cheia recusa na hora")
+    void filaCheia() {
+        ReactiveSemaphore semaphore = new ReactiveSemaphore(1, 0);
+        StepVerifier.create(semaphore.acquire(new ReactiveSemaphore.Permit())).verifyComplete();
+
+        StepVerifier.create(semaphore.acquire(new ReactiveSemaphore.Permit()))
+                .expectError(RejectedExecutionException.class)
+                .verify();
+        assertEquals(1, semaphore.active());
+    }
+
+    @Test
+    @DisplayName("Quem desiste antes da vaga sai da fila sem consumir vaga")
+    void desistenciaNaFila() {
+        ReactiveSemaphore semaphore = new ReactiveSemaphore(1, 1);
+        ReactiveSemaphore.Permit primeiro = new ReactiveSemaphore.Permit();
+        ReactiveSemaphore.Permit desistente = new ReactiveSemaphore.Permit();
+        StepVerifier.create(semaphore.acquire(primeiro)).verifyComplete();
+
+        Disposable espera = semaphore.acquire(desistente).subscribe();
+        espera.dispose();
+        semaphore.release(desistente);
+        semaphore.release(primeiro);
+
+        assertEquals(0, semaphore.active());
+        assertEquals(0, semaphore.queued());
+    }
+}
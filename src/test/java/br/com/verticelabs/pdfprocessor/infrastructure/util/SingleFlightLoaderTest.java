@@ -0,0 +1,72 @@
+package br.com.verticelabs.pdfprocessor.infrastructure.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("SingleFlightLoader - snapshot com carga única compartilhada")
+class SingleFlightLoaderTest {
+
+    @Test
+    @DisplayName("Chamadas concorrentes compartilham a mesma carga")
+    void cargaCompartilhada() {
+        AtomicInteger cargas = new AtomicInteger();
+        Sinks.One<String> resultado = Sinks.one();
+        SingleFlightLoader<String> loader = new SingleFlightLoader<>(() -> {
+            cargas.incrementAndGet();
+            return resultado.asMono();
+        });
+
+        Mono<String> primeira = loader.get();
+        Mono<String> segunda = loader.get();
+        primeira.subscribe();
+        segunda.subscribe();
+        resultado.tryEmitValue("v1");
+
+        assertEquals(1, cargas.get());
+        assertEquals("v1", loader.current());
+    }
+
+    @Test
+    @DisplayName("Carga iniciada antes de refresh() não sobrescreve o snapshot recarregado")
+    void cargaAntigaDescartada() {
+        Sinks.One<String> antiga = Sinks.one();
+        AtomicInteger cargas = new AtomicInteger();
+        SingleFlightLoader<String> loader = new SingleFlightLoader<>(() ->
+                cargas.getAndIncrement() == 0 ? antiga.asMono() : Mono.just("nova"));
+
+        loader.loadShared().subscribe();
+        StepVerifier.create(loader.refresh())
+                .expectNext("nova")
+                .verifyComplete();
+        antiga.tryEmitValue("antiga");
+
+        assertEquals("nova", loader.current());
+    }
+
+    @Test
+    @DisplayName("update() altera o snapshot carregado e vence cargas anteriores")
+    void updateVenceCargaAnterior() {
+        Sinks.One<String> recarga = Sinks.one();
+        AtomicInteger cargas = new AtomicInteger();
+        SingleFlightLoader<String> loader = new SingleFlightLoader<>(() ->
+                cargas.getAndIncrement() == 0 ? Mono.just("v1") : recarga.asMono());
+
+        loader.update(valor -> valor + "-alterado");
+        assertNull(loader.current());
+
+        StepVerifier.create(loader.get()).expectNext("v1").verifyComplete();
+        loader.loadShared().subscribe();
+        loader.update(valor -> valor + "-alterado");
+        recarga.tryEmitValue("v0");
+
+        assertEquals("v1-alterado", loader.current());
+    }
+}